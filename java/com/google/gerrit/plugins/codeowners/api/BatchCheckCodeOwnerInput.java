@@ -0,0 +1,43 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.api;
+
+import java.util.List;
+
+/**
+ * The input for the {@link com.google.gerrit.plugins.codeowners.restapi.BatchCheckCodeOwner} REST
+ * endpoint.
+ */
+public class BatchCheckCodeOwnerInput {
+  /** Emails for which the code ownership should be checked. */
+  public List<String> emails;
+
+  /** Paths for which the code ownership should be checked. */
+  public List<String> paths;
+
+  /**
+   * Change for which permissions should be checked.
+   *
+   * <p>If not specified change permissions are not checked.
+   */
+  public String change;
+
+  /**
+   * User for which the code owner visibility should be checked.
+   *
+   * <p>If not specified the code owner visibility is not checked.
+   */
+  public String user;
+}
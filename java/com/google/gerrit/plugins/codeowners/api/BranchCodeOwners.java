@@ -18,6 +18,7 @@ import com.google.gerrit.common.Nullable;
 import com.google.gerrit.extensions.restapi.NotImplementedException;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Branch-level Java API of the code-owners plugin.
@@ -171,6 +172,63 @@ public interface BranchCodeOwners {
     public abstract CodeOwnerCheckInfo check() throws RestApiException;
   }
 
+  /**
+   * Checks the code ownership of multiple users for multiple paths in a branch.
+   *
+   * @return the check results by path and email
+   */
+  Map<String, Map<String, CodeOwnerCheckInfo>> batchCheckCodeOwner(BatchCheckCodeOwnerInput input)
+      throws RestApiException;
+
+  /** Returns the code owner coverage of the branch. */
+  CodeOwnerCoverageInfo getCoverage() throws RestApiException;
+
+  /**
+   * Create a request to retrieve the code owner config files that import a code owner config file
+   * of the branch.
+   */
+  ImportingCodeOwnerConfigFilesRequest importingCodeOwnerConfigFiles() throws RestApiException;
+
+  /** Request to retrieve the code owner config files that import a code owner config file. */
+  abstract class ImportingCodeOwnerConfigFilesRequest {
+    private String path;
+    private boolean transitive;
+
+    /**
+     * Sets the path of the code owner config file for which the importing code owner config files
+     * should be retrieved.
+     *
+     * @param path the path of the imported code owner config file
+     */
+    public ImportingCodeOwnerConfigFilesRequest path(String path) {
+      this.path = path;
+      return this;
+    }
+
+    /** Returns the path of the imported code owner config file. */
+    @Nullable
+    public String getPath() {
+      return path;
+    }
+
+    /**
+     * Includes code owner config files that import the code owner config file indirectly into the
+     * result.
+     */
+    public ImportingCodeOwnerConfigFilesRequest transitive(boolean transitive) {
+      this.transitive = transitive;
+      return this;
+    }
+
+    /** Whether code owner config files that import indirectly should be included. */
+    public boolean getTransitive() {
+      return transitive;
+    }
+
+    /** Executes the request and retrieves the importing code owner config files. */
+    public abstract List<CodeOwnerConfigFileInfo> get() throws RestApiException;
+  }
+
   /**
    * A default implementation which allows source compatibility when adding new methods to the
    * interface.
@@ -196,5 +254,22 @@ public interface BranchCodeOwners {
     public CodeOwnerCheckRequest checkCodeOwner() throws RestApiException {
       throw new NotImplementedException();
     }
+
+    @Override
+    public Map<String, Map<String, CodeOwnerCheckInfo>> batchCheckCodeOwner(
+        BatchCheckCodeOwnerInput input) throws RestApiException {
+      throw new NotImplementedException();
+    }
+
+    @Override
+    public CodeOwnerCoverageInfo getCoverage() throws RestApiException {
+      throw new NotImplementedException();
+    }
+
+    @Override
+    public ImportingCodeOwnerConfigFilesRequest importingCodeOwnerConfigFiles()
+        throws RestApiException {
+      throw new NotImplementedException();
+    }
   }
 }
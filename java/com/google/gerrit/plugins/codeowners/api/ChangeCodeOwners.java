@@ -27,6 +27,12 @@ public interface ChangeCodeOwners {
   /** Creates a request to retrieve the code owner status for the files in the change. */
   CodeOwnerStatusRequest getCodeOwnerStatus() throws RestApiException;
 
+  /**
+   * Retrieves the code owner summary for the change (branch config, code owner statuses and the
+   * files that are owned by the calling user).
+   */
+  CodeOwnersSummaryInfo getSummary() throws RestApiException;
+
   /** Returns the revision-level code owners API for the current revision. */
   default RevisionCodeOwners current() throws RestApiException {
     return revision("current");
@@ -92,6 +98,11 @@ public interface ChangeCodeOwners {
       throw new NotImplementedException();
     }
 
+    @Override
+    public CodeOwnersSummaryInfo getSummary() {
+      throw new NotImplementedException();
+    }
+
     @Override
     public RevisionCodeOwners revision(String id) throws RestApiException {
       throw new NotImplementedException();
@@ -0,0 +1,48 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON entity that describes the code owner coverage of a branch.
+ *
+ * <p>A file is covered if it has at least one code owner. Files that are not covered fall back to
+ * the fallback code owners.
+ */
+public class CodeOwnerCoverageInfo {
+  /** The revision of the branch for which the coverage was computed. */
+  public String revision;
+
+  /** The number of files in the branch. */
+  public Integer files;
+
+  /** The number of files in the branch that fall back to the fallback code owners. */
+  public Integer uncoveredFiles;
+
+  /**
+   * The folders that contain files that fall back to the fallback code owners, sorted by path.
+   *
+   * <p>Only files that are directly contained in a folder are counted for the folder.
+   */
+  public List<FolderCoverageInfo> uncoveredFolders;
+
+  /**
+   * Histogram that maps a number of code owners to the number of folders that have this many
+   * distinct code owners for the files that they directly contain.
+   */
+  public Map<Integer, Integer> codeOwnersPerFolder;
+}
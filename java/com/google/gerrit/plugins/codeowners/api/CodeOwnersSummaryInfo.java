@@ -0,0 +1,41 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.api;
+
+/**
+ * JSON entity that describes the response of the {@link
+ * com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnersSummary} REST endpoint.
+ */
+public class CodeOwnersSummaryInfo {
+  /** The code owner configuration of the destination branch of the change. */
+  public CodeOwnerBranchConfigInfo branchConfig;
+
+  /**
+   * The code owner statuses for all files in the current revision of the change.
+   *
+   * <p>Not set if {@link CodeOwnerBranchConfigInfo#disabled} is {@code true} for the {@link
+   * #branchConfig}.
+   */
+  public CodeOwnerStatusInfo status;
+
+  /**
+   * The files in the current revision of the change that are owned by the calling user or by a
+   * reviewer.
+   *
+   * <p>Not set if the calling user is not signed in or if {@link
+   * CodeOwnerBranchConfigInfo#disabled} is {@code true} for the {@link #branchConfig}.
+   */
+  public OwnedPathsInfo ownedPaths;
+}
@@ -0,0 +1,30 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.api;
+
+/** JSON entity that describes the code owner coverage of the files in a folder. */
+public class FolderCoverageInfo {
+  /** The absolute path of the folder. */
+  public String path;
+
+  /** The number of files that are directly contained in the folder. */
+  public Integer files;
+
+  /**
+   * The number of files that are directly contained in the folder and fall back to the fallback
+   * code owners.
+   */
+  public Integer uncoveredFiles;
+}
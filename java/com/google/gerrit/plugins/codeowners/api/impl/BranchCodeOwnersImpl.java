@@ -17,20 +17,27 @@ package com.google.gerrit.plugins.codeowners.api.impl;
 import static com.google.gerrit.server.api.ApiUtil.asRestApiException;
 
 import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.plugins.codeowners.api.BatchCheckCodeOwnerInput;
 import com.google.gerrit.plugins.codeowners.api.BranchCodeOwners;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerBranchConfigInfo;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerCheckInfo;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerConfigFileInfo;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCoverageInfo;
 import com.google.gerrit.plugins.codeowners.api.RenameEmailInput;
 import com.google.gerrit.plugins.codeowners.api.RenameEmailResultInfo;
+import com.google.gerrit.plugins.codeowners.restapi.BatchCheckCodeOwner;
 import com.google.gerrit.plugins.codeowners.restapi.CheckCodeOwner;
 import com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnerBranchConfig;
 import com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnerConfigFiles;
+import com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnerCoverage;
+import com.google.gerrit.plugins.codeowners.restapi.GetImportingCodeOwnerConfigFiles;
 import com.google.gerrit.plugins.codeowners.restapi.RenameEmail;
 import com.google.gerrit.server.project.BranchResource;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.assistedinject.Assisted;
 import java.util.List;
+import java.util.Map;
 
 /** Implementation of the {@link BranchCodeOwners} API. */
 public class BranchCodeOwnersImpl implements BranchCodeOwners {
@@ -42,6 +49,10 @@ public class BranchCodeOwnersImpl implements BranchCodeOwners {
   private final Provider<GetCodeOwnerConfigFiles> getCodeOwnerConfigFilesProvider;
   private final RenameEmail renameEmail;
   private final Provider<CheckCodeOwner> checkCodeOwnerProvider;
+  private final BatchCheckCodeOwner batchCheckCodeOwner;
+  private final GetCodeOwnerCoverage getCodeOwnerCoverage;
+  private final Provider<GetImportingCodeOwnerConfigFiles>
+      getImportingCodeOwnerConfigFilesProvider;
   private final BranchResource branchResource;
 
   @Inject
@@ -50,11 +61,17 @@ public class BranchCodeOwnersImpl implements BranchCodeOwners {
       Provider<GetCodeOwnerConfigFiles> getCodeOwnerConfigFilesProvider,
       RenameEmail renameEmail,
       Provider<CheckCodeOwner> checkCodeOwnerProvider,
+      BatchCheckCodeOwner batchCheckCodeOwner,
+      GetCodeOwnerCoverage getCodeOwnerCoverage,
+      Provider<GetImportingCodeOwnerConfigFiles> getImportingCodeOwnerConfigFilesProvider,
       @Assisted BranchResource branchResource) {
     this.getCodeOwnerConfigFilesProvider = getCodeOwnerConfigFilesProvider;
     this.getCodeOwnerBranchConfig = getCodeOwnerBranchConfig;
     this.renameEmail = renameEmail;
     this.checkCodeOwnerProvider = checkCodeOwnerProvider;
+    this.batchCheckCodeOwner = batchCheckCodeOwner;
+    this.getCodeOwnerCoverage = getCodeOwnerCoverage;
+    this.getImportingCodeOwnerConfigFilesProvider = getImportingCodeOwnerConfigFilesProvider;
     this.branchResource = branchResource;
   }
 
@@ -109,4 +126,38 @@ public class BranchCodeOwnersImpl implements BranchCodeOwners {
       }
     };
   }
+
+  @Override
+  public Map<String, Map<String, CodeOwnerCheckInfo>> batchCheckCodeOwner(
+      BatchCheckCodeOwnerInput input) throws RestApiException {
+    try {
+      return batchCheckCodeOwner.apply(branchResource, input).value();
+    } catch (Exception e) {
+      throw asRestApiException("Cannot check code owners", e);
+    }
+  }
+
+  @Override
+  public CodeOwnerCoverageInfo getCoverage() throws RestApiException {
+    try {
+      return getCodeOwnerCoverage.apply(branchResource).value();
+    } catch (Exception e) {
+      throw asRestApiException("Cannot get code owner coverage", e);
+    }
+  }
+
+  @Override
+  public ImportingCodeOwnerConfigFilesRequest importingCodeOwnerConfigFiles()
+      throws RestApiException {
+    return new ImportingCodeOwnerConfigFilesRequest() {
+      @Override
+      public List<CodeOwnerConfigFileInfo> get() throws RestApiException {
+        GetImportingCodeOwnerConfigFiles getImportingCodeOwnerConfigFiles =
+            getImportingCodeOwnerConfigFilesProvider.get();
+        getImportingCodeOwnerConfigFiles.setPath(getPath());
+        getImportingCodeOwnerConfigFiles.setTransitive(getTransitive());
+        return getImportingCodeOwnerConfigFiles.apply(branchResource).value();
+      }
+    };
+  }
 }
@@ -20,8 +20,10 @@ import com.google.gerrit.extensions.restapi.IdString;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import com.google.gerrit.plugins.codeowners.api.ChangeCodeOwners;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerStatusInfo;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnersSummaryInfo;
 import com.google.gerrit.plugins.codeowners.api.RevisionCodeOwners;
 import com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnersSummary;
 import com.google.gerrit.server.change.ChangeResource;
 import com.google.gerrit.server.change.RevisionResource;
 import com.google.gerrit.server.restapi.change.Revisions;
@@ -39,16 +41,19 @@ public class ChangeCodeOwnersImpl implements ChangeCodeOwners {
   private final RevisionCodeOwnersImpl.Factory revisionCodeOwnersApi;
   private final ChangeResource changeResource;
   private final Provider<GetCodeOwnerStatus> getCodeOwnerStatusProvider;
+  private final GetCodeOwnersSummary getCodeOwnersSummary;
 
   @Inject
   public ChangeCodeOwnersImpl(
       Revisions revisions,
       RevisionCodeOwnersImpl.Factory revisionCodeOwnersApi,
       Provider<GetCodeOwnerStatus> getCodeOwnerStatusProvider,
+      GetCodeOwnersSummary getCodeOwnersSummary,
       @Assisted ChangeResource changeResource) {
     this.revisions = revisions;
     this.revisionCodeOwnersApi = revisionCodeOwnersApi;
     this.getCodeOwnerStatusProvider = getCodeOwnerStatusProvider;
+    this.getCodeOwnersSummary = getCodeOwnersSummary;
     this.changeResource = changeResource;
   }
 
@@ -69,6 +74,15 @@ public class ChangeCodeOwnersImpl implements ChangeCodeOwners {
     };
   }
 
+  @Override
+  public CodeOwnersSummaryInfo getSummary() throws RestApiException {
+    try {
+      return getCodeOwnersSummary.apply(changeResource).value();
+    } catch (Exception e) {
+      throw asRestApiException("Cannot get code owners summary", e);
+    }
+  }
+
   @Override
   public RevisionCodeOwners revision(String id) throws RestApiException {
     try {
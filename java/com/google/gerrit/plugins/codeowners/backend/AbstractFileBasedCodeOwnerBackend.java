@@ -56,6 +56,7 @@ public abstract class AbstractFileBasedCodeOwnerBackend implements CodeOwnerBack
 
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final GitRepositoryManager repoManager;
+  private final RepositoryContext repositoryContext;
   private final ProjectCache projectCache;
   private final PersonIdent serverIdent;
   private final MetaDataUpdate.InternalFactory metaDataUpdateInternalFactory;
@@ -67,6 +68,7 @@ public abstract class AbstractFileBasedCodeOwnerBackend implements CodeOwnerBack
   protected AbstractFileBasedCodeOwnerBackend(
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
       GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
       ProjectCache projectCache,
       @GerritPersonIdent PersonIdent serverIdent,
       MetaDataUpdate.InternalFactory metaDataUpdateInternalFactory,
@@ -76,6 +78,7 @@ public abstract class AbstractFileBasedCodeOwnerBackend implements CodeOwnerBack
       CodeOwnerConfigParser codeOwnerConfigParser) {
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.repoManager = repoManager;
+    this.repositoryContext = repositoryContext;
     this.projectCache = projectCache;
     this.serverIdent = serverIdent;
     this.metaDataUpdateInternalFactory = metaDataUpdateInternalFactory;
@@ -110,13 +113,14 @@ public abstract class AbstractFileBasedCodeOwnerBackend implements CodeOwnerBack
 
   private CodeOwnerConfigFile loadCodeOwnerConfigFile(
       CodeOwnerConfig.Key codeOwnerConfigKey, String fileName, @Nullable ObjectId revision) {
-    try (Repository repository = repoManager.openRepository(codeOwnerConfigKey.project())) {
+    try (Repository repository =
+        repositoryContext.openRepository(codeOwnerConfigKey.project())) {
       if (revision == null) {
         return codeOwnerConfigFileFactory.loadCurrent(
             fileName, codeOwnerConfigParser, repository, codeOwnerConfigKey);
       }
 
-      try (RevWalk revWalk = new RevWalk(repository)) {
+      try (RevWalk revWalk = repositoryContext.newRevWalk(repository)) {
         return codeOwnerConfigFileFactory.load(
             fileName, codeOwnerConfigParser, revWalk, revision, codeOwnerConfigKey);
       }
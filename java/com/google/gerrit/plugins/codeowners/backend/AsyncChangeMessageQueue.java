@@ -0,0 +1,414 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.CHANGE_MODIFICATION;
+import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.PLUGIN;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.RegistrationHandle;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.ChangeMessagesUtil;
+import com.google.gerrit.server.CurrentUser;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.update.BatchUpdate;
+import com.google.gerrit.server.update.BatchUpdateOp;
+import com.google.gerrit.server.update.ChangeContext;
+import com.google.gerrit.server.update.RetryHelper;
+import com.google.gerrit.server.update.context.RefUpdateContext;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Background queue to post the change messages that the code-owners plugin adds asynchronously
+ * (e.g. when a code owner is added as a reviewer or when a code owner approval is applied).
+ *
+ * <p>The queue uses a dedicated thread pool, so that posting these change messages doesn't compete
+ * with the background work of Gerrit core. The size of the thread pool is configured by {@code
+ * plugin.code-owners.asyncMessageThreads}.
+ *
+ * <p>The queue is coalescing: Change messages are held back for {@code
+ * plugin.code-owners.asyncMessageCoalescingWindow}. Further change messages for the same change
+ * that are scheduled by the same user with the same tag during this time are coalesced with the
+ * pending change message, so that they are posted as a single change message by a single {@link
+ * BatchUpdate}. This way bursty review activity (e.g. bots that add reviewers one by one) doesn't
+ * create one NoteDb commit per event.
+ *
+ * <p>When the queue is stopped (e.g. on plugin reload or server shutdown), the pending change
+ * messages are posted right away, rather than being dropped. Change messages that could not be
+ * posted within {@link #STOP_TIMEOUT} are dropped and their number is logged.
+ */
+@Singleton
+public class AsyncChangeMessageQueue implements LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String QUEUE_NAME = "CodeOwnersChangeMessages";
+
+  /** Maximum time that stopping the queue waits for pending change messages to be posted. */
+  private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+  public static class AsyncChangeMessageQueueModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(AsyncChangeMessageQueue.class);
+    }
+  }
+
+  /** Builds (a part of) a change message when the change message is posted. */
+  @FunctionalInterface
+  public interface MessageBuilder {
+    /**
+     * Builds the change message.
+     *
+     * @param ctx the context of the change update that posts the change message
+     * @return the change message, {@link Optional#empty()} if no change message should be posted
+     */
+    Optional<String> buildMessage(ChangeContext ctx) throws Exception;
+  }
+
+  private final WorkQueue workQueue;
+  private final OneOffRequestContext oneOffRequestContext;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final RetryHelper retryHelper;
+  private final ChangeMessagesUtil changeMessageUtil;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  /** Change messages that are waiting to be posted. */
+  private final Map<PendingMessageKey, PendingMessage> pendingMessages = new HashMap<>();
+
+  @Nullable private ScheduledExecutorService executor;
+  @Nullable private RegistrationHandle queueDepthMetric;
+  private Duration coalescingWindow = Duration.ZERO;
+
+  @Inject
+  AsyncChangeMessageQueue(
+      WorkQueue workQueue,
+      OneOffRequestContext oneOffRequestContext,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      RetryHelper retryHelper,
+      ChangeMessagesUtil changeMessageUtil,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    this.workQueue = workQueue;
+    this.oneOffRequestContext = oneOffRequestContext;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.retryHelper = retryHelper;
+    this.changeMessageUtil = changeMessageUtil;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  @Override
+  public synchronized void start() {
+    executor =
+        workQueue.createQueue(
+            codeOwnersPluginConfiguration.getGlobalConfig().getAsyncMessageThreads(), QUEUE_NAME);
+    coalescingWindow =
+        codeOwnersPluginConfiguration.getGlobalConfig().getAsyncMessageCoalescingWindow();
+    queueDepthMetric =
+        codeOwnerMetrics.registerAsyncChangeMessageQueueDepth(this::getNumberOfPendingMessages);
+  }
+
+  @Override
+  public void stop() {
+    ScheduledExecutorService executor;
+    List<Future<?>> drainTasks = new ArrayList<>();
+    synchronized (this) {
+      executor = this.executor;
+      // From now on no further change messages are accepted.
+      this.executor = null;
+      if (queueDepthMetric != null) {
+        queueDepthMetric.remove();
+        queueDepthMetric = null;
+      }
+      if (executor == null) {
+        return;
+      }
+
+      // Post the pending change messages now, rather than at the end of their coalescing window.
+      for (PendingMessageKey key : ImmutableList.copyOf(pendingMessages.keySet())) {
+        try {
+          drainTasks.add(executor.submit(() -> post(key)));
+        } catch (RejectedExecutionException e) {
+          logger.atWarning().withCause(e).log(
+              "failed to schedule posting of change message on change %d", key.changeId().get());
+        }
+      }
+    }
+
+    // Wait outside of the lock since posting the change messages needs the lock.
+    long deadlineNanos = System.nanoTime() + STOP_TIMEOUT.toNanos();
+    for (Future<?> drainTask : drainTasks) {
+      try {
+        drainTask.get(Math.max(0, deadlineNanos - System.nanoTime()), NANOSECONDS);
+      } catch (ExecutionException e) {
+        // failures to post change messages are logged by the posting task
+      } catch (TimeoutException e) {
+        break;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    executor.shutdownNow();
+
+    int droppedMessages;
+    synchronized (this) {
+      droppedMessages = pendingMessages.size();
+      pendingMessages.clear();
+    }
+    if (droppedMessages > 0) {
+      logger.atWarning().log(
+          "dropped %d pending code-owners change messages on stop", droppedMessages);
+    }
+  }
+
+  private synchronized int getNumberOfPendingMessages() {
+    return pendingMessages.size();
+  }
+
+  /**
+   * Schedules a change message to be posted asynchronously.
+   *
+   * <p>If a change message for the same change, user and tag is already waiting to be posted, the
+   * change message is coalesced with it. In this case the parts of the change message that are
+   * built by the message builders are joined by a newline.
+   *
+   * @param user the user on whose behalf the change message should be posted
+   * @param projectName the project that contains the change
+   * @param changeId the ID of the change on which the change message should be posted
+   * @param when the time of the event that triggered the change message
+   * @param tag the tag of the change message
+   * @param messageBuilder builds the change message when it is posted, it is invoked within the
+   *     change update that posts the change message, so that it can use the change notes from the
+   *     {@link ChangeContext}
+   */
+  public synchronized void schedule(
+      CurrentUser user,
+      Project.NameKey projectName,
+      Change.Id changeId,
+      Instant when,
+      String tag,
+      MessageBuilder messageBuilder) {
+    requireNonNull(user, "user");
+    requireNonNull(projectName, "projectName");
+    requireNonNull(changeId, "changeId");
+    requireNonNull(when, "when");
+    requireNonNull(tag, "tag");
+    requireNonNull(messageBuilder, "messageBuilder");
+    if (executor == null) {
+      logger.atFine().log(
+          "queue is not started, skip posting change message on change %d", changeId.get());
+      return;
+    }
+
+    PendingMessageKey key =
+        PendingMessageKey.create(projectName, changeId, user.getAccountId(), tag);
+    PendingMessage pendingMessage = pendingMessages.get(key);
+    if (pendingMessage != null) {
+      logger.atFine().log(
+          "coalesce change message with pending change message on change %d", changeId.get());
+      pendingMessage.add(when, messageBuilder);
+      codeOwnerMetrics.countCoalescedChangeMessages.increment(tag);
+      return;
+    }
+
+    pendingMessage = new PendingMessage(user, when, messageBuilder);
+    try {
+      executor.schedule(() -> post(key), coalescingWindow.toMillis(), MILLISECONDS);
+      pendingMessages.put(key, pendingMessage);
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log(
+          "failed to schedule posting of change message on change %d", changeId.get());
+    }
+  }
+
+  /**
+   * Posts all pending change messages now, without waiting for the end of the coalescing window.
+   *
+   * <p>Allows tests to use a coalescing window that is long enough to not depend on timing.
+   */
+  @VisibleForTesting
+  synchronized void flush() {
+    if (executor == null) {
+      return;
+    }
+    for (PendingMessageKey key : ImmutableList.copyOf(pendingMessages.keySet())) {
+      // The task that was scheduled for the end of the coalescing window finds no pending message
+      // anymore and does nothing.
+      executor.execute(() -> post(key));
+    }
+  }
+
+  /** Posts the pending change message with the given key. */
+  private void post(PendingMessageKey key) {
+    PendingMessage pendingMessage;
+    synchronized (this) {
+      // Once the change message is removed from the pending messages, further change messages
+      // for the same change, user and tag are no longer coalesced with it.
+      pendingMessage = pendingMessages.remove(key);
+    }
+    if (pendingMessage == null) {
+      // the queue was stopped in the meantime
+      return;
+    }
+
+    try (ManualRequestContext ignored =
+        oneOffRequestContext.openAs(pendingMessage.user.getAccountId())) {
+      var unused =
+          retryHelper
+              .changeUpdate(
+                  "addCodeOwnersChangeMessage",
+                  updateFactory -> {
+                    try (BatchUpdate batchUpdate =
+                            updateFactory.create(
+                                key.projectName(), pendingMessage.user, pendingMessage.getWhen());
+                        RefUpdateContext pluginCtx = RefUpdateContext.open(PLUGIN);
+                        RefUpdateContext changeCtx = RefUpdateContext.open(CHANGE_MODIFICATION)) {
+                      batchUpdate.addOp(
+                          key.changeId(),
+                          new Op(key.tag(), pendingMessage.getMessageBuilders()));
+                      batchUpdate.execute();
+                    }
+                    return null;
+                  })
+              .call();
+    } catch (Exception e) {
+      Optional<? extends Exception> configurationError =
+          CodeOwnersExceptionHook.getCauseOfConfigurationError(e);
+      if (configurationError.isPresent()) {
+        logger.atWarning().log(
+            "Failed to post code-owners change message on change %s in project %s: %s",
+            key.changeId(), key.projectName(), configurationError.get().getMessage());
+      } else {
+        logger.atSevere().withCause(e).log(
+            "Failed to post code-owners change message on change %s in project %s.",
+            key.changeId(), key.projectName());
+      }
+    } finally {
+      for (long scheduledAtNanos : pendingMessage.getScheduledAtNanos()) {
+        codeOwnerMetrics.asyncChangeMessageLatency.record(
+            key.tag(), System.nanoTime() - scheduledAtNanos, NANOSECONDS);
+      }
+    }
+  }
+
+  /** Key of a pending change message, change messages with the same key are coalesced. */
+  @AutoValue
+  abstract static class PendingMessageKey {
+    abstract Project.NameKey projectName();
+
+    abstract Change.Id changeId();
+
+    abstract Account.Id accountId();
+
+    abstract String tag();
+
+    static PendingMessageKey create(
+        Project.NameKey projectName, Change.Id changeId, Account.Id accountId, String tag) {
+      return new AutoValue_AsyncChangeMessageQueue_PendingMessageKey(
+          projectName, changeId, accountId, tag);
+    }
+  }
+
+  /**
+   * A change message that is waiting to be posted.
+   *
+   * <p>Guarded by the lock of the {@link AsyncChangeMessageQueue} while it is contained in the
+   * pending messages. Once it was removed from the pending messages it is no longer modified.
+   */
+  private static class PendingMessage {
+    private final CurrentUser user;
+    private final List<MessageBuilder> messageBuilders = new ArrayList<>();
+    private final List<Long> scheduledAtNanos = new ArrayList<>();
+    private Instant when;
+
+    PendingMessage(CurrentUser user, Instant when, MessageBuilder messageBuilder) {
+      this.user = user;
+      this.when = when;
+      add(when, messageBuilder);
+    }
+
+    void add(Instant when, MessageBuilder messageBuilder) {
+      messageBuilders.add(messageBuilder);
+      scheduledAtNanos.add(System.nanoTime());
+      if (when.isAfter(this.when)) {
+        this.when = when;
+      }
+    }
+
+    Instant getWhen() {
+      return when;
+    }
+
+    ImmutableList<MessageBuilder> getMessageBuilders() {
+      return ImmutableList.copyOf(messageBuilders);
+    }
+
+    ImmutableList<Long> getScheduledAtNanos() {
+      return ImmutableList.copyOf(scheduledAtNanos);
+    }
+  }
+
+  private class Op implements BatchUpdateOp {
+    private final String tag;
+    private final ImmutableList<MessageBuilder> messageBuilders;
+
+    Op(String tag, ImmutableList<MessageBuilder> messageBuilders) {
+      this.tag = tag;
+      this.messageBuilders = messageBuilders;
+    }
+
+    @Override
+    public boolean updateChange(ChangeContext ctx) throws Exception {
+      List<String> messages = new ArrayList<>();
+      for (MessageBuilder messageBuilder : messageBuilders) {
+        messageBuilder.buildMessage(ctx).ifPresent(messages::add);
+      }
+
+      if (messages.isEmpty()) {
+        return false;
+      }
+
+      changeMessageUtil.setChangeMessage(ctx, String.join("\n", messages), tag);
+      return true;
+    }
+  }
+}
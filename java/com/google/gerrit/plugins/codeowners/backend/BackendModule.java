@@ -23,13 +23,16 @@ import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerApprovalHasOperand.CodeOwnerApprovalHasOperandModule;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEnabledHasOperand.CodeOwnerEnabledHasOperandModule;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSubmitRule.CodeOwnerSubmitRuleModule;
+import com.google.gerrit.plugins.codeowners.backend.PendingCodeOwnerOperator.PendingCodeOwnerOperatorModule;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfig;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginGlobalConfigSnapshot;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshot;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshotCache;
 import com.google.gerrit.server.ExceptionHook;
 import com.google.gerrit.server.IdentifiedUser;
 import com.google.gerrit.server.ServerInitiated;
 import com.google.gerrit.server.UserInitiated;
+import com.google.gerrit.server.cache.CacheRemovalListener;
 import com.google.gerrit.server.restapi.change.OnPostReview;
 import com.google.inject.Provides;
 
@@ -59,7 +62,12 @@ public class BackendModule extends FactoryModule {
     install(new CodeOwnerSubmitRuleModule());
     install(new CodeOwnerApprovalHasOperandModule());
     install(new CodeOwnerEnabledHasOperandModule());
+    install(new PendingCodeOwnerOperatorModule());
+    install(PendingCodeOwnersCache.module());
+    install(CodeOwnersPluginProjectConfigSnapshotCache.module());
 
+    DynamicSet.bind(binder(), CacheRemovalListener.class)
+        .to(CodeOwnersPluginProjectConfigSnapshotCache.class);
     DynamicSet.bind(binder(), ExceptionHook.class).to(CodeOwnersExceptionHook.class);
     DynamicSet.bind(binder(), OnPostReview.class).to(OnCodeOwnerApproval.class);
     DynamicSet.bind(binder(), CommentAddedListener.class).to(OnCodeOwnerApproval.class);
@@ -0,0 +1,230 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.index.change.ChangeIndexer;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Background queue to reindex changes whose code owner statuses may have changed because relevant
+ * code owner config files have been updated.
+ *
+ * <p>The queue is coalescing: If a change is scheduled for reindexing while it is still waiting in
+ * the queue, no further reindex is scheduled for it.
+ *
+ * <p>The queue is rate-limited: At most {@code plugin.code-owners.maxChangeReindexesPerSecond}
+ * changes are reindexed per second, so that an update of a code owner config file that affects
+ * many open changes doesn't cause a reindexing storm.
+ *
+ * <p>The queue also runs the tasks that compute which changes are affected by updates of code owner
+ * config files (see {@link #runAsync(Runnable)}). These tasks are run even if reindexing is
+ * disabled, since the affected changes are also needed to invalidate their {@link
+ * PendingCodeOwnersCache} entries. They are run by the {@code CodeOwnersAffectedChanges} work
+ * queue, while the changes are reindexed by the {@code CodeOwnersChangeReindex} work queue, so that
+ * slow computations of affected changes don't delay the reindexing of changes and a long reindexing
+ * backlog doesn't delay the computation of affected changes.
+ */
+@Singleton
+public class ChangeReindexQueue implements LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String REINDEX_QUEUE_NAME = "CodeOwnersChangeReindex";
+  private static final String AFFECTED_CHANGES_QUEUE_NAME = "CodeOwnersAffectedChanges";
+
+  public static class ChangeReindexQueueModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(ChangeReindexQueue.class);
+    }
+  }
+
+  private final WorkQueue workQueue;
+  private final ChangeIndexer changeIndexer;
+  private final OneOffRequestContext oneOffRequestContext;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  /** Changes that are scheduled for reindexing, in the order in which they were scheduled. */
+  private final Map<Change.Id, Project.NameKey> pendingChanges = new LinkedHashMap<>();
+
+  /** Whether a task that reindexes the pending changes is running. */
+  private boolean draining;
+
+  /** Executor that computes the changes that need to be reindexed. */
+  @Nullable private ScheduledExecutorService affectedChangesExecutor;
+
+  /** Executor that reindexes the changes. */
+  @Nullable private ScheduledExecutorService reindexExecutor;
+
+  @Nullable private RateLimiter rateLimiter;
+
+  @Inject
+  ChangeReindexQueue(
+      WorkQueue workQueue,
+      ChangeIndexer changeIndexer,
+      OneOffRequestContext oneOffRequestContext,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    this.workQueue = workQueue;
+    this.changeIndexer = changeIndexer;
+    this.oneOffRequestContext = oneOffRequestContext;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  @Override
+  public synchronized void start() {
+    affectedChangesExecutor = workQueue.createQueue(1, AFFECTED_CHANGES_QUEUE_NAME);
+    reindexExecutor = workQueue.createQueue(1, REINDEX_QUEUE_NAME);
+
+    Optional<Integer> maxChangeReindexesPerSecond =
+        codeOwnersPluginConfiguration.getGlobalConfig().getMaxChangeReindexesPerSecond();
+    if (!maxChangeReindexesPerSecond.isPresent()) {
+      logger.atFine().log("reindexing of changes on code owner config updates is disabled");
+      return;
+    }
+    rateLimiter = RateLimiter.create(maxChangeReindexesPerSecond.get());
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (affectedChangesExecutor != null) {
+      affectedChangesExecutor.shutdownNow();
+      affectedChangesExecutor = null;
+    }
+    if (reindexExecutor != null) {
+      reindexExecutor.shutdownNow();
+      reindexExecutor = null;
+    }
+    rateLimiter = null;
+    pendingChanges.clear();
+    draining = false;
+  }
+
+  /** Whether changes are reindexed when code owner config files are updated. */
+  public synchronized boolean isEnabled() {
+    return reindexExecutor != null && rateLimiter != null;
+  }
+
+  /**
+   * Runs the given task asynchronously on the {@code CodeOwnersAffectedChanges} work queue.
+   *
+   * <p>Allows to compute the changes that should be scheduled for reindexing without blocking the
+   * caller.
+   *
+   * @param task the task that should be run
+   */
+  public synchronized void runAsync(Runnable task) {
+    requireNonNull(task, "task");
+    if (affectedChangesExecutor == null) {
+      logger.atFine().log("queue is not started, skip task");
+      return;
+    }
+    try {
+      affectedChangesExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log("failed to schedule task");
+    }
+  }
+
+  /**
+   * Schedules the given changes for reindexing.
+   *
+   * <p>Changes that are already scheduled for reindexing are skipped.
+   *
+   * @param project the project that contains the changes
+   * @param changeIds the IDs of the changes that should be reindexed
+   */
+  public synchronized void schedule(Project.NameKey project, Collection<Change.Id> changeIds) {
+    requireNonNull(project, "project");
+    requireNonNull(changeIds, "changeIds");
+    if (!isEnabled()) {
+      logger.atFine().log("reindexing is disabled, skip reindexing of changes %s", changeIds);
+      return;
+    }
+
+    for (Change.Id changeId : changeIds) {
+      if (pendingChanges.putIfAbsent(changeId, project) == null) {
+        codeOwnerMetrics.countScheduledChangeReindexes.increment();
+      } else {
+        codeOwnerMetrics.countCoalescedChangeReindexes.increment();
+      }
+    }
+
+    if (!draining && !pendingChanges.isEmpty()) {
+      try {
+        reindexExecutor.execute(this::drain);
+        draining = true;
+      } catch (RejectedExecutionException e) {
+        logger.atWarning().withCause(e).log("failed to schedule reindexing of changes");
+      }
+    }
+  }
+
+  /** Reindexes the pending changes until there are no pending changes left. */
+  private void drain() {
+    while (true) {
+      Map.Entry<Change.Id, Project.NameKey> pendingChange;
+      RateLimiter rateLimiter;
+      synchronized (this) {
+        if (reindexExecutor == null || pendingChanges.isEmpty()) {
+          draining = false;
+          return;
+        }
+        Iterator<Map.Entry<Change.Id, Project.NameKey>> it = pendingChanges.entrySet().iterator();
+        pendingChange = it.next();
+        it.remove();
+        rateLimiter = this.rateLimiter;
+      }
+
+      rateLimiter.acquire();
+      reindex(pendingChange.getValue(), pendingChange.getKey());
+    }
+  }
+
+  private void reindex(Project.NameKey project, Change.Id changeId) {
+    logger.atFine().log("reindexing change %d in project %s", changeId.get(), project);
+    try (ManualRequestContext ignored = oneOffRequestContext.open()) {
+      changeIndexer.index(project, changeId);
+      codeOwnerMetrics.countChangeReindexes.increment();
+    } catch (RuntimeException e) {
+      codeOwnerMetrics.countFailedChangeReindexes.increment();
+      logger.atWarning().withCause(e).log(
+          "failed to reindex change %d in project %s", changeId.get(), project);
+    }
+  }
+}
@@ -27,8 +27,8 @@ import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfi
 import com.google.gerrit.plugins.codeowners.common.ChangedFile;
 import com.google.gerrit.plugins.codeowners.common.MergeCommitStrategy;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.GetChangedFilesEvent;
 import com.google.gerrit.server.change.RevisionResource;
-import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.gerrit.server.patch.DiffNotAvailableException;
 import com.google.gerrit.server.patch.DiffOperations;
 import com.google.gerrit.server.patch.DiffOperationsForCommitValidation;
@@ -57,21 +57,24 @@ import org.eclipse.jgit.revwalk.RevWalk;
  */
 @Singleton
 public class ChangedFiles {
-  private final GitRepositoryManager repoManager;
+  private final RepositoryContext repositoryContext;
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final DiffOperations diffOperations;
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
 
   @Inject
   public ChangedFiles(
-      GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
       DiffOperations diffOperations,
-      CodeOwnerMetrics codeOwnerMetrics) {
-    this.repoManager = repoManager;
+      CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationTrace evaluationTrace) {
+    this.repositoryContext = repositoryContext;
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.diffOperations = diffOperations;
     this.codeOwnerMetrics = codeOwnerMetrics;
+    this.evaluationTrace = evaluationTrace;
   }
 
   /**
@@ -175,7 +178,11 @@ public class ChangedFiles {
     requireNonNull(revision, "revision");
     requireNonNull(mergeCommitStrategy, "mergeCommitStrategy");
 
-    try (Timer0.Context ctx = codeOwnerMetrics.getChangedFiles.start()) {
+    GetChangedFilesEvent event = new GetChangedFilesEvent();
+    event.begin();
+    try (Timer0.Context ctx = codeOwnerMetrics.getChangedFiles.start();
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.GET_CHANGED_FILES)) {
       List<ModifiedFile> modifiedFiles;
       if (mergeCommitStrategy.equals(MergeCommitStrategy.FILES_WITH_CONFLICT_RESOLUTION)
           || isInitialCommit(project, revision)) {
@@ -199,8 +206,13 @@ public class ChangedFiles {
                 project, revision, /* parentNum= */ 1, enableRenameDetection);
       }
 
-      return modifiedFilesToChangedFiles(filterOutMagicFilesFromModifiedFilesAndSort(modifiedFiles))
-          .collect(toImmutableList());
+      ImmutableList<ChangedFile> changedFiles =
+          modifiedFilesToChangedFiles(filterOutMagicFilesFromModifiedFilesAndSort(modifiedFiles))
+              .collect(toImmutableList());
+      if (event.shouldCommit()) {
+        event.commit(project.get(), revision.name(), changedFiles.size());
+      }
+      return changedFiles;
     }
   }
 
@@ -229,7 +241,11 @@ public class ChangedFiles {
     requireNonNull(revision, "revision");
     requireNonNull(mergeCommitStrategy, "mergeCommitStrategy");
 
-    try (Timer0.Context ctx = codeOwnerMetrics.getChangedFiles.start()) {
+    GetChangedFilesEvent event = new GetChangedFilesEvent();
+    event.begin();
+    try (Timer0.Context ctx = codeOwnerMetrics.getChangedFiles.start();
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.GET_CHANGED_FILES)) {
       Map<String, ModifiedFile> modifiedFiles;
       if (mergeCommitStrategy.equals(MergeCommitStrategy.FILES_WITH_CONFLICT_RESOLUTION)
           || isInitialCommit(project, revision)) {
@@ -253,15 +269,20 @@ public class ChangedFiles {
                 project, revision, 1, /* enableRenameDetection= */ true);
       }
 
-      return modifiedFilesToChangedFiles(
-              filterOutMagicFilesFromModifiedFilesAndSort(modifiedFiles.values()))
-          .collect(toImmutableList());
+      ImmutableList<ChangedFile> changedFiles =
+          modifiedFilesToChangedFiles(
+                  filterOutMagicFilesFromModifiedFilesAndSort(modifiedFiles.values()))
+              .collect(toImmutableList());
+      if (event.shouldCommit()) {
+        event.commit(project.get(), revision.name(), changedFiles.size());
+      }
+      return changedFiles;
     }
   }
 
   private boolean isInitialCommit(Project.NameKey project, ObjectId objectId) throws IOException {
-    try (Repository repo = repoManager.openRepository(project);
-        RevWalk revWalk = new RevWalk(repo)) {
+    try (Repository repo = repositoryContext.openRepository(project);
+        RevWalk revWalk = repositoryContext.newRevWalk(repo)) {
       return revWalk.parseCommit(objectId).getParentCount() == 0;
     }
   }
@@ -0,0 +1,161 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Account;
+import com.google.inject.Singleton;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Records on which accounts and groups the result of a code owner evaluation depends.
+ *
+ * <p>The results of code owner evaluations depend on the accounts to which the emails in the code
+ * owner config files resolve (whether an account with the email exists, whether it is active) and,
+ * if account visibility is checked, on group memberships. Which accounts are relevant is only known
+ * after the code owners have been evaluated. Callers that want to know when the result of an
+ * evaluation becomes stale (e.g. to compute ETags, see {@code
+ * com.google.gerrit.plugins.codeowners.restapi.CodeOwnersETagComputation}) open a scope (see
+ * {@link #open()}) and the components that look up accounts record the emails and accounts that
+ * they looked up in this scope. Outside of a scope recording is a no-op.
+ *
+ * <p>Components that return results that depend on accounts in a way that cannot be recorded (e.g.
+ * results that have been computed by another thread) must invoke {@link #recordUnknown()}, so that
+ * callers do not rely on incomplete dependencies.
+ */
+@Singleton
+public class CodeOwnerAccountDependencies {
+  private static final ThreadLocalScope<Scope> currentScope = new ThreadLocalScope<>(Scope.NOOP);
+
+  /**
+   * Opens a scope in which the account dependencies are recorded.
+   *
+   * <p>If a scope is already open for the current thread, the returned scope is a no-op and the
+   * dependencies are recorded in the outer scope.
+   *
+   * @return the scope, must be closed when the evaluation is done
+   */
+  public Scope open() {
+    return currentScope.open(Scope::new);
+  }
+
+  /**
+   * Records that the result depends on whether accounts with the given emails exist.
+   *
+   * @param emails the emails that were looked up
+   */
+  public void recordEmails(Collection<String> emails) {
+    requireNonNull(emails, "emails");
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.emails.addAll(emails);
+    }
+  }
+
+  /**
+   * Records that the result depends on the state of the given accounts (e.g. whether they are
+   * active).
+   *
+   * @param accountIds the IDs of the accounts that were looked up
+   */
+  public void recordAccounts(Collection<Account.Id> accountIds) {
+    requireNonNull(accountIds, "accountIds");
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.accountIds.addAll(accountIds);
+    }
+  }
+
+  /** Records that the result depends on group memberships (e.g. because of account visibility). */
+  public void recordGroups() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.dependsOnGroups = true;
+    }
+  }
+
+  /** Records that the result depends on accounts that are not known. */
+  public void recordUnknown() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.unknown = true;
+    }
+  }
+
+  /** The accounts and groups on which the result of an evaluation depends. */
+  @AutoValue
+  public abstract static class Dependencies {
+    /** The emails for which it was looked up whether accounts with these emails exist. */
+    public abstract ImmutableSet<String> emails();
+
+    /** The IDs of the accounts on whose state the result depends. */
+    public abstract ImmutableSet<Account.Id> accountIds();
+
+    /** Whether the result depends on group memberships. */
+    public abstract boolean dependsOnGroups();
+
+    @VisibleForTesting
+    public static Dependencies create(
+        ImmutableSet<String> emails, ImmutableSet<Account.Id> accountIds, boolean dependsOnGroups) {
+      return new AutoValue_CodeOwnerAccountDependencies_Dependencies(
+          emails, accountIds, dependsOnGroups);
+    }
+  }
+
+  /**
+   * Scope in which the account dependencies are recorded.
+   *
+   * <p><strong>Note</strong>: This class is not thread-safe, it must only be used by the thread
+   * that opened it.
+   */
+  public static class Scope implements AutoCloseable {
+    private static final Scope NOOP = new Scope();
+
+    private final Set<String> emails = new HashSet<>();
+    private final Set<Account.Id> accountIds = new HashSet<>();
+    private boolean dependsOnGroups;
+    private boolean unknown;
+
+    private Scope() {}
+
+    /**
+     * Returns the dependencies that have been recorded in this scope.
+     *
+     * <p>Empty if the dependencies are not known, i.e. if a component recorded that the result
+     * depends on unknown accounts, or if this scope is a no-op because it is nested in another
+     * scope (in this case the dependencies are recorded in the outer scope).
+     */
+    public Optional<Dependencies> getDependencies() {
+      if (this == NOOP || unknown) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          Dependencies.create(
+              ImmutableSet.copyOf(emails), ImmutableSet.copyOf(accountIds), dependsOnGroups));
+    }
+
+    @Override
+    public void close() {
+      currentScope.close(this);
+    }
+  }
+}
@@ -21,14 +21,13 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.common.Nullable;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.entities.Change;
-import com.google.gerrit.entities.LabelValue;
 import com.google.gerrit.entities.PatchSet;
 import com.google.gerrit.entities.PatchSetApproval;
 import com.google.gerrit.entities.RefNames;
@@ -41,19 +40,20 @@ import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProje
 import com.google.gerrit.plugins.codeowners.backend.config.RequiredApproval;
 import com.google.gerrit.plugins.codeowners.common.ChangedFile;
 import com.google.gerrit.plugins.codeowners.common.CodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerEvaluation;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
-import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.plugins.codeowners.metrics.ComputeFileStatusEvent;
+import com.google.gerrit.plugins.codeowners.metrics.SubmittabilityFastPath;
 import com.google.gerrit.server.git.PureRevertCache;
 import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.notedb.ReviewerStateInternal;
 import com.google.gerrit.server.patch.DiffNotAvailableException;
-import com.google.gerrit.server.util.AccountTemplateUtil;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -82,7 +82,9 @@ import org.eclipse.jgit.revwalk.RevWalk;
 public class CodeOwnerApprovalCheck {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-  private final GitRepositoryManager repoManager;
+  private final RepositoryContext repositoryContext;
+  private final CodeOwnerEvaluationBudget evaluationBudget;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final ChangedFiles changedFiles;
   private final PureRevertCache pureRevertCache;
@@ -91,10 +93,13 @@ public class CodeOwnerApprovalCheck {
   private final CodeOwnerApprovalCheckInput.Loader.Factory inputLoaderFactory;
   private final CodeOwnerMetrics codeOwnerMetrics;
   private final ChangedFilesByPatchSetCache.Factory changedFilesByPatchSetCacheFactory;
+  private final CodeOwnerEvaluationCoalescer evaluationCoalescer;
 
   @Inject
   CodeOwnerApprovalCheck(
-      GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
+      CodeOwnerEvaluationBudget evaluationBudget,
+      CodeOwnerEvaluationTrace evaluationTrace,
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
       ChangedFiles changedFiles,
       PureRevertCache pureRevertCache,
@@ -102,8 +107,11 @@ public class CodeOwnerApprovalCheck {
       Provider<CodeOwnerResolver> codeOwnerResolverProvider,
       CodeOwnerApprovalCheckInput.Loader.Factory codeOwnerApprovalCheckInputLoaderFactory,
       CodeOwnerMetrics codeOwnerMetrics,
-      ChangedFilesByPatchSetCache.Factory changedFilesByPatchSetCacheFactory) {
-    this.repoManager = repoManager;
+      ChangedFilesByPatchSetCache.Factory changedFilesByPatchSetCacheFactory,
+      CodeOwnerEvaluationCoalescer evaluationCoalescer) {
+    this.repositoryContext = repositoryContext;
+    this.evaluationBudget = evaluationBudget;
+    this.evaluationTrace = evaluationTrace;
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.changedFiles = changedFiles;
     this.pureRevertCache = pureRevertCache;
@@ -112,6 +120,7 @@ public class CodeOwnerApprovalCheck {
     this.inputLoaderFactory = codeOwnerApprovalCheckInputLoaderFactory;
     this.codeOwnerMetrics = codeOwnerMetrics;
     this.changedFilesByPatchSetCacheFactory = changedFilesByPatchSetCacheFactory;
+    this.evaluationCoalescer = evaluationCoalescer;
   }
 
   /**
@@ -132,7 +141,36 @@ public class CodeOwnerApprovalCheck {
       int start,
       int limit,
       boolean checkReviewers) {
-    try (Timer0.Context ctx = codeOwnerMetrics.computeOwnedPaths.start()) {
+    try {
+      return evaluationCoalescer.coalesce(
+          CodeOwnerEvaluation.OWNED_PATHS,
+          changeNotes,
+          patchSet.id(),
+          ImmutableList.of(accountId, start, limit, checkReviewers),
+          () -> computeOwnedPaths(changeNotes, patchSet, accountId, start, limit, checkReviewers));
+    } catch (IOException | DiffNotAvailableException e) {
+      throw new StorageException(
+          String.format(
+              "failed to compute owned paths of patch set %s for account %d",
+              patchSet.id(), accountId.get()),
+          e);
+    }
+  }
+
+  private ImmutableList<OwnedChangedFile> computeOwnedPaths(
+      ChangeNotes changeNotes,
+      PatchSet patchSet,
+      Account.Id accountId,
+      int start,
+      int limit,
+      boolean checkReviewers)
+      throws IOException, DiffNotAvailableException {
+    try (Timer0.Context ctx = codeOwnerMetrics.computeOwnedPaths.start();
+        RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("owned paths", changeNotes)) {
       logger.atFine().log(
           "compute owned paths for account %d (project = %s, change = %d, patch set = %d,"
               + " start = %d, limit = %d)",
@@ -142,93 +180,268 @@ public class CodeOwnerApprovalCheck {
           patchSet.id().get(),
           start,
           limit);
-      ImmutableSet.Builder<Account.Id> checkOwnerIds = ImmutableSet.builder();
-      checkOwnerIds.add(accountId);
-      if (checkReviewers) {
-        checkOwnerIds.addAll(changeNotes.getReviewers().byState(ReviewerStateInternal.REVIEWER));
-      }
-      Stream<FileCodeOwnerStatus> fileStatuses =
-          getFileStatusesForAccounts(changeNotes, patchSet, checkOwnerIds.build())
-              .filter(
-                  fileStatus ->
-                      (fileStatus.newPathStatus().isPresent()
-                              && fileStatus.newPathStatus().get().owners().isPresent()
-                              && !fileStatus.newPathStatus().get().owners().get().isEmpty())
-                          || (fileStatus.oldPathStatus().isPresent()
-                              && fileStatus.oldPathStatus().get().owners().isPresent()
-                              && !fileStatus.oldPathStatus().get().owners().get().isEmpty()));
-      if (start > 0) {
-        fileStatuses = fileStatuses.skip(start);
-      }
-      if (limit > 0) {
-        fileStatuses = fileStatuses.limit(limit);
-      }
+      return computeOwnedPaths(
+          codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName()),
+          codeOwnerConfigHierarchyProvider.get(),
+          codeOwnerResolverProvider.get().enforceVisibility(false),
+          changeNotes,
+          patchSet,
+          accountId,
+          start,
+          limit,
+          checkReviewers);
+    }
+  }
 
-      return fileStatuses
-          .map(
-              fileStatus ->
-                  OwnedChangedFile.create(
-                      fileStatus
-                          .newPathStatus()
-                          .map(
-                              newPathStatus ->
-                                  OwnedPath.create(
-                                      newPathStatus.path(),
-                                      newPathStatus.owners().isPresent()
-                                          && newPathStatus.owners().get().contains(accountId),
-                                      newPathStatus.owners().isPresent()
-                                          ? newPathStatus.owners().get()
-                                          : ImmutableSet.of()))
-                          .orElse(null),
-                      fileStatus
-                          .oldPathStatus()
-                          .map(
-                              oldPathStatus ->
-                                  OwnedPath.create(
-                                      oldPathStatus.path(),
-                                      oldPathStatus.owners().isPresent()
-                                          && oldPathStatus.owners().get().contains(accountId),
-                                      oldPathStatus.owners().isPresent()
-                                          ? oldPathStatus.owners().get()
-                                          : ImmutableSet.of()))
-                          .orElse(null)))
-          .collect(toImmutableList());
+  private ImmutableList<OwnedChangedFile> computeOwnedPaths(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      CodeOwnerResolver codeOwnerResolver,
+      ChangeNotes changeNotes,
+      PatchSet patchSet,
+      Account.Id accountId,
+      int start,
+      int limit,
+      boolean checkReviewers)
+      throws IOException, DiffNotAvailableException {
+    ImmutableSet.Builder<Account.Id> checkOwnerIds = ImmutableSet.builder();
+    checkOwnerIds.add(accountId);
+    if (checkReviewers) {
+      checkOwnerIds.addAll(changeNotes.getReviewers().byState(ReviewerStateInternal.REVIEWER));
+    }
+    Stream<FileCodeOwnerStatus> fileStatuses =
+        getFileStatusesForAccounts(
+                codeOwnersConfig,
+                codeOwnerConfigHierarchy,
+                codeOwnerResolver,
+                changeNotes,
+                patchSet,
+                checkOwnerIds.build())
+            .filter(
+                fileStatus ->
+                    (fileStatus.newPathStatus().isPresent()
+                            && fileStatus.newPathStatus().get().owners().isPresent()
+                            && !fileStatus.newPathStatus().get().owners().get().isEmpty())
+                        || (fileStatus.oldPathStatus().isPresent()
+                            && fileStatus.oldPathStatus().get().owners().isPresent()
+                            && !fileStatus.oldPathStatus().get().owners().get().isEmpty()));
+    if (start > 0) {
+      fileStatuses = fileStatuses.skip(start);
+    }
+    if (limit > 0) {
+      fileStatuses = fileStatuses.limit(limit);
+    }
+
+    return fileStatuses
+        .map(fileStatus -> toOwnedChangedFile(fileStatus, accountId))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns the paths of the files in the given patch set that are owned by the specified accounts.
+   *
+   * <p>Returns the same owned paths for each account as {@link #getOwnedPaths(ChangeNotes,
+   * PatchSet, Account.Id, int, int, boolean)} without checking reviewers, but evaluates the change
+   * only once for all accounts (the changed files are computed, the code owner config files are
+   * loaded and the code owners are resolved only once). Hence this method should be used when the
+   * owned paths are needed for several accounts (e.g. for all reviewers that were added to a
+   * change at once).
+   *
+   * <p>The {@link OwnedPath#owners()} of the returned owned paths contain all of the specified
+   * accounts that own the path.
+   *
+   * @param changeNotes the change notes for which the owned files should be returned
+   * @param patchSet the patch set for which the owned files should be returned
+   * @param accountIds account IDs of the code owners for which the owned files should be returned
+   * @param limit the max number of owned paths that should be returned per account (0 = unlimited)
+   * @return the paths of the files in the given patch set that are owned by the specified
+   *     accounts, contains an entry for each of the specified accounts (with an empty list if the
+   *     account doesn't own any of the files)
+   */
+  public ImmutableMap<Account.Id, ImmutableList<OwnedChangedFile>> getOwnedPathsForAccounts(
+      ChangeNotes changeNotes, PatchSet patchSet, ImmutableSet<Account.Id> accountIds, int limit) {
+    requireNonNull(changeNotes, "changeNotes");
+    requireNonNull(patchSet, "patchSet");
+    requireNonNull(accountIds, "accountIds");
+    if (accountIds.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    try {
+      return evaluationCoalescer.coalesce(
+          CodeOwnerEvaluation.OWNED_PATHS,
+          changeNotes,
+          patchSet.id(),
+          ImmutableList.of(accountIds, limit),
+          () -> computeOwnedPathsForAccounts(changeNotes, patchSet, accountIds, limit));
     } catch (IOException | DiffNotAvailableException e) {
       throw new StorageException(
           String.format(
-              "failed to compute owned paths of patch set %s for account %d",
-              patchSet.id(), accountId.get()),
+              "failed to compute owned paths of patch set %s for accounts %s",
+              patchSet.id(), accountIds),
           e);
     }
   }
 
+  private ImmutableMap<Account.Id, ImmutableList<OwnedChangedFile>> computeOwnedPathsForAccounts(
+      ChangeNotes changeNotes, PatchSet patchSet, ImmutableSet<Account.Id> accountIds, int limit)
+      throws IOException, DiffNotAvailableException {
+    try (Timer0.Context ctx = codeOwnerMetrics.computeOwnedPaths.start();
+        RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("owned paths", changeNotes)) {
+      logger.atFine().log(
+          "compute owned paths for accounts %s (project = %s, change = %d, patch set = %d,"
+              + " limit = %d)",
+          accountIds,
+          changeNotes.getProjectName(),
+          changeNotes.getChangeId().get(),
+          patchSet.id().get(),
+          limit);
+
+      // The file statuses are computed once for all accounts. Since all code owners are checked
+      // when computing owned paths, the owners of each path contain all of the accounts that own
+      // the path, hence the file statuses can be partitioned by account afterwards.
+      ImmutableList<FileCodeOwnerStatus> fileStatuses =
+          getFileStatusesForAccounts(
+                  codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName()),
+                  codeOwnerConfigHierarchyProvider.get(),
+                  codeOwnerResolverProvider.get().enforceVisibility(false),
+                  changeNotes,
+                  patchSet,
+                  accountIds)
+              .collect(toImmutableList());
+
+      ImmutableMap.Builder<Account.Id, ImmutableList<OwnedChangedFile>> ownedPathsByAccount =
+          ImmutableMap.builder();
+      for (Account.Id accountId : accountIds) {
+        Stream<OwnedChangedFile> ownedChangedFiles =
+            fileStatuses.stream()
+                .map(fileStatus -> toOwnedChangedFile(fileStatus, accountId))
+                .filter(
+                    ownedChangedFile ->
+                        ownedChangedFile.newPath().map(OwnedPath::owned).orElse(false)
+                            || ownedChangedFile.oldPath().map(OwnedPath::owned).orElse(false));
+        if (limit > 0) {
+          ownedChangedFiles = ownedChangedFiles.limit(limit);
+        }
+        ownedPathsByAccount.put(accountId, ownedChangedFiles.collect(toImmutableList()));
+      }
+      return ownedPathsByAccount.build();
+    }
+  }
+
+  private static OwnedChangedFile toOwnedChangedFile(
+      FileCodeOwnerStatus fileStatus, Account.Id accountId) {
+    return OwnedChangedFile.create(
+        fileStatus
+            .newPathStatus()
+            .map(newPathStatus -> toOwnedPath(newPathStatus, accountId))
+            .orElse(null),
+        fileStatus
+            .oldPathStatus()
+            .map(oldPathStatus -> toOwnedPath(oldPathStatus, accountId))
+            .orElse(null));
+  }
+
+  private static OwnedPath toOwnedPath(PathCodeOwnerStatus pathStatus, Account.Id accountId) {
+    return OwnedPath.create(
+        pathStatus.path(),
+        pathStatus.owners().isPresent() && pathStatus.owners().get().contains(accountId),
+        pathStatus.owners().orElse(ImmutableSet.of()));
+  }
+
   /**
    * Whether the given change has sufficient code owner approvals to be submittable.
    *
+   * <p>If the outcome doesn't depend on the changed files (e.g. because a code owner override is
+   * present), the change is found to be submittable without computing the changed files and the
+   * code owner statuses of the single files (see {@link SubmittabilityFastPath}).
+   *
    * @param changeNotes the change notes
    * @return whether the given change has sufficient code owner approvals to be submittable
    */
   public boolean isSubmittable(ChangeNotes changeNotes)
       throws IOException, DiffNotAvailableException {
     requireNonNull(changeNotes, "changeNotes");
+    return evaluationCoalescer.coalesce(
+        CodeOwnerEvaluation.SUBMITTABILITY,
+        changeNotes,
+        changeNotes.getCurrentPatchSet().id(),
+        ImmutableList.of(),
+        () -> computeIsSubmittable(changeNotes, /* codeOwnerConfigRevision= */ null));
+  }
+
+  /**
+   * Whether the given change would have sufficient code owner approvals to be submittable if the
+   * code owner config files in the destination branch were the ones from the given revision.
+   *
+   * <p>Allows to find out whether modifications of code owner config files that are not submitted
+   * yet would change the submittability of other changes.
+   *
+   * <p>Unlike {@link #isSubmittable(ChangeNotes)} the evaluation is not coalesced with concurrent
+   * evaluations of the same change.
+   *
+   * @param changeNotes the change notes
+   * @param codeOwnerConfigRevision the revision from which the code owner config files should be
+   *     read
+   * @return whether the given change would have sufficient code owner approvals to be submittable
+   */
+  public boolean isSubmittable(ChangeNotes changeNotes, ObjectId codeOwnerConfigRevision)
+      throws IOException, DiffNotAvailableException {
+    requireNonNull(changeNotes, "changeNotes");
+    requireNonNull(codeOwnerConfigRevision, "codeOwnerConfigRevision");
+    return computeIsSubmittable(changeNotes, codeOwnerConfigRevision);
+  }
+
+  private boolean computeIsSubmittable(
+      ChangeNotes changeNotes, @Nullable ObjectId codeOwnerConfigRevision)
+      throws IOException, DiffNotAvailableException {
     logger.atFine().log(
-        "checking if change %d in project %s is submittable",
-        changeNotes.getChangeId().get(), changeNotes.getProjectName());
+        "checking if change %d in project %s is submittable (code owner config revision = %s)",
+        changeNotes.getChangeId().get(),
+        changeNotes.getProjectName(),
+        codeOwnerConfigRevision != null ? codeOwnerConfigRevision.name() : "dest branch");
     CodeOwnerConfigHierarchy codeOwnerConfigHierarchy = codeOwnerConfigHierarchyProvider.get();
     CodeOwnerResolver codeOwnerResolver = codeOwnerResolverProvider.get().enforceVisibility(false);
     CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
         codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName());
-    try {
+    try (RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("submittability", changeNotes)) {
+      CodeOwnerApprovalCheckInput input;
+      try (Timer0.Context ctx = codeOwnerMetrics.prepareFileStatusComputation.start()) {
+        input = inputLoaderFactory.create(codeOwnersConfig, codeOwnerResolver, changeNotes).load();
+        Optional<SubmittabilityFastPath> submittabilityFastPath =
+            getSubmittabilityFastPath(codeOwnersConfig, changeNotes, input);
+        if (submittabilityFastPath.isPresent()) {
+          logger.atFine().log(
+              "change %d in project %s is submittable (fast path = %s)",
+              changeNotes.getChangeId().get(),
+              changeNotes.getProjectName(),
+              submittabilityFastPath.get());
+          codeOwnerMetrics.countSubmittabilityFastPaths.increment(submittabilityFastPath.get());
+          return true;
+        }
+      }
+
       boolean isSubmittable =
           !getFileStatuses(
                   codeOwnersConfig,
                   codeOwnerConfigHierarchy,
                   codeOwnerResolver,
                   changeNotes,
+                  input,
                   // We only need to know if all new and old paths are approved. For this it's OK if
                   // for renamed files 2 FileCodeOwnerStatus'es are returned (one for the new path
                   // and one for the old path), hence rename detection can be disabled here.
-                  /* enabledRenameDetection= */ false)
+                  /* enabledRenameDetection= */ false,
+                  codeOwnerConfigRevision != null
+                      ? Optional.of(codeOwnerConfigRevision)
+                      : getDestBranchRevision(changeNotes.getChange()))
               .anyMatch(
                   fileStatus ->
                       (fileStatus.newPathStatus().isPresent()
@@ -255,6 +468,150 @@ public class CodeOwnerApprovalCheck {
     }
   }
 
+  /**
+   * Checks whether the given change is submittable regardless of the changed files.
+   *
+   * <p>This is the case if the patch set uploader is exempted from requiring code owner approvals,
+   * if a code owner override is present, if a global code owner (who owns all files) approved the
+   * change or if the change is an exempted pure revert.
+   *
+   * <p>If fallback code owners are configured, whether a change is submittable always depends on
+   * the changed files, since the fallback code owners only apply to files for which no code owners
+   * are defined.
+   *
+   * @return the reason why the change is submittable regardless of the changed files, {@link
+   *     Optional#empty()} if it depends on the changed files whether the change is submittable
+   */
+  private Optional<SubmittabilityFastPath> getSubmittabilityFastPath(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      ChangeNotes changeNotes,
+      CodeOwnerApprovalCheckInput input)
+      throws IOException {
+    // Checks that only need the input data come first, checking whether the change is a pure revert
+    // is the most expensive check, hence it is done last.
+    if (codeOwnersConfig
+        .getExemptedAccounts()
+        .contains(changeNotes.getCurrentPatchSet().uploader())) {
+      return Optional.of(SubmittabilityFastPath.EXEMPTED_UPLOADER);
+    }
+
+    if (!input.overrides().isEmpty()) {
+      return Optional.of(SubmittabilityFastPath.OVERRIDE_APPROVAL);
+    }
+
+    // Global code owners own all paths, hence an approval from a global code owner approves all
+    // files.
+    CodeOwnerResolverResult globalCodeOwners = input.globalCodeOwners();
+    if ((input.implicitApprover().isPresent()
+            && (globalCodeOwners.ownedByAllUsers()
+                || globalCodeOwners
+                    .codeOwnersAccountIds()
+                    .contains(input.implicitApprover().get())))
+        || input
+            .indexedAccounts()
+            .getFirstApprover(input.globalCodeOwnerIndices())
+            .isPresent()) {
+      return Optional.of(SubmittabilityFastPath.GLOBAL_CODE_OWNER_APPROVAL);
+    }
+
+    if (codeOwnersConfig.arePureRevertsExempted() && isPureRevert(changeNotes)) {
+      return Optional.of(SubmittabilityFastPath.PURE_REVERT);
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the accounts that own at least one path in the current revision of the given change that
+   * is not code owner approved yet.
+   *
+   * <p>These are the accounts whose code owner approval is still awaited on the change. This
+   * includes all code owners of the unapproved paths (global code owners, code owners from code
+   * owner config files and fallback code owners), not only the ones that are reviewers of the
+   * change.
+   *
+   * @param changeNotes the notes of the change for which the pending code owners should be returned
+   * @return the accounts that own at least one path that is not code owner approved yet
+   */
+  public PendingCodeOwners getPendingCodeOwners(ChangeNotes changeNotes)
+      throws IOException, DiffNotAvailableException {
+    requireNonNull(changeNotes, "changeNotes");
+    try (Timer0.Context ctx = codeOwnerMetrics.computePendingCodeOwners.start();
+        RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("pending code owners", changeNotes)) {
+      logger.atFine().log(
+          "compute pending code owners (project = %s, change = %d)",
+          changeNotes.getProjectName(), changeNotes.getChangeId().get());
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy = codeOwnerConfigHierarchyProvider.get();
+      CodeOwnerResolver codeOwnerResolver =
+          codeOwnerResolverProvider.get().enforceVisibility(false);
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+          codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName());
+
+      ImmutableSet<Path> unapprovedPaths =
+          getFileStatuses(
+                  codeOwnersConfig,
+                  codeOwnerConfigHierarchy,
+                  codeOwnerResolver,
+                  changeNotes,
+                  // We only need the new and old paths that are not approved. For this it's OK if
+                  // for renamed files 2 FileCodeOwnerStatus'es are returned (one for the new path
+                  // and one for the old path), hence rename detection can be disabled here.
+                  /* enableRenameDetection= */ false)
+              .flatMap(
+                  fileStatus -> Stream.of(fileStatus.newPathStatus(), fileStatus.oldPathStatus()))
+              .flatMap(Optional::stream)
+              .filter(pathStatus -> pathStatus.status() != CodeOwnerStatus.APPROVED)
+              .map(PathCodeOwnerStatus::path)
+              .collect(toImmutableSet());
+      logger.atFine().log("unapproved paths = %s", unapprovedPaths);
+      if (unapprovedPaths.isEmpty()) {
+        return PendingCodeOwners.none();
+      }
+
+      BranchNameKey branch = changeNotes.getChange().getDest();
+      ObjectId revision = getDestBranchRevision(changeNotes.getChange()).orElse(null);
+      FallbackCodeOwners fallbackCodeOwners = codeOwnersConfig.getFallbackCodeOwners();
+
+      // Global code owners own all paths.
+      PendingCodeOwners.Builder pendingCodeOwners =
+          PendingCodeOwners.builder()
+              .addCodeOwners(
+                  codeOwnerResolver.resolveGlobalCodeOwners(changeNotes.getProjectName()));
+      for (Path absolutePath : unapprovedPaths) {
+        AtomicBoolean hasRevelantCodeOwnerDefinitions = new AtomicBoolean(false);
+        AtomicBoolean parentCodeOwnersAreIgnored = new AtomicBoolean(false);
+        codeOwnerConfigHierarchy.visitForFile(
+            branch,
+            revision,
+            absolutePath,
+            (PathCodeOwnersVisitor)
+                pathCodeOwners -> {
+                  CodeOwnerResolverResult codeOwners =
+                      resolveCodeOwners(codeOwnerResolver, pathCodeOwners);
+                  if (codeOwners.hasRevelantCodeOwnerDefinitions()) {
+                    hasRevelantCodeOwnerDefinitions.set(true);
+                  }
+                  pendingCodeOwners.addCodeOwners(codeOwners);
+                  return true;
+                },
+            codeOwnerConfigKey -> parentCodeOwnersAreIgnored.set(true));
+
+        // If no code owners have been defined for the path and if parent code owners are not
+        // ignored, the fallback code owners apply.
+        if (!hasRevelantCodeOwnerDefinitions.get()
+            && !parentCodeOwnersAreIgnored.get()
+            && fallbackCodeOwners == FallbackCodeOwners.ALL_USERS) {
+          pendingCodeOwners.setOwnedByAllUsers(true);
+        }
+      }
+      return pendingCodeOwners.build();
+    }
+  }
+
   /**
    * Gets the code owner statuses for all files/paths that were changed in the current revision of
    * the given change as a set.
@@ -267,31 +624,141 @@ public class CodeOwnerApprovalCheck {
   public ImmutableSet<FileCodeOwnerStatus> getFileStatusesAsSet(
       ChangeNotes changeNotes, int start, int limit) throws IOException, DiffNotAvailableException {
     requireNonNull(changeNotes, "changeNotes");
+    return evaluationCoalescer.coalesce(
+        CodeOwnerEvaluation.FILE_STATUSES,
+        changeNotes,
+        changeNotes.getCurrentPatchSet().id(),
+        ImmutableList.of(start, limit),
+        () -> computeFileStatusesAsSet(changeNotes, start, limit));
+  }
+
+  private ImmutableSet<FileCodeOwnerStatus> computeFileStatusesAsSet(
+      ChangeNotes changeNotes, int start, int limit) throws IOException, DiffNotAvailableException {
     CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
         codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName());
     try (Timer1.Context<Boolean> ctx =
-        codeOwnerMetrics.computeFileStatuses.start(codeOwnersConfig.areStickyApprovalsEnabled())) {
+            codeOwnerMetrics.computeFileStatuses.start(
+                codeOwnersConfig.areStickyApprovalsEnabled());
+        RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("file statuses", changeNotes)) {
       logger.atFine().log(
           "compute file statuses (project = %s, change = %d, start = %d, limit = %d)",
           changeNotes.getProjectName(), changeNotes.getChangeId().get(), start, limit);
-      Stream<FileCodeOwnerStatus> fileStatuses =
-          getFileStatuses(
+      return computeFileStatusesAsSet(
+          codeOwnersConfig,
+          codeOwnerConfigHierarchyProvider.get(),
+          codeOwnerResolverProvider.get().enforceVisibility(false),
+          changeNotes,
+          start,
+          limit);
+    }
+  }
+
+  private ImmutableSet<FileCodeOwnerStatus> computeFileStatusesAsSet(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      CodeOwnerResolver codeOwnerResolver,
+      ChangeNotes changeNotes,
+      int start,
+      int limit)
+      throws IOException, DiffNotAvailableException {
+    Stream<FileCodeOwnerStatus> fileStatuses =
+        getFileStatuses(
+            codeOwnersConfig,
+            codeOwnerConfigHierarchy,
+            codeOwnerResolver,
+            changeNotes,
+            // The FileCodeOwnerStatus'es that are computed here are returned in the response of
+            // GetCodeOwnerStatus REST endpoint. Since the GetCodeOwnerStatus REST endpoint is
+            // documented to return a single FileCodeOwnerStatus for renamed files we need to get
+            // the changed files with rename detection enabled.
+            /* enableRenameDetection= */ true);
+    if (start > 0) {
+      fileStatuses = fileStatuses.skip(start);
+    }
+    if (limit > 0) {
+      fileStatuses = fileStatuses.limit(limit);
+    }
+    return fileStatuses.collect(toImmutableSet());
+  }
+
+  /**
+   * Gets the code owner summary for the current revision of the given change.
+   *
+   * <p>The summary contains the code owner statuses of all files (same as {@link
+   * #getFileStatusesAsSet(ChangeNotes, int, int)} without limit) and, if an account is given, the
+   * files that are owned by the account or by a reviewer (same as {@link
+   * #getOwnedPaths(ChangeNotes, PatchSet, Account.Id, int, int, boolean)} for the current patch
+   * set, without limit and with checking reviewers).
+   *
+   * <p>Computing the summary is cheaper than doing these computations separately, since the code
+   * owner config files are loaded and the code owners are resolved only once for both computations.
+   *
+   * @param changeNotes the notes of the change for which the summary should be computed
+   * @param accountId account ID of the user for which the owned paths should be computed, {@code
+   *     null} if the owned paths should not be computed
+   */
+  public CodeOwnersSummary getSummary(ChangeNotes changeNotes, @Nullable Account.Id accountId)
+      throws IOException, DiffNotAvailableException {
+    requireNonNull(changeNotes, "changeNotes");
+    return evaluationCoalescer.coalesce(
+        CodeOwnerEvaluation.SUMMARY,
+        changeNotes,
+        changeNotes.getCurrentPatchSet().id(),
+        ImmutableList.of(Optional.ofNullable(accountId)),
+        () -> computeSummary(changeNotes, accountId));
+  }
+
+  private CodeOwnersSummary computeSummary(ChangeNotes changeNotes, @Nullable Account.Id accountId)
+      throws IOException, DiffNotAvailableException {
+    try (Timer0.Context ctx = codeOwnerMetrics.computeSummary.start();
+        RepositoryContext.Scope repositoryScope = repositoryContext.open();
+        CodeOwnerEvaluationBudget.Scope budgetScope =
+            evaluationBudget.open(changeNotes.getProjectName());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open("summary", changeNotes)) {
+      logger.atFine().log(
+          "compute summary for account %s (project = %s, change = %d)",
+          accountId, changeNotes.getProjectName(), changeNotes.getChangeId().get());
+
+      // Both computations use the same code owner config hierarchy and code owner resolver so that
+      // the code owner config files are loaded and parsed only once and each code owner is
+      // resolved only once.
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+          codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName());
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy = codeOwnerConfigHierarchyProvider.get();
+      CodeOwnerResolver codeOwnerResolver =
+          codeOwnerResolverProvider.get().enforceVisibility(false);
+
+      ImmutableSet<FileCodeOwnerStatus> fileCodeOwnerStatuses =
+          computeFileStatusesAsSet(
               codeOwnersConfig,
-              codeOwnerConfigHierarchyProvider.get(),
-              codeOwnerResolverProvider.get().enforceVisibility(false),
+              codeOwnerConfigHierarchy,
+              codeOwnerResolver,
               changeNotes,
-              // The FileCodeOwnerStatus'es that are computed here are returned in the response of
-              // GetCodeOwnerStatus REST endpoint. Since the GetCodeOwnerStatus REST endpoint is
-              // documented to return a single FileCodeOwnerStatus for renamed files we need to get
-              // the changed files with rename detection enabled.
-              /* enableRenameDetection= */ true);
-      if (start > 0) {
-        fileStatuses = fileStatuses.skip(start);
-      }
-      if (limit > 0) {
-        fileStatuses = fileStatuses.limit(limit);
+              /* start= */ 0,
+              /* limit= */ 0);
+
+      Optional<ImmutableList<OwnedChangedFile>> ownedChangedFiles = Optional.empty();
+      if (accountId != null) {
+        ownedChangedFiles =
+            Optional.of(
+                computeOwnedPaths(
+                    codeOwnersConfig,
+                    codeOwnerConfigHierarchy,
+                    codeOwnerResolver,
+                    changeNotes,
+                    changeNotes.getCurrentPatchSet(),
+                    accountId,
+                    /* start= */ 0,
+                    /* limit= */ 0,
+                    /* checkReviewers= */ true));
       }
-      return fileStatuses.collect(toImmutableSet());
+
+      return CodeOwnersSummary.create(fileCodeOwnerStatuses, ownedChangedFiles);
     }
   }
 
@@ -346,9 +813,7 @@ public class CodeOwnerApprovalCheck {
         return getAllPathsAsApproved(
             changeNotes,
             changeNotes.getCurrentPatchSet(),
-            String.format(
-                "patch set uploader %s is exempted from requiring code owner approvals",
-                AccountTemplateUtil.getAccountTemplate(patchSetUploader)),
+            PathCodeOwnerStatusReason.exemptedUploader(patchSetUploader),
             enableRenameDetection);
       }
 
@@ -360,41 +825,87 @@ public class CodeOwnerApprovalCheck {
         return getAllPathsAsApproved(
             changeNotes,
             changeNotes.getCurrentPatchSet(),
-            "change is a pure revert and is exempted from requiring code owner approvals",
+            PathCodeOwnerStatusReason.text(
+                "change is a pure revert and is exempted from requiring code owner approvals"),
             enableRenameDetection);
       }
 
-      BranchNameKey branch = changeNotes.getChange().getDest();
-      Optional<ObjectId> revision = getDestBranchRevision(changeNotes.getChange());
-      if (revision.isPresent()) {
-        logger.atFine().log(
-            "dest branch %s has revision %s", branch.branch(), revision.get().name());
-      } else {
-        logger.atFine().log("dest branch %s does not exist", branch.branch());
-      }
+      return getFileStatuses(
+          codeOwnersConfig,
+          codeOwnerConfigHierarchy,
+          codeOwnerResolver,
+          changeNotes,
+          inputLoaderFactory.create(codeOwnersConfig, codeOwnerResolver, changeNotes).load(),
+          enableRenameDetection);
+    }
+  }
 
-      CodeOwnerApprovalCheckInput input =
-          inputLoaderFactory.create(codeOwnersConfig, codeOwnerResolver, changeNotes).load();
-      ChangedFilesByPatchSetCache changedFilesByPatchSetCache =
-          changedFilesByPatchSetCacheFactory.create(codeOwnersConfig, changeNotes);
-      return changedFiles
-          .get(
-              changeNotes.getProjectName(),
-              changeNotes.getCurrentPatchSet().commitId(),
-              enableRenameDetection)
-          .stream()
-          .map(
-              changedFile ->
-                  getFileStatus(
-                      codeOwnerConfigHierarchy,
-                      codeOwnerResolver,
-                      codeOwnersConfig,
-                      changedFilesByPatchSetCache,
-                      branch,
-                      revision.orElse(null),
-                      changedFile,
-                      input));
+  /**
+   * Gets the code owner statuses for all files/paths that were changed in the current revision of
+   * the given change, based on the given input.
+   *
+   * <p>Unlike {@link #getFileStatuses(CodeOwnersPluginProjectConfigSnapshot,
+   * CodeOwnerConfigHierarchy, CodeOwnerResolver, ChangeNotes, boolean)} this method doesn't check
+   * whether the patch set uploader is exempted or whether the change is an exempted pure revert.
+   */
+  private Stream<FileCodeOwnerStatus> getFileStatuses(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      CodeOwnerResolver codeOwnerResolver,
+      ChangeNotes changeNotes,
+      CodeOwnerApprovalCheckInput input,
+      boolean enableRenameDetection)
+      throws IOException, DiffNotAvailableException {
+    return getFileStatuses(
+        codeOwnersConfig,
+        codeOwnerConfigHierarchy,
+        codeOwnerResolver,
+        changeNotes,
+        input,
+        enableRenameDetection,
+        getDestBranchRevision(changeNotes.getChange()));
+  }
+
+  /**
+   * Gets the code owner statuses for all files/paths that were changed in the current revision of
+   * the given change, based on the given input, reading the code owner config files from the given
+   * revision.
+   */
+  private Stream<FileCodeOwnerStatus> getFileStatuses(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      CodeOwnerResolver codeOwnerResolver,
+      ChangeNotes changeNotes,
+      CodeOwnerApprovalCheckInput input,
+      boolean enableRenameDetection,
+      Optional<ObjectId> revision)
+      throws IOException, DiffNotAvailableException {
+    BranchNameKey branch = changeNotes.getChange().getDest();
+    if (revision.isPresent()) {
+      logger.atFine().log("dest branch %s has revision %s", branch.branch(), revision.get().name());
+    } else {
+      logger.atFine().log("dest branch %s does not exist", branch.branch());
     }
+
+    ChangedFilesByPatchSetCache changedFilesByPatchSetCache =
+        changedFilesByPatchSetCacheFactory.create(codeOwnersConfig, changeNotes);
+    return changedFiles
+        .get(
+            changeNotes.getProjectName(),
+            changeNotes.getCurrentPatchSet().commitId(),
+            enableRenameDetection)
+        .stream()
+        .map(
+            changedFile ->
+                getFileStatus(
+                    codeOwnerConfigHierarchy,
+                    codeOwnerResolver,
+                    codeOwnersConfig,
+                    changedFilesByPatchSetCache,
+                    branch,
+                    revision.orElse(null),
+                    changedFile,
+                    input));
   }
 
   /**
@@ -420,6 +931,23 @@ public class CodeOwnerApprovalCheck {
     requireNonNull(changeNotes, "changeNotes");
     requireNonNull(patchSet, "patchSet");
     requireNonNull(accountIds, "accountIds");
+    return getFileStatusesForAccounts(
+        codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName()),
+        codeOwnerConfigHierarchyProvider.get(),
+        codeOwnerResolverProvider.get().enforceVisibility(false),
+        changeNotes,
+        patchSet,
+        accountIds);
+  }
+
+  private Stream<FileCodeOwnerStatus> getFileStatusesForAccounts(
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      CodeOwnerResolver codeOwnerResolver,
+      ChangeNotes changeNotes,
+      PatchSet patchSet,
+      ImmutableSet<Account.Id> accountIds)
+      throws IOException, DiffNotAvailableException {
     try (Timer0.Context ctx = codeOwnerMetrics.prepareFileStatusComputationForAccount.start()) {
       logger.atFine().log(
           "prepare stream to compute file statuses for accounts %s (project = %s, change = %d,"
@@ -429,9 +957,6 @@ public class CodeOwnerApprovalCheck {
           changeNotes.getChangeId().get(),
           patchSet.id().get());
 
-      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
-          codeOwnersPluginConfiguration.getProjectConfig(changeNotes.getProjectName());
-
       RequiredApproval requiredApproval = codeOwnersConfig.getRequiredApproval();
       logger.atFine().log("requiredApproval = %s", requiredApproval);
 
@@ -447,9 +972,6 @@ public class CodeOwnerApprovalCheck {
       FallbackCodeOwners fallbackCodeOwners = codeOwnersConfig.getFallbackCodeOwners();
       logger.atFine().log("fallbackCodeOwner = %s", fallbackCodeOwners);
 
-      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy = codeOwnerConfigHierarchyProvider.get();
-      CodeOwnerResolver codeOwnerResolver =
-          codeOwnerResolverProvider.get().enforceVisibility(false);
       CodeOwnerApprovalCheckInput input =
           CodeOwnerApprovalCheckInput.createForComputingOwnedPaths(
               codeOwnersConfig, codeOwnerResolver, changeNotes, accountIds);
@@ -489,7 +1011,10 @@ public class CodeOwnerApprovalCheck {
   }
 
   private Stream<FileCodeOwnerStatus> getAllPathsAsApproved(
-      ChangeNotes changeNotes, PatchSet patchSet, String reason, boolean enableRenameDetection)
+      ChangeNotes changeNotes,
+      PatchSet patchSet,
+      PathCodeOwnerStatusReason reason,
+      boolean enableRenameDetection)
       throws IOException, DiffNotAvailableException {
     logger.atFine().log("all paths are approved (reason = %s)", reason);
     return changedFiles
@@ -522,8 +1047,12 @@ public class CodeOwnerApprovalCheck {
       @Nullable ObjectId revision,
       ChangedFile changedFile,
       CodeOwnerApprovalCheckInput input) {
+    ComputeFileStatusEvent event = new ComputeFileStatusEvent();
+    event.begin();
     try (Timer0.Context ctx = codeOwnerMetrics.computeFileStatus.start()) {
       logger.atFine().log("computing file status for %s", changedFile);
+      evaluationBudget.chargeFile();
+      evaluationTrace.recordFile();
 
       // Compute the code owner status for the new path, if there is a new path.
       Optional<PathCodeOwnerStatus> newPathStatus =
@@ -565,6 +1094,15 @@ public class CodeOwnerApprovalCheck {
       FileCodeOwnerStatus fileCodeOwnerStatus =
           FileCodeOwnerStatus.create(changedFile, newPathStatus, oldPathStatus);
       logger.atFine().log("fileCodeOwnerStatus = %s", fileCodeOwnerStatus);
+      if (event.shouldCommit()) {
+        // For renamed files report the status of the new path.
+        PathCodeOwnerStatus pathStatus =
+            newPathStatus.isPresent() ? newPathStatus.get() : oldPathStatus.get();
+        event.commit(
+            String.format("%s:%s", branch.project(), branch.shortName()),
+            pathStatus.path().toString(),
+            pathStatus.status().name());
+      }
       return fileCodeOwnerStatus;
     }
   }
@@ -589,21 +1127,24 @@ public class CodeOwnerApprovalCheck {
       return PathCodeOwnerStatus.create(
           absolutePath,
           CodeOwnerStatus.APPROVED,
-          String.format(
-              "override approval %s by %s is present",
-              override.get().label() + LabelValue.formatValue(override.get().value()),
-              AccountTemplateUtil.getAccountTemplate(override.get().accountId())));
+          PathCodeOwnerStatusReason.overrideApproval(override.get()));
     }
 
     AtomicReference<CodeOwnerStatus> codeOwnerStatus =
         new AtomicReference<>(CodeOwnerStatus.INSUFFICIENT_REVIEWERS);
-    AtomicReference<String> reason = new AtomicReference<>(/* initialValue= */ null);
-    ImmutableSet.Builder<Account.Id> activeOwners = ImmutableSet.builder();
+    AtomicReference<PathCodeOwnerStatusReason> reason =
+        new AtomicReference<>(/* initialValue= */ null);
+
+    // The approvers and reviewers that own the path, as indices of input.indexedAccounts().
+    IndexedAccounts indexedAccounts = input.indexedAccounts();
+    BitSet activeOwners = new BitSet();
 
+    BitSet globalCodeOwners = input.globalCodeOwnerIndices();
     boolean isGloballyApproved =
         isApproved(
             absolutePath,
             input.globalCodeOwners(),
+            globalCodeOwners,
             CodeOwnerKind.GLOBAL_CODE_OWNER,
             codeOwnersConfig,
             changedFilesByPatchSetCache,
@@ -614,15 +1155,7 @@ public class CodeOwnerApprovalCheck {
       codeOwnerStatus.set(CodeOwnerStatus.APPROVED);
     }
 
-    if (input.globalCodeOwners().ownedByAllUsers()) {
-      activeOwners.addAll(input.approvers());
-      activeOwners.addAll(input.reviewers());
-    } else {
-      activeOwners.addAll(
-          Sets.intersection(input.globalCodeOwners().codeOwnersAccountIds(), input.approvers()));
-      activeOwners.addAll(
-          Sets.intersection(input.globalCodeOwners().codeOwnersAccountIds(), input.reviewers()));
-    }
+    activeOwners.or(globalCodeOwners);
 
     // Only check recursively for all OWNERs in two scenarios:
     // 1. The path was not globally approved
@@ -633,7 +1166,11 @@ public class CodeOwnerApprovalCheck {
       logger.atFine().log("%s was not approved by a global code owner", absolutePath);
 
       if (isPending(
-          input.globalCodeOwners(), CodeOwnerKind.GLOBAL_CODE_OWNER, input.reviewers(), reason)) {
+          input.globalCodeOwners(),
+          globalCodeOwners,
+          CodeOwnerKind.GLOBAL_CODE_OWNER,
+          indexedAccounts,
+          reason)) {
         codeOwnerStatus.set(CodeOwnerStatus.PENDING);
       }
 
@@ -654,15 +1191,10 @@ public class CodeOwnerApprovalCheck {
                     resolveCodeOwners(codeOwnerResolver, pathCodeOwners);
 
                 boolean ownedByAllUsers = codeOwners.ownedByAllUsers();
-                if (ownedByAllUsers) {
-                  activeOwners.addAll(input.approvers());
-                  activeOwners.addAll(input.reviewers());
-                } else {
-                  activeOwners.addAll(
-                      Sets.intersection(codeOwners.codeOwnersAccountIds(), input.approvers()));
-                  activeOwners.addAll(
-                      Sets.intersection(codeOwners.codeOwnersAccountIds(), input.reviewers()));
-                }
+                BitSet codeOwnerIndices =
+                    indexedAccounts.getCodeOwners(
+                        pathCodeOwners.resolveCodeOwnerConfig(), codeOwners);
+                activeOwners.or(codeOwnerIndices);
                 logger.atFine().log(
                     "code owners = %s (code owner kind = %s, code owner config folder path = %s,"
                         + " file name = %s)",
@@ -678,6 +1210,7 @@ public class CodeOwnerApprovalCheck {
                 if (isApproved(
                     absolutePath,
                     codeOwners,
+                    codeOwnerIndices,
                     codeOwnerKind,
                     codeOwnersConfig,
                     changedFilesByPatchSetCache,
@@ -687,7 +1220,8 @@ public class CodeOwnerApprovalCheck {
                   // No need to recurse if we are not checking all owners or all owners are
                   // are already added.
                   return input.checkAllOwners() && !ownedByAllUsers;
-                } else if (isPending(codeOwners, codeOwnerKind, input.reviewers(), reason)) {
+                } else if (isPending(
+                    codeOwners, codeOwnerIndices, codeOwnerKind, indexedAccounts, reason)) {
                   codeOwnerStatus.set(CodeOwnerStatus.PENDING);
 
                   // We need to continue to check if any of the higher-level code owners approved
@@ -723,7 +1257,7 @@ public class CodeOwnerApprovalCheck {
                 reason);
 
         if (codeOwnerStatusForFallbackCodeOwners.equals(CodeOwnerStatus.APPROVED)) {
-          activeOwners.addAll(input.approvers());
+          activeOwners.or(indexedAccounts.approvers());
         } else if (codeOwnerStatusForFallbackCodeOwners.equals(CodeOwnerStatus.PENDING)) {
           switch (input.fallbackCodeOwners()) {
             case NONE:
@@ -732,8 +1266,7 @@ public class CodeOwnerApprovalCheck {
               break;
             case ALL_USERS:
               // all users are code owners
-              activeOwners.addAll(input.approvers());
-              activeOwners.addAll(input.reviewers());
+              activeOwners.or(indexedAccounts.all());
               break;
           }
         }
@@ -770,7 +1303,9 @@ public class CodeOwnerApprovalCheck {
             absolutePath,
             codeOwnerStatus.get(),
             reason.get(),
-            input.checkAllOwners() ? Optional.of(activeOwners.build()) : Optional.empty());
+            input.checkAllOwners()
+                ? Optional.of(indexedAccounts.toAccountIds(activeOwners))
+                : Optional.empty());
     logger.atFine().log("pathCodeOwnerStatus = %s", pathCodeOwnerStatus);
     return pathCodeOwnerStatus;
   }
@@ -785,7 +1320,7 @@ public class CodeOwnerApprovalCheck {
       ImmutableSet<Account.Id> approverAccountIds,
       FallbackCodeOwners fallbackCodeOwners,
       Path absolutePath,
-      AtomicReference<String> reason) {
+      AtomicReference<PathCodeOwnerStatusReason> reason) {
     logger.atFine().log(
         "getting code owner status for fallback code owners (fallback code owners = %s)",
         fallbackCodeOwners);
@@ -808,18 +1343,14 @@ public class CodeOwnerApprovalCheck {
       ImmutableSet<Account.Id> reviewerAccountIds,
       ImmutableSet<Account.Id> approverAccountIds,
       Path absolutePath,
-      AtomicReference<String> reason) {
+      AtomicReference<PathCodeOwnerStatusReason> reason) {
     logger.atFine().log(
         "getting code owner status for fallback code owners (all users are fallback code owners)");
 
     if (implicitApprover != null) {
       reason.set(
-          String.format(
-              "implicitly approved by the patch set uploader %s who is a %s"
-                  + " (all users are %ss)",
-              AccountTemplateUtil.getAccountTemplate(implicitApprover),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName(),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName()));
+          PathCodeOwnerStatusReason.implicitApproval(
+              implicitApprover, CodeOwnerKind.FALLBACK_CODE_OWNER, /* ownedByAllUsers= */ true));
       return CodeOwnerStatus.APPROVED;
     }
 
@@ -827,21 +1358,15 @@ public class CodeOwnerApprovalCheck {
       Optional<Account.Id> approver = approverAccountIds.stream().findAny();
       checkState(approver.isPresent(), "no approver found");
       reason.set(
-          String.format(
-              "approved by %s who is a %s (all users are %ss)",
-              AccountTemplateUtil.getAccountTemplate(approver.get()),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName(),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName()));
+          PathCodeOwnerStatusReason.approval(
+              approver.get(), CodeOwnerKind.FALLBACK_CODE_OWNER, /* ownedByAllUsers= */ true));
       return CodeOwnerStatus.APPROVED;
     } else if (!reviewerAccountIds.isEmpty()) {
       Optional<Account.Id> reviewer = reviewerAccountIds.stream().findAny();
       checkState(reviewer.isPresent(), "no reviewer found");
       reason.set(
-          String.format(
-              "reviewer %s is a %s (all users are %ss)",
-              AccountTemplateUtil.getAccountTemplate(reviewer.get()),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName(),
-              CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName()));
+          PathCodeOwnerStatusReason.reviewer(
+              reviewer.get(), CodeOwnerKind.FALLBACK_CODE_OWNER, /* ownedByAllUsers= */ true));
       return CodeOwnerStatus.PENDING;
     }
 
@@ -855,6 +1380,8 @@ public class CodeOwnerApprovalCheck {
    * @param absolutePath the absolute path for which it should be checked whether it is code owner
    *     approved
    * @param codeOwners users that own the path
+   * @param codeOwnerIndices the approvers and reviewers that own the path, as indices of {@link
+   *     CodeOwnerApprovalCheckInput#indexedAccounts()}
    * @param codeOwnerKind the kind of the given {@code codeOwners}
    * @param codeOwnersConfig the code-owners plugin configuration that applies to the project that
    *     contains the change for which the code owner statuses are checked
@@ -866,47 +1393,30 @@ public class CodeOwnerApprovalCheck {
   private boolean isApproved(
       Path absolutePath,
       CodeOwnerResolverResult codeOwners,
+      BitSet codeOwnerIndices,
       CodeOwnerKind codeOwnerKind,
       CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig,
       ChangedFilesByPatchSetCache changedFilesByPatchSetCache,
       CodeOwnerApprovalCheckInput input,
-      AtomicReference<String> reason) {
+      AtomicReference<PathCodeOwnerStatusReason> reason) {
     if (input.implicitApprover().isPresent()) {
       if (codeOwners.codeOwnersAccountIds().contains(input.implicitApprover().get())
           || codeOwners.ownedByAllUsers()) {
         // If the uploader of the patch set owns the path, there is an implicit code owner
         // approval from the patch set uploader so that the path is automatically approved.
         reason.set(
-            String.format(
-                "implicitly approved by the patch set uploader %s who is a %s%s",
-                AccountTemplateUtil.getAccountTemplate(input.implicitApprover().get()),
-                codeOwnerKind.getDisplayName(),
-                codeOwners.ownedByAllUsers()
-                    ? String.format(" (all users are %ss)", codeOwnerKind.getDisplayName())
-                    : ""));
+            PathCodeOwnerStatusReason.implicitApproval(
+                input.implicitApprover().get(), codeOwnerKind, codeOwners.ownedByAllUsers()));
         return true;
       }
     }
 
-    ImmutableSet<Account.Id> approvers = input.approvers();
-    if (!Collections.disjoint(approvers, codeOwners.codeOwnersAccountIds())
-        || (codeOwners.ownedByAllUsers() && !approvers.isEmpty())) {
+    Optional<Account.Id> approver = input.indexedAccounts().getFirstApprover(codeOwnerIndices);
+    if (approver.isPresent()) {
       // At least one of the code owners approved the change.
-      Optional<Account.Id> approver =
-          codeOwners.ownedByAllUsers()
-              ? approvers.stream().findAny()
-              : approvers.stream()
-                  .filter(accountId -> codeOwners.codeOwnersAccountIds().contains(accountId))
-                  .findAny();
-      checkState(approver.isPresent(), "no approver found");
       reason.set(
-          String.format(
-              "approved by %s who is a %s%s",
-              AccountTemplateUtil.getAccountTemplate(approver.get()),
-              codeOwnerKind.getDisplayName(),
-              codeOwners.ownedByAllUsers()
-                  ? String.format(" (all users are %ss)", codeOwnerKind.getDisplayName())
-                  : ""));
+          PathCodeOwnerStatusReason.approval(
+              approver.get(), codeOwnerKind, codeOwners.ownedByAllUsers()));
       return true;
     }
 
@@ -925,7 +1435,7 @@ public class CodeOwnerApprovalCheck {
       CodeOwnerKind codeOwnerKind,
       ChangedFilesByPatchSetCache changedFilesByPatchSetCache,
       CodeOwnerApprovalCheckInput input,
-      AtomicReference<String> reason) {
+      AtomicReference<PathCodeOwnerStatusReason> reason) {
     for (PatchSet.Id patchSetId : input.previouslyApprovedPatchSetsInReverseOrder()) {
       // changedFilesByPatchSetCache doesn't detect renames. That's fine since we only check whether
       // the path has been code-owner approved in a previous patch set.
@@ -950,14 +1460,8 @@ public class CodeOwnerApprovalCheck {
         }
 
         reason.set(
-            String.format(
-                "approved on patch set %d by %s who is a %s%s",
-                patchSetId.get(),
-                AccountTemplateUtil.getAccountTemplate(approver.get()),
-                codeOwnerKind.getDisplayName(),
-                codeOwners.ownedByAllUsers()
-                    ? String.format(" (all users are %ss)", codeOwnerKind.getDisplayName())
-                    : ""));
+            PathCodeOwnerStatusReason.stickyApproval(
+                patchSetId.get(), approver.get(), codeOwnerKind, codeOwners.ownedByAllUsers()));
         return true;
       }
     }
@@ -968,34 +1472,25 @@ public class CodeOwnerApprovalCheck {
    * Checks whether any of the reviewers is a code owner of the path.
    *
    * @param codeOwners users that own the path
+   * @param codeOwnerIndices the approvers and reviewers that own the path, as indices of {@code
+   *     indexedAccounts}
    * @param codeOwnerKind the kind of the given {@code codeOwners}
-   * @param reviewerAccountIds the IDs of the accounts that are reviewer of the change
+   * @param indexedAccounts the indexed approvers and reviewers of the change
    * @param reason {@link AtomicReference} on which the reason is being set if the status for the
    *     path is {@code PENDING}
    * @return whether the path was approved
    */
   private boolean isPending(
       CodeOwnerResolverResult codeOwners,
+      BitSet codeOwnerIndices,
       CodeOwnerKind codeOwnerKind,
-      ImmutableSet<Account.Id> reviewerAccountIds,
-      AtomicReference<String> reason) {
-    if (!Collections.disjoint(codeOwners.codeOwnersAccountIds(), reviewerAccountIds)
-        || (codeOwners.ownedByAllUsers() && !reviewerAccountIds.isEmpty())) {
-      Optional<Account.Id> reviewer =
-          codeOwners.ownedByAllUsers()
-              ? reviewerAccountIds.stream().findAny()
-              : reviewerAccountIds.stream()
-                  .filter(accountId -> codeOwners.codeOwnersAccountIds().contains(accountId))
-                  .findAny();
-      checkState(reviewer.isPresent(), "no reviewer found");
+      IndexedAccounts indexedAccounts,
+      AtomicReference<PathCodeOwnerStatusReason> reason) {
+    Optional<Account.Id> reviewer = indexedAccounts.getFirstReviewer(codeOwnerIndices);
+    if (reviewer.isPresent()) {
       reason.set(
-          String.format(
-              "reviewer %s is a %s%s",
-              AccountTemplateUtil.getAccountTemplate(reviewer.get()),
-              codeOwnerKind.getDisplayName(),
-              codeOwners.ownedByAllUsers()
-                  ? String.format(" (all users are %ss)", codeOwnerKind.getDisplayName())
-                  : ""));
+          PathCodeOwnerStatusReason.reviewer(
+              reviewer.get(), codeOwnerKind, codeOwners.ownedByAllUsers()));
       return true;
     }
 
@@ -1025,8 +1520,8 @@ public class CodeOwnerApprovalCheck {
    *     uploaded to an unborn branch or when the branch got deleted after the change was created)
    */
   private Optional<ObjectId> getDestBranchRevision(Change change) throws IOException {
-    try (Repository repository = repoManager.openRepository(change.getProject());
-        RevWalk rw = new RevWalk(repository)) {
+    try (Repository repository = repositoryContext.openRepository(change.getProject());
+        RevWalk rw = repositoryContext.newRevWalk(repository)) {
       Ref ref = repository.exactRef(change.getDest().branch());
       if (ref == null) {
         return Optional.empty();
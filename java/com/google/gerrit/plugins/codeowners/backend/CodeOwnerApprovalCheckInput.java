@@ -42,6 +42,7 @@ import com.google.gerrit.server.notedb.ReviewerStateInternal;
 import com.google.gerrit.server.util.LabelVote;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -107,9 +108,29 @@ public abstract class CodeOwnerApprovalCheckInput {
    */
   public abstract ImmutableSet<PatchSetApproval> overrides();
 
+  /**
+   * Gets dense indices for the {@link #approvers()} and {@link #reviewers()}, so that sets of them
+   * can be represented as bit sets.
+   */
+  @Memoized
+  IndexedAccounts indexedAccounts() {
+    return IndexedAccounts.create(approvers(), reviewers());
+  }
+
   /** Gets the configured global code owners. */
   public abstract CodeOwnerResolverResult globalCodeOwners();
 
+  /**
+   * Gets the indices of the approvers and reviewers that are {@link #globalCodeOwners()} (see
+   * {@link #indexedAccounts()}).
+   *
+   * <p>The returned bit set is shared and must not be modified.
+   */
+  @Memoized
+  BitSet globalCodeOwnerIndices() {
+    return indexedAccounts().getCodeOwners(globalCodeOwners());
+  }
+
   /** Gets the policy that defines who owns paths for which no code owners are defined. */
   public abstract FallbackCodeOwners fallbackCodeOwners();
 
@@ -20,11 +20,18 @@ import com.google.gerrit.index.query.QueryParseException;
 import com.google.gerrit.server.query.change.ChangeData;
 import com.google.gerrit.server.query.change.ChangeQueryBuilder;
 import com.google.gerrit.server.query.change.ChangeQueryBuilder.ChangeHasOperandFactory;
+import com.google.gerrit.server.query.change.SubmitRequirementChangeQueryBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
-/** A class contributing a "approval_code-owners" operand to the "has" predicate. */
+/**
+ * A class contributing a "approval_code-owners" operand to the "has" predicate.
+ *
+ * <p>In submit requirement expressions the operand is evaluated live by {@link
+ * CodeOwnerApprovalPredicate}, in search queries it is served from the index by {@link
+ * IndexedCodeOwnerApprovalPredicate}.
+ */
 @Singleton
 public class CodeOwnerApprovalHasOperand implements ChangeHasOperandFactory {
   static final String OPERAND = "approval";
@@ -39,14 +46,23 @@ public class CodeOwnerApprovalHasOperand implements ChangeHasOperandFactory {
   }
 
   private final CodeOwnerApprovalPredicate codeOwnerApprovalPredicate;
+  private final IndexedCodeOwnerApprovalPredicate indexedCodeOwnerApprovalPredicate;
 
   @Inject
-  public CodeOwnerApprovalHasOperand(CodeOwnerApprovalPredicate codeOwnerApprovalPredicate) {
+  public CodeOwnerApprovalHasOperand(
+      CodeOwnerApprovalPredicate codeOwnerApprovalPredicate,
+      IndexedCodeOwnerApprovalPredicate indexedCodeOwnerApprovalPredicate) {
     this.codeOwnerApprovalPredicate = codeOwnerApprovalPredicate;
+    this.indexedCodeOwnerApprovalPredicate = indexedCodeOwnerApprovalPredicate;
   }
 
   @Override
   public Predicate<ChangeData> create(ChangeQueryBuilder builder) throws QueryParseException {
-    return codeOwnerApprovalPredicate;
+    if (builder instanceof SubmitRequirementChangeQueryBuilder) {
+      // Submit requirements must be evaluated against the current state of the change, hence we
+      // must not use the (possibly stale) data from the index.
+      return codeOwnerApprovalPredicate;
+    }
+    return indexedCodeOwnerApprovalPredicate;
   }
 }
@@ -31,7 +31,8 @@ import java.util.Optional;
  *
  * <p>We implement the {@link SubmitRequirementPredicate} interface to make this predicate available
  * for submit requirement expressions. As a consequence, this predicate does not work with search
- * queries. We do that since the computation of code owner approvals is expensive.
+ * queries. We do that since the computation of code owner approvals is expensive. Search queries
+ * use the {@link IndexedCodeOwnerApprovalPredicate} instead, which is served from the index.
  *
  * <p>TODO(ghareeb): exclude code owner overrides from this predicate.
  */
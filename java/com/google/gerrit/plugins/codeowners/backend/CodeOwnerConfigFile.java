@@ -24,6 +24,7 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.gerrit.metrics.Timer0;
 import com.google.gerrit.metrics.Timer1;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.ParseCodeOwnerConfigEvent;
 import com.google.gerrit.plugins.codeowners.util.JgitPath;
 import com.google.gerrit.server.git.meta.MetaDataUpdate;
 import com.google.gerrit.server.git.meta.VersionedMetaData;
@@ -55,10 +56,12 @@ import org.eclipse.jgit.treewalk.TreeWalk;
 public class CodeOwnerConfigFile extends VersionedMetaData {
   public static class Factory {
     private final CodeOwnerMetrics codeOwnerMetrics;
+    private final CodeOwnerEvaluationTrace evaluationTrace;
 
     @Inject
-    Factory(CodeOwnerMetrics codeOwnerMetrics) {
+    Factory(CodeOwnerMetrics codeOwnerMetrics, CodeOwnerEvaluationTrace evaluationTrace) {
       this.codeOwnerMetrics = codeOwnerMetrics;
+      this.evaluationTrace = evaluationTrace;
     }
 
     /**
@@ -102,7 +105,11 @@ public class CodeOwnerConfigFile extends VersionedMetaData {
 
       CodeOwnerConfigFile codeOwnerConfigFile =
           new CodeOwnerConfigFile(
-              codeOwnerMetrics, defaultFileName, codeOwnerConfigParser, codeOwnerConfigKey);
+              codeOwnerMetrics,
+              evaluationTrace,
+              defaultFileName,
+              codeOwnerConfigParser,
+              codeOwnerConfigKey);
       codeOwnerConfigFile.load(codeOwnerConfigKey.project(), revWalk, revision);
       return codeOwnerConfigFile;
     }
@@ -135,13 +142,18 @@ public class CodeOwnerConfigFile extends VersionedMetaData {
 
       CodeOwnerConfigFile codeOwnerConfigFile =
           new CodeOwnerConfigFile(
-              codeOwnerMetrics, defaultFileName, codeOwnerConfigParser, codeOwnerConfigKey);
+              codeOwnerMetrics,
+              evaluationTrace,
+              defaultFileName,
+              codeOwnerConfigParser,
+              codeOwnerConfigKey);
       codeOwnerConfigFile.load(codeOwnerConfigKey.project(), repository);
       return codeOwnerConfigFile;
     }
   }
 
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final String defaultFileName;
   private final CodeOwnerConfigParser codeOwnerConfigParser;
   private final CodeOwnerConfig.Key codeOwnerConfigKey;
@@ -152,10 +164,12 @@ public class CodeOwnerConfigFile extends VersionedMetaData {
 
   private CodeOwnerConfigFile(
       CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationTrace evaluationTrace,
       String defaultFileName,
       CodeOwnerConfigParser codeOwnerConfigParser,
       CodeOwnerConfig.Key codeOwnerConfigKey) {
     this.codeOwnerMetrics = codeOwnerMetrics;
+    this.evaluationTrace = evaluationTrace;
     this.defaultFileName = defaultFileName;
     this.codeOwnerConfigParser = codeOwnerConfigParser;
     this.codeOwnerConfigKey = codeOwnerConfigKey;
@@ -221,13 +235,25 @@ public class CodeOwnerConfigFile extends VersionedMetaData {
           JgitPath.of(codeOwnerConfigKey.filePath(defaultFileName)).get();
       Optional<String> codeOwnerConfigFileContent = getFileIfItExists(codeOwnerConfigFilePath);
       if (codeOwnerConfigFileContent.isPresent()) {
+        ParseCodeOwnerConfigEvent event = new ParseCodeOwnerConfigEvent();
+        event.begin();
         try (Timer1.Context<String> ctx =
-            codeOwnerMetrics.parseCodeOwnerConfig.start(
-                codeOwnerConfigParser.getClass().getSimpleName())) {
+                codeOwnerMetrics.parseCodeOwnerConfig.start(
+                    codeOwnerConfigParser.getClass().getSimpleName());
+            CodeOwnerEvaluationTrace.Timer traceTimer =
+                evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.PARSE_CODE_OWNER_CONFIG)) {
           loadedCodeOwnersConfig =
               Optional.of(
                   codeOwnerConfigParser.parse(
                       revision, codeOwnerConfigKey, codeOwnerConfigFileContent.get()));
+          if (event.shouldCommit()) {
+            event.commit(
+                String.format(
+                    "%s:%s:%s",
+                    projectName, codeOwnerConfigKey.shortBranchName(), codeOwnerConfigFilePath),
+                getObjectId(codeOwnerConfigFilePath).name(),
+                codeOwnerConfigParser.getClass().getSimpleName());
+          }
         } catch (CodeOwnerConfigParseException e) {
           throw new InvalidCodeOwnerConfigException(
               e.getFullMessage(defaultFileName),
@@ -23,7 +23,6 @@ import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.entities.RefNames;
 import com.google.gerrit.exceptions.StorageException;
-import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -52,16 +51,16 @@ import org.eclipse.jgit.revwalk.RevWalk;
 public class CodeOwnerConfigHierarchy {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-  private final GitRepositoryManager repoManager;
+  private final RepositoryContext repositoryContext;
   private final PathCodeOwners.Factory pathCodeOwnersFactory;
   private final TransientCodeOwnerConfigCache transientCodeOwnerConfigCache;
 
   @Inject
   CodeOwnerConfigHierarchy(
-      GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
       PathCodeOwners.Factory pathCodeOwnersFactory,
       TransientCodeOwnerConfigCache transientCodeOwnerConfigCache) {
-    this.repoManager = repoManager;
+    this.repositoryContext = repositoryContext;
     this.pathCodeOwnersFactory = pathCodeOwnersFactory;
     this.transientCodeOwnerConfigCache = transientCodeOwnerConfigCache;
   }
@@ -276,8 +275,8 @@ public class CodeOwnerConfigHierarchy {
     CodeOwnerConfig.Key metaCodeOwnerConfigKey =
         CodeOwnerConfig.Key.create(project, RefNames.REFS_CONFIG, "/");
     logger.atFine().log("visiting code owner config %s", metaCodeOwnerConfigKey);
-    try (Repository repository = repoManager.openRepository(project);
-        RevWalk rw = new RevWalk(repository)) {
+    try (Repository repository = repositoryContext.openRepository(project);
+        RevWalk rw = repositoryContext.newRevWalk(repository)) {
       Ref ref = repository.exactRef(RefNames.REFS_CONFIG);
       if (ref == null) {
         logger.atFine().log("%s not found", RefNames.REFS_CONFIG);
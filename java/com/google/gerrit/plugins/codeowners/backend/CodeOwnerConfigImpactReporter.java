@@ -0,0 +1,397 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.events.RevisionCreatedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshot;
+import com.google.gerrit.server.ChangeMessagesUtil;
+import com.google.gerrit.server.CurrentUser;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.permissions.ChangePermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Callback that is invoked when a patch set is created.
+ *
+ * <p>If the patch set modifies code owner config files, reports which open changes of the
+ * destination branch would change their code owner submittability if the modifications were
+ * submitted. The report is posted as a change message on the change that modifies the code owner
+ * config files, so that reviewers can see the impact of the modifications.
+ *
+ * <p>Re-evaluating all open changes of the branch would be too expensive. Instead only the open
+ * changes that have files in folders that are affected by the modified code owner config files
+ * (see {@link CodeOwnerConfigUpdateListener#getAffectedFolders(CodeOwnerBackend, BranchNameKey,
+ * ObjectId, ObjectId, ImmutableSet)}) are re-evaluated, and at most {@code
+ * plugin.code-owners.maxImpactReportChanges} of them. Each re-evaluation is subject to the code
+ * owner evaluation budget.
+ *
+ * <p>The open changes are re-evaluated with the code owner config files from the new patch set.
+ * This is only done if the code owner config files of the patch set parent and of the current
+ * revision of the destination branch are the same. Otherwise the re-evaluation would revert the
+ * updates of code owner config files that have been submitted to the destination branch since
+ * then, hence the report only says that the impact was not evaluated and that the change should be
+ * rebased.
+ *
+ * <p>The re-evaluation is done in the background so that it doesn't add latency to the upload. It
+ * runs on a dedicated work queue ({@code CodeOwnersImpactReport}) whose number of threads is
+ * configured by {@code plugin.code-owners.impactReportThreads}, so that slow reports don't delay
+ * the reindexing of changes and the invalidation of pending code owners that the {@link
+ * ChangeReindexQueue} does when code owner config files are updated. Only the finished report is
+ * scheduled on the {@link AsyncChangeMessageQueue}, so that no re-evaluation is done while the
+ * change is being updated.
+ */
+@Singleton
+public class CodeOwnerConfigImpactReporter implements RevisionCreatedListener, LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String QUEUE_NAME = "CodeOwnersImpactReport";
+
+  public static class CodeOwnerConfigImpactReporterModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(CodeOwnerConfigImpactReporter.class);
+      DynamicSet.bind(binder(), RevisionCreatedListener.class)
+          .to(CodeOwnerConfigImpactReporter.class);
+    }
+  }
+
+  private static final String TAG_IMPACT_REPORT =
+      ChangeMessagesUtil.AUTOGENERATED_BY_GERRIT_TAG_PREFIX + "code-owners:impactReport";
+
+  private final WorkQueue workQueue;
+  private final AsyncChangeMessageQueue asyncChangeMessageQueue;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerConfigUpdateListener codeOwnerConfigUpdateListener;
+  private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
+  private final GitRepositoryManager repoManager;
+  private final Provider<InternalChangeQuery> changeQueryProvider;
+  private final ChangeNotes.Factory changeNotesFactory;
+  private final PermissionBackend permissionBackend;
+  private final Provider<CurrentUser> userProvider;
+  private final OneOffRequestContext oneOffRequestContext;
+
+  @Nullable private ScheduledExecutorService executor;
+
+  @Inject
+  CodeOwnerConfigImpactReporter(
+      WorkQueue workQueue,
+      AsyncChangeMessageQueue asyncChangeMessageQueue,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerConfigUpdateListener codeOwnerConfigUpdateListener,
+      CodeOwnerApprovalCheck codeOwnerApprovalCheck,
+      GitRepositoryManager repoManager,
+      Provider<InternalChangeQuery> changeQueryProvider,
+      ChangeNotes.Factory changeNotesFactory,
+      PermissionBackend permissionBackend,
+      Provider<CurrentUser> userProvider,
+      OneOffRequestContext oneOffRequestContext) {
+    this.workQueue = workQueue;
+    this.asyncChangeMessageQueue = asyncChangeMessageQueue;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerConfigUpdateListener = codeOwnerConfigUpdateListener;
+    this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
+    this.repoManager = repoManager;
+    this.changeQueryProvider = changeQueryProvider;
+    this.changeNotesFactory = changeNotesFactory;
+    this.permissionBackend = permissionBackend;
+    this.userProvider = userProvider;
+    this.oneOffRequestContext = oneOffRequestContext;
+  }
+
+  @Override
+  public synchronized void start() {
+    executor =
+        workQueue.createQueue(
+            codeOwnersPluginConfiguration.getGlobalConfig().getImpactReportThreads(), QUEUE_NAME);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  @Override
+  public void onRevisionCreated(Event event) {
+    Optional<Integer> maxImpactReportChanges =
+        codeOwnersPluginConfiguration.getGlobalConfig().getMaxImpactReportChanges();
+    if (!maxImpactReportChanges.isPresent()) {
+      return;
+    }
+
+    Project.NameKey projectName = Project.nameKey(event.getChange().project);
+    Change.Id changeId = Change.id(event.getChange()._number);
+    if (codeOwnersPluginConfiguration
+        .getProjectConfig(projectName)
+        .isDisabled(event.getChange().branch)) {
+      return;
+    }
+
+    int patchSetNumber = event.getRevision()._number;
+    CurrentUser user = userProvider.get();
+    Instant when = event.getWhen();
+    logger.atFine().log(
+        "schedule impact report for patch set %d of change %d", patchSetNumber, changeId.get());
+    runAsync(
+        () ->
+            report(
+                user, projectName, changeId, patchSetNumber, when, maxImpactReportChanges.get()));
+  }
+
+  private synchronized void runAsync(Runnable task) {
+    if (executor == null) {
+      logger.atFine().log("queue is not started, skip impact report");
+      return;
+    }
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log("failed to schedule impact report");
+    }
+  }
+
+  /**
+   * Computes the impact report and schedules it to be posted as a change message.
+   *
+   * <p>The report is computed before it is scheduled, so that the change update that posts it only
+   * needs to check that the patch set is still current.
+   */
+  private void report(
+      CurrentUser user,
+      Project.NameKey projectName,
+      Change.Id changeId,
+      int patchSetNumber,
+      Instant when,
+      int maxImpactReportChanges) {
+    Optional<String> message;
+    try (ManualRequestContext ignored = oneOffRequestContext.openAs(user.getAccountId())) {
+      message = buildMessage(user, projectName, changeId, patchSetNumber, maxImpactReportChanges);
+    } catch (Exception e) {
+      logger.atWarning().withCause(e).log(
+          "failed to compute impact report for patch set %d of change %d",
+          patchSetNumber, changeId.get());
+      return;
+    }
+    if (!message.isPresent()) {
+      return;
+    }
+
+    asyncChangeMessageQueue.schedule(
+        user,
+        projectName,
+        changeId,
+        when,
+        TAG_IMPACT_REPORT,
+        ctx -> {
+          if (ctx.getNotes().getCurrentPatchSet().number() != patchSetNumber) {
+            // A newer patch set has been created, the report is posted for the newer patch set.
+            logger.atFine().log("patch set %d is outdated, skip impact report", patchSetNumber);
+            return Optional.empty();
+          }
+          return message;
+        });
+  }
+
+  private Optional<String> buildMessage(
+      CurrentUser user,
+      Project.NameKey projectName,
+      Change.Id changeId,
+      int patchSetNumber,
+      int maxImpactReportChanges)
+      throws IOException {
+    ChangeNotes notes = changeNotesFactory.create(projectName, changeId);
+    PatchSet patchSet = notes.getCurrentPatchSet();
+    if (patchSet.number() != patchSetNumber) {
+      // A newer patch set has been created, the report is computed for the newer patch set.
+      logger.atFine().log("patch set %d is outdated, skip impact report", patchSetNumber);
+      return Optional.empty();
+    }
+
+    Change change = notes.getChange();
+    BranchNameKey branchNameKey = change.getDest();
+    CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+        codeOwnersPluginConfiguration.getProjectConfig(branchNameKey.project());
+    CodeOwnerBackend codeOwnerBackend = codeOwnersConfig.getBackend(branchNameKey.branch());
+
+    Optional<ObjectId> parent = getFirstParent(branchNameKey, patchSet.commitId());
+    if (!parent.isPresent()) {
+      // Initial commits are not uploaded for review.
+      return Optional.empty();
+    }
+
+    ImmutableSet<Path> modifiedCodeOwnerConfigFiles =
+        codeOwnerConfigUpdateListener.getUpdatedCodeOwnerConfigFiles(
+            codeOwnerBackend, branchNameKey, parent.get(), patchSet.commitId());
+    if (modifiedCodeOwnerConfigFiles.isEmpty()) {
+      return Optional.empty();
+    }
+    logger.atFine().log("modified code owner config files: %s", modifiedCodeOwnerConfigFiles);
+
+    Optional<ObjectId> branchRevision = getBranchRevision(branchNameKey);
+    if (!branchRevision.isPresent()) {
+      return Optional.empty();
+    }
+
+    if (!parent.get().equals(branchRevision.get())) {
+      ImmutableSet<Path> codeOwnerConfigFilesUpdatedInBranch =
+          codeOwnerConfigUpdateListener.getUpdatedCodeOwnerConfigFiles(
+              codeOwnerBackend, branchNameKey, parent.get(), branchRevision.get());
+      if (!codeOwnerConfigFilesUpdatedInBranch.isEmpty()) {
+        // Evaluating the open changes against the patch set would revert these updates, and would
+        // report approval changes that are not caused by the modifications of the patch set.
+        logger.atFine().log(
+            "code owner config files %s have been updated in the branch since the parent of"
+                + " patch set %d, skip impact report",
+            codeOwnerConfigFilesUpdatedInBranch, patchSetNumber);
+        return Optional.of(
+            String.format(
+                "The impact of the code owner config files modified in patch set %d was not"
+                    + " evaluated, since code owner config files of this branch have been updated"
+                    + " after the parent commit of the patch set. Rebase the change to get an"
+                    + " impact report.",
+                patchSetNumber));
+      }
+    }
+    ImmutableSet<Path> affectedFolders =
+        codeOwnerConfigUpdateListener.getAffectedFolders(
+            codeOwnerBackend,
+            branchNameKey,
+            branchRevision.get(),
+            /* baseRevision= */ null,
+            modifiedCodeOwnerConfigFiles);
+    logger.atFine().log("affected folders: %s", affectedFolders);
+
+    PermissionBackend.WithUser withUser = permissionBackend.user(user);
+    ImmutableList<Change.Id> affectedChanges =
+        CodeOwnerConfigUpdateListener.queryOpenChangesWithFilesInFolders(
+                changeQueryProvider, branchNameKey, affectedFolders)
+            .stream()
+            .filter(changeData -> !changeData.getId().equals(change.getId()))
+            .filter(changeData -> withUser.change(changeData).testOrFalse(ChangePermission.READ))
+            .map(ChangeData::getId)
+            .sorted()
+            .collect(toImmutableList());
+    if (affectedChanges.isEmpty()) {
+      return Optional.empty();
+    }
+
+    StringBuilder flips = new StringBuilder();
+    int flipCount = 0;
+    int failedCount = 0;
+    for (Change.Id affectedChange :
+        affectedChanges.subList(0, Math.min(affectedChanges.size(), maxImpactReportChanges))) {
+      try {
+        ChangeNotes changeNotes =
+            changeNotesFactory.create(branchNameKey.project(), affectedChange);
+        boolean isSubmittable = codeOwnerApprovalCheck.isSubmittable(changeNotes);
+        boolean isSubmittableAfter =
+            codeOwnerApprovalCheck.isSubmittable(changeNotes, patchSet.commitId());
+        if (isSubmittable != isSubmittableAfter) {
+          flipCount++;
+          flips.append(
+              String.format(
+                  "* change %d: %s\n",
+                  affectedChange.get(),
+                  isSubmittableAfter
+                      ? "becomes code owner approved"
+                      : "is no longer code owner approved"));
+        }
+      } catch (Exception e) {
+        // Includes CodeOwnerEvaluationBudgetExceededException if the budget for the evaluation is
+        // exhausted.
+        logger.atWarning().withCause(e).log(
+            "failed to re-evaluate change %d for impact report", affectedChange.get());
+        failedCount++;
+      }
+    }
+
+    StringBuilder message = new StringBuilder();
+    message.append(
+        String.format(
+            "The code owner config files modified in patch set %d affect %d open change(s) of"
+                + " this branch.\n",
+            patchSetNumber, affectedChanges.size()));
+    if (flipCount > 0) {
+      message.append(
+          String.format(
+              "The code owner approval status of %d of them would change:\n", flipCount));
+      message.append(flips);
+    } else {
+      message.append("The code owner approval status of none of them would change.\n");
+    }
+    int notEvaluatedCount =
+        Math.max(affectedChanges.size() - maxImpactReportChanges, 0) + failedCount;
+    if (notEvaluatedCount > 0) {
+      message.append(String.format("%d change(s) were not evaluated.\n", notEvaluatedCount));
+    }
+    return Optional.of(message.toString().trim());
+  }
+
+  /** Gets the first parent of the given commit, {@link Optional#empty()} for initial commits. */
+  private Optional<ObjectId> getFirstParent(BranchNameKey branchNameKey, ObjectId commitId)
+      throws IOException {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project());
+        RevWalk rw = new RevWalk(repository)) {
+      RevCommit commit = rw.parseCommit(commitId);
+      if (commit.getParentCount() == 0) {
+        return Optional.empty();
+      }
+      return Optional.of(commit.getParent(0).copy());
+    }
+  }
+
+  private Optional<ObjectId> getBranchRevision(BranchNameKey branchNameKey) throws IOException {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project())) {
+      return Optional.ofNullable(repository.exactRef(branchNameKey.branch()))
+          .map(Ref::getObjectId);
+    }
+  }
+}
@@ -0,0 +1,673 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.gerrit.plugins.codeowners.backend.CodeOwners.getInvalidCodeOwnerConfigCause;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshot;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.cache.serialize.CacheSerializer;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Index of the imports between code owner configs, which allows to find the code owner configs
+ * that import a given code owner config.
+ *
+ * <p>Code owner configs can import code owner configs from other branches and projects. Without
+ * this index finding the code owner configs that import a given code owner config requires to scan
+ * all code owner config files in all branches.
+ *
+ * <p>The index consists of two layers:
+ *
+ * <ul>
+ *   <li>The imports of the code owner configs in a revision of a branch ({@link BranchImports}).
+ *       They are stored in a persistent cache that is keyed by the revision. If the imports of a
+ *       branch are needed for a new revision and the imports of the previous revision are cached,
+ *       only the code owner config files that differ between the two revisions are parsed.
+ *   <li>An in-memory reverse import graph that maps the key of an imported code owner config to
+ *       the keys of the code owner configs that import it. It covers the current revisions of all
+ *       branches (in projects for which the code owners functionality is not disabled) and is
+ *       updated on ref updates. Since the imports of the new revision are computed incrementally
+ *       from the imports of the old revision, this only requires to parse the updated code owner
+ *       config files. It is built in the background when the plugin is started, from the
+ *       persistent cache, hence building it after the initial installation needs to parse all
+ *       code owner config files on the server. Until it has been built, lookups of importing code
+ *       owner configs fail fast (see {@link #getImportingCodeOwnerConfigs(ImmutableSet,
+ *       boolean)}).
+ * </ul>
+ *
+ * <p>Building the reverse import graph and applying ref updates to it is done by a single thread of
+ * the {@code CodeOwnerConfigImportIndex} work queue, so that the threads that update refs (e.g.
+ * push threads) never parse code owner config files and ref updates are applied in order after the
+ * reverse import graph has been built.
+ *
+ * <p>Only branches under {@code refs/heads/} are indexed. Imports from the default code owner
+ * config in {@code refs/meta/config} are not indexed.
+ */
+@Singleton
+public class CodeOwnerConfigImportIndex
+    implements GitReferenceUpdatedListener, LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String CACHE_NAME = "code_owner_config_imports";
+  private static final String QUEUE_NAME = "CodeOwnerConfigImportIndex";
+
+  public static class CodeOwnerConfigImportIndexModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      install(
+          new CacheModule() {
+            @Override
+            protected void configure() {
+              persist(CACHE_NAME, Key.class, BranchImports.class)
+                  .version(1)
+                  .maximumWeight(10000)
+                  .diskLimit(256 * 1024 * 1024)
+                  .keySerializer(Key.Serializer.INSTANCE)
+                  .valueSerializer(BranchImports.Serializer.INSTANCE);
+            }
+          });
+      listener().to(CodeOwnerConfigImportIndex.class);
+      DynamicSet.bind(binder(), GitReferenceUpdatedListener.class)
+          .to(CodeOwnerConfigImportIndex.class);
+    }
+  }
+
+  /** The imports of the code owner configs in a revision of a branch. */
+  @AutoValue
+  public abstract static class BranchImports {
+    /** The revision of the branch. */
+    public abstract ObjectId revision();
+
+    /**
+     * Maps the keys of the importing code owner configs to the keys of the code owner configs that
+     * they import.
+     *
+     * <p>All keys have the {@link CodeOwnerConfig.Key#fileName()} set.
+     */
+    public abstract ImmutableSetMultimap<CodeOwnerConfig.Key, CodeOwnerConfig.Key> imports();
+
+    static BranchImports create(
+        ObjectId revision, ImmutableSetMultimap<CodeOwnerConfig.Key, CodeOwnerConfig.Key> imports) {
+      return new AutoValue_CodeOwnerConfigImportIndex_BranchImports(revision.copy(), imports);
+    }
+
+    enum Serializer implements CacheSerializer<BranchImports> {
+      INSTANCE;
+
+      @Override
+      public byte[] serialize(BranchImports branchImports) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+          out.writeUTF(branchImports.revision().name());
+          out.writeInt(branchImports.imports().size());
+          for (Map.Entry<CodeOwnerConfig.Key, CodeOwnerConfig.Key> e :
+              branchImports.imports().entries()) {
+            writeCodeOwnerConfigKey(out, e.getKey());
+            writeCodeOwnerConfigKey(out, e.getValue());
+          }
+        } catch (IOException e) {
+          throw new IllegalStateException("failed to serialize branch imports", e);
+        }
+        return bytes.toByteArray();
+      }
+
+      @Override
+      public BranchImports deserialize(byte[] in) {
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(in))) {
+          ObjectId revision = ObjectId.fromString(data.readUTF());
+          int size = data.readInt();
+          ImmutableSetMultimap.Builder<CodeOwnerConfig.Key, CodeOwnerConfig.Key> imports =
+              ImmutableSetMultimap.builder();
+          for (int i = 0; i < size; i++) {
+            imports.put(readCodeOwnerConfigKey(data), readCodeOwnerConfigKey(data));
+          }
+          return create(revision, imports.build());
+        } catch (IOException e) {
+          throw new IllegalStateException("failed to deserialize branch imports", e);
+        }
+      }
+
+      private static void writeCodeOwnerConfigKey(DataOutputStream out, CodeOwnerConfig.Key key)
+          throws IOException {
+        out.writeUTF(key.project().get());
+        out.writeUTF(key.ref());
+        out.writeUTF(key.folderPath().toString());
+        out.writeUTF(key.fileName().orElse(""));
+      }
+
+      private static CodeOwnerConfig.Key readCodeOwnerConfigKey(DataInputStream in)
+          throws IOException {
+        Project.NameKey project = Project.nameKey(in.readUTF());
+        String branch = in.readUTF();
+        String folderPath = in.readUTF();
+        String fileName = in.readUTF();
+        return CodeOwnerConfig.Key.create(
+            project, branch, folderPath, !fileName.isEmpty() ? fileName : null);
+      }
+    }
+  }
+
+  /** Key of the persistent cache. */
+  @AutoValue
+  abstract static class Key {
+    abstract BranchNameKey branchNameKey();
+
+    abstract ObjectId revision();
+
+    /**
+     * The ID of the code owner backend, since it determines which files are code owner config files
+     * and how they are parsed.
+     */
+    abstract String backendId();
+
+    static Key create(BranchNameKey branchNameKey, ObjectId revision, String backendId) {
+      return new AutoValue_CodeOwnerConfigImportIndex_Key(
+          branchNameKey, revision.copy(), backendId);
+    }
+
+    enum Serializer implements CacheSerializer<Key> {
+      INSTANCE;
+
+      @Override
+      public byte[] serialize(Key key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+          out.writeUTF(key.branchNameKey().project().get());
+          out.writeUTF(key.branchNameKey().branch());
+          out.writeUTF(key.revision().name());
+          out.writeUTF(key.backendId());
+        } catch (IOException e) {
+          throw new IllegalStateException("failed to serialize key", e);
+        }
+        return bytes.toByteArray();
+      }
+
+      @Override
+      public Key deserialize(byte[] in) {
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(in))) {
+          return create(
+              BranchNameKey.create(Project.nameKey(data.readUTF()), data.readUTF()),
+              ObjectId.fromString(data.readUTF()),
+              data.readUTF());
+        } catch (IOException e) {
+          throw new IllegalStateException("failed to deserialize key", e);
+        }
+      }
+    }
+  }
+
+  private final Cache<Key, BranchImports> cache;
+  private final WorkQueue workQueue;
+  private final GitRepositoryManager repoManager;
+  private final ProjectCache projectCache;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+
+  /** The imports of the current revisions of the indexed branches. */
+  private final Map<BranchNameKey, BranchImports> indexedBranches = new HashMap<>();
+
+  /**
+   * Reverse import graph: maps the key of an imported code owner config to the keys of the code
+   * owner configs that import it.
+   */
+  private final SetMultimap<CodeOwnerConfig.Key, CodeOwnerConfig.Key> importingCodeOwnerConfigs =
+      HashMultimap.create();
+
+  /** Whether the reverse import graph has been built. */
+  private volatile boolean loaded;
+
+  @Nullable private ScheduledExecutorService executor;
+
+  @Inject
+  CodeOwnerConfigImportIndex(
+      @Named(CACHE_NAME) Cache<Key, BranchImports> cache,
+      WorkQueue workQueue,
+      GitRepositoryManager repoManager,
+      ProjectCache projectCache,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration) {
+    this.cache = cache;
+    this.workQueue = workQueue;
+    this.repoManager = repoManager;
+    this.projectCache = projectCache;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+  }
+
+  @Override
+  public synchronized void start() {
+    executor = workQueue.createQueue(1, QUEUE_NAME);
+    runAsync(this::load);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Gets the imports of the code owner configs in the given revision of a branch.
+   *
+   * @param branchNameKey the project and branch
+   * @param revision the revision of the branch
+   * @param baseRevision optional revision of the branch for which the imports may be cached, if
+   *     they are cached only the code owner config files that differ from the base revision are
+   *     parsed
+   * @return the imports of the code owner configs in the given revision of the branch
+   */
+  public BranchImports get(
+      BranchNameKey branchNameKey, ObjectId revision, @Nullable ObjectId baseRevision) {
+    requireNonNull(branchNameKey, "branchNameKey");
+    requireNonNull(revision, "revision");
+
+    CodeOwnerBackend codeOwnerBackend =
+        codeOwnersPluginConfiguration
+            .getProjectConfig(branchNameKey.project())
+            .getBackend(branchNameKey.branch());
+    String backendId = CodeOwnerBackendId.getBackendId(codeOwnerBackend.getClass());
+    try {
+      return cache.get(
+          Key.create(branchNameKey, revision, backendId),
+          () -> {
+            BranchImports baseImports =
+                baseRevision != null
+                    ? cache.getIfPresent(Key.create(branchNameKey, baseRevision, backendId))
+                    : null;
+            if (baseImports != null) {
+              try {
+                return computeIncrementally(
+                    codeOwnerBackend, branchNameKey, baseImports, revision);
+              } catch (MissingObjectException e) {
+                logger.atFine().log(
+                    "cannot diff against %s, compute imports from scratch", baseRevision.name());
+              }
+            }
+            return compute(codeOwnerBackend, branchNameKey, revision);
+          });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new StorageException(
+          String.format(
+              "failed to compute code owner config imports of revision %s of branch %s in project"
+                  + " %s",
+              revision.name(), branchNameKey.branch(), branchNameKey.project()),
+          e.getCause());
+    }
+  }
+
+  /**
+   * Gets the keys of the code owner configs that import the given code owner configs.
+   *
+   * <p>Doesn't wait for the reverse import graph to be built.
+   *
+   * @param importedCodeOwnerConfigKeys the keys of the imported code owner configs, the {@link
+   *     CodeOwnerConfig.Key#fileName()} must be set
+   * @param transitive whether code owner configs that import the given code owner configs
+   *     indirectly should be included
+   * @return the keys of the importing code owner configs, not including the given code owner
+   *     configs, {@link Optional#empty()} if the reverse import graph hasn't been built yet
+   */
+  public synchronized Optional<ImmutableSet<CodeOwnerConfig.Key>> getImportingCodeOwnerConfigs(
+      ImmutableSet<CodeOwnerConfig.Key> importedCodeOwnerConfigKeys, boolean transitive) {
+    requireNonNull(importedCodeOwnerConfigKeys, "importedCodeOwnerConfigKeys");
+    if (!loaded) {
+      logger.atFine().log("reverse import graph of code owner configs is not built yet");
+      return Optional.empty();
+    }
+
+    Set<CodeOwnerConfig.Key> visited = new HashSet<>(importedCodeOwnerConfigKeys);
+    Deque<CodeOwnerConfig.Key> toVisit = new ArrayDeque<>(importedCodeOwnerConfigKeys);
+    ImmutableSet.Builder<CodeOwnerConfig.Key> importing = ImmutableSet.builder();
+    while (!toVisit.isEmpty()) {
+      for (CodeOwnerConfig.Key importingKey : importingCodeOwnerConfigs.get(toVisit.poll())) {
+        if (visited.add(importingKey)) {
+          importing.add(importingKey);
+          if (transitive) {
+            toVisit.add(importingKey);
+          }
+        }
+      }
+    }
+    return Optional.of(importing.build());
+  }
+
+  @Override
+  public void onGitReferenceUpdated(Event event) {
+    if (!event.getRefName().startsWith(RefNames.REFS_HEADS)) {
+      return;
+    }
+
+    BranchNameKey branchNameKey =
+        BranchNameKey.create(Project.nameKey(event.getProjectName()), event.getRefName());
+    ObjectId oldRevision = event.isCreate() ? null : ObjectId.fromString(event.getOldObjectId());
+    ObjectId newRevision = event.isDelete() ? null : ObjectId.fromString(event.getNewObjectId());
+
+    // Never parse code owner config files in the thread that updated the ref (e.g. a push thread).
+    runAsync(
+        () -> {
+          try {
+            update(branchNameKey, oldRevision, newRevision);
+          } catch (RuntimeException e) {
+            // The import index is not critical.
+            logger.atWarning().withCause(e).log(
+                "failed to update code owner config import index for branch %s in project %s",
+                branchNameKey.branch(), branchNameKey.project());
+          }
+        });
+  }
+
+  private synchronized void runAsync(Runnable task) {
+    if (executor == null) {
+      logger.atFine().log("queue is not started, skip task");
+      return;
+    }
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log("failed to schedule task");
+    }
+  }
+
+  /**
+   * Updates the reverse import graph for an update of a branch.
+   *
+   * <p>Does nothing if the reverse import graph couldn't be built, or if the branch has been
+   * updated again in the meantime (the reverse import graph is then updated by the later update).
+   *
+   * <p>Runs on the work queue of the index after the reverse import graph has been built.
+   *
+   * @param branchNameKey the project and branch that was updated
+   * @param oldRevision the old revision of the branch, {@code null} if the branch was created
+   * @param newRevision the new revision of the branch, {@code null} if the branch was deleted
+   */
+  private void update(
+      BranchNameKey branchNameKey, @Nullable ObjectId oldRevision, @Nullable ObjectId newRevision) {
+    if (!loaded) {
+      return;
+    }
+
+    // The reverse import graph is only updated by the single thread of the work queue, hence the
+    // branch cannot be updated in the reverse import graph concurrently.
+    if (!Optional.ofNullable(newRevision).equals(getRevision(branchNameKey))) {
+      // The branch has been updated again, the later update updates the reverse import graph.
+      return;
+    }
+
+    BranchImports newImports = null;
+    if (newRevision != null && isEnabled(branchNameKey)) {
+      newImports = get(branchNameKey, newRevision, oldRevision);
+    }
+
+    synchronized (this) {
+      replace(branchNameKey, newImports);
+    }
+  }
+
+  /**
+   * Builds the reverse import graph for all branches on the server.
+   *
+   * <p>Runs on the work queue of the index when the plugin is started. The graph is updated branch
+   * by branch, so that the lock of the index is never held while code owner config files are
+   * parsed.
+   */
+  private void load() {
+    logger.atInfo().log("building reverse import graph of code owner configs");
+    try {
+      for (Project.NameKey projectName : projectCache.all()) {
+        if (Thread.currentThread().isInterrupted()) {
+          logger.atInfo().log("building reverse import graph of code owner configs was aborted");
+          return;
+        }
+        loadProject(projectName);
+      }
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).log(
+          "failed to build reverse import graph of code owner configs");
+      return;
+    }
+
+    synchronized (this) {
+      loaded = true;
+      logger.atInfo().log(
+          "built reverse import graph of code owner configs (%d branches, %d imports)",
+          indexedBranches.size(), importingCodeOwnerConfigs.size());
+    }
+  }
+
+  private void loadProject(Project.NameKey projectName) {
+    try {
+      if (codeOwnersPluginConfiguration.getProjectConfig(projectName).isDisabled()) {
+        return;
+      }
+      try (Repository repository = repoManager.openRepository(projectName)) {
+        for (Ref ref : repository.getRefDatabase().getRefsByPrefix(RefNames.REFS_HEADS)) {
+          BranchNameKey branchNameKey = BranchNameKey.create(projectName, ref.getName());
+          if (isEnabled(branchNameKey)) {
+            BranchImports branchImports =
+                get(branchNameKey, ref.getObjectId(), /* baseRevision= */ null);
+            synchronized (this) {
+              replace(branchNameKey, branchImports);
+            }
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      // Don't fail the whole index because of a single broken project.
+      logger.atWarning().withCause(e).log(
+          "failed to index code owner config imports of project %s", projectName);
+    }
+  }
+
+  /**
+   * Replaces the imports of the given branch in the reverse import graph.
+   *
+   * @param branchNameKey the project and branch
+   * @param branchImports the new imports of the branch, {@code null} if the branch should be
+   *     removed from the reverse import graph
+   */
+  private void replace(BranchNameKey branchNameKey, @Nullable BranchImports branchImports) {
+    BranchImports oldImports = indexedBranches.remove(branchNameKey);
+    if (oldImports != null) {
+      oldImports
+          .imports()
+          .forEach((importing, imported) -> importingCodeOwnerConfigs.remove(imported, importing));
+    }
+    if (branchImports != null) {
+      indexedBranches.put(branchNameKey, branchImports);
+      branchImports
+          .imports()
+          .forEach((importing, imported) -> importingCodeOwnerConfigs.put(imported, importing));
+    }
+  }
+
+  private boolean isEnabled(BranchNameKey branchNameKey) {
+    CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+        codeOwnersPluginConfiguration.getProjectConfig(branchNameKey.project());
+    return !codeOwnersConfig.isDisabled(branchNameKey.branch());
+  }
+
+  private Optional<ObjectId> getRevision(BranchNameKey branchNameKey) {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project())) {
+      return Optional.ofNullable(repository.exactRef(branchNameKey.branch()))
+          .map(ref -> ref.getObjectId().copy());
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format(
+              "failed to read revision of branch %s in project %s",
+              branchNameKey.branch(), branchNameKey.project()),
+          e);
+    }
+  }
+
+  /** Computes the imports of a revision by parsing all code owner config files in it. */
+  private BranchImports compute(
+      CodeOwnerBackend codeOwnerBackend, BranchNameKey branchNameKey, ObjectId revision)
+      throws IOException {
+    logger.atFine().log(
+        "computing code owner config imports of revision %s of branch %s in project %s",
+        revision.name(), branchNameKey.branch(), branchNameKey.project());
+    ImmutableSetMultimap.Builder<CodeOwnerConfig.Key, CodeOwnerConfig.Key> imports =
+        ImmutableSetMultimap.builder();
+    try (Repository repository = repoManager.openRepository(branchNameKey.project());
+        RevWalk rw = new RevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(repository, rw.getObjectReader())) {
+      treeWalk.setRecursive(true);
+      treeWalk.addTree(rw.parseCommit(revision).getTree());
+      while (treeWalk.next()) {
+        if (codeOwnerBackend.isCodeOwnerConfigFile(
+            branchNameKey.project(), treeWalk.getNameString())) {
+          CodeOwnerConfig.Key codeOwnerConfigKey =
+              createKey(branchNameKey, Path.of("/" + treeWalk.getPathString()));
+          imports.putAll(
+              codeOwnerConfigKey, getImports(codeOwnerBackend, codeOwnerConfigKey, revision));
+        }
+      }
+    }
+    return BranchImports.create(revision, imports.build());
+  }
+
+  /**
+   * Computes the imports of a revision from the imports of a base revision by parsing only the code
+   * owner config files that differ between the revisions.
+   */
+  private BranchImports computeIncrementally(
+      CodeOwnerBackend codeOwnerBackend,
+      BranchNameKey branchNameKey,
+      BranchImports baseImports,
+      ObjectId revision)
+      throws IOException {
+    logger.atFine().log(
+        "computing code owner config imports of revision %s of branch %s in project %s"
+            + " incrementally from revision %s",
+        revision.name(),
+        branchNameKey.branch(),
+        branchNameKey.project(),
+        baseImports.revision().name());
+    SetMultimap<CodeOwnerConfig.Key, CodeOwnerConfig.Key> imports =
+        HashMultimap.create(baseImports.imports());
+    try (Repository repository = repoManager.openRepository(branchNameKey.project());
+        RevWalk rw = new RevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(repository, rw.getObjectReader())) {
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      treeWalk.addTree(rw.parseCommit(baseImports.revision()).getTree());
+      treeWalk.addTree(rw.parseCommit(revision).getTree());
+      while (treeWalk.next()) {
+        if (codeOwnerBackend.isCodeOwnerConfigFile(
+            branchNameKey.project(), treeWalk.getNameString())) {
+          CodeOwnerConfig.Key codeOwnerConfigKey =
+              createKey(branchNameKey, Path.of("/" + treeWalk.getPathString()));
+          imports.removeAll(codeOwnerConfigKey);
+          if (treeWalk.getFileMode(1) != FileMode.MISSING) {
+            imports.putAll(
+                codeOwnerConfigKey, getImports(codeOwnerBackend, codeOwnerConfigKey, revision));
+          }
+        }
+      }
+    }
+    return BranchImports.create(revision, ImmutableSetMultimap.copyOf(imports));
+  }
+
+  /**
+   * Gets the keys of the code owner configs that are imported by the specified code owner config.
+   *
+   * <p>Invalid code owner configs are treated as if they had no imports.
+   */
+  private static ImmutableSet<CodeOwnerConfig.Key> getImports(
+      CodeOwnerBackend codeOwnerBackend,
+      CodeOwnerConfig.Key codeOwnerConfigKey,
+      ObjectId revision) {
+    Optional<CodeOwnerConfig> codeOwnerConfig;
+    try {
+      codeOwnerConfig = codeOwnerBackend.getCodeOwnerConfig(codeOwnerConfigKey, revision);
+    } catch (RuntimeException e) {
+      if (getInvalidCodeOwnerConfigCause(e).isPresent()) {
+        logger.atFine().log("ignoring invalid code owner config %s", codeOwnerConfigKey);
+        return ImmutableSet.of();
+      }
+      throw e;
+    }
+    if (!codeOwnerConfig.isPresent()) {
+      return ImmutableSet.of();
+    }
+    return Stream.concat(
+            codeOwnerConfig.get().imports().stream(),
+            codeOwnerConfig.get().codeOwnerSets().stream()
+                .flatMap(codeOwnerSet -> codeOwnerSet.imports().stream()))
+        .map(
+            codeOwnerConfigReference ->
+                PathCodeOwners.createKeyForImportedCodeOwnerConfig(
+                    codeOwnerConfigKey, codeOwnerConfigReference))
+        .collect(toImmutableSet());
+  }
+
+  /** Creates the key of the code owner config that is stored in the given file. */
+  static CodeOwnerConfig.Key createKey(BranchNameKey branchNameKey, Path filePath) {
+    return CodeOwnerConfig.Key.create(
+        branchNameKey, filePath.getParent(), filePath.getFileName().toString());
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Interns the parts of parsed {@link CodeOwnerConfig}s so that equal parts are shared between all
+ * code owner configs that are held in memory.
+ *
+ * <p>The same emails, path expressions and often even the same code owner sets appear in many code
+ * owner config files (e.g. in large repositories the same team is code owner of many folders).
+ * Without interning every parsed code owner config holds its own copies of them, which adds up for
+ * cached code owner configs.
+ *
+ * <p>{@link CodeOwnerConfigParser}s should intern the code owner sets of parsed code owner configs
+ * by calling {@link #intern(CodeOwnerSet)}.
+ *
+ * <p>Weak interners are used, so that interned objects can be garbage collected as soon as no code
+ * owner config references them anymore.
+ */
+public class CodeOwnerConfigInterner {
+  private static final Interner<String> PATH_EXPRESSIONS = Interners.newWeakInterner();
+  private static final Interner<CodeOwnerReference> CODE_OWNER_REFERENCES =
+      Interners.newWeakInterner();
+  private static final Interner<CodeOwnerSet> CODE_OWNER_SETS = Interners.newWeakInterner();
+
+  /**
+   * Interns the given code owner set.
+   *
+   * <p>The path expressions and code owner references of the code owner set are interned, and if
+   * an equal code owner set was interned before, the previously interned code owner set is
+   * returned (hash-consing).
+   *
+   * <p>Since the equality of code owner sets doesn't consider the order of path expressions, code
+   * owners, imports and annotations, a previously interned code owner set is only returned if it
+   * also has the same order, otherwise callers would observe a different iteration order.
+   *
+   * @param codeOwnerSet the code owner set that should be interned
+   * @return the interned code owner set
+   */
+  public static CodeOwnerSet intern(CodeOwnerSet codeOwnerSet) {
+    requireNonNull(codeOwnerSet, "codeOwnerSet");
+
+    CodeOwnerSet.Builder internedCodeOwnerSetBuilder =
+        CodeOwnerSet.builder()
+            .setIgnoreGlobalAndParentCodeOwners(codeOwnerSet.ignoreGlobalAndParentCodeOwners())
+            .setPathExpressions(
+                codeOwnerSet.pathExpressions().stream()
+                    .map(PATH_EXPRESSIONS::intern)
+                    .collect(toImmutableSet()))
+            .setImports(codeOwnerSet.imports())
+            .setCodeOwners(
+                codeOwnerSet.codeOwners().stream()
+                    .map(CODE_OWNER_REFERENCES::intern)
+                    .collect(toImmutableSet()));
+    codeOwnerSet
+        .annotations()
+        .forEach(
+            (codeOwnerReference, annotation) ->
+                internedCodeOwnerSetBuilder.addAnnotations(
+                    CODE_OWNER_REFERENCES.intern(codeOwnerReference), ImmutableSet.of(annotation)));
+    CodeOwnerSet internedCodeOwnerSet = internedCodeOwnerSetBuilder.build();
+
+    CodeOwnerSet canonicalCodeOwnerSet = CODE_OWNER_SETS.intern(internedCodeOwnerSet);
+    return hasSameOrder(canonicalCodeOwnerSet, internedCodeOwnerSet)
+        ? canonicalCodeOwnerSet
+        : internedCodeOwnerSet;
+  }
+
+  private static boolean hasSameOrder(CodeOwnerSet codeOwnerSet1, CodeOwnerSet codeOwnerSet2) {
+    if (codeOwnerSet1 == codeOwnerSet2) {
+      return true;
+    }
+    return codeOwnerSet1.pathExpressions().asList().equals(codeOwnerSet2.pathExpressions().asList())
+        && codeOwnerSet1.imports().asList().equals(codeOwnerSet2.imports().asList())
+        && codeOwnerSet1.codeOwners().asList().equals(codeOwnerSet2.codeOwners().asList())
+        && codeOwnerSet1
+            .annotations()
+            .entries()
+            .asList()
+            .equals(codeOwnerSet2.annotations().entries().asList());
+  }
+
+  /**
+   * Private constructor to prevent instantiation of this class.
+   *
+   * <p>The class only contains static methods, hence the class never needs to be instantiated.
+   */
+  private CodeOwnerConfigInterner() {}
+}
@@ -0,0 +1,521 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Streams;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.index.query.Predicate;
+import com.google.gerrit.metrics.Timer0;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshot;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersProjectConfigFile;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.util.JgitPath;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectConfig;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangePredicates;
+import com.google.gerrit.server.query.change.ChangeStatusPredicate;
+import com.google.gerrit.server.query.change.DirectoryPredicate;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Listener that reindexes the open changes of a branch that are affected by an update of code owner
+ * config files in this branch and that invalidates their {@link PendingCodeOwnersCache} entries.
+ *
+ * <p>If code owner config files in a branch are updated, the code owner statuses of open changes
+ * for this branch may change. Since the change index and the {@link CodeOwnerStatusIndex}, which is
+ * updated when changes are reindexed, contain data that depends on the code owner statuses (the
+ * code owner statuses that are used by the {@code has:approval_code-owners} search operator and the
+ * pending code owners that are used by the {@code pending_code-owners} search operator), these
+ * changes need to be reindexed.
+ *
+ * <p>To avoid reindexing all open changes of the branch, only changes that have files in folders
+ * that are affected by the update are reindexed. Affected folders are the folders that contain an
+ * updated code owner config file and the folders that contain a code owner config file that
+ * (directly or transitively) imports an updated code owner config file.
+ *
+ * <p>Code owner config files in other branches and projects that import an updated code owner
+ * config file are found by the {@link CodeOwnerConfigImportIndex}. The open changes of these
+ * branches that have files in the affected folders are reindexed too. While the import index is
+ * still being built (after the plugin start), code owner config files in other branches and
+ * projects are not considered.
+ *
+ * <p>If the {@code refs/meta/config} branch of a project is updated and the update touches files
+ * that may change the code owner statuses of changes (the {@code code-owners.config} file, the
+ * {@code project.config} file which contains the {@code code-owners} plugin section and the parent
+ * project, and the default code owner config file), all open changes of the project and of its
+ * child projects are affected.
+ *
+ * <p>The keys of the {@link PendingCodeOwnersCache} include the revisions of the destination
+ * branches, but not the revisions of other branches and projects from which code owner config files
+ * are imported, hence the entries of all affected changes are invalidated explicitly.
+ *
+ * <p>The affected changes are computed asynchronously and are reindexed by the {@link
+ * ChangeReindexQueue}. If reindexing is disabled, the affected changes are still computed to
+ * invalidate their {@link PendingCodeOwnersCache} entries.
+ */
+@Singleton
+public class CodeOwnerConfigUpdateListener implements GitReferenceUpdatedListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** The maximum number of folders that are queried by a single change index query. */
+  private static final int MAX_FOLDERS_PER_QUERY = 100;
+
+  private final GitRepositoryManager repoManager;
+  private final ProjectCache projectCache;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerConfigImportIndex codeOwnerConfigImportIndex;
+  private final PendingCodeOwnersCache pendingCodeOwnersCache;
+  private final Provider<InternalChangeQuery> changeQueryProvider;
+  private final OneOffRequestContext oneOffRequestContext;
+  private final ChangeReindexQueue changeReindexQueue;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  @Inject
+  CodeOwnerConfigUpdateListener(
+      GitRepositoryManager repoManager,
+      ProjectCache projectCache,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerConfigImportIndex codeOwnerConfigImportIndex,
+      PendingCodeOwnersCache pendingCodeOwnersCache,
+      Provider<InternalChangeQuery> changeQueryProvider,
+      OneOffRequestContext oneOffRequestContext,
+      ChangeReindexQueue changeReindexQueue,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    this.repoManager = repoManager;
+    this.projectCache = projectCache;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerConfigImportIndex = codeOwnerConfigImportIndex;
+    this.pendingCodeOwnersCache = pendingCodeOwnersCache;
+    this.changeQueryProvider = changeQueryProvider;
+    this.oneOffRequestContext = oneOffRequestContext;
+    this.changeReindexQueue = changeReindexQueue;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  @Override
+  public void onGitReferenceUpdated(Event event) {
+    if (event.getRefName().equals(RefNames.REFS_CONFIG)) {
+      Project.NameKey projectName = Project.nameKey(event.getProjectName());
+      ObjectId oldRevision = event.isCreate() ? null : ObjectId.fromString(event.getOldObjectId());
+      ObjectId newRevision = event.isDelete() ? null : ObjectId.fromString(event.getNewObjectId());
+      changeReindexQueue.runAsync(
+          () ->
+              reindexAffectedChanges(
+                  BranchNameKey.create(projectName, RefNames.REFS_CONFIG),
+                  () -> getChangesAffectedByConfigUpdate(projectName, oldRevision, newRevision)));
+      return;
+    }
+
+    if (!event.getRefName().startsWith(RefNames.REFS_HEADS)
+        || event.isCreate()
+        || event.isDelete()) {
+      return;
+    }
+
+    BranchNameKey branchNameKey =
+        BranchNameKey.create(Project.nameKey(event.getProjectName()), event.getRefName());
+    ObjectId oldRevision = ObjectId.fromString(event.getOldObjectId());
+    ObjectId newRevision = ObjectId.fromString(event.getNewObjectId());
+    changeReindexQueue.runAsync(
+        () ->
+            reindexAffectedChanges(
+                branchNameKey, () -> getAffectedChanges(branchNameKey, oldRevision, newRevision)));
+  }
+
+  /**
+   * Reindexes the given affected changes and invalidates their {@link PendingCodeOwnersCache}
+   * entries.
+   *
+   * @param branchNameKey the updated branch
+   * @param affectedChangesSupplier supplies the affected changes, grouped by their destination
+   *     branch
+   */
+  private void reindexAffectedChanges(
+      BranchNameKey branchNameKey,
+      Supplier<ImmutableListMultimap<BranchNameKey, Change.Id>> affectedChangesSupplier) {
+    try (ManualRequestContext ignored = oneOffRequestContext.open()) {
+      ImmutableListMultimap<BranchNameKey, Change.Id> affectedChanges =
+          affectedChangesSupplier.get();
+      for (BranchNameKey affectedBranch : affectedChanges.keySet()) {
+        ImmutableList<Change.Id> affectedChangesOfBranch = affectedChanges.get(affectedBranch);
+        logger.atFine().log(
+            "scheduling reindex of %d changes in branch %s of project %s",
+            affectedChangesOfBranch.size(), affectedBranch.branch(), affectedBranch.project());
+        pendingCodeOwnersCache.invalidate(affectedBranch.project(), affectedChangesOfBranch);
+        changeReindexQueue.schedule(affectedBranch.project(), affectedChangesOfBranch);
+      }
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).log(
+          "failed to reindex changes affected by update of branch %s in project %s",
+          branchNameKey.branch(), branchNameKey.project());
+    }
+  }
+
+  /**
+   * Gets the open changes that are affected by updates of code owner config files between the given
+   * revisions of the given branch, grouped by their destination branch.
+   */
+  private ImmutableListMultimap<BranchNameKey, Change.Id> getAffectedChanges(
+      BranchNameKey branchNameKey, ObjectId oldRevision, ObjectId newRevision) {
+    try (Timer0.Context ctx =
+        codeOwnerMetrics.computeChangesAffectedByCodeOwnerConfigUpdate.start()) {
+      CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+          codeOwnersPluginConfiguration.getProjectConfig(branchNameKey.project());
+      if (codeOwnersConfig.isDisabled(branchNameKey.branch())) {
+        return ImmutableListMultimap.of();
+      }
+
+      CodeOwnerBackend codeOwnerBackend = codeOwnersConfig.getBackend(branchNameKey.branch());
+      ImmutableSet<Path> updatedCodeOwnerConfigFiles =
+          getUpdatedCodeOwnerConfigFiles(codeOwnerBackend, branchNameKey, oldRevision, newRevision);
+      if (updatedCodeOwnerConfigFiles.isEmpty()) {
+        return ImmutableListMultimap.of();
+      }
+      logger.atFine().log("updated code owner config files: %s", updatedCodeOwnerConfigFiles);
+
+      ImmutableSetMultimap.Builder<BranchNameKey, Path> affectedFolders =
+          ImmutableSetMultimap.builder();
+      affectedFolders.putAll(
+          branchNameKey,
+          getAffectedFolders(
+              codeOwnerBackend,
+              branchNameKey,
+              newRevision,
+              oldRevision,
+              updatedCodeOwnerConfigFiles));
+      getImportingCodeOwnerConfigsInOtherBranches(branchNameKey, updatedCodeOwnerConfigFiles)
+          .forEach(
+              importingKey ->
+                  affectedFolders.put(importingKey.branchNameKey(), importingKey.folderPath()));
+      ImmutableSetMultimap<BranchNameKey, Path> affectedFoldersByBranch = affectedFolders.build();
+      logger.atFine().log("affected folders: %s", affectedFoldersByBranch);
+
+      ImmutableListMultimap.Builder<BranchNameKey, Change.Id> affectedChanges =
+          ImmutableListMultimap.builder();
+      for (BranchNameKey affectedBranch : affectedFoldersByBranch.keySet()) {
+        ImmutableSet<Path> affectedFoldersOfBranch = affectedFoldersByBranch.get(affectedBranch);
+        queryOpenChangesWithFilesInFolders(
+                changeQueryProvider, affectedBranch, affectedFoldersOfBranch)
+            .forEach(changeData -> affectedChanges.put(affectedBranch, changeData.getId()));
+      }
+      return affectedChanges.build();
+    }
+  }
+
+  /**
+   * Gets the open changes that are affected by an update of the {@code refs/meta/config} branch of
+   * the given project, grouped by their destination branch.
+   *
+   * <p>If the update touches files that may change the code owner statuses of changes, all open
+   * changes of the project and of its child projects are affected.
+   *
+   * @param projectName the project whose {@code refs/meta/config} branch was updated
+   * @param oldRevision the old revision, {@code null} if the branch was created
+   * @param newRevision the new revision, {@code null} if the branch was deleted
+   */
+  private ImmutableListMultimap<BranchNameKey, Change.Id> getChangesAffectedByConfigUpdate(
+      Project.NameKey projectName, @Nullable ObjectId oldRevision, @Nullable ObjectId newRevision) {
+    try (Timer0.Context ctx =
+        codeOwnerMetrics.computeChangesAffectedByCodeOwnerConfigUpdate.start()) {
+      if (!isCodeOwnersConfigUpdated(projectName, oldRevision, newRevision)) {
+        return ImmutableListMultimap.of();
+      }
+
+      ImmutableListMultimap.Builder<BranchNameKey, Change.Id> affectedChanges =
+          ImmutableListMultimap.builder();
+      for (Project.NameKey affectedProject : getProjectAndChildProjects(projectName)) {
+        changeQueryProvider
+            .get()
+            .byProjectOpen(affectedProject)
+            .forEach(
+                changeData ->
+                    affectedChanges.put(changeData.change().getDest(), changeData.getId()));
+      }
+      return affectedChanges.build();
+    }
+  }
+
+  /**
+   * Whether the update of the {@code refs/meta/config} branch of the given project touches files
+   * that may change the code owner statuses of changes.
+   */
+  private boolean isCodeOwnersConfigUpdated(
+      Project.NameKey projectName, @Nullable ObjectId oldRevision, @Nullable ObjectId newRevision) {
+    if (oldRevision == null || newRevision == null) {
+      return true;
+    }
+
+    CodeOwnerBackend codeOwnerBackend =
+        codeOwnersPluginConfiguration
+            .getProjectConfig(projectName)
+            .getBackend(RefNames.REFS_CONFIG);
+    // The relevant files are all in the root folder, hence the tree walk doesn't need to be
+    // recursive.
+    try (Repository repository = repoManager.openRepository(projectName);
+        RevWalk rw = new RevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(repository, rw.getObjectReader())) {
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      treeWalk.addTree(rw.parseCommit(oldRevision).getTree());
+      treeWalk.addTree(rw.parseCommit(newRevision).getTree());
+      while (treeWalk.next()) {
+        String fileName = treeWalk.getNameString();
+        if (fileName.equals(CodeOwnersProjectConfigFile.FILE_NAME)
+            || fileName.equals(ProjectConfig.PROJECT_CONFIG)
+            || codeOwnerBackend.isCodeOwnerConfigFile(projectName, fileName)) {
+          return true;
+        }
+      }
+      return false;
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format(
+              "failed to diff revisions %s and %s of %s in project %s",
+              oldRevision.name(), newRevision.name(), RefNames.REFS_CONFIG, projectName),
+          e);
+    }
+  }
+
+  /** Gets the given project and all projects that (directly or indirectly) inherit from it. */
+  private ImmutableSet<Project.NameKey> getProjectAndChildProjects(Project.NameKey projectName) {
+    ImmutableSet.Builder<Project.NameKey> projects = ImmutableSet.builder();
+    projects.add(projectName);
+    for (Project.NameKey otherProject : projectCache.all()) {
+      projectCache
+          .get(otherProject)
+          .filter(
+              projectState ->
+                  Streams.stream(projectState.parents())
+                      .anyMatch(parent -> parent.getNameKey().equals(projectName)))
+          .ifPresent(projectState -> projects.add(otherProject));
+    }
+    return projects.build();
+  }
+
+  /**
+   * Gets the keys of the code owner configs in other branches and projects that (directly or
+   * transitively) import one of the given code owner config files.
+   *
+   * <p>Code owner config files that are imported via code owner config files of the same branch are
+   * found too, e.g. if {@code /foo/OWNERS} imports {@code /bar/OWNERS} in the same branch and a
+   * code owner config file in another branch imports {@code /foo/OWNERS}, an update of {@code
+   * /bar/OWNERS} affects the code owner config file in the other branch.
+   */
+  private ImmutableSet<CodeOwnerConfig.Key> getImportingCodeOwnerConfigsInOtherBranches(
+      BranchNameKey branchNameKey, ImmutableSet<Path> updatedCodeOwnerConfigFiles) {
+    ImmutableSet<CodeOwnerConfig.Key> updatedCodeOwnerConfigKeys =
+        updatedCodeOwnerConfigFiles.stream()
+            .map(filePath -> CodeOwnerConfigImportIndex.createKey(branchNameKey, filePath))
+            .collect(toImmutableSet());
+    Optional<ImmutableSet<CodeOwnerConfig.Key>> importingCodeOwnerConfigs =
+        codeOwnerConfigImportIndex.getImportingCodeOwnerConfigs(
+            updatedCodeOwnerConfigKeys, /* transitive= */ true);
+    if (!importingCodeOwnerConfigs.isPresent()) {
+      logger.atFine().log(
+          "import index is not built yet, skip importing code owner configs in other branches");
+      return ImmutableSet.of();
+    }
+    return importingCodeOwnerConfigs.get().stream()
+        .filter(importingKey -> !importingKey.branchNameKey().equals(branchNameKey))
+        .collect(toImmutableSet());
+  }
+
+  /**
+   * Gets the absolute paths of the code owner config files that differ between the given
+   * revisions.
+   */
+  ImmutableSet<Path> getUpdatedCodeOwnerConfigFiles(
+      CodeOwnerBackend codeOwnerBackend,
+      BranchNameKey branchNameKey,
+      ObjectId oldRevision,
+      ObjectId newRevision) {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project());
+        RevWalk rw = new RevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(repository, rw.getObjectReader())) {
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      treeWalk.addTree(rw.parseCommit(oldRevision).getTree());
+      treeWalk.addTree(rw.parseCommit(newRevision).getTree());
+
+      ImmutableSet.Builder<Path> updatedCodeOwnerConfigFiles = ImmutableSet.builder();
+      while (treeWalk.next()) {
+        if (codeOwnerBackend.isCodeOwnerConfigFile(
+            branchNameKey.project(), treeWalk.getNameString())) {
+          updatedCodeOwnerConfigFiles.add(Paths.get("/" + treeWalk.getPathString()));
+        }
+      }
+      return updatedCodeOwnerConfigFiles.build();
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format(
+              "failed to diff revisions %s and %s of branch %s in project %s",
+              oldRevision.name(),
+              newRevision.name(),
+              branchNameKey.branch(),
+              branchNameKey.project()),
+          e);
+    }
+  }
+
+  /**
+   * Gets the folders that are affected by the updates of the given code owner config files.
+   *
+   * <p>These are the folders that contain an updated code owner config file and the folders that
+   * contain a code owner config file that (directly or transitively) imports an updated code owner
+   * config file from the same branch.
+   *
+   * @param codeOwnerBackend the code owner backend of the branch
+   * @param branchNameKey the project and branch
+   * @param revision the revision of the branch at which the imports should be evaluated
+   * @param baseRevision optional revision of the branch from which the imports at {@code revision}
+   *     can be computed incrementally (see {@link CodeOwnerConfigImportIndex#get(BranchNameKey,
+   *     ObjectId, ObjectId)})
+   * @param updatedCodeOwnerConfigFiles the absolute paths of the updated code owner config files
+   */
+  ImmutableSet<Path> getAffectedFolders(
+      CodeOwnerBackend codeOwnerBackend,
+      BranchNameKey branchNameKey,
+      ObjectId revision,
+      @Nullable ObjectId baseRevision,
+      ImmutableSet<Path> updatedCodeOwnerConfigFiles) {
+    // Reverse import graph: maps the path of an imported code owner config file to the paths of the
+    // code owner config files that import it.
+    SetMultimap<Path, Path> importingCodeOwnerConfigFiles = HashMultimap.create();
+    codeOwnerConfigImportIndex
+        .get(branchNameKey, revision, baseRevision)
+        .imports()
+        .forEach(
+            (importingKey, importedKey) -> {
+              if (importedKey.branchNameKey().equals(branchNameKey)) {
+                importingCodeOwnerConfigFiles.put(
+                    codeOwnerBackend.getFilePath(importedKey),
+                    codeOwnerBackend.getFilePath(importingKey));
+              }
+            });
+
+    return getAffectedFolders(updatedCodeOwnerConfigFiles, importingCodeOwnerConfigFiles);
+  }
+
+  /**
+   * Gets the folders that are affected by the updates of the given code owner config files.
+   *
+   * @param updatedCodeOwnerConfigFiles the absolute paths of the updated code owner config files
+   * @param importingCodeOwnerConfigFiles reverse import graph that maps the path of an imported
+   *     code owner config file to the paths of the code owner config files that import it
+   */
+  @VisibleForTesting
+  static ImmutableSet<Path> getAffectedFolders(
+      ImmutableSet<Path> updatedCodeOwnerConfigFiles,
+      SetMultimap<Path, Path> importingCodeOwnerConfigFiles) {
+    ImmutableSet.Builder<Path> affectedFolders = ImmutableSet.builder();
+    Set<Path> visitedFiles = new HashSet<>();
+    Deque<Path> filesToVisit = new ArrayDeque<>(updatedCodeOwnerConfigFiles);
+    while (!filesToVisit.isEmpty()) {
+      Path file = filesToVisit.poll();
+      if (!visitedFiles.add(file)) {
+        continue;
+      }
+      affectedFolders.add(file.getParent());
+      filesToVisit.addAll(importingCodeOwnerConfigFiles.get(file));
+    }
+    return affectedFolders.build();
+  }
+
+  /**
+   * Queries the open changes of the given branch that have a file in one of the given folders (or
+   * in a subfolder).
+   *
+   * <p>The changes are found by {@code dir:} predicates in the change index, so that the files of
+   * the open changes in the branch don't need to be loaded. To not exceed the maximum number of
+   * terms of index queries, the folders are queried in batches.
+   *
+   * @param changeQueryProvider provider for the query that should be used to query the changes
+   * @param branchNameKey the project and branch of the changes
+   * @param folders the absolute paths of the folders
+   * @return the matching changes, each change is returned only once
+   */
+  static ImmutableList<ChangeData> queryOpenChangesWithFilesInFolders(
+      Provider<InternalChangeQuery> changeQueryProvider,
+      BranchNameKey branchNameKey,
+      ImmutableSet<Path> folders) {
+    if (folders.isEmpty()) {
+      return ImmutableList.of();
+    }
+    if (folders.stream().anyMatch(folder -> folder.getNameCount() == 0)) {
+      // All files are in the root folder.
+      return ImmutableList.copyOf(changeQueryProvider.get().byBranchOpen(branchNameKey));
+    }
+
+    Map<Change.Id, ChangeData> changes = new LinkedHashMap<>();
+    for (List<Path> batch : Iterables.partition(folders, MAX_FOLDERS_PER_QUERY)) {
+      Predicate<ChangeData> predicate =
+          Predicate.and(
+              ChangePredicates.project(branchNameKey.project()),
+              ChangePredicates.ref(branchNameKey.branch()),
+              ChangeStatusPredicate.open(),
+              Predicate.or(
+                  batch.stream()
+                      .map(folder -> new DirectoryPredicate(JgitPath.of(folder).get()))
+                      .collect(toImmutableList())));
+      changeQueryProvider
+          .get()
+          .query(predicate)
+          .forEach(changeData -> changes.putIfAbsent(changeData.getId(), changeData));
+    }
+    return ImmutableList.copyOf(changes.values());
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableSortedMap.toImmutableSortedMap;
+
+import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Ordering;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Code owner coverage of a branch.
+ *
+ * <p>A file is uncovered if it falls back to the fallback code owners (see {@link
+ * FallbackCodeOwners}), i.e. if the code owner configs don't define any code owners for it and
+ * don't ignore parent code owners for it (see {@link
+ * CodeOwnershipExporter.Row#fallbackCodeOwnersApply()}). Global code owners don't make a file
+ * covered, since they don't prevent that the fallback code owners apply.
+ *
+ * <p>The coverage is aggregated per folder. Only folders that directly contain files are included.
+ * The files in subfolders count towards the subfolders, not towards the parent folder.
+ */
+@AutoValue
+public abstract class CodeOwnerCoverage {
+  /** The revision of the branch for which the coverage was computed. */
+  public abstract ObjectId revision();
+
+  /** The coverage of the folders that directly contain files, keyed by absolute folder path. */
+  public abstract ImmutableSortedMap<Path, FolderCoverage> folders();
+
+  /** The number of files in the branch. */
+  @Memoized
+  public int files() {
+    return folders().values().stream().mapToInt(FolderCoverage::files).sum();
+  }
+
+  /** The number of files in the branch that fall back to the fallback code owners. */
+  @Memoized
+  public int uncoveredFiles() {
+    return folders().values().stream().mapToInt(FolderCoverage::uncoveredFiles).sum();
+  }
+
+  /** The coverage of the folders that contain files that fall back to the fallback code owners. */
+  @Memoized
+  public ImmutableSortedMap<Path, FolderCoverage> uncoveredFolders() {
+    return folders().entrySet().stream()
+        .filter(e -> e.getValue().uncoveredFiles() > 0)
+        .collect(
+            toImmutableSortedMap(Ordering.natural(), Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  /**
+   * Histogram that maps a number of code owners to the number of folders that have this many
+   * distinct code owners for their files.
+   */
+  @Memoized
+  public ImmutableSortedMap<Integer, Integer> codeOwnersPerFolderHistogram() {
+    Map<Integer, Integer> histogram = new TreeMap<>();
+    folders().values().forEach(folder -> histogram.merge(folder.codeOwners(), 1, Integer::sum));
+    return ImmutableSortedMap.copyOf(histogram);
+  }
+
+  public static CodeOwnerCoverage create(
+      ObjectId revision, ImmutableSortedMap<Path, FolderCoverage> folders) {
+    return new AutoValue_CodeOwnerCoverage(revision.copy(), folders);
+  }
+
+  /** Code owner coverage of the files that are directly contained in a folder. */
+  @AutoValue
+  public abstract static class FolderCoverage {
+    /** The number of files in the folder. */
+    public abstract int files();
+
+    /** The number of files in the folder that fall back to the fallback code owners. */
+    public abstract int uncoveredFiles();
+
+    /** The number of distinct code owners of the files in the folder. */
+    public abstract int codeOwners();
+
+    public static FolderCoverage create(int files, int uncoveredFiles, int codeOwners) {
+      return new AutoValue_CodeOwnerCoverage_FolderCoverage(files, uncoveredFiles, codeOwners);
+    }
+  }
+}
@@ -0,0 +1,593 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.Striped;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.extensions.registration.RegistrationHandle;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerCoverage.FolderCoverage;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Computes and maintains the {@link CodeOwnerCoverage} of branches.
+ *
+ * <p>When the coverage of a branch is requested for the first time, it is computed by a single
+ * pass over the tree of the branch (see {@link CodeOwnershipExporter}). From then on the branch is
+ * tracked: when the branch is updated, only the folders that are affected by the update are
+ * recomputed and the coverage of all other folders is kept. Affected folders are:
+ *
+ * <ul>
+ *   <li>the folders that contain added, modified or deleted files (only the files that are directly
+ *       contained in these folders are recomputed)
+ *   <li>the folders that contain an updated code owner config file or a code owner config file
+ *       that imports an updated code owner config file from the same branch (the whole subtrees of
+ *       these folders are recomputed, see {@link
+ *       CodeOwnerConfigUpdateListener#getAffectedFolders(CodeOwnerBackend, BranchNameKey,
+ *       ObjectId, ObjectId, ImmutableSet)})
+ * </ul>
+ *
+ * <p>Tracked branches are updated asynchronously when they are updated. If the coverage is
+ * requested before the asynchronous update is done, the update is done synchronously.
+ *
+ * <p>The coverage of the branches of a project is dropped if the {@code refs/meta/config} branch of
+ * the project is updated, since this may change the global code owners or the default code owner
+ * config. Updates of code owner config files that are imported from other branches or projects
+ * are not detected.
+ *
+ * <p>The coverage of a branch is computed or updated while holding a lock for the branch, so that
+ * concurrent requests for the same branch don't compute it several times. Requests for other
+ * branches are not blocked.
+ *
+ * <p>The size of the {@code code_owner_coverage} cache is limited by the total number of folders of
+ * the tracked branches. The coverage of large branches (branches with more than {@link
+ * #LARGE_BRANCH_FOLDERS} folders) is kept separately with its own limit ({@code
+ * plugin.code-owners.maxTrackedLargeBranches}), so that a few large branches cannot evict the
+ * coverage of all other branches from the cache.
+ *
+ * <p>The number of uncovered files and folders of tracked branches is reported as gauges.
+ */
+@Singleton
+public class CodeOwnerCoverageTracker implements GitReferenceUpdatedListener, LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String CACHE_NAME = "code_owner_coverage";
+  private static final String QUEUE_NAME = "CodeOwnersCoverage";
+
+  /** The number of locks that are used to serialize the computations of the coverage per branch. */
+  private static final int BRANCH_LOCK_STRIPES = 64;
+
+  /** The maximum weight of the {@code code_owner_coverage} cache. */
+  private static final int MAX_CACHE_WEIGHT = 100000;
+
+  /**
+   * The number of folders above which a branch is considered as large. The coverage of large
+   * branches is not stored in the cache, but in {@link #largeBranches}.
+   */
+  private static final int LARGE_BRANCH_FOLDERS = MAX_CACHE_WEIGHT / 10;
+
+  public static class CodeOwnerCoverageTrackerModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      install(
+          new CacheModule() {
+            @Override
+            protected void configure() {
+              cache(CACHE_NAME, BranchNameKey.class, CodeOwnerCoverage.class)
+                  .maximumWeight(MAX_CACHE_WEIGHT)
+                  .weigher(CoverageWeigher.class);
+            }
+          });
+      listener().to(CodeOwnerCoverageTracker.class);
+      DynamicSet.bind(binder(), GitReferenceUpdatedListener.class)
+          .to(CodeOwnerCoverageTracker.class);
+    }
+  }
+
+  private final Cache<BranchNameKey, CodeOwnerCoverage> cache;
+  private final GitRepositoryManager repoManager;
+  private final WorkQueue workQueue;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnershipExporter codeOwnershipExporter;
+  private final CodeOwnerConfigUpdateListener codeOwnerConfigUpdateListener;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  /**
+   * Locks that serialize the computations of the coverage of a branch. Branches that share a lock
+   * stripe are serialized too, but this is rare and acceptable.
+   */
+  private final Striped<Lock> branchLocks = Striped.lock(BRANCH_LOCK_STRIPES);
+
+  /**
+   * The coverage of large branches, ordered by the time they were last accessed (least recently
+   * accessed first). Access must be synchronized on the map.
+   */
+  private final LinkedHashMap<BranchNameKey, CodeOwnerCoverage> largeBranches =
+      new LinkedHashMap<>(16, 0.75f, /* accessOrder= */ true);
+
+  @Nullable private ScheduledExecutorService executor;
+  @Nullable private RegistrationHandle coverageMetrics;
+
+  @Inject
+  CodeOwnerCoverageTracker(
+      @Named(CACHE_NAME) Cache<BranchNameKey, CodeOwnerCoverage> cache,
+      GitRepositoryManager repoManager,
+      WorkQueue workQueue,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnershipExporter codeOwnershipExporter,
+      CodeOwnerConfigUpdateListener codeOwnerConfigUpdateListener,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    this.cache = cache;
+    this.repoManager = repoManager;
+    this.workQueue = workQueue;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnershipExporter = codeOwnershipExporter;
+    this.codeOwnerConfigUpdateListener = codeOwnerConfigUpdateListener;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  @Override
+  public synchronized void start() {
+    executor = workQueue.createQueue(1, QUEUE_NAME);
+    coverageMetrics =
+        codeOwnerMetrics.registerCodeOwnerCoverage(
+            () -> getTrackedCoverage(CodeOwnerCoverage::uncoveredFiles),
+            () -> getTrackedCoverage(coverage -> coverage.uncoveredFolders().size()));
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (coverageMetrics != null) {
+      coverageMetrics.remove();
+      coverageMetrics = null;
+    }
+  }
+
+  /**
+   * Gets the code owner coverage of the current revision of the given branch.
+   *
+   * <p>If the coverage of an older revision of the branch is known, it is updated incrementally.
+   * Otherwise the coverage is computed by a single pass over the tree of the branch.
+   *
+   * <p>Only concurrent calls for the same branch wait for each other.
+   *
+   * @param branchNameKey the project and branch for which the coverage should be returned
+   * @return the code owner coverage of the branch, {@link Optional#empty()} if the branch doesn't
+   *     exist
+   */
+  public Optional<CodeOwnerCoverage> get(BranchNameKey branchNameKey) throws IOException {
+    requireNonNull(branchNameKey, "branchNameKey");
+
+    Lock branchLock = branchLocks.get(branchNameKey);
+    branchLock.lock();
+    try {
+      return getLocked(branchNameKey);
+    } finally {
+      branchLock.unlock();
+    }
+  }
+
+  private Optional<CodeOwnerCoverage> getLocked(BranchNameKey branchNameKey) throws IOException {
+    Optional<ObjectId> revision = getRevision(branchNameKey);
+    if (!revision.isPresent()) {
+      untrack(branchNameKey);
+      return Optional.empty();
+    }
+
+    CodeOwnerCoverage coverage = getTracked(branchNameKey);
+    if (coverage != null && coverage.revision().equals(revision.get())) {
+      return Optional.of(coverage);
+    }
+
+    coverage =
+        coverage != null
+            ? update(branchNameKey, coverage, revision.get())
+            : compute(branchNameKey, revision.get());
+    track(branchNameKey, coverage);
+    return Optional.of(coverage);
+  }
+
+  /** Gets the coverage of the given branch if the branch is tracked. */
+  @Nullable
+  private CodeOwnerCoverage getTracked(BranchNameKey branchNameKey) {
+    CodeOwnerCoverage coverage = cache.getIfPresent(branchNameKey);
+    if (coverage != null) {
+      return coverage;
+    }
+    synchronized (largeBranches) {
+      return largeBranches.get(branchNameKey);
+    }
+  }
+
+  /**
+   * Whether the given branch is tracked. Unlike {@link #getTracked(BranchNameKey)} this doesn't
+   * count as an access of a large branch.
+   */
+  private boolean isTracked(BranchNameKey branchNameKey) {
+    if (cache.getIfPresent(branchNameKey) != null) {
+      return true;
+    }
+    synchronized (largeBranches) {
+      return largeBranches.containsKey(branchNameKey);
+    }
+  }
+
+  /**
+   * Tracks the given coverage of the given branch.
+   *
+   * <p>The coverage of large branches is stored in {@link #largeBranches}, so that it doesn't evict
+   * the coverage of all other branches from the cache. If more large branches are tracked than
+   * allowed, the large branches that were least recently accessed are no longer tracked.
+   */
+  private void track(BranchNameKey branchNameKey, CodeOwnerCoverage coverage) {
+    if (coverage.folders().size() <= LARGE_BRANCH_FOLDERS) {
+      synchronized (largeBranches) {
+        largeBranches.remove(branchNameKey);
+      }
+      cache.put(branchNameKey, coverage);
+      return;
+    }
+
+    cache.invalidate(branchNameKey);
+    int maxTrackedLargeBranches =
+        codeOwnersPluginConfiguration.getGlobalConfig().getMaxTrackedLargeBranches();
+    synchronized (largeBranches) {
+      largeBranches.put(branchNameKey, coverage);
+      Iterator<BranchNameKey> leastRecentlyAccessed = largeBranches.keySet().iterator();
+      while (largeBranches.size() > maxTrackedLargeBranches) {
+        BranchNameKey droppedBranch = leastRecentlyAccessed.next();
+        logger.atFine().log(
+            "dropping code owner coverage of large branch %s in project %s",
+            droppedBranch.branch(), droppedBranch.project());
+        leastRecentlyAccessed.remove();
+      }
+    }
+  }
+
+  /** Stops tracking the given branch. */
+  private void untrack(BranchNameKey branchNameKey) {
+    cache.invalidate(branchNameKey);
+    synchronized (largeBranches) {
+      largeBranches.remove(branchNameKey);
+    }
+  }
+
+  /** Gets the coverage of all tracked branches. */
+  private Map<BranchNameKey, CodeOwnerCoverage> getAllTracked() {
+    // A branch may become large or small concurrently, in this case either of its coverages is
+    // kept.
+    Map<BranchNameKey, CodeOwnerCoverage> allTracked = new HashMap<>(cache.asMap());
+    synchronized (largeBranches) {
+      allTracked.putAll(largeBranches);
+    }
+    return allTracked;
+  }
+
+  @Override
+  public void onGitReferenceUpdated(Event event) {
+    Project.NameKey projectName = Project.nameKey(event.getProjectName());
+    if (RefNames.REFS_CONFIG.equals(event.getRefName())) {
+      // The global code owners, the default code owner config or the code owner backend may have
+      // changed.
+      cache.asMap().keySet().removeIf(key -> key.project().equals(projectName));
+      synchronized (largeBranches) {
+        largeBranches.keySet().removeIf(key -> key.project().equals(projectName));
+      }
+      return;
+    }
+
+    if (!event.getRefName().startsWith(RefNames.REFS_HEADS)) {
+      return;
+    }
+
+    BranchNameKey branchNameKey = BranchNameKey.create(projectName, event.getRefName());
+    if (!isTracked(branchNameKey)) {
+      // The branch is not tracked.
+      return;
+    }
+
+    if (event.isDelete()) {
+      untrack(branchNameKey);
+      return;
+    }
+
+    runAsync(() -> refresh(branchNameKey));
+  }
+
+  private synchronized void runAsync(Runnable task) {
+    if (executor == null) {
+      logger.atFine().log("queue is not started, skip task");
+      return;
+    }
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log("failed to schedule task");
+    }
+  }
+
+  private void refresh(BranchNameKey branchNameKey) {
+    try {
+      get(branchNameKey);
+    } catch (IOException | RuntimeException e) {
+      logger.atWarning().withCause(e).log(
+          "failed to update code owner coverage of branch %s in project %s",
+          branchNameKey.branch(), branchNameKey.project());
+      untrack(branchNameKey);
+    }
+  }
+
+  private Optional<ObjectId> getRevision(BranchNameKey branchNameKey) throws IOException {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project())) {
+      Ref ref = repository.exactRef(branchNameKey.branch());
+      return Optional.ofNullable(ref).map(Ref::getObjectId);
+    }
+  }
+
+  /** Computes the code owner coverage of the given revision by a single pass over its tree. */
+  private CodeOwnerCoverage compute(BranchNameKey branchNameKey, ObjectId revision)
+      throws IOException {
+    logger.atFine().log(
+        "computing code owner coverage of revision %s of branch %s in project %s",
+        revision.name(), branchNameKey.branch(), branchNameKey.project());
+    FolderCoverageAggregator aggregator = new FolderCoverageAggregator();
+    codeOwnershipExporter.export(branchNameKey, revision, TreeFilter.ALL, aggregator::add);
+    return CodeOwnerCoverage.create(revision, ImmutableSortedMap.copyOf(aggregator.aggregate()));
+  }
+
+  /**
+   * Updates the given code owner coverage to the given revision by recomputing only the folders
+   * that are affected by the differences between the revisions.
+   */
+  private CodeOwnerCoverage update(
+      BranchNameKey branchNameKey, CodeOwnerCoverage coverage, ObjectId newRevision)
+      throws IOException {
+    CodeOwnerBackend codeOwnerBackend =
+        codeOwnersPluginConfiguration
+            .getProjectConfig(branchNameKey.project())
+            .getBackend(branchNameKey.branch());
+
+    Set<Path> foldersWithUpdatedFiles = new HashSet<>();
+    Set<Path> updatedCodeOwnerConfigFiles = new HashSet<>();
+    try (Repository repository = repoManager.openRepository(branchNameKey.project());
+        RevWalk rw = new RevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(repository, rw.getObjectReader())) {
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      treeWalk.addTree(rw.parseCommit(coverage.revision()).getTree());
+      treeWalk.addTree(rw.parseCommit(newRevision).getTree());
+      while (treeWalk.next()) {
+        Path path = Path.of("/" + treeWalk.getPathString());
+        foldersWithUpdatedFiles.add(path.getParent());
+        if (codeOwnerBackend.isCodeOwnerConfigFile(
+            branchNameKey.project(), treeWalk.getNameString())) {
+          updatedCodeOwnerConfigFiles.add(path);
+        }
+      }
+    } catch (MissingObjectException e) {
+      // The old revision is no longer available (e.g. after a non-fast-forward update that was
+      // followed by a garbage collection).
+      logger.atFine().log("cannot diff against %s, recompute coverage", coverage.revision().name());
+      return compute(branchNameKey, newRevision);
+    }
+
+    ImmutableSet<Path> subtrees =
+        updatedCodeOwnerConfigFiles.isEmpty()
+            ? ImmutableSet.of()
+            : codeOwnerConfigUpdateListener.getAffectedFolders(
+                codeOwnerBackend,
+                branchNameKey,
+                newRevision,
+                coverage.revision(),
+                ImmutableSet.copyOf(updatedCodeOwnerConfigFiles));
+    FolderFilter folderFilter =
+        new FolderFilter(ImmutableSet.copyOf(foldersWithUpdatedFiles), subtrees);
+    logger.atFine().log(
+        "updating code owner coverage of branch %s in project %s from revision %s to revision %s"
+            + " (%s)",
+        branchNameKey.branch(),
+        branchNameKey.project(),
+        coverage.revision().name(),
+        newRevision.name(),
+        folderFilter);
+
+    FolderCoverageAggregator aggregator = new FolderCoverageAggregator();
+    if (!folderFilter.isEmpty()) {
+      codeOwnershipExporter.export(branchNameKey, newRevision, folderFilter, aggregator::add);
+    }
+
+    Map<Path, FolderCoverage> folders = new TreeMap<>(coverage.folders());
+    folders.keySet().removeIf(folderFilter::includesFilesOf);
+    folders.putAll(aggregator.aggregate());
+    return CodeOwnerCoverage.create(newRevision, ImmutableSortedMap.copyOf(folders));
+  }
+
+  /**
+   * Gets a value of the code owner coverage of all tracked branches, keyed by {@code
+   * <project>:<branch>}.
+   */
+  private ImmutableMap<String, Integer> getTrackedCoverage(
+      Function<CodeOwnerCoverage, Integer> valueFunction) {
+    return getAllTracked().entrySet().stream()
+        .collect(
+            toImmutableMap(
+                e -> e.getKey().project().get() + ":" + e.getKey().shortName(),
+                e -> valueFunction.apply(e.getValue())));
+  }
+
+  /** Weighs code owner coverages by the number of their folders. */
+  static class CoverageWeigher implements Weigher<BranchNameKey, CodeOwnerCoverage> {
+    @Override
+    public int weigh(BranchNameKey branchNameKey, CodeOwnerCoverage coverage) {
+      return 1 + coverage.folders().size();
+    }
+  }
+
+  /** Aggregates the code ownership of files to the code owner coverage of their folders. */
+  private static class FolderCoverageAggregator {
+    private final Map<Path, FolderCounts> countsByFolder = new HashMap<>();
+
+    void add(CodeOwnershipExporter.Row row) {
+      FolderCounts counts =
+          countsByFolder.computeIfAbsent(row.path().getParent(), folder -> new FolderCounts());
+      counts.files++;
+      if (row.fallbackCodeOwnersApply()) {
+        counts.uncoveredFiles++;
+      }
+      counts.codeOwners.addAll(row.codeOwners());
+    }
+
+    ImmutableMap<Path, FolderCoverage> aggregate() {
+      return countsByFolder.entrySet().stream()
+          .collect(
+              toImmutableMap(
+                  Map.Entry::getKey,
+                  e ->
+                      FolderCoverage.create(
+                          e.getValue().files,
+                          e.getValue().uncoveredFiles,
+                          e.getValue().codeOwners.size())));
+    }
+
+    private static class FolderCounts {
+      private int files;
+      private int uncoveredFiles;
+      private final Set<String> codeOwners = new HashSet<>();
+    }
+  }
+
+  /**
+   * Tree filter that matches the files that are directly contained in the given folders and all
+   * files in the given subtrees.
+   */
+  private static class FolderFilter extends TreeFilter {
+    private final ImmutableSet<Path> folders;
+    private final ImmutableSet<Path> subtrees;
+
+    /**
+     * The folders and subtrees and all their parent folders, i.e. the folders into which the tree
+     * walk must descend.
+     */
+    private final ImmutableSet<Path> foldersToDescendInto;
+
+    FolderFilter(ImmutableSet<Path> folders, ImmutableSet<Path> subtrees) {
+      this.folders = folders;
+      this.subtrees = subtrees;
+
+      ImmutableSet.Builder<Path> foldersToDescendInto = ImmutableSet.builder();
+      Stream.concat(folders.stream(), subtrees.stream())
+          .forEach(
+              folder -> {
+                for (Path path = folder; path != null; path = path.getParent()) {
+                  foldersToDescendInto.add(path);
+                }
+              });
+      this.foldersToDescendInto = foldersToDescendInto.build();
+    }
+
+    boolean isEmpty() {
+      return folders.isEmpty() && subtrees.isEmpty();
+    }
+
+    /** Whether the files that are directly contained in the given folder match this filter. */
+    boolean includesFilesOf(Path folder) {
+      if (folders.contains(folder)) {
+        return true;
+      }
+      // Only look up the folder and its parent folders, so that the costs don't depend on the
+      // number of subtrees.
+      for (Path path = folder; path != null; path = path.getParent()) {
+        if (subtrees.contains(path)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean include(TreeWalk walker) {
+      Path path = Path.of("/").resolve(walker.getPathString());
+      if (walker.isSubtree()) {
+        // Descend into all folders that are or that contain one of the folders or subtrees, and
+        // into all folders inside of the subtrees.
+        return foldersToDescendInto.contains(path) || includesFilesOf(path);
+      }
+      return includesFilesOf(path.getParent());
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+      return false;
+    }
+
+    @Override
+    public TreeFilter clone() {
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("folders = %s, subtrees = %s", folders, subtrees);
+    }
+  }
+}
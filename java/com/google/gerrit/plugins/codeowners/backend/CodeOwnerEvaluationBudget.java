@@ -0,0 +1,256 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginGlobalConfigSnapshot;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.EvaluationBudgetLimit;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Enforces a budget for code owner evaluations of a change.
+ *
+ * <p>Evaluating the code owners of pathological changes (e.g. a merge commit that touches hundreds
+ * of thousands of files) can take minutes, which blocks the threads that evaluate the code owner
+ * submit rule (e.g. for change indexing). To protect the server the work that can be done by a
+ * single evaluation can be limited in {@code gerrit.config}:
+ *
+ * <ul>
+ *   <li>the evaluation time ({@code plugin.code-owners.maxEvaluationTime})
+ *   <li>the number of changed files for which the code owner status is computed ({@code
+ *       plugin.code-owners.maxFilesPerEvaluation})
+ *   <li>the number of code owner config files that are read from the backend ({@code
+ *       plugin.code-owners.maxCodeOwnerConfigReadsPerEvaluation})
+ *   <li>the number of code owner config imports that are resolved ({@code
+ *       plugin.code-owners.maxImportsPerEvaluation})
+ * </ul>
+ *
+ * <p>The budget applies within a scope (see {@link #open(Project.NameKey)}). Components that do
+ * work for an evaluation charge the budget (e.g. {@link #chargeFile()}), which fails with {@link
+ * CodeOwnerEvaluationBudgetExceededException} if any limit is exceeded. Outside of a scope
+ * charging the budget is a no-op.
+ *
+ * <p>The scope is opened by the outermost evaluation of a thread (e.g. the code owner submit rule)
+ * and nested evaluations (e.g. computing the file statuses for the submit rule) charge the budget
+ * of this scope, so that the limits apply to the evaluation as a whole and not to each of its
+ * parts.
+ */
+@Singleton
+public class CodeOwnerEvaluationBudget {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final ThreadLocalScope<Scope> currentScope = new ThreadLocalScope<>(Scope.NOOP);
+
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  @Inject
+  CodeOwnerEvaluationBudget(
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  /**
+   * Opens a scope in which the evaluation budget is enforced.
+   *
+   * <p>If a scope is already open for the current thread, the returned scope is a no-op and the
+   * budget of the outer scope is charged.
+   *
+   * @param projectName the name of the project that contains the change that is evaluated
+   * @return the scope, must be closed when the evaluation is done
+   */
+  public Scope open(Project.NameKey projectName) {
+    requireNonNull(projectName, "projectName");
+    return currentScope.open(
+        () -> {
+          CodeOwnersPluginGlobalConfigSnapshot globalConfig =
+              codeOwnersPluginConfiguration.getGlobalConfig();
+          return new Scope(
+              codeOwnerMetrics,
+              projectName,
+              globalConfig.getMaxEvaluationTime(),
+              globalConfig.getMaxFilesPerEvaluation(),
+              globalConfig.getMaxCodeOwnerConfigReadsPerEvaluation(),
+              globalConfig.getMaxImportsPerEvaluation());
+        });
+  }
+
+  /**
+   * Charges the budget for computing the code owner status of a changed file.
+   *
+   * @throws CodeOwnerEvaluationBudgetExceededException if the budget is exceeded
+   */
+  public void chargeFile() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.charge(EvaluationBudgetLimit.FILES);
+    }
+  }
+
+  /**
+   * Charges the budget for reading a code owner config file from the backend.
+   *
+   * @throws CodeOwnerEvaluationBudgetExceededException if the budget is exceeded
+   */
+  public void chargeCodeOwnerConfigRead() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.charge(EvaluationBudgetLimit.CODE_OWNER_CONFIG_READS);
+    }
+  }
+
+  /**
+   * Charges the budget for resolving a code owner config import.
+   *
+   * @throws CodeOwnerEvaluationBudgetExceededException if the budget is exceeded
+   */
+  public void chargeImport() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.charge(EvaluationBudgetLimit.IMPORTS);
+    }
+  }
+
+  /**
+   * Scope in which the evaluation budget is enforced.
+   *
+   * <p><strong>Note</strong>: This class is not thread-safe, it must only be used by the thread
+   * that opened it.
+   */
+  public static class Scope implements AutoCloseable {
+    private static final Scope NOOP =
+        new Scope(
+            /* codeOwnerMetrics= */ null,
+            /* projectName= */ null,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty());
+
+    @Nullable private final CodeOwnerMetrics codeOwnerMetrics;
+    @Nullable private final Project.NameKey projectName;
+    private final Optional<Duration> maxEvaluationTime;
+    private final Optional<Integer> maxFiles;
+    private final Optional<Integer> maxCodeOwnerConfigReads;
+    private final Optional<Integer> maxImports;
+    private final Stopwatch stopwatch = Stopwatch.createStarted();
+
+    private int files;
+    private int codeOwnerConfigReads;
+    private int imports;
+    private boolean exceeded;
+
+    private Scope(
+        @Nullable CodeOwnerMetrics codeOwnerMetrics,
+        @Nullable Project.NameKey projectName,
+        Optional<Duration> maxEvaluationTime,
+        Optional<Integer> maxFiles,
+        Optional<Integer> maxCodeOwnerConfigReads,
+        Optional<Integer> maxImports) {
+      this.codeOwnerMetrics = codeOwnerMetrics;
+      this.projectName = projectName;
+      this.maxEvaluationTime = maxEvaluationTime;
+      this.maxFiles = maxFiles;
+      this.maxCodeOwnerConfigReads = maxCodeOwnerConfigReads;
+      this.maxImports = maxImports;
+    }
+
+    private void charge(EvaluationBudgetLimit limit) {
+      switch (limit) {
+        case FILES:
+          files++;
+          checkLimit(limit, files, maxFiles);
+          break;
+        case CODE_OWNER_CONFIG_READS:
+          codeOwnerConfigReads++;
+          checkLimit(limit, codeOwnerConfigReads, maxCodeOwnerConfigReads);
+          break;
+        case IMPORTS:
+          imports++;
+          checkLimit(limit, imports, maxImports);
+          break;
+        case TIME:
+          break;
+      }
+
+      if (maxEvaluationTime.isPresent()
+          && stopwatch.elapsed().compareTo(maxEvaluationTime.get()) > 0) {
+        throw budgetExceeded(
+            EvaluationBudgetLimit.TIME,
+            String.format(
+                "evaluation time exceeded the limit of %d ms", maxEvaluationTime.get().toMillis()));
+      }
+    }
+
+    private void checkLimit(EvaluationBudgetLimit limit, int count, Optional<Integer> maxCount) {
+      if (maxCount.isPresent() && count > maxCount.get()) {
+        throw budgetExceeded(
+            limit,
+            String.format("%s exceeded the limit of %d", describe(limit), maxCount.get()));
+      }
+    }
+
+    private CodeOwnerEvaluationBudgetExceededException budgetExceeded(
+        EvaluationBudgetLimit limit, String reason) {
+      if (!exceeded) {
+        // Only record the first time the budget is exceeded, in case the caller continues after
+        // the exception.
+        exceeded = true;
+        logger.atWarning().log(
+            "code owner evaluation in project %s exceeded the evaluation budget (%s)",
+            projectName, reason);
+        codeOwnerMetrics.countExceededEvaluationBudgets.increment(projectName.get(), limit);
+      }
+      return new CodeOwnerEvaluationBudgetExceededException(
+          String.format(
+              "Evaluating the code owners is too expensive (%s). Please split the change into"
+                  + " smaller changes or request a code owner override.",
+              reason),
+          projectName,
+          limit);
+    }
+
+    private static String describe(EvaluationBudgetLimit limit) {
+      switch (limit) {
+        case FILES:
+          return "number of evaluated files";
+        case CODE_OWNER_CONFIG_READS:
+          return "number of read code owner config files";
+        case IMPORTS:
+          return "number of resolved code owner config imports";
+        case TIME:
+          break;
+      }
+      throw new IllegalStateException("unknown limit: " + limit);
+    }
+
+    @Override
+    public void close() {
+      currentScope.close(this);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.metrics.EvaluationBudgetLimit;
+
+/**
+ * Exception that is thrown if a code owner evaluation of a change exceeds its budget (see {@link
+ * CodeOwnerEvaluationBudget}).
+ */
+public class CodeOwnerEvaluationBudgetExceededException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final Project.NameKey projectName;
+  private final EvaluationBudgetLimit limit;
+
+  CodeOwnerEvaluationBudgetExceededException(
+      String message, Project.NameKey projectName, EvaluationBudgetLimit limit) {
+    super(message);
+    this.projectName = requireNonNull(projectName, "projectName");
+    this.limit = requireNonNull(limit, "limit");
+  }
+
+  public Project.NameKey getProjectName() {
+    return projectName;
+  }
+
+  public EvaluationBudgetLimit getLimit() {
+    return limit;
+  }
+}
@@ -0,0 +1,235 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.PatchSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshotCache;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerEvaluation;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Coalesces identical code owner evaluations that are done concurrently.
+ *
+ * <p>When a change is viewed by many users at the same time, the same code owner evaluations (e.g.
+ * computing the code owner statuses of the files) are triggered concurrently for the same state of
+ * the change. Instead of doing the same evaluation several times in parallel, only the first
+ * request does the evaluation and the other requests wait for it and share its result.
+ *
+ * <p>Evaluations are identical if they are of the same {@link CodeOwnerEvaluation kind}, are done
+ * for the same patch set, the same revision of the change meta ref, the same revision of the
+ * destination branch (which contains the code owner config files), the same code-owners plugin
+ * configuration (see {@link CodeOwnersPluginProjectConfigSnapshotCache#getConfigRevisions(
+ * com.google.gerrit.server.project.ProjectState)}) and the same arguments.
+ *
+ * <p>Results are only shared while the evaluation is in progress, they are not cached. Hence
+ * results must be immutable and must not depend on the calling user.
+ */
+@Singleton
+public class CodeOwnerEvaluationCoalescer {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** An evaluation that can be coalesced. */
+  @FunctionalInterface
+  public interface Evaluation<T> {
+    T evaluate() throws IOException, DiffNotAvailableException;
+  }
+
+  /** The keys of the evaluations that are done by the current thread. */
+  private static final ThreadLocal<Set<Key>> evaluationsOfCurrentThread =
+      ThreadLocal.withInitial(HashSet::new);
+
+  private final ConcurrentMap<Key, CompletableFuture<Object>> inFlightEvaluations =
+      new ConcurrentHashMap<>();
+  private final ProjectCache projectCache;
+  private final RepositoryContext repositoryContext;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerAccountDependencies accountDependencies;
+
+  @Inject
+  CodeOwnerEvaluationCoalescer(
+      ProjectCache projectCache,
+      RepositoryContext repositoryContext,
+      CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerAccountDependencies accountDependencies) {
+    this.projectCache = projectCache;
+    this.repositoryContext = repositoryContext;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+    this.accountDependencies = accountDependencies;
+  }
+
+  /**
+   * Runs the given evaluation, unless an identical evaluation is in progress, in which case the
+   * result of the in-progress evaluation is returned.
+   *
+   * @param codeOwnerEvaluation the kind of evaluation
+   * @param changeNotes the notes of the change for which the evaluation is done
+   * @param patchSetId the ID of the patch set for which the evaluation is done
+   * @param arguments further arguments that affect the result of the evaluation
+   * @param evaluation the evaluation
+   * @return the result of the evaluation
+   */
+  public <T> T coalesce(
+      CodeOwnerEvaluation codeOwnerEvaluation,
+      ChangeNotes changeNotes,
+      PatchSet.Id patchSetId,
+      ImmutableList<Object> arguments,
+      Evaluation<T> evaluation)
+      throws IOException, DiffNotAvailableException {
+    requireNonNull(codeOwnerEvaluation, "codeOwnerEvaluation");
+    requireNonNull(changeNotes, "changeNotes");
+    requireNonNull(patchSetId, "patchSetId");
+    requireNonNull(arguments, "arguments");
+    requireNonNull(evaluation, "evaluation");
+
+    Key key = createKey(codeOwnerEvaluation, changeNotes, patchSetId, arguments);
+    if (evaluationsOfCurrentThread.get().contains(key)) {
+      // The evaluation is nested in an identical evaluation of the current thread, waiting for the
+      // outer evaluation would never finish.
+      return evaluation.evaluate();
+    }
+
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> inFlightEvaluation = inFlightEvaluations.putIfAbsent(key, future);
+    if (inFlightEvaluation != null) {
+      logger.atFine().log("coalescing evaluation %s with in-flight evaluation", key);
+      codeOwnerMetrics.countCoalescedEvaluations.increment(codeOwnerEvaluation);
+
+      // The accounts on which the result depends are recorded by the thread that does the
+      // evaluation.
+      accountDependencies.recordUnknown();
+      return awaitResult(key, inFlightEvaluation);
+    }
+
+    evaluationsOfCurrentThread.get().add(key);
+    try {
+      T result = evaluation.evaluate();
+      future.complete(result);
+      return result;
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+      throw t;
+    } finally {
+      evaluationsOfCurrentThread.get().remove(key);
+      inFlightEvaluations.remove(key, future);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T awaitResult(Key key, CompletableFuture<Object> inFlightEvaluation)
+      throws IOException, DiffNotAvailableException {
+    try {
+      return (T) inFlightEvaluation.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StorageException(
+          String.format("interrupted while waiting for in-flight evaluation %s", key), e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfInstanceOf(e.getCause(), DiffNotAvailableException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new StorageException(String.format("in-flight evaluation %s failed", key), e);
+    }
+  }
+
+  private Key createKey(
+      CodeOwnerEvaluation codeOwnerEvaluation,
+      ChangeNotes changeNotes,
+      PatchSet.Id patchSetId,
+      ImmutableList<Object> arguments)
+      throws IOException {
+    Project.NameKey projectName = changeNotes.getProjectName();
+    return Key.create(
+        codeOwnerEvaluation,
+        projectName,
+        patchSetId,
+        changeNotes.getMetaId(),
+        getDestBranchRevision(changeNotes),
+        projectCache
+            .get(projectName)
+            .map(CodeOwnersPluginProjectConfigSnapshotCache::getConfigRevisions)
+            .orElseGet(ImmutableList::of),
+        arguments);
+  }
+
+  private Optional<ObjectId> getDestBranchRevision(ChangeNotes changeNotes) throws IOException {
+    try (Repository repository = repositoryContext.openRepository(changeNotes.getProjectName())) {
+      Ref ref = repository.exactRef(changeNotes.getChange().getDest().branch());
+      return ref != null ? Optional.of(ref.getObjectId()) : Optional.empty();
+    }
+  }
+
+  /** Key identifying an evaluation. */
+  @AutoValue
+  abstract static class Key {
+    abstract CodeOwnerEvaluation codeOwnerEvaluation();
+
+    abstract Project.NameKey project();
+
+    abstract PatchSet.Id patchSetId();
+
+    /** The revision of the change meta ref. */
+    abstract ObjectId metaRevision();
+
+    /** The revision of the destination branch, if it exists. */
+    abstract Optional<ObjectId> destBranchRevision();
+
+    /** The revisions of the {@code refs/meta/config} branches of the project and its parents. */
+    abstract ImmutableList<ObjectId> configRevisions();
+
+    abstract ImmutableList<Object> arguments();
+
+    static Key create(
+        CodeOwnerEvaluation codeOwnerEvaluation,
+        Project.NameKey project,
+        PatchSet.Id patchSetId,
+        ObjectId metaRevision,
+        Optional<ObjectId> destBranchRevision,
+        ImmutableList<ObjectId> configRevisions,
+        ImmutableList<Object> arguments) {
+      return new AutoValue_CodeOwnerEvaluationCoalescer_Key(
+          codeOwnerEvaluation,
+          project,
+          patchSetId,
+          metaRevision.copy(),
+          destBranchRevision.map(ObjectId::copy),
+          configRevisions,
+          arguments);
+    }
+  }
+}
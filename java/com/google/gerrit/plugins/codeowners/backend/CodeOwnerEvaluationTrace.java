@@ -0,0 +1,468 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.server.logging.TraceContext;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Records a breakdown of where the time of a code owner evaluation is spent.
+ *
+ * <p>{@link com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics} only records aggregated
+ * timers, which don't allow to debug why the evaluation of a specific change is slow. Hence the
+ * breakdown of code owner evaluations is recorded:
+ *
+ * <ul>
+ *   <li>if the request is traced (see {@link TraceContext#isTracing()}): the breakdown is emitted
+ *       as {@link TraceContext} tags of a summary log line when the evaluation is done
+ *   <li>if a threshold for slow evaluations is configured ({@code
+ *       plugin.code-owners.slowEvaluationThreshold}): if the evaluation took longer than the
+ *       threshold, the breakdown is written to the {@link SlowCodeOwnerEvaluationLog}
+ * </ul>
+ *
+ * <p>The breakdown contains the time spent and the number of invocations for each {@link Phase},
+ * the number of evaluated files, loaded code owner config files and resolved imports, and the code
+ * owner config files and path expressions that were the most expensive to resolve.
+ *
+ * <p>The breakdown is recorded within a scope (see {@link #open(String, ChangeNotes)}). Components
+ * that do work for an evaluation record it by starting a timer (e.g. {@link #start(Phase)}).
+ * Outside of a scope, or if neither the request is traced nor a threshold for slow evaluations is
+ * configured, recording is a no-op.
+ *
+ * <p>Only the outermost evaluation of a thread produces a breakdown. Evaluations that are nested in
+ * it (e.g. computing the file statuses when the code owner submit rule is evaluated) add their
+ * phases and counters to the breakdown of the outermost evaluation, so that each summary log line
+ * or slow evaluation log entry describes one top-level evaluation.
+ */
+@Singleton
+public class CodeOwnerEvaluationTrace {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final ThreadLocalScope<Scope> currentScope = new ThreadLocalScope<>(Scope.NOOP);
+
+  /**
+   * The number of most expensive code owner config files and path expressions that are included in
+   * the breakdown.
+   */
+  private static final int MAX_REPORTED_ENTRIES = 5;
+
+  /** Phases of a code owner evaluation for which the time is recorded. */
+  public enum Phase {
+    /** Computing the files that have been changed in the change. */
+    GET_CHANGED_FILES("diff"),
+
+    /** Loading code owner config files from the backend. */
+    LOAD_CODE_OWNER_CONFIG("load"),
+
+    /** Parsing code owner config files. */
+    PARSE_CODE_OWNER_CONFIG("parse"),
+
+    /** Resolving the imports of code owner config files. */
+    RESOLVE_IMPORTS("imports"),
+
+    /** Resolving code owner references (emails) to accounts. */
+    RESOLVE_CODE_OWNER_REFERENCES("emails"),
+
+    /** Matching the path expressions (globs) of per-file code owner sets against file paths. */
+    MATCH_PATH_EXPRESSIONS("globs");
+
+    private final String tagName;
+
+    Phase(String tagName) {
+      this.tagName = tagName;
+    }
+  }
+
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+
+  @Inject
+  CodeOwnerEvaluationTrace(CodeOwnersPluginConfiguration codeOwnersPluginConfiguration) {
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+  }
+
+  /**
+   * Opens a scope in which the breakdown of a code owner evaluation of a change is recorded.
+   *
+   * @param evaluation description of the evaluation (e.g. {@code "submittability"})
+   * @param changeNotes the notes of the change that is evaluated
+   * @return the scope, must be closed when the evaluation is done
+   * @see #open(String, Project.NameKey, String)
+   */
+  public Scope open(String evaluation, ChangeNotes changeNotes) {
+    requireNonNull(changeNotes, "changeNotes");
+    return open(
+        evaluation,
+        changeNotes.getProjectName(),
+        String.format("change %d", changeNotes.getChangeId().get()));
+  }
+
+  /**
+   * Opens a scope in which the breakdown of a code owner evaluation is recorded.
+   *
+   * <p>If neither the request is traced nor a threshold for slow evaluations is configured, or if a
+   * scope is already open for the current thread, the returned scope is a no-op (in the latter case
+   * the breakdown is recorded in the outer scope).
+   *
+   * @param evaluation description of the evaluation (e.g. {@code "submittability"})
+   * @param projectName the name of the project in which the evaluation is done
+   * @param subject description of what is evaluated (e.g. {@code "change 123"})
+   * @return the scope, must be closed when the evaluation is done
+   */
+  public Scope open(String evaluation, Project.NameKey projectName, String subject) {
+    requireNonNull(evaluation, "evaluation");
+    requireNonNull(projectName, "projectName");
+    requireNonNull(subject, "subject");
+    return currentScope.open(
+        () -> {
+          boolean tracing = TraceContext.isTracing();
+          Optional<Duration> slowEvaluationThreshold =
+              codeOwnersPluginConfiguration.getGlobalConfig().getSlowEvaluationThreshold();
+          if (!tracing && !slowEvaluationThreshold.isPresent()) {
+            return Scope.NOOP;
+          }
+          return new Scope(evaluation, projectName, subject, tracing, slowEvaluationThreshold);
+        });
+  }
+
+  /**
+   * Starts a timer that records the time that is spent in the given phase.
+   *
+   * <p>Nested invocations of the same phase are only recorded once (the time of the outermost
+   * invocation is recorded).
+   *
+   * @param phase the phase
+   * @return the timer, must be closed when the phase is done
+   */
+  public Timer start(Phase phase) {
+    Scope scope = currentScope.current();
+    if (scope == null) {
+      return Timer.NOOP;
+    }
+    return scope.start(scope.phases.computeIfAbsent(phase, p -> new Stats()));
+  }
+
+  /**
+   * Starts a timer that records the time that is spent to resolve the code owners from the given
+   * code owner config file (including the resolution of its imports).
+   *
+   * @param codeOwnerConfigKey the key of the code owner config
+   * @param codeOwnerConfigFilePath the path of the code owner config file
+   * @return the timer, must be closed when the code owner config is resolved
+   */
+  public Timer startCodeOwnerConfig(
+      CodeOwnerConfig.Key codeOwnerConfigKey, Path codeOwnerConfigFilePath) {
+    Scope scope = currentScope.current();
+    if (scope == null) {
+      return Timer.NOOP;
+    }
+    return scope.start(
+        scope.codeOwnerConfigs.computeIfAbsent(
+            String.format(
+                "%s:%s:%s",
+                codeOwnerConfigKey.project(),
+                codeOwnerConfigKey.shortBranchName(),
+                codeOwnerConfigFilePath),
+            k -> new Stats()));
+  }
+
+  /**
+   * Starts a timer that records the time that is spent to match the given path expressions of a
+   * per-file code owner set against a path.
+   *
+   * @param codeOwnerConfigKey the key of the code owner config that contains the path expressions
+   * @param pathExpressions the path expressions of the per-file code owner set
+   * @return the timer, must be closed when the path expressions have been matched
+   */
+  public Timer startPathExpressions(
+      CodeOwnerConfig.Key codeOwnerConfigKey, ImmutableSet<String> pathExpressions) {
+    Scope scope = currentScope.current();
+    if (scope == null) {
+      return Timer.NOOP;
+    }
+    return scope.start(
+        scope
+            .pathExpressions
+            .computeIfAbsent(codeOwnerConfigKey, k -> new HashMap<>())
+            .computeIfAbsent(pathExpressions, p -> new Stats()));
+  }
+
+  /** Records that the code owner status of a file was computed. */
+  public void recordFile() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.files++;
+    }
+  }
+
+  /** Records that a code owner config import was resolved. */
+  public void recordImport() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.imports++;
+    }
+  }
+
+  /** Records that a code owner config was served from the transient code owner config cache. */
+  public void recordCodeOwnerConfigCacheHit() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.codeOwnerConfigCacheHits++;
+    }
+  }
+
+  /** Records that a code owner config was not found in the transient code owner config cache. */
+  public void recordCodeOwnerConfigCacheMiss() {
+    Scope scope = currentScope.current();
+    if (scope != null) {
+      scope.codeOwnerConfigCacheMisses++;
+    }
+  }
+
+  /** Timer that records the time of a phase when it is closed. */
+  public static class Timer implements AutoCloseable {
+    private static final Timer NOOP = new Timer(/* stats= */ null);
+
+    @Nullable private final Stats stats;
+    private final long startNanos;
+
+    private Timer(@Nullable Stats stats) {
+      this.stats = stats;
+      this.startNanos = stats != null ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void close() {
+      if (stats == null) {
+        return;
+      }
+      stats.record(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** Number of invocations and the time that was spent for a phase or a code owner config. */
+  private static class Stats {
+    private int count;
+    private long nanos;
+    private int depth;
+
+    private void record(long elapsedNanos) {
+      depth--;
+      if (depth == 0) {
+        count++;
+        nanos += elapsedNanos;
+      }
+    }
+
+    private String format() {
+      return String.format("%dms/%d", TimeUnit.NANOSECONDS.toMillis(nanos), count);
+    }
+
+    private JsonObject toJson() {
+      JsonObject json = new JsonObject();
+      json.addProperty("timeMs", TimeUnit.NANOSECONDS.toMillis(nanos));
+      json.addProperty("count", count);
+      return json;
+    }
+  }
+
+  /**
+   * Scope in which the breakdown of a code owner evaluation is recorded.
+   *
+   * <p><strong>Note</strong>: This class is not thread-safe, it must only be used by the thread
+   * that opened it.
+   */
+  public static class Scope implements AutoCloseable {
+    @VisibleForTesting
+    static final Scope NOOP =
+        new Scope(
+            /* evaluation= */ null,
+            /* projectName= */ null,
+            /* subject= */ null,
+            /* tracing= */ false,
+            Optional.empty());
+
+    @Nullable private final String evaluation;
+    @Nullable private final Project.NameKey projectName;
+    @Nullable private final String subject;
+    private final boolean tracing;
+    private final Optional<Duration> slowEvaluationThreshold;
+    private final Stopwatch stopwatch = Stopwatch.createStarted();
+    private final EnumMap<Phase, Stats> phases = new EnumMap<>(Phase.class);
+    private final Map<String, Stats> codeOwnerConfigs = new HashMap<>();
+    private final Map<CodeOwnerConfig.Key, Map<ImmutableSet<String>, Stats>> pathExpressions =
+        new HashMap<>();
+
+    private int files;
+    private int imports;
+    private int codeOwnerConfigCacheHits;
+    private int codeOwnerConfigCacheMisses;
+
+    private Scope(
+        @Nullable String evaluation,
+        @Nullable Project.NameKey projectName,
+        @Nullable String subject,
+        boolean tracing,
+        Optional<Duration> slowEvaluationThreshold) {
+      this.evaluation = evaluation;
+      this.projectName = projectName;
+      this.subject = subject;
+      this.tracing = tracing;
+      this.slowEvaluationThreshold = slowEvaluationThreshold;
+    }
+
+    private Timer start(Stats stats) {
+      stats.depth++;
+      return new Timer(stats);
+    }
+
+    @Override
+    public void close() {
+      if (!currentScope.close(this)) {
+        return;
+      }
+
+      Duration elapsed = stopwatch.elapsed();
+      if (tracing) {
+        trace(elapsed);
+      }
+      if (slowEvaluationThreshold.isPresent()
+          && elapsed.compareTo(slowEvaluationThreshold.get()) >= 0) {
+        SlowCodeOwnerEvaluationLog.log(toJson(elapsed));
+      }
+    }
+
+    private void trace(Duration elapsed) {
+      String mostExpensiveCodeOwnerConfigs =
+          getMostExpensive(codeOwnerConfigs)
+              .map(e -> String.format("%s=%s", e.getKey(), e.getValue().format()))
+              .collect(Collectors.joining(","));
+      try (TraceContext traceContext = TraceContext.open()) {
+        traceContext.addTag("codeOwners.totalMs", elapsed.toMillis());
+        for (Map.Entry<Phase, Stats> e : phases.entrySet()) {
+          traceContext.addTag("codeOwners." + e.getKey().tagName, e.getValue().format());
+        }
+        traceContext.addTag("codeOwners.cacheHits", codeOwnerConfigCacheHits);
+        traceContext.addTag("codeOwners.cacheMisses", codeOwnerConfigCacheMisses);
+        traceContext.addTag("codeOwners.codeOwnerConfigs", codeOwnerConfigs.size());
+        if (!mostExpensiveCodeOwnerConfigs.isEmpty()) {
+          traceContext.addTag(
+              "codeOwners.mostExpensiveCodeOwnerConfigs", mostExpensiveCodeOwnerConfigs);
+        }
+        logger.atFine().log(
+            "code owner evaluation breakdown for %s of %s in project %s: total = %dms,"
+                + " phases (time/count) = %s, code owner config cache hits = %d, code owner"
+                + " config cache misses = %d, most expensive code owner configs (time/count) ="
+                + " [%s]",
+            evaluation,
+            subject,
+            projectName,
+            elapsed.toMillis(),
+            phases.entrySet().stream()
+                .map(e -> String.format("%s=%s", e.getKey().tagName, e.getValue().format()))
+                .collect(Collectors.joining(", ", "[", "]")),
+            codeOwnerConfigCacheHits,
+            codeOwnerConfigCacheMisses,
+            mostExpensiveCodeOwnerConfigs);
+      }
+    }
+
+    @VisibleForTesting
+    JsonObject toJson(Duration elapsed) {
+      JsonObject json = new JsonObject();
+      json.addProperty("evaluation", evaluation);
+      json.addProperty("project", projectName.get());
+      json.addProperty("subject", subject);
+      json.addProperty("timeMs", elapsed.toMillis());
+      json.addProperty("files", files);
+      json.addProperty("codeOwnerConfigsLoaded", codeOwnerConfigCacheMisses);
+      json.addProperty("codeOwnerConfigCacheHits", codeOwnerConfigCacheHits);
+      json.addProperty("importsResolved", imports);
+
+      JsonObject phasesJson = new JsonObject();
+      phases.forEach((phase, stats) -> phasesJson.add(phase.tagName, stats.toJson()));
+      json.add("phases", phasesJson);
+
+      JsonArray codeOwnerConfigsJson = new JsonArray();
+      getMostExpensive(codeOwnerConfigs)
+          .forEach(
+              e -> {
+                JsonObject codeOwnerConfigJson = e.getValue().toJson();
+                codeOwnerConfigJson.addProperty("codeOwnerConfig", e.getKey());
+                codeOwnerConfigsJson.add(codeOwnerConfigJson);
+              });
+      json.add("mostExpensiveCodeOwnerConfigs", codeOwnerConfigsJson);
+
+      Map<String, Stats> pathExpressionsByDescription = new HashMap<>();
+      pathExpressions.forEach(
+          (codeOwnerConfigKey, statsByPathExpressions) ->
+              statsByPathExpressions.forEach(
+                  (expressions, stats) ->
+                      pathExpressionsByDescription.put(
+                          String.format("%s:%s", format(codeOwnerConfigKey), expressions),
+                          stats)));
+      JsonArray pathExpressionsJson = new JsonArray();
+      getMostExpensive(pathExpressionsByDescription)
+          .forEach(
+              e -> {
+                JsonObject pathExpressionJson = e.getValue().toJson();
+                pathExpressionJson.addProperty("pathExpressions", e.getKey());
+                pathExpressionsJson.add(pathExpressionJson);
+              });
+      json.add("mostExpensivePathExpressions", pathExpressionsJson);
+      return json;
+    }
+
+    private static Stream<Map.Entry<String, Stats>> getMostExpensive(Map<String, Stats> stats) {
+      return stats.entrySet().stream()
+          .sorted(
+              Comparator.comparingLong((Map.Entry<String, Stats> e) -> e.getValue().nanos)
+                  .reversed())
+          .limit(MAX_REPORTED_ENTRIES);
+    }
+
+    private static String format(CodeOwnerConfig.Key codeOwnerConfigKey) {
+      return String.format(
+          "%s:%s:%s",
+          codeOwnerConfigKey.project(),
+          codeOwnerConfigKey.shortBranchName(),
+          codeOwnerConfigKey.fileName().isPresent()
+              ? codeOwnerConfigKey.folderPath().resolve(codeOwnerConfigKey.fileName().get())
+              : codeOwnerConfigKey.folderPath());
+    }
+  }
+}
@@ -34,6 +34,7 @@ import com.google.gerrit.exceptions.StorageException;
 import com.google.gerrit.metrics.Timer0;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.ResolveCodeOwnerReferencesEvent;
 import com.google.gerrit.server.CurrentUser;
 import com.google.gerrit.server.IdentifiedUser;
 import com.google.gerrit.server.account.AccountCache;
@@ -111,8 +112,10 @@ public class CodeOwnerResolver {
   private final AccountControl.Factory accountControlFactory;
   private final PathCodeOwners.Factory pathCodeOwnersFactory;
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final UnresolvedImportFormatter unresolvedImportFormatter;
   private final TransientCodeOwnerCache transientCodeOwnerCache;
+  private final CodeOwnerAccountDependencies accountDependencies;
 
   // Enforce visibility by default.
   private boolean enforceVisibility = true;
@@ -132,8 +135,10 @@ public class CodeOwnerResolver {
       AccountControl.Factory accountControlFactory,
       PathCodeOwners.Factory pathCodeOwnersFactory,
       CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationTrace evaluationTrace,
       UnresolvedImportFormatter unresolvedImportFormatter,
-      TransientCodeOwnerCache transientCodeOwnerCache) {
+      TransientCodeOwnerCache transientCodeOwnerCache,
+      CodeOwnerAccountDependencies accountDependencies) {
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.permissionBackend = permissionBackend;
     this.currentUser = currentUser;
@@ -142,8 +147,10 @@ public class CodeOwnerResolver {
     this.accountControlFactory = accountControlFactory;
     this.pathCodeOwnersFactory = pathCodeOwnersFactory;
     this.codeOwnerMetrics = codeOwnerMetrics;
+    this.evaluationTrace = evaluationTrace;
     this.unresolvedImportFormatter = unresolvedImportFormatter;
     this.transientCodeOwnerCache = transientCodeOwnerCache;
+    this.accountDependencies = accountDependencies;
   }
 
   /**
@@ -290,7 +297,11 @@ public class CodeOwnerResolver {
     requireNonNull(unresolvedImports, "unresolvedImports");
     requireNonNull(pathCodeOwnersMessages, "pathCodeOwnersMessages");
 
-    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerReferences.start()) {
+    ResolveCodeOwnerReferencesEvent event = new ResolveCodeOwnerReferencesEvent();
+    event.begin();
+    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerReferences.start();
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.RESOLVE_CODE_OWNER_REFERENCES)) {
       ImmutableList.Builder<DebugMessage> messageBuilder = ImmutableList.builder();
       messageBuilder.addAll(pathCodeOwnersMessages);
       unresolvedImports.forEach(
@@ -323,6 +334,9 @@ public class CodeOwnerResolver {
               unresolvedImports,
               messageBuilder.build());
       logger.atFine().log("resolve result = %s", codeOwnerResolverResult);
+      if (event.shouldCommit()) {
+        event.commit(codeOwnerReferences.size(), codeOwnersWithAnnotations.size());
+      }
       return codeOwnerResolverResult;
     }
   }
@@ -414,9 +428,15 @@ public class CodeOwnerResolver {
             .map(CodeOwnerReference::email)
             .filter(filterOutAllUsersWildCard(ownedByAllUsers))
             .collect(toImmutableSet());
+    accountDependencies.recordEmails(emailsToResolve);
 
     ImmutableMap<String, Optional<CodeOwner>> cachedCodeOwnersByEmail =
         transientCodeOwnerCache.get(emailsToResolve);
+    accountDependencies.recordAccounts(
+        cachedCodeOwnersByEmail.values().stream()
+            .flatMap(Optional::stream)
+            .map(CodeOwner::accountId)
+            .collect(toImmutableSet()));
 
     ImmutableSet<String> emailsToLookup =
         emailsToResolve.stream()
@@ -426,6 +446,11 @@ public class CodeOwnerResolver {
 
     ImmutableMap<String, Collection<ExternalId>> externalIdsByEmail =
         lookupExternalIds(messages, emailsToLookup);
+    accountDependencies.recordAccounts(
+        externalIdsByEmail.values().stream()
+            .flatMap(Collection::stream)
+            .map(ExternalId::accountId)
+            .collect(toImmutableSet()));
 
     Stream<Pair<String, AccountState>> accountsByEmail =
         lookupAccounts(messages, externalIdsByEmail)
@@ -435,6 +460,8 @@ public class CodeOwnerResolver {
             .map(mapToOnlyAccount(messages));
 
     if (enforceVisibility) {
+      // Account visibility depends on group memberships.
+      accountDependencies.recordGroups();
       accountsByEmail =
           accountsByEmail
               .filter(filterOutEmailsOfNonVisibleAccounts(messages))
@@ -17,6 +17,7 @@ package com.google.gerrit.plugins.codeowners.backend;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
@@ -36,6 +37,7 @@ public abstract class CodeOwnerResolverResult {
   public abstract ImmutableSet<CodeOwner> codeOwners();
 
   /** Returns the account IDs of the resolved code owners as set. */
+  @Memoized
   public ImmutableSet<Account.Id> codeOwnersAccountIds() {
     return codeOwners().stream().map(CodeOwner::accountId).collect(toImmutableSet());
   }
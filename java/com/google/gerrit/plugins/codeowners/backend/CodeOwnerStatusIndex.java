@@ -0,0 +1,384 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.gerrit.server.project.ProjectCache.illegalState;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.SubmitRecord;
+import com.google.gerrit.extensions.events.ChangeIndexedListener;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshotCache;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangeStatusPredicate;
+import com.google.gerrit.server.query.change.InternalChangeQuery;
+import com.google.gerrit.server.util.ManualRequestContext;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Index of the code owner statuses of open changes that is updated whenever a change is indexed.
+ *
+ * <p>Plugins cannot add fields to the change index, hence the code owner statuses of open changes
+ * are indexed by the plugin: Whenever a change is (re)indexed in the change index, the code owner
+ * submit record and the {@link PendingCodeOwners} of the change are computed and stored in this
+ * index together with the revision of the change meta ref and the revisions of the {@code
+ * refs/meta/config} branches of the project and its parent projects at which they were computed.
+ * This way search operators can look up the code owner status of a change instead of computing it
+ * when the query is executed (see {@link IndexedCodeOwnerApprovalPredicate}), and the changes that
+ * await a code owner approval from an account can be looked up from a reverse index of the pending
+ * code owners (see {@link #getChangesWithPendingCodeOwner(Account.Id)}).
+ *
+ * <p>Since updates of code owner config files trigger a reindex of the affected changes (see {@link
+ * CodeOwnerConfigUpdateListener}), the indexed statuses are updated when code owner config files
+ * are updated. An indexed status that was computed for another revision of the change meta ref or
+ * for another code-owners configuration is stale and is not returned (see {@link
+ * #get(ChangeData)}), callers must then compute the code owner status live.
+ *
+ * <p>Indexed statuses are computed by a single thread of the {@code CodeOwnerStatusIndex} work
+ * queue, so that indexing of changes is not slowed down by evaluating their code owners. If a
+ * change is indexed while its status is still waiting to be computed, no further computation is
+ * scheduled for it.
+ *
+ * <p>The index is kept in memory. When the plugin is started the statuses of all open changes are
+ * computed in the background. Until then lookups return {@link Optional#empty()} for changes that
+ * haven't been indexed since the plugin was started and the reverse index of the pending code
+ * owners is not available.
+ */
+@Singleton
+public class CodeOwnerStatusIndex implements ChangeIndexedListener, LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String QUEUE_NAME = "CodeOwnerStatusIndex";
+
+  public static class CodeOwnerStatusIndexModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(CodeOwnerStatusIndex.class);
+      DynamicSet.bind(binder(), ChangeIndexedListener.class).to(CodeOwnerStatusIndex.class);
+    }
+  }
+
+  private final WorkQueue workQueue;
+  private final ProjectCache projectCache;
+  private final ChangeNotes.Factory changeNotesFactory;
+  private final ChangeData.Factory changeDataFactory;
+  private final Provider<InternalChangeQuery> changeQueryProvider;
+  private final OneOffRequestContext oneOffRequestContext;
+  private final CodeOwnerSubmitRule codeOwnerSubmitRule;
+  private final PendingCodeOwnersCache pendingCodeOwnersCache;
+
+  /** The indexed code owner statuses of open changes. */
+  private final Map<Change.Id, IndexedStatus> indexedStatuses = new HashMap<>();
+
+  /**
+   * Reverse index of the pending code owners: maps accounts to the changes that await a code owner
+   * approval from them.
+   */
+  private final SetMultimap<Account.Id, Change.Id> changesByPendingCodeOwner =
+      HashMultimap.create();
+
+  /** Changes with a pending path that is owned by all users. */
+  private final Set<Change.Id> changesPendingForAllUsers = new HashSet<>();
+
+  /** Whether the statuses of all open changes have been indexed after the plugin was started. */
+  private volatile boolean loaded;
+
+  /** Changes for which the computation of the indexed status is scheduled, but not started yet. */
+  private final Set<Change.Id> pendingChanges = ConcurrentHashMap.newKeySet();
+
+  @Nullable private ScheduledExecutorService executor;
+
+  @Inject
+  CodeOwnerStatusIndex(
+      WorkQueue workQueue,
+      ProjectCache projectCache,
+      ChangeNotes.Factory changeNotesFactory,
+      ChangeData.Factory changeDataFactory,
+      Provider<InternalChangeQuery> changeQueryProvider,
+      OneOffRequestContext oneOffRequestContext,
+      CodeOwnerSubmitRule codeOwnerSubmitRule,
+      PendingCodeOwnersCache pendingCodeOwnersCache) {
+    this.workQueue = workQueue;
+    this.projectCache = projectCache;
+    this.changeNotesFactory = changeNotesFactory;
+    this.changeDataFactory = changeDataFactory;
+    this.changeQueryProvider = changeQueryProvider;
+    this.oneOffRequestContext = oneOffRequestContext;
+    this.codeOwnerSubmitRule = codeOwnerSubmitRule;
+    this.pendingCodeOwnersCache = pendingCodeOwnersCache;
+  }
+
+  @Override
+  public synchronized void start() {
+    executor = workQueue.createQueue(1, QUEUE_NAME);
+    runAsync(this::load);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    pendingChanges.clear();
+  }
+
+  /**
+   * Gets the indexed code owner status of the given change.
+   *
+   * @param changeData the change for which the indexed code owner status should be returned
+   * @return the indexed code owner status, {@link Optional#empty()} if the change is closed, if the
+   *     status of the change is not indexed yet or if the indexed status is stale
+   */
+  public Optional<IndexedStatus> get(ChangeData changeData) {
+    requireNonNull(changeData, "changeData");
+    if (changeData.change().isClosed()) {
+      return Optional.empty();
+    }
+    IndexedStatus indexedStatus;
+    synchronized (this) {
+      indexedStatus = indexedStatuses.get(changeData.getId());
+    }
+    if (indexedStatus == null) {
+      return Optional.empty();
+    }
+    if (!indexedStatus.metaRevision().equals(changeData.notes().getMetaId())
+        || !indexedStatus.configRevisions().equals(getConfigRevisions(changeData.project()))) {
+      logger.atFine().log(
+          "indexed code owner status of change %d is stale", changeData.getId().get());
+      return Optional.empty();
+    }
+    return Optional.of(indexedStatus);
+  }
+
+  /**
+   * Gets the open changes that await a code owner approval from the given account according to the
+   * indexed pending code owners.
+   *
+   * <p>Includes the changes that have a pending path that is owned by all users. May include
+   * changes that have been closed or updated since they were indexed, since the indexed pending
+   * code owners are only updated once these changes have been reindexed.
+   *
+   * @param accountId the account for which the changes should be returned
+   * @return the IDs of the changes that await a code owner approval from the given account, {@link
+   *     Optional#empty()} if the statuses of the open changes have not been indexed yet after the
+   *     plugin was started
+   */
+  public synchronized Optional<ImmutableSet<Change.Id>> getChangesWithPendingCodeOwner(
+      Account.Id accountId) {
+    requireNonNull(accountId, "accountId");
+    if (!loaded) {
+      logger.atFine().log("code owner statuses of open changes are not indexed yet");
+      return Optional.empty();
+    }
+    return Optional.of(
+        ImmutableSet.<Change.Id>builder()
+            .addAll(changesByPendingCodeOwner.get(accountId))
+            .addAll(changesPendingForAllUsers)
+            .build());
+  }
+
+  @Override
+  public void onChangeIndexed(String projectName, int id) {
+    Change.Id changeId = Change.id(id);
+    if (!pendingChanges.add(changeId)) {
+      // The computation of the status is already scheduled and sees the new state of the change.
+      return;
+    }
+    Project.NameKey project = Project.nameKey(projectName);
+    if (!runAsync(
+        () -> {
+          pendingChanges.remove(changeId);
+          index(project, changeId);
+        })) {
+      pendingChanges.remove(changeId);
+      remove(changeId);
+    }
+  }
+
+  @Override
+  public void onChangeDeleted(int id) {
+    remove(Change.id(id));
+  }
+
+  private synchronized boolean runAsync(Runnable task) {
+    if (executor == null) {
+      logger.atFine().log("queue is not started, skip indexing of code owner status");
+      return false;
+    }
+    try {
+      executor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      logger.atWarning().withCause(e).log("failed to schedule indexing of code owner status");
+      return false;
+    }
+  }
+
+  /** Computes the indexed statuses of all open changes. */
+  private void load() {
+    logger.atInfo().log("indexing code owner statuses of open changes");
+    int count = 0;
+    try (ManualRequestContext ignored = oneOffRequestContext.open()) {
+      for (ChangeData changeData : changeQueryProvider.get().query(ChangeStatusPredicate.open())) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        if (!contains(changeData.getId())) {
+          index(changeData.project(), changeData.getId());
+          count++;
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).log("failed to index code owner statuses of open changes");
+      return;
+    }
+    loaded = true;
+    logger.atInfo().log("indexed code owner statuses of %d open changes", count);
+  }
+
+  /** Computes and stores the indexed status of the given change. */
+  private void index(Project.NameKey project, Change.Id changeId) {
+    try (ManualRequestContext ignored = oneOffRequestContext.open()) {
+      Optional<IndexedStatus> indexedStatus = compute(project, changeId);
+      if (indexedStatus.isPresent()) {
+        put(changeId, indexedStatus.get());
+      } else {
+        remove(changeId);
+      }
+    } catch (RuntimeException e) {
+      // Lookups fall back to computing the code owner status live.
+      remove(changeId);
+      logger.atWarning().withCause(e).log(
+          "failed to index code owner status of change %d in project %s", changeId.get(), project);
+    }
+  }
+
+  /**
+   * Computes the indexed status of the given change.
+   *
+   * @return the indexed status, {@link Optional#empty()} if the change is closed or if the code
+   *     owners functionality is disabled for the destination branch of the change
+   */
+  private Optional<IndexedStatus> compute(Project.NameKey project, Change.Id changeId) {
+    // Read the revisions before the status is computed, so that the indexed status is stale if the
+    // change or the configuration is updated concurrently.
+    ImmutableList<ObjectId> configRevisions = getConfigRevisions(project);
+    ChangeNotes changeNotes = changeNotesFactory.create(project, changeId);
+    if (changeNotes.getChange().isClosed()) {
+      return Optional.empty();
+    }
+    Optional<SubmitRecord> submitRecord =
+        codeOwnerSubmitRule.evaluate(changeDataFactory.create(changeNotes));
+    if (!submitRecord.isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        IndexedStatus.create(
+            changeNotes.getMetaId(),
+            configRevisions,
+            submitRecord.get().status,
+            pendingCodeOwnersCache.get(changeNotes)));
+  }
+
+  private synchronized boolean contains(Change.Id changeId) {
+    return indexedStatuses.containsKey(changeId);
+  }
+
+  private synchronized void put(Change.Id changeId, IndexedStatus indexedStatus) {
+    remove(changeId);
+    indexedStatuses.put(changeId, indexedStatus);
+    PendingCodeOwners pendingCodeOwners = indexedStatus.pendingCodeOwners();
+    pendingCodeOwners
+        .accountIds()
+        .forEach(accountId -> changesByPendingCodeOwner.put(accountId, changeId));
+    if (pendingCodeOwners.ownedByAllUsers()) {
+      changesPendingForAllUsers.add(changeId);
+    }
+  }
+
+  private synchronized void remove(Change.Id changeId) {
+    IndexedStatus indexedStatus = indexedStatuses.remove(changeId);
+    if (indexedStatus == null) {
+      return;
+    }
+    indexedStatus
+        .pendingCodeOwners()
+        .accountIds()
+        .forEach(accountId -> changesByPendingCodeOwner.remove(accountId, changeId));
+    changesPendingForAllUsers.remove(changeId);
+  }
+
+  private ImmutableList<ObjectId> getConfigRevisions(Project.NameKey project) {
+    return CodeOwnersPluginProjectConfigSnapshotCache.getConfigRevisions(
+        projectCache.get(project).orElseThrow(illegalState(project)));
+  }
+
+  /** The indexed code owner status of a change. */
+  @AutoValue
+  public abstract static class IndexedStatus {
+    /** The revision of the change meta ref for which the status was computed. */
+    abstract ObjectId metaRevision();
+
+    /**
+     * The revisions of the {@code refs/meta/config} branches of the project and its parent projects
+     * for which the status was computed (see {@link
+     * CodeOwnersPluginProjectConfigSnapshotCache#getConfigRevisions}).
+     */
+    abstract ImmutableList<ObjectId> configRevisions();
+
+    /** The status of the code owner submit record. */
+    public abstract SubmitRecord.Status submitRecordStatus();
+
+    /** The accounts that own at least one path that is not code owner approved yet. */
+    public abstract PendingCodeOwners pendingCodeOwners();
+
+    static IndexedStatus create(
+        ObjectId metaRevision,
+        ImmutableList<ObjectId> configRevisions,
+        SubmitRecord.Status submitRecordStatus,
+        PendingCodeOwners pendingCodeOwners) {
+      return new AutoValue_CodeOwnerStatusIndex_IndexedStatus(
+          metaRevision.copy(), configRevisions, submitRecordStatus, pendingCodeOwners);
+    }
+  }
+}
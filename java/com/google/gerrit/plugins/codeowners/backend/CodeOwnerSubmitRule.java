@@ -97,7 +97,8 @@ class CodeOwnerSubmitRule implements SubmitRule {
     } catch (Exception e) {
       // Whether the exception should be treated as RULE_ERROR.
       // RULE_ERROR must only be returned if the exception is caused by user misconfiguration (e.g.
-      // an invalid OWNERS file), but not for internal server errors.
+      // an invalid OWNERS file) or by a change that is too expensive to evaluate, but not for
+      // internal server errors.
       boolean isRuleError = false;
 
       String cause = e.getClass().getSimpleName();
@@ -114,7 +115,16 @@ class CodeOwnerSubmitRule implements SubmitRule {
           CodeOwnersExceptionHook.getInvalidPluginConfigurationCause(e);
       Optional<InvalidCodeOwnerConfigException> invalidCodeOwnerConfigException =
           CodeOwners.getInvalidCodeOwnerConfigCause(e);
-      if (invalidPathException.isPresent()) {
+      Optional<CodeOwnerEvaluationBudgetExceededException> evaluationBudgetExceededException =
+          CodeOwnersExceptionHook.getEvaluationBudgetExceededCause(e);
+      if (evaluationBudgetExceededException.isPresent()) {
+        // The evaluation was aborted to protect the server, the change can still become
+        // submittable by a code owner override (which is checked before the files are evaluated).
+        isRuleError = true;
+        cause = "evaluation_too_expensive";
+        errorMessage +=
+            String.format(" (cause: %s)", evaluationBudgetExceededException.get().getMessage());
+      } else if (invalidPathException.isPresent()) {
         isRuleError = true;
         cause = "invalid_path";
         errorMessage += String.format(" (cause: %s)", invalidPathException.get().getMessage());
@@ -20,6 +20,7 @@ import com.google.common.base.Throwables;
 import com.google.gerrit.metrics.Timer1;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.LoadCodeOwnerConfigEvent;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.nio.file.Path;
@@ -39,13 +40,16 @@ import org.eclipse.jgit.lib.ObjectId;
 public class CodeOwners implements CodeOwnerConfigLoader {
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
 
   @Inject
   CodeOwners(
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
-      CodeOwnerMetrics codeOwnerMetrics) {
+      CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationTrace evaluationTrace) {
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.codeOwnerMetrics = codeOwnerMetrics;
+    this.evaluationTrace = evaluationTrace;
   }
 
   @Override
@@ -57,9 +61,23 @@ public class CodeOwners implements CodeOwnerConfigLoader {
         codeOwnersPluginConfiguration
             .getProjectConfig(codeOwnerConfigKey.project())
             .getBackend(codeOwnerConfigKey.branchNameKey().branch());
+    LoadCodeOwnerConfigEvent event = new LoadCodeOwnerConfigEvent();
+    event.begin();
     try (Timer1.Context<String> ctx =
-        codeOwnerMetrics.loadCodeOwnerConfig.start(codeOwnerBackend.getClass().getSimpleName())) {
-      return codeOwnerBackend.getCodeOwnerConfig(codeOwnerConfigKey, revision);
+            codeOwnerMetrics.loadCodeOwnerConfig.start(
+                codeOwnerBackend.getClass().getSimpleName());
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.LOAD_CODE_OWNER_CONFIG)) {
+      Optional<CodeOwnerConfig> codeOwnerConfig =
+          codeOwnerBackend.getCodeOwnerConfig(codeOwnerConfigKey, revision);
+      if (event.shouldCommit()) {
+        event.commit(
+            formatForEvent(codeOwnerConfigKey),
+            revision.name(),
+            codeOwnerBackend.getClass().getSimpleName(),
+            codeOwnerConfig.isPresent());
+      }
+      return codeOwnerConfig;
     }
   }
 
@@ -71,12 +89,40 @@ public class CodeOwners implements CodeOwnerConfigLoader {
         codeOwnersPluginConfiguration
             .getProjectConfig(codeOwnerConfigKey.project())
             .getBackend(codeOwnerConfigKey.branchNameKey().branch());
+    LoadCodeOwnerConfigEvent event = new LoadCodeOwnerConfigEvent();
+    event.begin();
     try (Timer1.Context<String> ctx =
-        codeOwnerMetrics.loadCodeOwnerConfig.start(codeOwnerBackend.getClass().getSimpleName())) {
-      return codeOwnerBackend.getCodeOwnerConfig(codeOwnerConfigKey, /* revision= */ null);
+            codeOwnerMetrics.loadCodeOwnerConfig.start(
+                codeOwnerBackend.getClass().getSimpleName());
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.LOAD_CODE_OWNER_CONFIG)) {
+      Optional<CodeOwnerConfig> codeOwnerConfig =
+          codeOwnerBackend.getCodeOwnerConfig(codeOwnerConfigKey, /* revision= */ null);
+      if (event.shouldCommit()) {
+        event.commit(
+            formatForEvent(codeOwnerConfigKey),
+            /* revision= */ null,
+            codeOwnerBackend.getClass().getSimpleName(),
+            codeOwnerConfig.isPresent());
+      }
+      return codeOwnerConfig;
     }
   }
 
+  /**
+   * Formats the given code owner config key for JDK Flight Recorder events.
+   *
+   * <p>Unlike {@link CodeOwnerConfig.Key#format(CodeOwners)} this doesn't need to look up the code
+   * owner backend to resolve the file name.
+   */
+  static String formatForEvent(CodeOwnerConfig.Key codeOwnerConfigKey) {
+    return String.format(
+        "%s:%s:%s",
+        codeOwnerConfigKey.project(),
+        codeOwnerConfigKey.shortBranchName(),
+        codeOwnerConfigKey.folderPath());
+  }
+
   /**
    * Returns the absolute file path of the specified code owner config.
    *
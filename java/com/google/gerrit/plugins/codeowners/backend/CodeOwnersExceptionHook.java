@@ -36,6 +36,8 @@ import java.util.Optional;
  *       InvalidPluginConfigurationException}): mapped to {@code 409 Conflict}
  *   <li>exception due to invalid code owner config files ({@link
  *       org.eclipse.jgit.errors.ConfigInvalidException}): mapped to {@code 409 Conflict}
+ *   <li>exception due to a code owner evaluation that exceeded its budget ({@link
+ *       CodeOwnerEvaluationBudgetExceededException}): mapped to {@code 409 Conflict}
  * </ul>
  */
 public class CodeOwnersExceptionHook implements ExceptionHook {
@@ -52,7 +54,9 @@ public class CodeOwnersExceptionHook implements ExceptionHook {
 
   @Override
   public boolean skipRetryWithTrace(String actionType, String actionName, Throwable throwable) {
-    return isCausedByConfigurationError(throwable);
+    // Retrying an evaluation that exceeded its budget would only exceed the budget again.
+    return isCausedByConfigurationError(throwable)
+        || getEvaluationBudgetExceededCause(throwable).isPresent();
   }
 
   @Override
@@ -87,12 +91,19 @@ public class CodeOwnersExceptionHook implements ExceptionHook {
       return ImmutableList.of(invalidPathException.get().getMessage());
     }
 
+    Optional<CodeOwnerEvaluationBudgetExceededException> evaluationBudgetExceededException =
+        getEvaluationBudgetExceededCause(throwable);
+    if (evaluationBudgetExceededException.isPresent()) {
+      return ImmutableList.of(evaluationBudgetExceededException.get().getMessage());
+    }
+
     return ImmutableList.of();
   }
 
   @Override
   public Optional<Status> getStatus(Throwable throwable) {
-    if (isCausedByConfigurationError(throwable)) {
+    if (isCausedByConfigurationError(throwable)
+        || getEvaluationBudgetExceededCause(throwable).isPresent()) {
       return Optional.of(Status.create(409, "Conflict"));
     }
     return Optional.empty();
@@ -137,6 +148,11 @@ public class CodeOwnersExceptionHook implements ExceptionHook {
     return getCause(InvalidPathException.class, throwable);
   }
 
+  public static Optional<CodeOwnerEvaluationBudgetExceededException>
+      getEvaluationBudgetExceededCause(Throwable throwable) {
+    return getCause(CodeOwnerEvaluationBudgetExceededException.class, throwable);
+  }
+
   private static <T extends Throwable> Optional<T> getCause(
       Class<T> exceptionClass, Throwable throwable) {
     return Throwables.getCausalChain(throwable).stream()
@@ -14,12 +14,15 @@
 
 package com.google.gerrit.plugins.codeowners.backend;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.gerrit.plugins.codeowners.backend.CodeOwnersChangeMessageUtil.appendPaths;
 import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.CHANGE_MODIFICATION;
 import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.PLUGIN;
 import static java.util.stream.Collectors.joining;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.entities.Change;
@@ -32,16 +35,12 @@ import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProje
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
 import com.google.gerrit.server.ChangeMessagesUtil;
 import com.google.gerrit.server.CurrentUser;
-import com.google.gerrit.server.git.WorkQueue;
-import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.update.BatchUpdate;
 import com.google.gerrit.server.update.BatchUpdateOp;
 import com.google.gerrit.server.update.ChangeContext;
 import com.google.gerrit.server.update.RetryHelper;
 import com.google.gerrit.server.update.context.RefUpdateContext;
 import com.google.gerrit.server.util.AccountTemplateUtil;
-import com.google.gerrit.server.util.ManualRequestContext;
-import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
@@ -63,34 +62,28 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
   private static final String TAG_ADD_REVIEWER =
       ChangeMessagesUtil.AUTOGENERATED_BY_GERRIT_TAG_PREFIX + "code-owners:addReviewer";
 
-  private final WorkQueue workQueue;
-  private final OneOffRequestContext oneOffRequestContext;
+  private final AsyncChangeMessageQueue asyncChangeMessageQueue;
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
   private final Provider<CurrentUser> userProvider;
   private final RetryHelper retryHelper;
-  private final ChangeNotes.Factory changeNotesFactory;
   private final ChangeMessagesUtil changeMessageUtil;
   private final CodeOwnerMetrics codeOwnerMetrics;
 
   @Inject
   CodeOwnersOnAddReviewer(
-      WorkQueue workQueue,
-      OneOffRequestContext oneOffRequestContext,
+      AsyncChangeMessageQueue asyncChangeMessageQueue,
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
       CodeOwnerApprovalCheck codeOwnerApprovalCheck,
       Provider<CurrentUser> userProvider,
       RetryHelper retryHelper,
-      ChangeNotes.Factory changeNotesFactory,
       ChangeMessagesUtil changeMessageUtil,
       CodeOwnerMetrics codeOwnerMetrics) {
-    this.workQueue = workQueue;
-    this.oneOffRequestContext = oneOffRequestContext;
+    this.asyncChangeMessageQueue = asyncChangeMessageQueue;
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
     this.userProvider = userProvider;
     this.retryHelper = retryHelper;
-    this.changeNotesFactory = changeNotesFactory;
     this.changeMessageUtil = changeMessageUtil;
     this.codeOwnerMetrics = codeOwnerMetrics;
   }
@@ -111,25 +104,19 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
     if (codeOwnersConfig.enableAsyncMessageOnAddReviewer()) {
       // post change message asynchronously to avoid adding latency to PostReviewers and PostReview
       logger.atFine().log("schedule asynchronous posting of the change message");
-      @SuppressWarnings("unused")
-      WorkQueue.Task<?> possiblyIgnoredError =
-          (WorkQueue.Task<?>)
-              workQueue
-                  .getDefaultQueue()
-                  .submit(
-                      () -> {
-                        try (ManualRequestContext ignored =
-                            oneOffRequestContext.openAs(user.getAccountId())) {
-                          postChangeMessage(
-                              user,
-                              projectName,
-                              changeId,
-                              event.getReviewers(),
-                              event.getWhen(),
-                              maxPathsInChangeMessages,
-                              /* asynchronous= */ true);
-                        }
-                      });
+      List<AccountInfo> reviewers = event.getReviewers();
+      asyncChangeMessageQueue.schedule(
+          user,
+          projectName,
+          changeId,
+          event.getWhen(),
+          TAG_ADD_REVIEWER,
+          ctx -> {
+            try (Timer1.Context<String> timerCtx =
+                codeOwnerMetrics.addChangeMessageOnAddReviewer.start("asynchronous")) {
+              return buildMessage(ctx, reviewers, maxPathsInChangeMessages);
+            }
+          });
     } else {
       logger.atFine().log("post change message synchronously");
       postChangeMessage(
@@ -138,8 +125,7 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
           changeId,
           event.getReviewers(),
           event.getWhen(),
-          maxPathsInChangeMessages,
-          /* asynchronous= */ false);
+          maxPathsInChangeMessages);
     }
   }
 
@@ -149,11 +135,9 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
       Change.Id changeId,
       List<AccountInfo> reviewers,
       Instant when,
-      int maxPathsInChangeMessages,
-      boolean asynchronous) {
+      int maxPathsInChangeMessages) {
     try (Timer1.Context<String> ctx =
-        codeOwnerMetrics.addChangeMessageOnAddReviewer.start(
-            asynchronous ? "asynchronous" : "synchronous")) {
+        codeOwnerMetrics.addChangeMessageOnAddReviewer.start("synchronous")) {
       var unused =
           retryHelper
               .changeUpdate(
@@ -184,6 +168,65 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
     }
   }
 
+  /**
+   * Builds the change message that lists the files that are owned by the given reviewers.
+   *
+   * @param ctx the context of the change update that posts the change message
+   * @param reviewers the reviewers that have been added
+   * @param limit the max number of paths that should be listed per reviewer
+   * @return the change message, {@link Optional#empty()} if none of the reviewers owns any of the
+   *     changed files
+   */
+  private Optional<String> buildMessage(ChangeContext ctx, List<AccountInfo> reviewers, int limit) {
+    ImmutableSet<Account.Id> reviewerAccountIds =
+        reviewers.stream()
+            .map(accountInfo -> Account.id(accountInfo._accountId))
+            .collect(toImmutableSet());
+
+    // Compute the owned paths for all reviewers at once, so that the change is evaluated only
+    // once, and reuse the change notes that have already been loaded for the batch update.
+    // limit + 1, so that we can show an indicator if there are more than <limit> files.
+    ImmutableMap<Account.Id, ImmutableList<OwnedChangedFile>> ownedPathsByReviewer =
+        codeOwnerApprovalCheck.getOwnedPathsForAccounts(
+            ctx.getNotes(), ctx.getNotes().getCurrentPatchSet(), reviewerAccountIds, limit + 1);
+
+    String message =
+        reviewerAccountIds.stream()
+            .map(
+                reviewerAccountId ->
+                    buildMessageForReviewer(
+                        reviewerAccountId,
+                        OwnedChangedFile.getOwnedPaths(ownedPathsByReviewer.get(reviewerAccountId)),
+                        limit))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(joining("\n"));
+    return message.isEmpty() ? Optional.empty() : Optional.of(message);
+  }
+
+  private static Optional<String> buildMessageForReviewer(
+      Account.Id reviewerAccountId, ImmutableList<Path> ownedPaths, int limit) {
+    if (ownedPaths.isEmpty()) {
+      // this reviewer doesn't own any of the modified paths
+      return Optional.empty();
+    }
+
+    StringBuilder message = new StringBuilder();
+    message.append(
+        String.format(
+            "%s, who was added as reviewer owns the following files:\n",
+            AccountTemplateUtil.getAccountTemplate(reviewerAccountId)));
+
+    if (ownedPaths.size() <= limit) {
+      appendPaths(message, ownedPaths.stream());
+    } else {
+      appendPaths(message, ownedPaths.stream().limit(limit));
+      message.append("(more files)\n");
+    }
+
+    return Optional.of(message.toString());
+  }
+
   private class Op implements BatchUpdateOp {
     private final List<AccountInfo> reviewers;
     private final int limit;
@@ -195,59 +238,13 @@ public class CodeOwnersOnAddReviewer implements ReviewerAddedListener {
 
     @Override
     public boolean updateChange(ChangeContext ctx) throws Exception {
-      String message =
-          reviewers.stream()
-              .map(accountInfo -> Account.id(accountInfo._accountId))
-              .map(
-                  reviewerAccountId ->
-                      buildMessageForReviewer(
-                          ctx.getProject(), ctx.getChange().getId(), reviewerAccountId))
-              .filter(Optional::isPresent)
-              .map(Optional::get)
-              .collect(joining("\n"));
-
+      Optional<String> message = buildMessage(ctx, reviewers, limit);
       if (message.isEmpty()) {
         return false;
       }
 
-      changeMessageUtil.setChangeMessage(ctx, message, TAG_ADD_REVIEWER);
+      changeMessageUtil.setChangeMessage(ctx, message.get(), TAG_ADD_REVIEWER);
       return true;
     }
-
-    private Optional<String> buildMessageForReviewer(
-        Project.NameKey projectName, Change.Id changeId, Account.Id reviewerAccountId) {
-      ChangeNotes changeNotes = changeNotesFactory.create(projectName, changeId);
-
-      // limit + 1, so that we can show an indicator if there are more than <limit> files.
-      ImmutableList<Path> ownedPaths =
-          OwnedChangedFile.getOwnedPaths(
-              codeOwnerApprovalCheck.getOwnedPaths(
-                  changeNotes,
-                  changeNotes.getCurrentPatchSet(),
-                  reviewerAccountId,
-                  /* start= */ 0,
-                  limit + 1,
-                  /* checkReviewers= */ false));
-
-      if (ownedPaths.isEmpty()) {
-        // this reviewer doesn't own any of the modified paths
-        return Optional.empty();
-      }
-
-      StringBuilder message = new StringBuilder();
-      message.append(
-          String.format(
-              "%s, who was added as reviewer owns the following files:\n",
-              AccountTemplateUtil.getAccountTemplate(reviewerAccountId)));
-
-      if (ownedPaths.size() <= limit) {
-        appendPaths(message, ownedPaths.stream());
-      } else {
-        appendPaths(message, ownedPaths.stream().limit(limit));
-        message.append("(more files)\n");
-      }
-
-      return Optional.of(message.toString());
-    }
   }
 }
@@ -0,0 +1,44 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+
+/**
+ * Code owner summary of a change, consisting of the code owner statuses of the files in the current
+ * revision and the files in the current revision that are owned by a user.
+ */
+@AutoValue
+public abstract class CodeOwnersSummary {
+  /** The code owner statuses of the files that were changed in the current revision. */
+  public abstract ImmutableSet<FileCodeOwnerStatus> fileCodeOwnerStatuses();
+
+  /**
+   * The files that were changed in the current revision that are owned by the user or by a
+   * reviewer.
+   *
+   * <p>{@link Optional#empty()} if the summary was computed without user.
+   */
+  public abstract Optional<ImmutableList<OwnedChangedFile>> ownedChangedFiles();
+
+  public static CodeOwnersSummary create(
+      ImmutableSet<FileCodeOwnerStatus> fileCodeOwnerStatuses,
+      Optional<ImmutableList<OwnedChangedFile>> ownedChangedFiles) {
+    return new AutoValue_CodeOwnersSummary(fileCodeOwnerStatuses, ownedChangedFiles);
+  }
+}
@@ -0,0 +1,657 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.gerrit.plugins.codeowners.backend.CodeOwners.getInvalidCodeOwnerConfigCause;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.events.LifecycleListener;
+import com.google.gerrit.json.OutputFormat;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Class to export the code ownership of all files in a branch.
+ *
+ * <p>For each file in the branch a {@link Row} with the code owners of the file and the code owner
+ * configs that apply to the file is passed to a {@link RowConsumer}.
+ *
+ * <p>The tree of the branch is walked only once. While descending into folders the chain of code
+ * owner configs that apply to the current folder is maintained, so that the code owner configs of
+ * the parent folders do not need to be looked up again for each file. Code owner configs whose
+ * resolution doesn't depend on the file path (they and the code owner configs that they import
+ * have no per-file code owner sets) are resolved only once, when they are added to the chain.
+ * Per-file code owner sets,
+ * imports and ignoring parent code owners are honored the same way as when the code owners are
+ * computed via the {@link CodeOwnerConfigHierarchy}.
+ *
+ * <p>Rows are passed to the consumer as soon as they have been computed, hence the memory usage
+ * doesn't depend on the number of files in the branch.
+ *
+ * <p>The files in each top-level folder are exported by a separate task, and these tasks can run in
+ * parallel on the threads of the {@code CodeOwnershipExport} work queue. The number of threads is
+ * configured by {@code plugin.code-owners.exportThreads}. Rows of different tasks are interleaved.
+ * If only one thread is configured, the tasks are run in the calling thread.
+ *
+ * <p>The code owners in the rows are the code owners as they are defined in the code owner
+ * configs, plus the global code owners. Fallback code owners are not included, but the rows say
+ * whether they apply. Code owner emails are not resolved to accounts.
+ *
+ * <p>The code ownership is exported via the {@code
+ * com.google.gerrit.plugins.codeowners.restapi.ExportCodeOwnership} REST endpoint.
+ */
+@Singleton
+public class CodeOwnershipExporter implements LifecycleListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String QUEUE_NAME = "CodeOwnershipExport";
+
+  public static class CodeOwnershipExporterModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(CodeOwnershipExporter.class);
+    }
+  }
+
+  /** The code ownership of a file. */
+  @AutoValue
+  public abstract static class Row {
+    /** The absolute path of the file. */
+    public abstract Path path();
+
+    /**
+     * The emails of the code owners of the file, sorted alphabetically.
+     *
+     * <p>May contain the {@link CodeOwnerResolver#ALL_USERS_WILDCARD}.
+     */
+    public abstract ImmutableSet<String> codeOwners();
+
+    /**
+     * The keys of the code owner configs that apply to the file, ordered from the innermost to the
+     * outermost code owner config.
+     *
+     * <p>The code owner configs that are imported by a code owner config (directly or
+     * transitively) follow directly after the importing code owner config, so that code owners that
+     * are defined in an imported code owner config can be attributed to it. Each code owner config
+     * is listed only once.
+     */
+    public abstract ImmutableList<CodeOwnerConfig.Key> codeOwnerConfigs();
+
+    /**
+     * Whether the fallback code owners apply to the file.
+     *
+     * <p>This is the case if the code owner configs don't define any code owners for the file
+     * (global code owners are not considered, but unresolved imports count as code owner
+     * definitions) and if the code owner configs don't ignore parent code owners for the file. This
+     * is the same condition under which the {@link CodeOwnerApprovalCheck} checks the fallback code
+     * owners.
+     */
+    public abstract boolean fallbackCodeOwnersApply();
+
+    public static Row create(
+        Path path,
+        ImmutableSet<String> codeOwners,
+        ImmutableList<CodeOwnerConfig.Key> codeOwnerConfigs,
+        boolean fallbackCodeOwnersApply) {
+      return new AutoValue_CodeOwnershipExporter_Row(
+          path, codeOwners, codeOwnerConfigs, fallbackCodeOwnersApply);
+    }
+  }
+
+  /**
+   * Callback that is invoked for each exported {@link Row}.
+   *
+   * <p>Invocations are serialized, hence implementations don't need to be thread-safe.
+   */
+  @FunctionalInterface
+  public interface RowConsumer {
+    void accept(Row row) throws IOException;
+  }
+
+  /** The formats in which rows can be written (see {@link #newRowWriter(Format, Writer)}). */
+  public enum Format {
+    /** One JSON object per line. */
+    JSONL("application/x-ndjson"),
+
+    /** Comma-separated values with a header line. */
+    CSV("text/csv");
+
+    private final String contentType;
+
+    private Format(String contentType) {
+      this.contentType = contentType;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+  }
+
+  private final WorkQueue workQueue;
+  private final RepositoryContext repositoryContext;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwners codeOwners;
+  private final PathCodeOwners.Factory pathCodeOwnersFactory;
+  private final Provider<TransientCodeOwnerConfigCache> transientCodeOwnerConfigCacheProvider;
+
+  @Nullable private ScheduledExecutorService executor;
+
+  @Inject
+  CodeOwnershipExporter(
+      WorkQueue workQueue,
+      RepositoryContext repositoryContext,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwners codeOwners,
+      PathCodeOwners.Factory pathCodeOwnersFactory,
+      Provider<TransientCodeOwnerConfigCache> transientCodeOwnerConfigCacheProvider) {
+    this.workQueue = workQueue;
+    this.repositoryContext = repositoryContext;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwners = codeOwners;
+    this.pathCodeOwnersFactory = pathCodeOwnersFactory;
+    this.transientCodeOwnerConfigCacheProvider = transientCodeOwnerConfigCacheProvider;
+  }
+
+  @Override
+  public synchronized void start() {
+    int threads = codeOwnersPluginConfiguration.getGlobalConfig().getExportThreads();
+    if (threads > 1) {
+      executor = workQueue.createQueue(threads, QUEUE_NAME);
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Exports the code ownership of all files in the given branch.
+   *
+   * <p>If the branch doesn't exist, no rows are exported.
+   *
+   * @param branchNameKey the project and branch for which the code ownership should be exported
+   * @param rowConsumer the callback that is invoked for each file in the branch
+   */
+  public void export(BranchNameKey branchNameKey, RowConsumer rowConsumer) throws IOException {
+    requireNonNull(branchNameKey, "branchNameKey");
+    requireNonNull(rowConsumer, "rowConsumer");
+
+    logger.atFine().log(
+        "exporting code ownership of branch %s in project %s",
+        branchNameKey.branch(), branchNameKey.project());
+
+    RowConsumer serializedRowConsumer =
+        row -> {
+          synchronized (rowConsumer) {
+            rowConsumer.accept(row);
+          }
+        };
+    ImmutableSet<String> globalCodeOwners = getGlobalCodeOwners(branchNameKey);
+
+    RevCommit revision;
+    List<Folder> topLevelFolders = new ArrayList<>();
+    ConfigChain rootConfigChain;
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository = repositoryContext.openRepository(branchNameKey.project());
+        RevWalk rw = repositoryContext.newRevWalk(repository)) {
+      Ref ref = repository.exactRef(branchNameKey.branch());
+      if (ref == null) {
+        logger.atFine().log("branch %s not found", branchNameKey.branch());
+        return;
+      }
+      revision = rw.parseCommit(ref.getObjectId());
+
+      // Export the files in the root folder and collect the top-level folders which are exported
+      // by separate tasks.
+      TransientCodeOwnerConfigCache transientCodeOwnerConfigCache =
+          transientCodeOwnerConfigCacheProvider.get();
+      rootConfigChain =
+          pushConfigChain(
+              transientCodeOwnerConfigCache,
+              loadDefaultConfigChain(transientCodeOwnerConfigCache, branchNameKey),
+              Path.of("/"),
+              loadCodeOwnerConfig(
+                  CodeOwnerConfig.Key.create(branchNameKey, Path.of("/")), revision));
+      try (TreeWalk treeWalk = new TreeWalk(rw.getObjectReader())) {
+        treeWalk.addTree(revision.getTree());
+        treeWalk.setRecursive(false);
+        while (treeWalk.next()) {
+          Path path = Path.of("/").resolve(treeWalk.getPathString());
+          if (treeWalk.isSubtree()) {
+            topLevelFolders.add(new Folder(path, treeWalk.getObjectId(0)));
+          } else {
+            serializedRowConsumer.accept(
+                computeRow(transientCodeOwnerConfigCache, path, rootConfigChain, globalCodeOwners));
+          }
+        }
+      }
+    }
+
+    ExecutorService executor = getExecutor();
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (Folder topLevelFolder : topLevelFolders) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  exportFolder(
+                      branchNameKey,
+                      revision,
+                      topLevelFolder,
+                      rootConfigChain,
+                      globalCodeOwners,
+                      TreeFilter.ALL,
+                      serializedRowConsumer);
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(
+          String.format(
+              "interrupted while exporting code ownership of branch %s in project %s",
+              branchNameKey.branch(), branchNameKey.project()),
+          e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      // The executor is shared with other exports, hence only cancel the tasks of this export.
+      futures.forEach(future -> future.cancel(/* mayInterruptIfRunning= */ true));
+    }
+  }
+
+  /**
+   * Returns the executor on which the top-level folders are exported.
+   *
+   * <p>If the work queue is not started or if only one thread is configured, the top-level folders
+   * are exported in the calling thread.
+   */
+  private synchronized ExecutorService getExecutor() {
+    return executor != null ? executor : MoreExecutors.newDirectExecutorService();
+  }
+
+  /**
+   * Exports the code ownership of the files in the given revision of a branch that match the given
+   * tree filter.
+   *
+   * <p>Allows to recompute the code ownership of some folders only. The tree filter is applied to
+   * the paths relative to the root folder of the branch. Folders are only descended into if the
+   * tree filter includes them.
+   *
+   * <p>The export is done in the calling thread.
+   *
+   * @param branchNameKey the project and branch for which the code ownership should be exported
+   * @param revision the revision of the branch for which the code ownership should be exported
+   * @param treeFilter the filter that selects the files that should be exported
+   * @param rowConsumer the callback that is invoked for each file that matches the tree filter
+   */
+  public void export(
+      BranchNameKey branchNameKey,
+      ObjectId revision,
+      TreeFilter treeFilter,
+      RowConsumer rowConsumer)
+      throws IOException {
+    requireNonNull(branchNameKey, "branchNameKey");
+    requireNonNull(revision, "revision");
+    requireNonNull(treeFilter, "treeFilter");
+    requireNonNull(rowConsumer, "rowConsumer");
+
+    logger.atFine().log(
+        "exporting code ownership of revision %s of branch %s in project %s (tree filter = %s)",
+        revision.name(), branchNameKey.branch(), branchNameKey.project(), treeFilter);
+
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository = repositoryContext.openRepository(branchNameKey.project());
+        RevWalk rw = repositoryContext.newRevWalk(repository)) {
+      RevCommit commit = rw.parseCommit(revision);
+      exportFolder(
+          branchNameKey,
+          commit,
+          new Folder(Path.of("/"), commit.getTree()),
+          loadDefaultConfigChain(transientCodeOwnerConfigCacheProvider.get(), branchNameKey),
+          getGlobalCodeOwners(branchNameKey),
+          treeFilter,
+          rowConsumer);
+    }
+  }
+
+  /**
+   * Creates a {@link RowConsumer} that writes the rows to the given writer in the given format.
+   *
+   * <p>For the {@link Format#CSV} format the header line is written immediately.
+   *
+   * <p>The writer is not flushed or closed, this is the responsibility of the caller.
+   */
+  public RowConsumer newRowWriter(Format format, Writer writer) throws IOException {
+    requireNonNull(format, "format");
+    requireNonNull(writer, "writer");
+    switch (format) {
+      case JSONL:
+        Gson gson = OutputFormat.JSON_COMPACT.newGson();
+        return row -> {
+          JsonObject jsonObject = new JsonObject();
+          jsonObject.addProperty("path", row.path().toString());
+          jsonObject.add("code_owners", toJsonArray(row.codeOwners().stream()));
+          jsonObject.add(
+              "code_owner_configs",
+              toJsonArray(row.codeOwnerConfigs().stream().map(key -> key.format(codeOwners))));
+          gson.toJson(jsonObject, writer);
+          writer.write('\n');
+        };
+      case CSV:
+        writer.write("path,code_owners,code_owner_configs\n");
+        return row -> {
+          writer.write(escapeCsv(row.path().toString()));
+          writer.write(',');
+          writer.write(escapeCsv(String.join(" ", row.codeOwners())));
+          writer.write(',');
+          writer.write(
+              escapeCsv(
+                  row.codeOwnerConfigs().stream()
+                      .map(key -> key.format(codeOwners))
+                      .collect(joining(" "))));
+          writer.write('\n');
+        };
+    }
+    throw new IllegalStateException(String.format("unknown format %s", format.name()));
+  }
+
+  private void exportFolder(
+      BranchNameKey branchNameKey,
+      ObjectId revision,
+      Folder folder,
+      @Nullable ConfigChain parentConfigChain,
+      ImmutableSet<String> globalCodeOwners,
+      TreeFilter treeFilter,
+      RowConsumer rowConsumer)
+      throws IOException {
+    logger.atFine().log("exporting code ownership of folder %s", folder.path);
+    TransientCodeOwnerConfigCache transientCodeOwnerConfigCache =
+        transientCodeOwnerConfigCacheProvider.get();
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository = repositoryContext.openRepository(branchNameKey.project());
+        RevWalk rw = repositoryContext.newRevWalk(repository);
+        TreeWalk treeWalk = new TreeWalk(rw.getObjectReader())) {
+      treeWalk.addTree(folder.treeId);
+      treeWalk.setRecursive(false);
+      treeWalk.setFilter(treeFilter);
+
+      // The config chains that apply to the entries at the different depths of the tree walk. The
+      // entry at index i applies to the entries at depth i.
+      List<ConfigChain> configChainsByDepth = new ArrayList<>();
+      configChainsByDepth.add(
+          pushConfigChain(
+              transientCodeOwnerConfigCache,
+              parentConfigChain,
+              folder.path,
+              loadCodeOwnerConfig(
+                  CodeOwnerConfig.Key.create(branchNameKey, folder.path), revision)));
+
+      while (treeWalk.next()) {
+        int depth = treeWalk.getDepth();
+        ConfigChain configChain = configChainsByDepth.get(depth);
+        Path path = folder.path.resolve(treeWalk.getPathString());
+        if (treeWalk.isSubtree()) {
+          // Drop the config chains of folders that have been left.
+          configChainsByDepth.subList(depth + 1, configChainsByDepth.size()).clear();
+          configChainsByDepth.add(
+              pushConfigChain(
+                  transientCodeOwnerConfigCache,
+                  configChain,
+                  path,
+                  loadCodeOwnerConfig(CodeOwnerConfig.Key.create(branchNameKey, path), revision)));
+          treeWalk.enterSubtree();
+        } else {
+          rowConsumer.accept(
+              computeRow(transientCodeOwnerConfigCache, path, configChain, globalCodeOwners));
+        }
+      }
+    }
+  }
+
+  private ImmutableSet<String> getGlobalCodeOwners(BranchNameKey branchNameKey) {
+    return codeOwnersPluginConfiguration.getProjectConfig(branchNameKey.project())
+        .getGlobalCodeOwners().stream()
+        .map(CodeOwnerReference::email)
+        .collect(toImmutableSet());
+  }
+
+  /**
+   * Loads the config chain of the default code owner config in {@code refs/meta/config}, which is
+   * the parent of the root code owner config.
+   */
+  @Nullable
+  private ConfigChain loadDefaultConfigChain(
+      TransientCodeOwnerConfigCache transientCodeOwnerConfigCache, BranchNameKey branchNameKey) {
+    if (RefNames.REFS_CONFIG.equals(branchNameKey.branch())) {
+      return null;
+    }
+    return pushConfigChain(
+        transientCodeOwnerConfigCache,
+        /* parent= */ null,
+        Path.of("/"),
+        loadCodeOwnerConfig(
+            CodeOwnerConfig.Key.create(
+                branchNameKey.project(), RefNames.REFS_CONFIG, /* folderPath= */ "/"),
+            /* revision= */ null));
+  }
+
+  /**
+   * Returns the config chain for a folder.
+   *
+   * <p>If the resolution of the code owner config doesn't depend on the file path, the code owner
+   * config is resolved here, so that it's not resolved again for each file.
+   *
+   * @param transientCodeOwnerConfigCache cache from which imported code owner configs are loaded
+   * @param parent the config chain of the parent folder
+   * @param folderPath the path of the folder
+   * @param codeOwnerConfig the code owner config of the folder, if it exists
+   */
+  @Nullable
+  private ConfigChain pushConfigChain(
+      TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
+      @Nullable ConfigChain parent,
+      Path folderPath,
+      Optional<CodeOwnerConfig> codeOwnerConfig) {
+    if (!codeOwnerConfig.isPresent()) {
+      return parent;
+    }
+
+    PathCodeOwnersResult resultForAllFiles = null;
+    if (!hasPerFileCodeOwnerSets(codeOwnerConfig.get())) {
+      PathCodeOwnersResult pathCodeOwnersResult =
+          pathCodeOwnersFactory
+              .create(transientCodeOwnerConfigCache, codeOwnerConfig.get(), folderPath)
+              .resolveCodeOwnerConfig();
+      if (pathCodeOwnersResult.resolvedImports().stream()
+          .map(CodeOwnerConfigImport::importedCodeOwnerConfig)
+          .flatMap(Optional::stream)
+          .noneMatch(CodeOwnershipExporter::hasPerFileCodeOwnerSets)) {
+        resultForAllFiles = pathCodeOwnersResult;
+      }
+    }
+
+    // If the code owner config ignores parent code owners for all files in its folder, the
+    // parent code owner configs never need to be inspected.
+    return new ConfigChain(
+        codeOwnerConfig.get(),
+        resultForAllFiles,
+        codeOwnerConfig.get().ignoreParentCodeOwners() ? null : parent);
+  }
+
+  private static boolean hasPerFileCodeOwnerSets(CodeOwnerConfig codeOwnerConfig) {
+    return codeOwnerConfig.codeOwnerSets().stream()
+        .anyMatch(codeOwnerSet -> !codeOwnerSet.pathExpressions().isEmpty());
+  }
+
+  private Row computeRow(
+      TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
+      Path path,
+      @Nullable ConfigChain configChain,
+      ImmutableSet<String> globalCodeOwners) {
+    Set<String> codeOwnerEmails = new TreeSet<>(globalCodeOwners);
+    Set<CodeOwnerConfig.Key> codeOwnerConfigKeys = new LinkedHashSet<>();
+    boolean hasRevelantCodeOwnerDefinitions = false;
+    boolean parentCodeOwnersAreIgnored = false;
+    for (ConfigChain c = configChain; c != null; c = c.parent) {
+      PathCodeOwnersResult pathCodeOwnersResult =
+          c.resultForAllFiles != null
+              ? c.resultForAllFiles
+              : pathCodeOwnersFactory
+                  .create(transientCodeOwnerConfigCache, c.codeOwnerConfig, path)
+                  .resolveCodeOwnerConfig();
+      codeOwnerConfigKeys.add(c.codeOwnerConfig.key());
+      pathCodeOwnersResult.resolvedImports().stream()
+          .map(CodeOwnerConfigImport::keyOfImportedCodeOwnerConfig)
+          .forEach(codeOwnerConfigKeys::add);
+      ImmutableSet<CodeOwnerReference> pathCodeOwners = pathCodeOwnersResult.getPathCodeOwners();
+      pathCodeOwners.stream().map(CodeOwnerReference::email).forEach(codeOwnerEmails::add);
+      if (!pathCodeOwners.isEmpty() || pathCodeOwnersResult.hasUnresolvedImports()) {
+        hasRevelantCodeOwnerDefinitions = true;
+      }
+      if (pathCodeOwnersResult.ignoreParentCodeOwners()) {
+        parentCodeOwnersAreIgnored = true;
+        break;
+      }
+    }
+    return Row.create(
+        path,
+        ImmutableSet.copyOf(codeOwnerEmails),
+        ImmutableList.copyOf(codeOwnerConfigKeys),
+        /* fallbackCodeOwnersApply= */ !hasRevelantCodeOwnerDefinitions
+            && !parentCodeOwnersAreIgnored);
+  }
+
+  /**
+   * Loads the specified code owner config.
+   *
+   * <p>Invalid code owner configs are ignored, the same as if they didn't exist.
+   */
+  private Optional<CodeOwnerConfig> loadCodeOwnerConfig(
+      CodeOwnerConfig.Key codeOwnerConfigKey, @Nullable ObjectId revision) {
+    try {
+      return revision != null
+          ? codeOwners.get(codeOwnerConfigKey, revision)
+          : codeOwners.getFromCurrentRevision(codeOwnerConfigKey);
+    } catch (RuntimeException e) {
+      if (getInvalidCodeOwnerConfigCause(e).isPresent()) {
+        logger.atWarning().log(
+            "ignoring invalid code owner config %s", codeOwnerConfigKey.format(codeOwners));
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  private static JsonArray toJsonArray(Stream<String> values) {
+    JsonArray jsonArray = new JsonArray();
+    values.forEach(jsonArray::add);
+    return jsonArray;
+  }
+
+  private static String escapeCsv(String value) {
+    if (value.contains(",")
+        || value.contains("\"")
+        || value.contains("\n")
+        || value.contains("\r")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  /** A folder in the branch tree. */
+  private static class Folder {
+    private final Path path;
+    private final ObjectId treeId;
+
+    Folder(Path path, ObjectId treeId) {
+      this.path = path;
+      this.treeId = treeId;
+    }
+  }
+
+  /**
+   * Immutable chain of code owner configs that apply to a folder, starting from the innermost code
+   * owner config.
+   */
+  private static class ConfigChain {
+    private final CodeOwnerConfig codeOwnerConfig;
+
+    /**
+     * The resolved code owner config, if its resolution doesn't depend on the file path, otherwise
+     * {@code null}.
+     */
+    @Nullable private final PathCodeOwnersResult resultForAllFiles;
+
+    @Nullable private final ConfigChain parent;
+
+    private ConfigChain(
+        CodeOwnerConfig codeOwnerConfig,
+        @Nullable PathCodeOwnersResult resultForAllFiles,
+        @Nullable ConfigChain parent) {
+      this.codeOwnerConfig = codeOwnerConfig;
+      this.resultForAllFiles = resultForAllFiles;
+      this.parent = parent;
+    }
+  }
+}
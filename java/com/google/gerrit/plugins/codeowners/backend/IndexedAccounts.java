@@ -0,0 +1,217 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Account;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense indices for the accounts that are relevant when checking the code owner approvals on a
+ * change (the approvers and the reviewers).
+ *
+ * <p>The indices allow to represent sets of these accounts as {@link BitSet}s, so that checking
+ * whether any approver or reviewer is a code owner of a path is a word-level AND of bit sets,
+ * instead of intersecting sets of boxed account IDs.
+ *
+ * <p>The approvers get the indices {@code 0} to {@code approvers.size() - 1} in their iteration
+ * order, the reviewers that are not approvers get the following indices in their iteration order.
+ *
+ * <p>The {@link BitSet}s that are returned by this class are new instances that can be modified by
+ * the caller, unless stated otherwise.
+ */
+class IndexedAccounts {
+  /** The accounts by index. */
+  private final ImmutableList<Account.Id> accounts;
+
+  /** The indices of the approvers. */
+  private final BitSet approvers;
+
+  /** The indices of the reviewers in the iteration order of the reviewers. */
+  private final int[] reviewerIndices;
+
+  /** The indices of the reviewers. */
+  private final BitSet reviewers;
+
+  /** The indices of the code owners by the code owner sets that define them. */
+  private final ConcurrentHashMap<CodeOwnerSetsKey, BitSet> codeOwnersByCodeOwnerSets =
+      new ConcurrentHashMap<>();
+
+  static IndexedAccounts create(
+      ImmutableSet<Account.Id> approvers, ImmutableSet<Account.Id> reviewers) {
+    return new IndexedAccounts(approvers, reviewers);
+  }
+
+  private IndexedAccounts(ImmutableSet<Account.Id> approvers, ImmutableSet<Account.Id> reviewers) {
+    requireNonNull(approvers, "approvers");
+    requireNonNull(reviewers, "reviewers");
+
+    ImmutableList.Builder<Account.Id> accounts = ImmutableList.builder();
+    Map<Account.Id, Integer> indices = new HashMap<>();
+    for (Account.Id approver : approvers) {
+      indices.put(approver, indices.size());
+      accounts.add(approver);
+    }
+    this.approvers = new BitSet();
+    this.approvers.set(0, approvers.size());
+
+    this.reviewerIndices = new int[reviewers.size()];
+    this.reviewers = new BitSet();
+    int i = 0;
+    for (Account.Id reviewer : reviewers) {
+      Integer index = indices.get(reviewer);
+      if (index == null) {
+        index = indices.size();
+        indices.put(reviewer, index);
+        accounts.add(reviewer);
+      }
+      this.reviewerIndices[i++] = index;
+      this.reviewers.set(index);
+    }
+
+    this.accounts = accounts.build();
+  }
+
+  /** Returns the indices of all approvers. */
+  BitSet approvers() {
+    return (BitSet) approvers.clone();
+  }
+
+  /** Returns the indices of all approvers and reviewers. */
+  BitSet all() {
+    BitSet all = new BitSet();
+    all.set(0, accounts.size());
+    return all;
+  }
+
+  /**
+   * Returns the indices of the approvers and reviewers that are code owners according to the given
+   * code owner resolver result.
+   *
+   * <p>If the code ownership was assigned to all users, all approvers and reviewers are code
+   * owners.
+   */
+  BitSet getCodeOwners(CodeOwnerResolverResult codeOwners) {
+    if (codeOwners.ownedByAllUsers()) {
+      return all();
+    }
+
+    BitSet codeOwnerIndices = new BitSet();
+    if (codeOwners.codeOwners().isEmpty()) {
+      return codeOwnerIndices;
+    }
+    ImmutableSet<Account.Id> codeOwnerAccountIds = codeOwners.codeOwnersAccountIds();
+    for (int i = 0; i < accounts.size(); i++) {
+      if (codeOwnerAccountIds.contains(accounts.get(i))) {
+        codeOwnerIndices.set(i);
+      }
+    }
+    return codeOwnerIndices;
+  }
+
+  /**
+   * Returns the indices of the approvers and reviewers that are code owners of a path according to
+   * the given code owner config.
+   *
+   * <p>The code owners of a path only depend on the code owner config and on the code owner sets
+   * that match the path. Hence the bit set is computed once for all paths for which the same code
+   * owner sets of a code owner config apply, e.g. for all files in a folder. This works because the
+   * code owners are always resolved for the same user within one evaluation.
+   *
+   * <p>The returned bit set is shared and must not be modified.
+   *
+   * @param pathCodeOwnersResult the resolved code owner config for the path
+   * @param codeOwners the resolved code owners of the path, used to compute the bit set if it
+   *     wasn't computed yet
+   */
+  BitSet getCodeOwners(
+      PathCodeOwnersResult pathCodeOwnersResult, CodeOwnerResolverResult codeOwners) {
+    return codeOwnersByCodeOwnerSets.computeIfAbsent(
+        CodeOwnerSetsKey.create(pathCodeOwnersResult), key -> getCodeOwners(codeOwners));
+  }
+
+  /**
+   * Returns the first approver (in the iteration order of the approvers) that is contained in the
+   * given code owners.
+   *
+   * @param codeOwners the indices of the code owners
+   */
+  Optional<Account.Id> getFirstApprover(BitSet codeOwners) {
+    int index = codeOwners.nextSetBit(0);
+    if (index < 0 || !approvers.get(index)) {
+      // The approvers have the lowest indices, hence if the lowest index is not an approver, none
+      // of the code owners is an approver.
+      return Optional.empty();
+    }
+    return Optional.of(accounts.get(index));
+  }
+
+  /**
+   * Returns the first reviewer (in the iteration order of the reviewers) that is contained in the
+   * given code owners.
+   *
+   * @param codeOwners the indices of the code owners
+   */
+  Optional<Account.Id> getFirstReviewer(BitSet codeOwners) {
+    if (!codeOwners.intersects(reviewers)) {
+      return Optional.empty();
+    }
+    for (int reviewerIndex : reviewerIndices) {
+      if (codeOwners.get(reviewerIndex)) {
+        return Optional.of(accounts.get(reviewerIndex));
+      }
+    }
+    throw new IllegalStateException("no reviewer found");
+  }
+
+  /** Converts the given indices to account IDs. */
+  ImmutableSet<Account.Id> toAccountIds(BitSet indices) {
+    ImmutableSet.Builder<Account.Id> accountIds = ImmutableSet.builder();
+    for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+      accountIds.add(accounts.get(i));
+    }
+    return accountIds.build();
+  }
+
+  /**
+   * Key for the code owner sets of a code owner config that apply to a path.
+   *
+   * <p>The per-file code owner sets are interned (see {@link CodeOwnerConfigInterner}), hence
+   * comparing them is cheap.
+   */
+  @AutoValue
+  abstract static class CodeOwnerSetsKey {
+    abstract CodeOwnerConfig.Key codeOwnerConfigKey();
+
+    abstract boolean ignoreGlobalCodeOwners();
+
+    abstract ImmutableSet<CodeOwnerSet> perFileCodeOwnerSets();
+
+    static CodeOwnerSetsKey create(PathCodeOwnersResult pathCodeOwnersResult) {
+      return new AutoValue_IndexedAccounts_CodeOwnerSetsKey(
+          pathCodeOwnersResult.codeOwnerConfigKey(),
+          pathCodeOwnersResult.ignoreGlobalCodeOwners(),
+          pathCodeOwnersResult.perFileCodeOwnerSets());
+    }
+  }
+}
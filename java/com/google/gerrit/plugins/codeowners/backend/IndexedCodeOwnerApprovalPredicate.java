@@ -0,0 +1,101 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.SubmitRecord;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.logging.TraceContext;
+import com.google.gerrit.server.logging.TraceContext.TraceTimer;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangeOperatorPredicate;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.Optional;
+
+/**
+ * A predicate that checks if a given change has all necessary code owner approvals, for use in
+ * search queries.
+ *
+ * <p>Unlike the {@link CodeOwnerApprovalPredicate}, which is used in submit requirement expressions
+ * and always runs the {@link CodeOwnerSubmitRule}, this predicate is served from the {@link
+ * CodeOwnerStatusIndex}, which contains the code owner submit record status that was computed when
+ * the change was indexed. This way a query like {@code is:open has:approval_code-owners project:X}
+ * doesn't need to evaluate the code owner submit rule for each open change in the project.
+ *
+ * <p>Only if the code owner status of a change is not indexed or if the indexed status is stale
+ * (i.e. it was computed for another revision of the change meta ref or for another code-owners
+ * configuration) the {@link CodeOwnerSubmitRule} is evaluated live.
+ *
+ * <p>Since updates of code owner config files are only reflected in the index once the affected
+ * changes have been reindexed, this predicate must not be used for submit requirement expressions
+ * (the submittability of changes must always be computed from the current state).
+ */
+@Singleton
+public class IndexedCodeOwnerApprovalPredicate extends ChangeOperatorPredicate {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final CodeOwnerStatusIndex codeOwnerStatusIndex;
+  private final CodeOwnerSubmitRule codeOwnerSubmitRule;
+  private final CodeOwnerMetrics codeOwnerMetrics;
+
+  @Inject
+  IndexedCodeOwnerApprovalPredicate(
+      @PluginName String pluginName,
+      CodeOwnerStatusIndex codeOwnerStatusIndex,
+      CodeOwnerSubmitRule codeOwnerSubmitRule,
+      CodeOwnerMetrics codeOwnerMetrics) {
+    super("has", CodeOwnerApprovalHasOperand.OPERAND + "_" + pluginName);
+    this.codeOwnerStatusIndex = codeOwnerStatusIndex;
+    this.codeOwnerSubmitRule = codeOwnerSubmitRule;
+    this.codeOwnerMetrics = codeOwnerMetrics;
+  }
+
+  @Override
+  public boolean match(ChangeData changeData) {
+    if (changeData.change().isClosed()) {
+      // The code owner submit rule is not evaluated for closed changes, the submit records of
+      // closed changes are the ones that were persisted on submit.
+      return false;
+    }
+
+    Optional<CodeOwnerStatusIndex.IndexedStatus> indexedStatus =
+        codeOwnerStatusIndex.get(changeData);
+    codeOwnerMetrics.countCodeOwnerApprovalQueryMatches.increment(indexedStatus.isPresent());
+    if (indexedStatus.isPresent()) {
+      return indexedStatus.get().submitRecordStatus() == SubmitRecord.Status.OK;
+    }
+
+    logger.atFine().log(
+        "code owner status of change %d is not indexed or stale, evaluate submit rule",
+        changeData.getId().get());
+    try (TraceTimer timer =
+        TraceContext.newTimer(
+            String.format(
+                "Run code owners submit rule for 'has:%s' query predicate",
+                CodeOwnerApprovalHasOperand.OPERAND))) {
+      Optional<SubmitRecord> submitRecord = codeOwnerSubmitRule.evaluate(changeData);
+      return submitRecord.isPresent() && submitRecord.get().status == SubmitRecord.Status.OK;
+    }
+  }
+
+  @Override
+  public int getCost() {
+    // Usually served from the code owner status index, hence cheaper than the
+    // CodeOwnerApprovalPredicate.
+    return 2;
+  }
+}
@@ -17,8 +17,6 @@ package com.google.gerrit.plugins.codeowners.backend;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.gerrit.plugins.codeowners.backend.CodeOwnersChangeMessageUtil.appendPaths;
-import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.CHANGE_MODIFICATION;
-import static com.google.gerrit.server.update.context.RefUpdateContext.RefUpdateType.PLUGIN;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -36,18 +34,10 @@ import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
 import com.google.gerrit.server.ChangeMessagesUtil;
 import com.google.gerrit.server.CurrentUser;
 import com.google.gerrit.server.IdentifiedUser;
-import com.google.gerrit.server.git.WorkQueue;
 import com.google.gerrit.server.notedb.ChangeNotes;
 import com.google.gerrit.server.restapi.change.OnPostReview;
-import com.google.gerrit.server.update.BatchUpdate;
-import com.google.gerrit.server.update.BatchUpdateOp;
-import com.google.gerrit.server.update.ChangeContext;
-import com.google.gerrit.server.update.RetryHelper;
-import com.google.gerrit.server.update.context.RefUpdateContext;
 import com.google.gerrit.server.util.AccountTemplateUtil;
 import com.google.gerrit.server.util.LabelVote;
-import com.google.gerrit.server.util.ManualRequestContext;
-import com.google.gerrit.server.util.OneOffRequestContext;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
@@ -76,36 +66,24 @@ class OnCodeOwnerApproval implements OnPostReview, CommentAddedListener {
   private static final String TAG_ADD_CODE_OWNER_APPROVAL =
       ChangeMessagesUtil.AUTOGENERATED_BY_GERRIT_TAG_PREFIX + "code-owners:addCodeOwnerApproval";
 
-  private final WorkQueue workQueue;
-  private final OneOffRequestContext oneOffRequestContext;
+  private final AsyncChangeMessageQueue asyncChangeMessageQueue;
   private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
   private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
   private final CodeOwnerMetrics codeOwnerMetrics;
-  private final ChangeNotes.Factory changeNotesFactory;
-  private final ChangeMessagesUtil changeMessageUtil;
   private final Provider<CurrentUser> userProvider;
-  private final RetryHelper retryHelper;
 
   @Inject
   OnCodeOwnerApproval(
-      WorkQueue workQueue,
-      OneOffRequestContext oneOffRequestContext,
+      AsyncChangeMessageQueue asyncChangeMessageQueue,
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
       CodeOwnerApprovalCheck codeOwnerApprovalCheck,
       CodeOwnerMetrics codeOwnerMetrics,
-      ChangeNotes.Factory changeNotesFactory,
-      ChangeMessagesUtil changeMessageUtil,
-      Provider<CurrentUser> userProvider,
-      RetryHelper retryHelper) {
-    this.workQueue = workQueue;
-    this.oneOffRequestContext = oneOffRequestContext;
+      Provider<CurrentUser> userProvider) {
+    this.asyncChangeMessageQueue = asyncChangeMessageQueue;
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
     this.codeOwnerMetrics = codeOwnerMetrics;
-    this.changeNotesFactory = changeNotesFactory;
-    this.changeMessageUtil = changeMessageUtil;
     this.userProvider = userProvider;
-    this.retryHelper = retryHelper;
   }
 
   @Override
@@ -206,17 +184,9 @@ class OnCodeOwnerApproval implements OnPostReview, CommentAddedListener {
     }
 
     Change.Id changeId = Change.id(event.getChange()._number);
-    ChangeNotes changeNotes = changeNotesFactory.create(projectName, changeId);
     PatchSet.Id patchSetId = PatchSet.id(changeId, event.getRevision()._number);
     RequiredApproval requiredApproval = codeOwnersConfig.getRequiredApproval();
 
-    // code owner approvals are only computed for the current patch set
-    PatchSet currentPatchSet = changeNotes.getCurrentPatchSet();
-    if (!currentPatchSet.id().equals(patchSetId)) {
-      logger.atFine().log("skip posting the change message on non-current patch set");
-      return;
-    }
-
     if (event.getOldApprovals().get(requiredApproval.labelType().getName()) == null) {
       // If oldApprovals doesn't contain the label or if the labels value in it is null, the label
       // was not changed.
@@ -224,79 +194,38 @@ class OnCodeOwnerApproval implements OnPostReview, CommentAddedListener {
       return;
     }
 
-    @SuppressWarnings("unused")
-    WorkQueue.Task<?> possiblyIgnoredError =
-        (WorkQueue.Task<?>)
-            workQueue
-                .getDefaultQueue()
-                .submit(
-                    () -> {
-                      try (ManualRequestContext ignored =
-                          oneOffRequestContext.openAs(user.getAccountId())) {
-                        postChangeMessage(
-                            event.getWhen(),
-                            user.asIdentifiedUser(),
-                            changeNotes,
-                            currentPatchSet,
-                            mapApprovalInfosToVotingValues(event.getOldApprovals()),
-                            mapApprovalInfosToVotingValues(event.getApprovals()),
-                            requiredApproval,
-                            maxPathsInChangeMessage);
-                      }
-                    });
-  }
-
-  private void postChangeMessage(
-      Instant when,
-      IdentifiedUser user,
-      ChangeNotes changeNotes,
-      PatchSet patchSet,
-      Map<String, Short> oldApprovals,
-      Map<String, Short> approvals,
-      RequiredApproval requiredApproval,
-      int maxPathsInChangeMessages) {
-    try (Timer0.Context ctx = codeOwnerMetrics.addChangeMessageOnCodeOwnerApproval.start()) {
-      var unused =
-          retryHelper
-              .changeUpdate(
-                  "addCodeOwnersMessageOnCodeOwnerApproval",
-                  updateFactory -> {
-                    try (BatchUpdate batchUpdate =
-                            updateFactory.create(changeNotes.getProjectName(), user, when);
-                        RefUpdateContext pluginCtx = RefUpdateContext.open(PLUGIN);
-                        RefUpdateContext changeCtx = RefUpdateContext.open(CHANGE_MODIFICATION)) {
-                      batchUpdate.addOp(
-                          changeNotes.getChangeId(),
-                          new Op(
-                              user,
-                              changeNotes,
-                              patchSet,
-                              oldApprovals,
-                              approvals,
-                              requiredApproval,
-                              maxPathsInChangeMessages));
-                      batchUpdate.execute();
-                    }
-                    return null;
-                  })
-              .call();
-    } catch (Exception e) {
-      Optional<? extends Exception> configurationError =
-          CodeOwnersExceptionHook.getCauseOfConfigurationError(e);
-      if (configurationError.isPresent()) {
-        logger.atWarning().log(
-            "Failed to post code-owners change message for code owner approval on change %s in"
-                + " project %s: %s",
-            changeNotes.getChangeId(),
-            changeNotes.getProjectName(),
-            configurationError.get().getMessage());
-      } else {
-        logger.atSevere().withCause(e).log(
-            "Failed to post code-owners change message for code owner approval on change %s in"
-                + " project %s.",
-            changeNotes.getChangeId(), changeNotes.getProjectName());
-      }
-    }
+    IdentifiedUser identifiedUser = user.asIdentifiedUser();
+    Map<String, Short> oldApprovals = mapApprovalInfosToVotingValues(event.getOldApprovals());
+    Map<String, Short> approvals = mapApprovalInfosToVotingValues(event.getApprovals());
+    asyncChangeMessageQueue.schedule(
+        identifiedUser,
+        projectName,
+        changeId,
+        event.getWhen(),
+        TAG_ADD_CODE_OWNER_APPROVAL,
+        ctx -> {
+          try (Timer0.Context timerCtx =
+              codeOwnerMetrics.addChangeMessageOnCodeOwnerApproval.start()) {
+            // Reuse the change notes that have already been loaded for the change update.
+            ChangeNotes changeNotes = ctx.getNotes();
+
+            // code owner approvals are only computed for the current patch set
+            PatchSet currentPatchSet = changeNotes.getCurrentPatchSet();
+            if (!currentPatchSet.id().equals(patchSetId)) {
+              logger.atFine().log("skip posting the change message on non-current patch set");
+              return Optional.empty();
+            }
+
+            return buildMessageForCodeOwnerApproval(
+                identifiedUser,
+                changeNotes,
+                currentPatchSet,
+                oldApprovals,
+                approvals,
+                requiredApproval,
+                maxPathsInChangeMessage);
+          }
+        });
   }
 
   private Optional<String> buildMessageForCodeOwnerApproval(
@@ -468,45 +397,4 @@ class OnCodeOwnerApproval implements OnPostReview, CommentAddedListener {
                 Map.Entry::getKey,
                 e -> e.getValue().value != null ? e.getValue().value.shortValue() : null));
   }
-
-  private class Op implements BatchUpdateOp {
-    private final IdentifiedUser user;
-    private final ChangeNotes changeNotes;
-    private final PatchSet patchSet;
-    private final Map<String, Short> oldApprovals;
-    private final Map<String, Short> approvals;
-    private final RequiredApproval requiredApproval;
-    private final int limit;
-
-    Op(
-        IdentifiedUser user,
-        ChangeNotes changeNotes,
-        PatchSet patchSet,
-        Map<String, Short> oldApprovals,
-        Map<String, Short> approvals,
-        RequiredApproval requiredApproval,
-        int limit) {
-      this.user = user;
-      this.changeNotes = changeNotes;
-      this.patchSet = patchSet;
-      this.oldApprovals = oldApprovals;
-      this.approvals = approvals;
-      this.requiredApproval = requiredApproval;
-      this.limit = limit;
-    }
-
-    @Override
-    public boolean updateChange(ChangeContext ctx) throws Exception {
-      Optional<String> message =
-          buildMessageForCodeOwnerApproval(
-              user, changeNotes, patchSet, oldApprovals, approvals, requiredApproval, limit);
-
-      if (message.isEmpty()) {
-        return false;
-      }
-
-      changeMessageUtil.setChangeMessage(ctx, message.get(), TAG_ADD_CODE_OWNER_APPROVAL);
-      return true;
-    }
-  }
 }
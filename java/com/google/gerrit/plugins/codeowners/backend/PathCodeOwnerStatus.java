@@ -14,9 +14,11 @@
 
 package com.google.gerrit.plugins.codeowners.backend;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
@@ -41,12 +43,28 @@ public abstract class PathCodeOwnerStatus {
   public abstract CodeOwnerStatus status();
 
   /**
-   * Message explaining the reason for {@link #status()}.
+   * The reasons for {@link #status()} as structured values.
+   *
+   * <p>Use {@link #reasons()} to get the reasons as messages.
+   */
+  public abstract ImmutableList<PathCodeOwnerStatusReason> structuredReasons();
+
+  /**
+   * Messages explaining the reason for {@link #status()}.
    *
    * <p>A reason may contain one or several placeholders for accounts (see {@link
    * com.google.gerrit.server.util.AccountTemplateUtil#ACCOUNT_TEMPLATE}).
+   *
+   * <p>The messages are rendered from the {@link #structuredReasons()} on first access. They are
+   * only meant for output, {@code equals} and {@code hashCode} only consider the structured
+   * reasons.
    */
-  public abstract ImmutableList<String> reasons();
+  @Memoized
+  public ImmutableList<String> reasons() {
+    return structuredReasons().stream()
+        .map(PathCodeOwnerStatusReason::format)
+        .collect(toImmutableList());
+  }
 
   /**
    * List of code owners for this {@link #path()}. This field is only set if `checkAllOwners` is
@@ -89,11 +107,21 @@ public abstract class PathCodeOwnerStatus {
    */
   public static PathCodeOwnerStatus create(
       Path path, CodeOwnerStatus codeOwnerStatus, @Nullable String reason) {
-    Builder builder = builder(path, codeOwnerStatus);
-    if (reason != null) {
-      builder.addReason(reason);
-    }
-    return builder.build();
+    return create(
+        path, codeOwnerStatus, reason != null ? PathCodeOwnerStatusReason.text(reason) : null);
+  }
+
+  /**
+   * Creates a {@link PathCodeOwnerStatus} instance.
+   *
+   * @param path the path to which the code owner status belongs
+   * @param codeOwnerStatus the code owner status
+   * @param reason for the status
+   * @return the created {@link PathCodeOwnerStatus} instance
+   */
+  public static PathCodeOwnerStatus create(
+      Path path, CodeOwnerStatus codeOwnerStatus, @Nullable PathCodeOwnerStatusReason reason) {
+    return create(path, codeOwnerStatus, reason, Optional.empty());
   }
 
   /**
@@ -110,6 +138,27 @@ public abstract class PathCodeOwnerStatus {
       CodeOwnerStatus codeOwnerStatus,
       @Nullable String reason,
       Optional<ImmutableSet<Account.Id>> owners) {
+    return create(
+        path,
+        codeOwnerStatus,
+        reason != null ? PathCodeOwnerStatusReason.text(reason) : null,
+        owners);
+  }
+
+  /**
+   * Creates a {@link PathCodeOwnerStatus} instance.
+   *
+   * @param path the path to which the code owner status belongs
+   * @param codeOwnerStatus the code owner status
+   * @param reason for the status
+   * @param owners owners for this path.
+   * @return the created {@link PathCodeOwnerStatus} instance
+   */
+  public static PathCodeOwnerStatus create(
+      Path path,
+      CodeOwnerStatus codeOwnerStatus,
+      @Nullable PathCodeOwnerStatusReason reason,
+      Optional<ImmutableSet<Account.Id>> owners) {
     Builder builder = builder(path, codeOwnerStatus);
     if (reason != null) {
       builder.addReason(reason);
@@ -146,15 +195,21 @@ public abstract class PathCodeOwnerStatus {
     public abstract Builder setStatus(CodeOwnerStatus codeOwnerStatus);
 
     /** Gets a builder for adding reasons for this status. */
-    abstract ImmutableList.Builder<String> reasonsBuilder();
+    abstract ImmutableList.Builder<PathCodeOwnerStatusReason> structuredReasonsBuilder();
 
-    /** Gets a builder for adding owners for this status. */
-    abstract Builder setOwners(Optional<ImmutableSet<Account.Id>> owners);
+    /** Sets the owners of the path. */
+    public abstract Builder setOwners(Optional<ImmutableSet<Account.Id>> owners);
 
     /** Adds a reason for this status. */
     @CanIgnoreReturnValue
     public Builder addReason(String reason) {
-      reasonsBuilder().add(reason);
+      return addReason(PathCodeOwnerStatusReason.text(reason));
+    }
+
+    /** Adds a reason for this status. */
+    @CanIgnoreReturnValue
+    public Builder addReason(PathCodeOwnerStatusReason reason) {
+      structuredReasonsBuilder().add(reason);
       return this;
     }
 
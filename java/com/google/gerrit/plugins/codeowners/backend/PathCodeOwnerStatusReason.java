@@ -0,0 +1,276 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.LabelValue;
+import com.google.gerrit.entities.PatchSetApproval;
+import com.google.gerrit.server.util.AccountTemplateUtil;
+import java.util.Optional;
+
+/**
+ * Reason for a {@link PathCodeOwnerStatus}.
+ *
+ * <p>The reason is kept as a small structured value (reason kind, account, code owner kind) and is
+ * only rendered to a message when {@link #format()} is invoked. This way the code owner status of
+ * a path can be computed without formatting any strings, which matters when the reasons are not
+ * needed at all (e.g. when the submit rule checks whether a change is submittable).
+ *
+ * <p>Two reasons are equal if they have the same kind and the same values. Comparing reasons never
+ * renders them, and reasons of different kinds are never equal, even if they are rendered to the
+ * same message. The message is rendered at most once per reason.
+ */
+@AutoValue
+public abstract class PathCodeOwnerStatusReason {
+  /** The kind of a {@link PathCodeOwnerStatusReason}. */
+  public enum Kind {
+    /** The reason was given as text. */
+    TEXT,
+
+    /** An override approval is present. */
+    OVERRIDE_APPROVAL,
+
+    /** The patch set uploader is exempted from requiring code owner approvals. */
+    EXEMPTED_UPLOADER,
+
+    /** The path is implicitly approved by the patch set uploader who is a code owner. */
+    IMPLICIT_APPROVAL,
+
+    /** The path is approved by a code owner. */
+    APPROVAL,
+
+    /** The path is approved by a code owner on a previous patch set (sticky approval). */
+    STICKY_APPROVAL,
+
+    /** A code owner is a reviewer of the change. */
+    REVIEWER;
+  }
+
+  /** The kind of this reason. */
+  public abstract Kind kind();
+
+  /** The message of a reason of kind {@link Kind#TEXT}. */
+  abstract Optional<String> text();
+
+  /**
+   * The account that this reason is about, {@code null} if this reason is not about an account
+   * (reasons of kind {@link Kind#TEXT}).
+   */
+  @Nullable
+  public abstract Account.Id accountId();
+
+  /**
+   * The kind of code owner that the account of this reason is, {@code null} if this reason is not
+   * about a code owner.
+   */
+  @Nullable
+  public abstract CodeOwnerKind codeOwnerKind();
+
+  /** Whether the path is owned by all users. */
+  abstract boolean ownedByAllUsers();
+
+  /** The override approval of a reason of kind {@link Kind#OVERRIDE_APPROVAL}. */
+  abstract Optional<PatchSetApproval> overrideApproval();
+
+  /**
+   * The number of the patch set on which the path was approved, only set for reasons of kind
+   * {@link Kind#STICKY_APPROVAL}, otherwise {@code 0}.
+   */
+  abstract int patchSetNumber();
+
+  /**
+   * Creates a reason that is given as text.
+   *
+   * @param text the message of the reason, may contain placeholders for accounts (see {@link
+   *     AccountTemplateUtil#ACCOUNT_TEMPLATE})
+   */
+  public static PathCodeOwnerStatusReason text(String text) {
+    requireNonNull(text, "text");
+    return new AutoValue_PathCodeOwnerStatusReason(
+        Kind.TEXT,
+        Optional.of(text),
+        /* accountId= */ null,
+        /* codeOwnerKind= */ null,
+        /* ownedByAllUsers= */ false,
+        /* overrideApproval= */ Optional.empty(),
+        /* patchSetNumber= */ 0);
+  }
+
+  /**
+   * Creates a reason saying that an override approval is present.
+   *
+   * @param overrideApproval the override approval
+   */
+  public static PathCodeOwnerStatusReason overrideApproval(PatchSetApproval overrideApproval) {
+    requireNonNull(overrideApproval, "overrideApproval");
+    return new AutoValue_PathCodeOwnerStatusReason(
+        Kind.OVERRIDE_APPROVAL,
+        /* text= */ Optional.empty(),
+        overrideApproval.accountId(),
+        /* codeOwnerKind= */ null,
+        /* ownedByAllUsers= */ false,
+        Optional.of(overrideApproval),
+        /* patchSetNumber= */ 0);
+  }
+
+  /**
+   * Creates a reason saying that the patch set uploader is exempted from requiring code owner
+   * approvals.
+   *
+   * @param patchSetUploader the patch set uploader
+   */
+  public static PathCodeOwnerStatusReason exemptedUploader(Account.Id patchSetUploader) {
+    requireNonNull(patchSetUploader, "patchSetUploader");
+    return new AutoValue_PathCodeOwnerStatusReason(
+        Kind.EXEMPTED_UPLOADER,
+        /* text= */ Optional.empty(),
+        patchSetUploader,
+        /* codeOwnerKind= */ null,
+        /* ownedByAllUsers= */ false,
+        /* overrideApproval= */ Optional.empty(),
+        /* patchSetNumber= */ 0);
+  }
+
+  /**
+   * Creates a reason saying that the path is implicitly approved by the patch set uploader.
+   *
+   * @param implicitApprover the patch set uploader who owns the path
+   * @param codeOwnerKind the kind of code owner that the patch set uploader is
+   * @param ownedByAllUsers whether the path is owned by all users
+   */
+  public static PathCodeOwnerStatusReason implicitApproval(
+      Account.Id implicitApprover, CodeOwnerKind codeOwnerKind, boolean ownedByAllUsers) {
+    return create(Kind.IMPLICIT_APPROVAL, implicitApprover, codeOwnerKind, ownedByAllUsers, 0);
+  }
+
+  /**
+   * Creates a reason saying that the path is approved by a code owner.
+   *
+   * @param approver the code owner that approved the path
+   * @param codeOwnerKind the kind of code owner that the approver is
+   * @param ownedByAllUsers whether the path is owned by all users
+   */
+  public static PathCodeOwnerStatusReason approval(
+      Account.Id approver, CodeOwnerKind codeOwnerKind, boolean ownedByAllUsers) {
+    return create(Kind.APPROVAL, approver, codeOwnerKind, ownedByAllUsers, 0);
+  }
+
+  /**
+   * Creates a reason saying that the path is approved by a code owner on a previous patch set.
+   *
+   * @param patchSetNumber the number of the patch set on which the code owner approved the path
+   * @param approver the code owner that approved the path
+   * @param codeOwnerKind the kind of code owner that the approver is
+   * @param ownedByAllUsers whether the path is owned by all users
+   */
+  public static PathCodeOwnerStatusReason stickyApproval(
+      int patchSetNumber,
+      Account.Id approver,
+      CodeOwnerKind codeOwnerKind,
+      boolean ownedByAllUsers) {
+    return create(Kind.STICKY_APPROVAL, approver, codeOwnerKind, ownedByAllUsers, patchSetNumber);
+  }
+
+  /**
+   * Creates a reason saying that a code owner of the path is a reviewer.
+   *
+   * @param reviewer the code owner that is a reviewer
+   * @param codeOwnerKind the kind of code owner that the reviewer is
+   * @param ownedByAllUsers whether the path is owned by all users
+   */
+  public static PathCodeOwnerStatusReason reviewer(
+      Account.Id reviewer, CodeOwnerKind codeOwnerKind, boolean ownedByAllUsers) {
+    return create(Kind.REVIEWER, reviewer, codeOwnerKind, ownedByAllUsers, 0);
+  }
+
+  private static PathCodeOwnerStatusReason create(
+      Kind kind,
+      Account.Id accountId,
+      CodeOwnerKind codeOwnerKind,
+      boolean ownedByAllUsers,
+      int patchSetNumber) {
+    requireNonNull(accountId, "accountId");
+    requireNonNull(codeOwnerKind, "codeOwnerKind");
+    return new AutoValue_PathCodeOwnerStatusReason(
+        kind,
+        /* text= */ Optional.empty(),
+        accountId,
+        codeOwnerKind,
+        ownedByAllUsers,
+        /* overrideApproval= */ Optional.empty(),
+        patchSetNumber);
+  }
+
+  /**
+   * Renders this reason to a message.
+   *
+   * <p>The message may contain placeholders for accounts (see {@link
+   * AccountTemplateUtil#ACCOUNT_TEMPLATE}).
+   */
+  @Memoized
+  public String format() {
+    switch (kind()) {
+      case TEXT:
+        return text().get();
+      case OVERRIDE_APPROVAL:
+        return String.format(
+            "override approval %s by %s is present",
+            overrideApproval().get().label()
+                + LabelValue.formatValue(overrideApproval().get().value()),
+            AccountTemplateUtil.getAccountTemplate(accountId()));
+      case EXEMPTED_UPLOADER:
+        return String.format(
+            "patch set uploader %s is exempted from requiring code owner approvals",
+            AccountTemplateUtil.getAccountTemplate(accountId()));
+      case IMPLICIT_APPROVAL:
+        return String.format(
+            "implicitly approved by the patch set uploader %s who is a %s%s",
+            AccountTemplateUtil.getAccountTemplate(accountId()),
+            codeOwnerKind().getDisplayName(),
+            formatOwnedByAllUsers());
+      case APPROVAL:
+        return String.format(
+            "approved by %s who is a %s%s",
+            AccountTemplateUtil.getAccountTemplate(accountId()),
+            codeOwnerKind().getDisplayName(),
+            formatOwnedByAllUsers());
+      case STICKY_APPROVAL:
+        return String.format(
+            "approved on patch set %d by %s who is a %s%s",
+            patchSetNumber(),
+            AccountTemplateUtil.getAccountTemplate(accountId()),
+            codeOwnerKind().getDisplayName(),
+            formatOwnedByAllUsers());
+      case REVIEWER:
+        return String.format(
+            "reviewer %s is a %s%s",
+            AccountTemplateUtil.getAccountTemplate(accountId()),
+            codeOwnerKind().getDisplayName(),
+            formatOwnedByAllUsers());
+    }
+    throw new IllegalStateException(String.format("unknown reason kind: %s", kind()));
+  }
+
+  private String formatOwnedByAllUsers() {
+    return ownedByAllUsers()
+        ? String.format(" (all users are %ss)", codeOwnerKind().getDisplayName())
+        : "";
+  }
+}
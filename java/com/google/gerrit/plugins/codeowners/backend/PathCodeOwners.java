@@ -29,6 +29,7 @@ import com.google.gerrit.entities.Project;
 import com.google.gerrit.metrics.Timer0;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.plugins.codeowners.metrics.ResolveCodeOwnerConfigImportsEvent;
 import com.google.gerrit.server.project.ProjectCache;
 import com.google.gerrit.server.project.ProjectState;
 import com.google.inject.Inject;
@@ -55,6 +56,8 @@ public class PathCodeOwners {
   @Singleton
   public static class Factory {
     private final CodeOwnerMetrics codeOwnerMetrics;
+    private final CodeOwnerEvaluationBudget evaluationBudget;
+    private final CodeOwnerEvaluationTrace evaluationTrace;
     private final ProjectCache projectCache;
     private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
     private final CodeOwners codeOwners;
@@ -62,10 +65,14 @@ public class PathCodeOwners {
     @Inject
     Factory(
         CodeOwnerMetrics codeOwnerMetrics,
+        CodeOwnerEvaluationBudget evaluationBudget,
+        CodeOwnerEvaluationTrace evaluationTrace,
         ProjectCache projectCache,
         CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
         CodeOwners codeOwners) {
       this.codeOwnerMetrics = codeOwnerMetrics;
+      this.evaluationBudget = evaluationBudget;
+      this.evaluationTrace = evaluationTrace;
       this.projectCache = projectCache;
       this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
       this.codeOwners = codeOwners;
@@ -75,6 +82,8 @@ public class PathCodeOwners {
       requireNonNull(codeOwnerConfig, "codeOwnerConfig");
       return new PathCodeOwners(
           codeOwnerMetrics,
+          evaluationBudget,
+          evaluationTrace,
           projectCache,
           /* transientCodeOwnerConfigCache= */ null,
           codeOwners,
@@ -83,6 +92,30 @@ public class PathCodeOwners {
           getMatcher(codeOwnerConfig.key()));
     }
 
+    /**
+     * Creates a {@link PathCodeOwners} instance for an already loaded code owner config.
+     *
+     * <p>Unlike {@link #createWithoutCache(CodeOwnerConfig, Path)} imported code owner configs are
+     * loaded through the given {@link TransientCodeOwnerConfigCache}.
+     */
+    public PathCodeOwners create(
+        TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
+        CodeOwnerConfig codeOwnerConfig,
+        Path absolutePath) {
+      requireNonNull(transientCodeOwnerConfigCache, "transientCodeOwnerConfigCache");
+      requireNonNull(codeOwnerConfig, "codeOwnerConfig");
+      return new PathCodeOwners(
+          codeOwnerMetrics,
+          evaluationBudget,
+          evaluationTrace,
+          projectCache,
+          transientCodeOwnerConfigCache,
+          codeOwners,
+          codeOwnerConfig,
+          absolutePath,
+          getMatcher(codeOwnerConfig.key()));
+    }
+
     public Optional<PathCodeOwners> create(
         TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
         CodeOwnerConfig.Key codeOwnerConfigKey,
@@ -97,6 +130,8 @@ public class PathCodeOwners {
               codeOwnerConfig ->
                   new PathCodeOwners(
                       codeOwnerMetrics,
+                      evaluationBudget,
+                      evaluationTrace,
                       projectCache,
                       transientCodeOwnerConfigCache,
                       codeOwners,
@@ -134,6 +169,8 @@ public class PathCodeOwners {
   }
 
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationBudget evaluationBudget;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final ProjectCache projectCache;
   private final CodeOwnerConfigLoader codeOwnerConfigLoader;
   private final CodeOwners codeOwners;
@@ -145,6 +182,8 @@ public class PathCodeOwners {
 
   private PathCodeOwners(
       CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationBudget evaluationBudget,
+      CodeOwnerEvaluationTrace evaluationTrace,
       ProjectCache projectCache,
       @Nullable TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
       CodeOwners codeOwners,
@@ -152,6 +191,8 @@ public class PathCodeOwners {
       Path path,
       PathExpressionMatcher pathExpressionMatcher) {
     this.codeOwnerMetrics = requireNonNull(codeOwnerMetrics, "codeOwnerMetrics");
+    this.evaluationBudget = requireNonNull(evaluationBudget, "evaluationBudget");
+    this.evaluationTrace = requireNonNull(evaluationTrace, "evaluationTrace");
     this.projectCache = requireNonNull(projectCache, "projectCache");
     this.codeOwnerConfigLoader =
         transientCodeOwnerConfigCache != null ? transientCodeOwnerConfigCache : codeOwners;
@@ -214,8 +255,10 @@ public class PathCodeOwners {
       return this.pathCodeOwnersResult;
     }
 
-    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerConfig.start()) {
-      Path codeOwnerConfigFilePath = codeOwners.getFilePath(codeOwnerConfig.key());
+    Path codeOwnerConfigFilePath = codeOwners.getFilePath(codeOwnerConfig.key());
+    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerConfig.start();
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.startCodeOwnerConfig(codeOwnerConfig.key(), codeOwnerConfigFilePath)) {
 
       PathCodeOwnersResult.Builder pathCodeOwnersResultBuilder =
           PathCodeOwnersResult.builder(
@@ -244,7 +287,7 @@ public class PathCodeOwners {
           .forEach(pathCodeOwnersResultBuilder::addGlobalCodeOwnerSet);
 
       ImmutableSet<CodeOwnerSet> matchingPerFileCodeOwnerSets =
-          getMatchingPerFileCodeOwnerSets(codeOwnerConfig).collect(toImmutableSet());
+          getMatchingPerFileCodeOwnerSets(codeOwnerConfig);
       for (CodeOwnerSet codeOwnerSet : matchingPerFileCodeOwnerSets) {
         pathCodeOwnersResultBuilder.addMessage(
             DebugMessage.createMessage(
@@ -282,7 +325,12 @@ public class PathCodeOwners {
       PathCodeOwnersResult.Builder pathCodeOwnersResultBuilder) {
     StringBuilder messageBuilder = new StringBuilder();
 
-    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerConfigImports.start()) {
+    ResolveCodeOwnerConfigImportsEvent event = new ResolveCodeOwnerConfigImportsEvent();
+    event.begin();
+    int importCount = 0;
+    try (Timer0.Context ctx = codeOwnerMetrics.resolveCodeOwnerConfigImports.start();
+        CodeOwnerEvaluationTrace.Timer traceTimer =
+            evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.RESOLVE_IMPORTS)) {
       logger.atFine().log("resolve imports of codeOwnerConfig %s", keyOfImportingCodeOwnerConfig);
 
       // To detect cyclic dependencies we keep track of all seen code owner configs.
@@ -304,6 +352,9 @@ public class PathCodeOwners {
       }
       while (!codeOwnerConfigsToImport.isEmpty()) {
         CodeOwnerImport codeOwnerConfigImport = codeOwnerConfigsToImport.poll();
+        evaluationBudget.chargeImport();
+        evaluationTrace.recordImport();
+        importCount++;
         messageBuilder.append(codeOwnerConfigImport.format());
 
         CodeOwnerConfigReference codeOwnerConfigReference =
@@ -406,7 +457,7 @@ public class PathCodeOwners {
           }
 
           ImmutableSet<CodeOwnerSet> matchingPerFileCodeOwnerSets =
-              getMatchingPerFileCodeOwnerSets(importedCodeOwnerConfig).collect(toImmutableSet());
+              getMatchingPerFileCodeOwnerSets(importedCodeOwnerConfig);
           if (importMode.importPerFileCodeOwnerSets()) {
             logger.atFine().log("import per-file code owners");
             matchingPerFileCodeOwnerSets.forEach(
@@ -457,6 +508,10 @@ public class PathCodeOwners {
           }
         }
       }
+
+      if (importCount > 0 && event.shouldCommit()) {
+        event.commit(CodeOwners.formatForEvent(keyOfImportingCodeOwnerConfig), importCount);
+      }
     }
     String message = messageBuilder.toString();
     if (message.endsWith("\n")) {
@@ -499,15 +554,22 @@ public class PathCodeOwners {
         .filter(codeOwnerSet -> codeOwnerSet.pathExpressions().isEmpty());
   }
 
-  private Stream<CodeOwnerSet> getMatchingPerFileCodeOwnerSets(CodeOwnerConfig codeOwnerConfig) {
-    return getMatchingPerFileCodeOwnerSets(codeOwnerConfig.codeOwnerSets());
+  private ImmutableSet<CodeOwnerSet> getMatchingPerFileCodeOwnerSets(
+      CodeOwnerConfig codeOwnerConfig) {
+    try (CodeOwnerEvaluationTrace.Timer traceTimer =
+        evaluationTrace.start(CodeOwnerEvaluationTrace.Phase.MATCH_PATH_EXPRESSIONS)) {
+      return codeOwnerConfig.codeOwnerSets().stream()
+          .filter(codeOwnerSet -> !codeOwnerSet.pathExpressions().isEmpty())
+          .filter(codeOwnerSet -> matches(codeOwnerConfig.key(), codeOwnerSet))
+          .collect(toImmutableSet());
+    }
   }
 
-  private Stream<CodeOwnerSet> getMatchingPerFileCodeOwnerSets(
-      ImmutableSet<CodeOwnerSet> codeOwnerSets) {
-    return codeOwnerSets.stream()
-        .filter(codeOwnerSet -> !codeOwnerSet.pathExpressions().isEmpty())
-        .filter(codeOwnerSet -> matches(codeOwnerSet, getRelativePath(), pathExpressionMatcher));
+  private boolean matches(CodeOwnerConfig.Key codeOwnerConfigKey, CodeOwnerSet codeOwnerSet) {
+    try (CodeOwnerEvaluationTrace.Timer traceTimer =
+        evaluationTrace.startPathExpressions(codeOwnerConfigKey, codeOwnerSet.pathExpressions())) {
+      return matches(codeOwnerSet, getRelativePath(), pathExpressionMatcher);
+    }
   }
 
   private Path getRelativePath() {
@@ -62,6 +62,17 @@ public abstract class PathCodeOwnersResult {
 
   public abstract ImmutableList<DebugMessage> messages();
 
+  /**
+   * Whether there are any code owners defined for the path, regardless of whether they can be
+   * resolved or not.
+   *
+   * <p>Same as {@link CodeOwnerResolverResult#hasRevelantCodeOwnerDefinitions()}, but doesn't
+   * require resolving the code owners.
+   */
+  public boolean hasRevelantCodeOwnerDefinitions() {
+    return !getPathCodeOwners().isEmpty() || hasUnresolvedImports();
+  }
+
   /**
    * Gets the code owners from the code owner config that apply to the path.
    *
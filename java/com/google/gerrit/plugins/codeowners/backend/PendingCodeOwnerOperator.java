@@ -0,0 +1,160 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.extensions.annotations.Exports;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.config.FactoryModule;
+import com.google.gerrit.index.query.Predicate;
+import com.google.gerrit.index.query.QueryParseException;
+import com.google.gerrit.server.account.AccountResolver;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangeIndexPredicate;
+import com.google.gerrit.server.query.change.ChangePredicates;
+import com.google.gerrit.server.query.change.ChangeQueryBuilder;
+import com.google.gerrit.server.query.change.ChangeQueryBuilder.ChangeOperatorFactory;
+import com.google.gerrit.server.query.change.ChangeStatusPredicate;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.Optional;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+
+/**
+ * A class contributing a "pending_code-owners" operator to change queries.
+ *
+ * <p>{@code pending_code-owners:<account>} matches open changes that have at least one file that is
+ * owned by the given account and that is not code owner approved yet, e.g. {@code
+ * pending_code-owners:self} finds the changes that await a code owner approval from the calling
+ * user.
+ *
+ * <p>The operator is served from the reverse index of the pending code owners in the {@link
+ * CodeOwnerStatusIndex}: The changes that await a code owner approval from the given account are
+ * looked up there and the operator is rewritten to an index predicate that matches these changes by
+ * their IDs. This way the pending code owners don't need to be computed when the query is
+ * executed.
+ *
+ * <p>Only if the code owner statuses of the open changes have not been indexed yet after the plugin
+ * was started, or if the account awaits too many changes to match them by their IDs in a single
+ * index query, the operator falls back to a {@link PendingCodeOwnerPredicate} that looks up the
+ * pending code owners of each matched change from the {@link PendingCodeOwnersCache}.
+ */
+@Singleton
+public class PendingCodeOwnerOperator implements ChangeOperatorFactory {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  static final String OPERATOR = "pending";
+
+  /**
+   * The maximum number of change IDs that are matched by the index predicate, so that the maximum
+   * number of terms of index queries is not exceeded.
+   */
+  private static final int MAX_CHANGE_IDS = 500;
+
+  public static class PendingCodeOwnerOperatorModule extends FactoryModule {
+    @Override
+    protected void configure() {
+      factory(PendingCodeOwnerPredicate.Factory.class);
+      bind(ChangeOperatorFactory.class)
+          .annotatedWith(Exports.named(OPERATOR))
+          .to(PendingCodeOwnerOperator.class);
+    }
+  }
+
+  private final String pluginName;
+  private final AccountResolver accountResolver;
+  private final CodeOwnerStatusIndex codeOwnerStatusIndex;
+  private final PendingCodeOwnerPredicate.Factory pendingCodeOwnerPredicateFactory;
+
+  @Inject
+  PendingCodeOwnerOperator(
+      @PluginName String pluginName,
+      AccountResolver accountResolver,
+      CodeOwnerStatusIndex codeOwnerStatusIndex,
+      PendingCodeOwnerPredicate.Factory pendingCodeOwnerPredicateFactory) {
+    this.pluginName = pluginName;
+    this.accountResolver = accountResolver;
+    this.codeOwnerStatusIndex = codeOwnerStatusIndex;
+    this.pendingCodeOwnerPredicateFactory = pendingCodeOwnerPredicateFactory;
+  }
+
+  @Override
+  public Predicate<ChangeData> create(ChangeQueryBuilder builder, String value)
+      throws QueryParseException {
+    ImmutableList<Account.Id> accountIds;
+    try {
+      accountIds = accountResolver.resolve(value).asIdSet().stream().collect(toImmutableList());
+    } catch (IOException | ConfigInvalidException e) {
+      throw new StorageException(String.format("failed to resolve account %s", value), e);
+    }
+    if (accountIds.isEmpty()) {
+      throw new QueryParseException(String.format("account '%s' not found", value));
+    }
+
+    Optional<ImmutableSet<Change.Id>> changeIds = getChangesWithPendingCodeOwner(accountIds);
+    if (!changeIds.isPresent()) {
+      String operator = OPERATOR + "_" + pluginName;
+      return Predicate.or(
+          accountIds.stream()
+              .map(accountId -> pendingCodeOwnerPredicateFactory.create(operator, accountId))
+              .collect(toImmutableList()));
+    }
+    if (changeIds.get().isEmpty()) {
+      return ChangeIndexPredicate.none();
+    }
+    // The indexed pending code owners of changes that have been closed are only removed once the
+    // status of the change has been reindexed.
+    return Predicate.and(
+        ChangeStatusPredicate.open(),
+        Predicate.or(
+            changeIds.get().stream().map(ChangePredicates::idStr).collect(toImmutableList())));
+  }
+
+  /**
+   * Gets the IDs of the changes that await a code owner approval from any of the given accounts
+   * from the {@link CodeOwnerStatusIndex}.
+   *
+   * @return the change IDs, {@link Optional#empty()} if the pending code owners are not indexed
+   *     yet or if there are too many changes to match them by their IDs
+   */
+  private Optional<ImmutableSet<Change.Id>> getChangesWithPendingCodeOwner(
+      ImmutableList<Account.Id> accountIds) {
+    ImmutableSet.Builder<Change.Id> changeIds = ImmutableSet.builder();
+    for (Account.Id accountId : accountIds) {
+      Optional<ImmutableSet<Change.Id>> changeIdsOfAccount =
+          codeOwnerStatusIndex.getChangesWithPendingCodeOwner(accountId);
+      if (!changeIdsOfAccount.isPresent()) {
+        return Optional.empty();
+      }
+      changeIds.addAll(changeIdsOfAccount.get());
+    }
+    ImmutableSet<Change.Id> result = changeIds.build();
+    if (result.size() > MAX_CHANGE_IDS) {
+      logger.atFine().log(
+          "%d changes await a code owner approval from %s, match them by a post-filter",
+          result.size(), accountIds);
+      return Optional.empty();
+    }
+    return Optional.of(result);
+  }
+}
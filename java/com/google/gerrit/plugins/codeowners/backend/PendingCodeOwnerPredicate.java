@@ -0,0 +1,73 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.server.query.change.ChangeData;
+import com.google.gerrit.server.query.change.ChangeOperatorPredicate;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+
+/**
+ * A predicate that checks if a given account owns at least one file of a change that is not code
+ * owner approved yet, i.e. if the change awaits a code owner approval from the account.
+ *
+ * <p>This predicate is a post-filter that is only used if the {@link PendingCodeOwnerOperator}
+ * cannot be served from the pending code owners in the {@link CodeOwnerStatusIndex}. The pending
+ * code owners of changes are looked up from the {@link PendingCodeOwnersCache}, so that they do not
+ * need to be computed for every change that is matched.
+ */
+class PendingCodeOwnerPredicate extends ChangeOperatorPredicate {
+  interface Factory {
+    PendingCodeOwnerPredicate create(String operator, Account.Id accountId);
+  }
+
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final PendingCodeOwnersCache pendingCodeOwnersCache;
+  private final Account.Id accountId;
+
+  @AssistedInject
+  PendingCodeOwnerPredicate(
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      PendingCodeOwnersCache pendingCodeOwnersCache,
+      @Assisted String operator,
+      @Assisted Account.Id accountId) {
+    super(operator, Integer.toString(accountId.get()));
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.pendingCodeOwnersCache = pendingCodeOwnersCache;
+    this.accountId = accountId;
+  }
+
+  @Override
+  public boolean match(ChangeData changeData) {
+    Change change = changeData.change();
+    if (change.isClosed()
+        || codeOwnersPluginConfiguration
+            .getProjectConfig(change.getProject())
+            .isDisabled(change.getDest().branch())) {
+      return false;
+    }
+    return pendingCodeOwnersCache.get(changeData.notes()).contains(accountId);
+  }
+
+  @Override
+  public int getCost() {
+    // Usually served from the cache, but on a cache miss the code owner statuses of the files in
+    // the change need to be computed.
+    return 5;
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.gerrit.entities.Account;
+
+/**
+ * The accounts that own at least one path of a change that is not code owner approved yet.
+ *
+ * <p>These are the accounts whose code owner approval is still awaited on the change.
+ */
+@AutoValue
+public abstract class PendingCodeOwners {
+  /** The accounts that own at least one path that is not code owner approved yet. */
+  public abstract ImmutableSet<Account.Id> accountIds();
+
+  /** Whether at least one path that is not code owner approved yet is owned by all users. */
+  public abstract boolean ownedByAllUsers();
+
+  /**
+   * Whether the given account owns at least one path that is not code owner approved yet.
+   *
+   * @param accountId the account for which it should be checked
+   */
+  public boolean contains(Account.Id accountId) {
+    requireNonNull(accountId, "accountId");
+    return ownedByAllUsers() || accountIds().contains(accountId);
+  }
+
+  /** Creates a {@link PendingCodeOwners} instance that doesn't contain any account. */
+  public static PendingCodeOwners none() {
+    return builder().build();
+  }
+
+  /** Creates a builder for a {@link PendingCodeOwners} instance. */
+  public static Builder builder() {
+    return new AutoValue_PendingCodeOwners.Builder().setOwnedByAllUsers(false);
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    /** Gets a builder for adding accounts. */
+    abstract ImmutableSet.Builder<Account.Id> accountIdsBuilder();
+
+    /** Sets whether at least one path that is not code owner approved yet is owned by all users. */
+    public abstract Builder setOwnedByAllUsers(boolean ownedByAllUsers);
+
+    /**
+     * Adds the code owners from the given code owner resolver result.
+     *
+     * @param codeOwnerResolverResult the code owner resolver result from which the code owners
+     *     should be added
+     */
+    @CanIgnoreReturnValue
+    public Builder addCodeOwners(CodeOwnerResolverResult codeOwnerResolverResult) {
+      requireNonNull(codeOwnerResolverResult, "codeOwnerResolverResult");
+      if (codeOwnerResolverResult.ownedByAllUsers()) {
+        setOwnedByAllUsers(true);
+      }
+      accountIdsBuilder().addAll(codeOwnerResolverResult.codeOwnersAccountIds());
+      return this;
+    }
+
+    /** Builds the {@link PendingCodeOwners} instance. */
+    public abstract PendingCodeOwners build();
+  }
+}
@@ -0,0 +1,250 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.gerrit.server.project.ProjectCache.illegalState;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshotCache;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Cache for the {@link PendingCodeOwners} of changes.
+ *
+ * <p>The pending code owners of a change are the accounts that own at least one file of the change
+ * that is not code owner approved yet. They are needed to find the changes that await a code owner
+ * approval from a user (see {@link PendingCodeOwnerOperator}), which otherwise would require to
+ * compute the owned paths of the user for every change.
+ *
+ * <p>The pending code owners of a change are computed when the change is indexed (see {@link
+ * CodeOwnerStatusIndex}) and, if the pending code owners cannot be served from the {@link
+ * CodeOwnerStatusIndex}, when the change is matched by a query (see {@link
+ * PendingCodeOwnerPredicate}).
+ *
+ * <p>Entries are keyed by the revision of the change meta ref, the revisions of the {@code
+ * refs/meta/config} branches of the project and its parent projects and the revision of the
+ * destination branch, i.e. an entry becomes stale as soon as the change is updated, the
+ * code-owners configuration of the project is changed or the destination branch is updated (e.g.
+ * because code owner config files in it have been updated). Updates of code owner config files in
+ * other branches and projects that are imported by code owner config files in the destination
+ * branch are not reflected in the key, instead the entries of the affected changes are invalidated
+ * by the {@link CodeOwnerConfigUpdateListener} (see {@link #invalidate(Project.NameKey,
+ * Collection)}). Changes of accounts that are referenced from code owner config files are not
+ * detected, but these are rare and entries expire after some time.
+ *
+ * <p>To not cache pending code owners that were computed from the state before an invalidation,
+ * loads that were started before an invalidation do not populate the cache (see {@link
+ * #generation}).
+ */
+@Singleton
+public class PendingCodeOwnersCache {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String CACHE_NAME = "pending_code_owners";
+
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, PendingCodeOwners.class)
+            .maximumWeight(10000)
+            .expireAfterWrite(Duration.ofHours(1));
+      }
+    };
+  }
+
+  private final Cache<Key, PendingCodeOwners> cache;
+  private final ProjectCache projectCache;
+  private final GitRepositoryManager repoManager;
+  private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
+
+  /**
+   * Incremented on each invalidation. A load only populates the cache if no invalidation happened
+   * since the load was started, since otherwise the loaded value may have been computed from the
+   * state before the invalidation. Guarded by {@code this}.
+   */
+  private long generation;
+
+  @Inject
+  PendingCodeOwnersCache(
+      @Named(CACHE_NAME) Cache<Key, PendingCodeOwners> cache,
+      ProjectCache projectCache,
+      GitRepositoryManager repoManager,
+      CodeOwnerApprovalCheck codeOwnerApprovalCheck) {
+    this.cache = cache;
+    this.projectCache = projectCache;
+    this.repoManager = repoManager;
+    this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
+  }
+
+  /**
+   * Gets the pending code owners of the given change.
+   *
+   * <p>If there is no cache entry for the current state of the change, the pending code owners are
+   * computed and cached.
+   *
+   * @param changeNotes the notes of the change for which the pending code owners should be returned
+   * @return the pending code owners of the given change
+   */
+  public PendingCodeOwners get(ChangeNotes changeNotes) {
+    requireNonNull(changeNotes, "changeNotes");
+    long loadGeneration;
+    synchronized (this) {
+      loadGeneration = generation;
+    }
+    Key key = createKey(changeNotes);
+    PendingCodeOwners pendingCodeOwners = cache.getIfPresent(key);
+    if (pendingCodeOwners != null) {
+      return pendingCodeOwners;
+    }
+
+    logger.atFine().log("pending code owners cache miss for %s", key);
+    try {
+      pendingCodeOwners = codeOwnerApprovalCheck.getPendingCodeOwners(changeNotes);
+    } catch (IOException | DiffNotAvailableException e) {
+      throw new StorageException(
+          String.format(
+              "failed to compute pending code owners of change %d in project %s",
+              changeNotes.getChangeId().get(), changeNotes.getProjectName()),
+          e);
+    }
+
+    synchronized (this) {
+      if (generation == loadGeneration) {
+        cache.put(key, pendingCodeOwners);
+      } else {
+        logger.atFine().log(
+            "pending code owners cache was invalidated while loading %s, don't cache result", key);
+      }
+    }
+    return pendingCodeOwners;
+  }
+
+  /**
+   * Invalidates the cache entries of the given changes.
+   *
+   * <p>Needed if the pending code owners of changes are affected by an update that is not reflected
+   * in the cache key, i.e. an update of code owner config files in other branches or projects that
+   * are imported by code owner config files in the destination branches of the changes.
+   *
+   * <p>Loads that are in progress while the cache entries are invalidated do not populate the
+   * cache.
+   *
+   * @param project the project of the changes
+   * @param changeIds the IDs of the changes for which the cache entries should be invalidated
+   */
+  public void invalidate(Project.NameKey project, Collection<Change.Id> changeIds) {
+    requireNonNull(project, "project");
+    requireNonNull(changeIds, "changeIds");
+    if (changeIds.isEmpty()) {
+      return;
+    }
+    Set<Change.Id> changeIdSet = ImmutableSet.copyOf(changeIds);
+    synchronized (this) {
+      generation++;
+      cache
+          .asMap()
+          .keySet()
+          .removeIf(key -> key.project().equals(project) && changeIdSet.contains(key.changeId()));
+    }
+  }
+
+  private Key createKey(ChangeNotes changeNotes) {
+    Project.NameKey project = changeNotes.getProjectName();
+    ProjectState projectState =
+        projectCache.get(project).orElseThrow(illegalState(project));
+    return Key.create(
+        project,
+        changeNotes.getChangeId(),
+        changeNotes.getMetaId(),
+        CodeOwnersPluginProjectConfigSnapshotCache.getConfigRevisions(projectState),
+        getDestBranchRevision(changeNotes));
+  }
+
+  private Optional<ObjectId> getDestBranchRevision(ChangeNotes changeNotes) {
+    try (Repository repository = repoManager.openRepository(changeNotes.getProjectName())) {
+      Ref ref = repository.exactRef(changeNotes.getChange().getDest().branch());
+      return ref != null ? Optional.of(ref.getObjectId()) : Optional.empty();
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format(
+              "failed to read revision of branch %s in project %s",
+              changeNotes.getChange().getDest().branch(), changeNotes.getProjectName()),
+          e);
+    }
+  }
+
+  /** Key for the {@link PendingCodeOwnersCache}. */
+  @AutoValue
+  abstract static class Key {
+    abstract Project.NameKey project();
+
+    abstract Change.Id changeId();
+
+    /** The revision of the change meta ref. */
+    abstract ObjectId metaRevision();
+
+    /**
+     * The revisions of the {@code refs/meta/config} branches of the project and its parent
+     * projects (see {@link CodeOwnersPluginProjectConfigSnapshotCache#getConfigRevisions}).
+     */
+    abstract ImmutableList<ObjectId> configRevisions();
+
+    /**
+     * The revision of the destination branch, {@link Optional#empty()} if the destination branch
+     * doesn't exist yet.
+     */
+    abstract Optional<ObjectId> destBranchRevision();
+
+    static Key create(
+        Project.NameKey project,
+        Change.Id changeId,
+        ObjectId metaRevision,
+        ImmutableList<ObjectId> configRevisions,
+        Optional<ObjectId> destBranchRevision) {
+      return new AutoValue_PendingCodeOwnersCache_Key(
+          project,
+          changeId,
+          metaRevision.copy(),
+          configRevisions,
+          destBranchRevision.map(ObjectId::copy));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Opens repositories and creates {@link RevWalk}s for reading code owner config files, sharing
+ * them within a scope.
+ *
+ * <p>Computing the code owner statuses of a change loads the code owner config files for all
+ * folders that contain changed files. Without a scope each load opens the repository and creates a
+ * new {@link RevWalk} with a new {@link ObjectReader} (whose caches are cold). Within a scope
+ * (see {@link #open()}) each repository is opened only once and all {@link RevWalk}s that are
+ * created for it share a single {@link ObjectReader}.
+ *
+ * <p>Scopes are bound to the current thread, hence this class can be used by components that don't
+ * know whether they are invoked within a scope. Outside of a scope, repositories are opened and
+ * {@link RevWalk}s are created as usual.
+ *
+ * <p>Callers must close the repositories and {@link RevWalk}s that they get from this class, as if
+ * they had opened/created them themselves.
+ */
+@Singleton
+public class RepositoryContext {
+  private static final ThreadLocalScope<Scope> currentScope = new ThreadLocalScope<>(Scope.NOOP);
+
+  private final GitRepositoryManager repoManager;
+
+  @Inject
+  RepositoryContext(GitRepositoryManager repoManager) {
+    this.repoManager = repoManager;
+  }
+
+  /**
+   * Opens a scope in which repositories and object readers are shared.
+   *
+   * <p>If a scope is already open for the current thread, the returned scope is a no-op and the
+   * repositories and object readers of the outer scope are shared.
+   *
+   * @return the scope, must be closed to release the shared repositories and object readers
+   */
+  public Scope open() {
+    return currentScope.open(() -> new Scope(repoManager));
+  }
+
+  /**
+   * Opens the repository of the given project.
+   *
+   * <p>Within a scope the repository that was opened for the scope is returned.
+   *
+   * @param project the project for which the repository should be opened
+   * @return the repository, must be closed by the caller
+   */
+  public Repository openRepository(Project.NameKey project) throws IOException {
+    requireNonNull(project, "project");
+    Scope scope = currentScope.current();
+    if (scope == null) {
+      return repoManager.openRepository(project);
+    }
+    return scope.openRepository(project);
+  }
+
+  /**
+   * Creates a {@link RevWalk} for the given repository.
+   *
+   * <p>Within a scope the returned {@link RevWalk} uses the object reader that is shared for the
+   * repository, if the repository was opened via {@link #openRepository(Project.NameKey)}.
+   *
+   * @param repository the repository for which a {@link RevWalk} should be created
+   * @return the {@link RevWalk}, must be closed by the caller
+   */
+  public RevWalk newRevWalk(Repository repository) {
+    requireNonNull(repository, "repository");
+    Scope scope = currentScope.current();
+    if (scope == null) {
+      return new RevWalk(repository);
+    }
+    ObjectReader objectReader = scope.getObjectReader(repository);
+    // A RevWalk that is created for an object reader doesn't close the object reader when it is
+    // closed, the object reader is closed when the scope is closed.
+    return objectReader != null ? new RevWalk(objectReader) : new RevWalk(repository);
+  }
+
+  /**
+   * Scope in which repositories and object readers are shared.
+   *
+   * <p><strong>Note</strong>: This class is not thread-safe, it must only be used by the thread
+   * that opened it.
+   */
+  public static class Scope implements AutoCloseable {
+    private static final Scope NOOP = new Scope(/* repoManager= */ null);
+
+    @Nullable private final GitRepositoryManager repoManager;
+    private final Map<Project.NameKey, Repository> repositories = new HashMap<>();
+    private final Map<Repository, ObjectReader> objectReaders = new IdentityHashMap<>();
+
+    private Scope(@Nullable GitRepositoryManager repoManager) {
+      this.repoManager = repoManager;
+    }
+
+    private Repository openRepository(Project.NameKey project) throws IOException {
+      Repository repository = repositories.get(project);
+      if (repository == null) {
+        repository = repoManager.openRepository(project);
+        repositories.put(project, repository);
+      }
+
+      // The scope keeps its own reference to the repository, the caller closes the reference that
+      // is returned here.
+      repository.incrementOpen();
+      return repository;
+    }
+
+    @Nullable
+    private ObjectReader getObjectReader(Repository repository) {
+      if (!repositories.containsValue(repository)) {
+        // The repository was not opened via the scope.
+        return null;
+      }
+      return objectReaders.computeIfAbsent(repository, Repository::newObjectReader);
+    }
+
+    @Override
+    public void close() {
+      if (!currentScope.close(this)) {
+        return;
+      }
+
+      objectReaders.values().forEach(ObjectReader::close);
+      objectReaders.clear();
+
+      repositories.values().forEach(Repository::close);
+      repositories.clear();
+    }
+  }
+}
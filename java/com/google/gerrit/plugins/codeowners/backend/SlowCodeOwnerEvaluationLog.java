@@ -0,0 +1,68 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import com.google.gerrit.extensions.systemstatus.ServerInformation;
+import com.google.gerrit.json.OutputFormat;
+import com.google.gerrit.lifecycle.LifecycleModule;
+import com.google.gerrit.server.util.PluginLogFile;
+import com.google.gerrit.server.util.SystemLog;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.log4j.PatternLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log file to which code owner evaluations are written that took longer than the configured
+ * threshold ({@code plugin.code-owners.slowEvaluationThreshold}).
+ *
+ * <p>Each entry is a JSON object on a single line that contains the breakdown of the evaluation
+ * (see {@link CodeOwnerEvaluationTrace}). The log file is rotated daily, like the other Gerrit log
+ * files.
+ *
+ * <p>The log file is only created by the plugin module. In batch programs (e.g. offline reindexing)
+ * slow evaluations are written to the default log.
+ */
+@Singleton
+public class SlowCodeOwnerEvaluationLog extends PluginLogFile {
+  public static final String LOG_NAME = "code_owners_slow_evaluation_log";
+
+  private static final Logger log = LoggerFactory.getLogger(LOG_NAME);
+  private static final Gson gson = OutputFormat.JSON_COMPACT.newGson();
+
+  public static class SlowCodeOwnerEvaluationLogModule extends LifecycleModule {
+    @Override
+    protected void configure() {
+      listener().to(SlowCodeOwnerEvaluationLog.class);
+    }
+  }
+
+  @Inject
+  SlowCodeOwnerEvaluationLog(SystemLog systemLog, ServerInformation serverInfo) {
+    super(systemLog, serverInfo, LOG_NAME, new PatternLayout("[%d{ISO8601}] %m%n"));
+  }
+
+  /**
+   * Writes an entry for a slow code owner evaluation.
+   *
+   * @param entry the breakdown of the slow evaluation
+   */
+  static void log(JsonObject entry) {
+    log.info(gson.toJson(entry));
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.gerrit.common.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Holds the scope that is open for the current thread.
+ *
+ * <p>Used by components that make per-evaluation state available to the code that runs within an
+ * evaluation, without passing the state through all method signatures (see {@link
+ * RepositoryContext}, {@link CodeOwnerEvaluationBudget}, {@link CodeOwnerEvaluationTrace} and
+ * {@link CodeOwnerAccountDependencies}).
+ *
+ * <p>Scopes don't nest: If a scope is opened while another scope is open for the current thread, a
+ * no-op scope is returned and the outer scope stays the current scope until it is closed.
+ *
+ * @param <S> the type of the scope
+ */
+class ThreadLocalScope<S> {
+  private final ThreadLocal<S> currentScope = new ThreadLocal<>();
+  private final S noopScope;
+
+  /**
+   * @param noopScope the scope that is returned if a scope is opened while another scope is open
+   *     for the current thread, must not have any effect when it is closed
+   */
+  ThreadLocalScope(S noopScope) {
+    this.noopScope = requireNonNull(noopScope, "noopScope");
+  }
+
+  /**
+   * Opens a scope for the current thread.
+   *
+   * @param scopeFactory creates the scope, only invoked if no scope is open for the current thread
+   * @return the opened scope, or the no-op scope if a scope is already open for the current thread
+   */
+  S open(Supplier<S> scopeFactory) {
+    if (currentScope.get() != null) {
+      return noopScope;
+    }
+    S scope = requireNonNull(scopeFactory.get(), "scope");
+    if (scope != noopScope) {
+      currentScope.set(scope);
+    }
+    return scope;
+  }
+
+  /** Returns the scope that is open for the current thread, {@code null} if there is none. */
+  @Nullable
+  S current() {
+    return currentScope.get();
+  }
+
+  /**
+   * Closes the given scope, i.e. it is no longer the scope of the current thread.
+   *
+   * <p>Must be invoked when a scope that was returned by {@link #open(Supplier)} is closed.
+   *
+   * @param scope the scope that is closed
+   * @return whether the scope was the scope of the current thread and resources that are held by
+   *     the scope must be released, {@code false} for the no-op scope
+   */
+  boolean close(S scope) {
+    if (scope == noopScope) {
+      return false;
+    }
+    currentScope.remove();
+    return true;
+  }
+}
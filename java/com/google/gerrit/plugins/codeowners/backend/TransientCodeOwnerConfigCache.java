@@ -21,7 +21,6 @@ import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.exceptions.StorageException;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
-import com.google.gerrit.server.git.GitRepositoryManager;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.util.HashMap;
@@ -42,7 +41,9 @@ import org.eclipse.jgit.lib.Repository;
 public class TransientCodeOwnerConfigCache implements CodeOwnerConfigLoader {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-  private final GitRepositoryManager repoManager;
+  private final RepositoryContext repositoryContext;
+  private final CodeOwnerEvaluationBudget evaluationBudget;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final CodeOwners codeOwners;
   private final Optional<Integer> maxCacheSize;
   private final Counters counters;
@@ -51,10 +52,14 @@ public class TransientCodeOwnerConfigCache implements CodeOwnerConfigLoader {
   @Inject
   TransientCodeOwnerConfigCache(
       CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
-      GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
+      CodeOwnerEvaluationBudget evaluationBudget,
+      CodeOwnerEvaluationTrace evaluationTrace,
       CodeOwners codeOwners,
       CodeOwnerMetrics codeOwnerMetrics) {
-    this.repoManager = repoManager;
+    this.repositoryContext = repositoryContext;
+    this.evaluationBudget = evaluationBudget;
+    this.evaluationTrace = evaluationTrace;
     this.codeOwners = codeOwners;
     this.maxCacheSize =
         codeOwnersPluginConfiguration.getGlobalConfig().getMaxCodeOwnerConfigCacheSize();
@@ -72,6 +77,7 @@ public class TransientCodeOwnerConfigCache implements CodeOwnerConfigLoader {
     Optional<CodeOwnerConfig> cachedCodeOwnerConfig = cache.get(cacheKey);
     if (cachedCodeOwnerConfig != null) {
       counters.incrementCacheReads();
+      evaluationTrace.recordCodeOwnerConfigCacheHit();
       return cachedCodeOwnerConfig;
     }
     return loadAndCache(cacheKey);
@@ -88,6 +94,8 @@ public class TransientCodeOwnerConfigCache implements CodeOwnerConfigLoader {
 
   /** Load a code owner config and puts it into the cache. */
   private Optional<CodeOwnerConfig> loadAndCache(CacheKey cacheKey) {
+    evaluationBudget.chargeCodeOwnerConfigRead();
+    evaluationTrace.recordCodeOwnerConfigCacheMiss();
     counters.incrementBackendReads();
     Optional<CodeOwnerConfig> codeOwnerConfig;
     if (cacheKey.revision().isPresent()) {
@@ -117,7 +125,7 @@ public class TransientCodeOwnerConfigCache implements CodeOwnerConfigLoader {
    * <p>Returns {@link Optional#empty()} if the branch doesn't exist.
    */
   private Optional<ObjectId> getRevision(BranchNameKey branchNameKey) {
-    try (Repository repo = repoManager.openRepository(branchNameKey.project())) {
+    try (Repository repo = repositoryContext.openRepository(branchNameKey.project())) {
       Ref ref = repo.exactRef(branchNameKey.branch());
       if (ref == null) {
         // branch does not exist
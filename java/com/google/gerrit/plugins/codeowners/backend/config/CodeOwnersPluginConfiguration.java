@@ -42,16 +42,15 @@ public class CodeOwnersPluginConfiguration {
 
   private final CodeOwnersPluginGlobalConfigSnapshot.Factory
       codeOwnersPluginGlobalConfigSnapshotFactory;
-  private final CodeOwnersPluginProjectConfigSnapshot.Factory
-      codeOwnersPluginProjectConfigSnapshotFactory;
+  private final CodeOwnersPluginProjectConfigSnapshotCache
+      codeOwnersPluginProjectConfigSnapshotCache;
 
   @Inject
   CodeOwnersPluginConfiguration(
       CodeOwnersPluginGlobalConfigSnapshot.Factory codeOwnersPluginGlobalConfigSnapshotFactory,
-      CodeOwnersPluginProjectConfigSnapshot.Factory codeOwnersPluginProjectConfigSnapshotFactory) {
+      CodeOwnersPluginProjectConfigSnapshotCache codeOwnersPluginProjectConfigSnapshotCache) {
     this.codeOwnersPluginGlobalConfigSnapshotFactory = codeOwnersPluginGlobalConfigSnapshotFactory;
-    this.codeOwnersPluginProjectConfigSnapshotFactory =
-        codeOwnersPluginProjectConfigSnapshotFactory;
+    this.codeOwnersPluginProjectConfigSnapshotCache = codeOwnersPluginProjectConfigSnapshotCache;
   }
 
   /** Returns the global code-owner plugin configuration. */
@@ -65,6 +64,10 @@ public class CodeOwnersPluginConfiguration {
   /**
    * Returns the code-owner plugin configuration for the given project.
    *
+   * <p>Snapshots are cached server-wide by the {@code refs/meta/config} revisions of the project
+   * and its parent projects (see {@link CodeOwnersPluginProjectConfigSnapshotCache}). Within a
+   * request the same snapshot is returned, even if the configuration is changed concurrently.
+   *
    * <p>Callers must ensure that the project of the specified branch exists. If the project doesn't
    * exist the call fails with {@link IllegalStateException}.
    */
@@ -73,6 +76,6 @@ public class CodeOwnersPluginConfiguration {
     return PerThreadProjectCache.getOrCompute(
         PerThreadCache.Key.create(
             Project.NameKey.class, projectName, "CodeOwnersPluginConfiguration"),
-        () -> codeOwnersPluginProjectConfigSnapshotFactory.create(projectName));
+        () -> codeOwnersPluginProjectConfigSnapshotCache.get(projectName));
   }
 }
@@ -20,9 +20,12 @@ import com.google.common.flogger.FluentLogger;
 import com.google.gerrit.common.Nullable;
 import com.google.gerrit.extensions.annotations.PluginName;
 import com.google.gerrit.extensions.restapi.MethodNotAllowedException;
+import com.google.gerrit.server.config.ConfigUtil;
 import com.google.gerrit.server.config.PluginConfigFactory;
 import com.google.inject.Inject;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /** Snapshot of the global code-owners plugin configuration. */
 public class CodeOwnersPluginGlobalConfigSnapshot {
@@ -33,9 +36,31 @@ public class CodeOwnersPluginGlobalConfigSnapshot {
 
   @VisibleForTesting static final int DEFAULT_MAX_CODE_OWNER_CONFIG_CACHE_SIZE = 10000;
   @VisibleForTesting static final int DEFAULT_MAX_CODE_OWNER_CACHE_SIZE = 10000;
+  @VisibleForTesting static final int DEFAULT_MAX_CHANGE_REINDEXES_PER_SECOND = 10;
+  @VisibleForTesting static final int DEFAULT_ASYNC_MESSAGE_THREADS = 1;
+  @VisibleForTesting static final int DEFAULT_EXPORT_THREADS = 1;
+  @VisibleForTesting static final int DEFAULT_IMPACT_REPORT_THREADS = 1;
+  @VisibleForTesting static final int DEFAULT_MAX_CHECKS_PER_BATCH_CHECK = 10000;
+  @VisibleForTesting static final int DEFAULT_MAX_TRACKED_LARGE_BRANCHES = 10;
+
+  @VisibleForTesting
+  static final Duration DEFAULT_ASYNC_MESSAGE_COALESCING_WINDOW = Duration.ofMillis(250);
 
   private static final String KEY_MAX_CODE_OWNER_CONFIG_CACHE_SIZE = "maxCodeOwnerConfigCacheSize";
   private static final String KEY_MAX_CODE_OWNER_CACHE_SIZE = "maxCodeOwnerCacheSize";
+  private static final String KEY_MAX_CHANGE_REINDEXES_PER_SECOND = "maxChangeReindexesPerSecond";
+  private static final String KEY_MAX_EVALUATION_TIME = "maxEvaluationTime";
+  private static final String KEY_MAX_FILES_PER_EVALUATION = "maxFilesPerEvaluation";
+  private static final String KEY_MAX_CODE_OWNER_CONFIG_READS_PER_EVALUATION =
+      "maxCodeOwnerConfigReadsPerEvaluation";
+  private static final String KEY_MAX_IMPORTS_PER_EVALUATION = "maxImportsPerEvaluation";
+  private static final String KEY_ASYNC_MESSAGE_THREADS = "asyncMessageThreads";
+  private static final String KEY_ASYNC_MESSAGE_COALESCING_WINDOW = "asyncMessageCoalescingWindow";
+  private static final String KEY_EXPORT_THREADS = "exportThreads";
+  private static final String KEY_MAX_IMPACT_REPORT_CHANGES = "maxImpactReportChanges";
+  private static final String KEY_IMPACT_REPORT_THREADS = "impactReportThreads";
+  private static final String KEY_MAX_CHECKS_PER_BATCH_CHECK = "maxChecksPerBatchCheck";
+  private static final String KEY_MAX_TRACKED_LARGE_BRANCHES = "maxTrackedLargeBranches";
 
   public interface Factory {
     CodeOwnersPluginGlobalConfigSnapshot create();
@@ -48,6 +73,19 @@ public class CodeOwnersPluginGlobalConfigSnapshot {
   @Nullable private ImmutableSet<String> allowedEmailDomains;
   @Nullable private Boolean enabledExperimentalRestEndpoints;
   @Nullable private Optional<Integer> maxCodeOwnerConfigCacheSize;
+  @Nullable private Optional<Integer> maxChangeReindexesPerSecond;
+  @Nullable private Optional<Duration> maxEvaluationTime;
+  @Nullable private Optional<Integer> maxFilesPerEvaluation;
+  @Nullable private Optional<Integer> maxCodeOwnerConfigReadsPerEvaluation;
+  @Nullable private Optional<Integer> maxImportsPerEvaluation;
+  @Nullable private Integer asyncMessageThreads;
+  @Nullable private Duration asyncMessageCoalescingWindow;
+  @Nullable private Integer exportThreads;
+  @Nullable private Optional<Integer> maxImpactReportChanges;
+  @Nullable private Integer impactReportThreads;
+  @Nullable private Optional<Integer> maxChecksPerBatchCheck;
+  @Nullable private Integer maxTrackedLargeBranches;
+  @Nullable private Optional<Duration> slowEvaluationThreshold;
 
   @Inject
   CodeOwnersPluginGlobalConfigSnapshot(
@@ -73,6 +111,20 @@ public class CodeOwnersPluginGlobalConfigSnapshot {
     return allowedEmailDomains;
   }
 
+  /**
+   * Returns the threshold above which code owner evaluations are written to the slow evaluation
+   * log.
+   *
+   * @return the threshold above which code owner evaluations are written to the slow evaluation
+   *     log, {@link Optional#empty()} if slow evaluations should not be logged
+   */
+  public Optional<Duration> getSlowEvaluationThreshold() {
+    if (slowEvaluationThreshold == null) {
+      slowEvaluationThreshold = generalConfig.getSlowEvaluationThreshold();
+    }
+    return slowEvaluationThreshold;
+  }
+
   /**
    * Checks whether experimental REST endpoints are enabled.
    *
@@ -118,7 +170,7 @@ public class CodeOwnersPluginGlobalConfigSnapshot {
   public Optional<Integer> getMaxCodeOwnerConfigCacheSize() {
     if (maxCodeOwnerConfigCacheSize == null) {
       maxCodeOwnerConfigCacheSize =
-          readMaxCacheSize(
+          readLimit(
               KEY_MAX_CODE_OWNER_CONFIG_CACHE_SIZE, DEFAULT_MAX_CODE_OWNER_CONFIG_CACHE_SIZE);
     }
     return maxCodeOwnerConfigCacheSize;
@@ -133,23 +185,236 @@ public class CodeOwnersPluginGlobalConfigSnapshot {
   public Optional<Integer> getMaxCodeOwnerCacheSize() {
     if (maxCodeOwnerConfigCacheSize == null) {
       maxCodeOwnerConfigCacheSize =
-          readMaxCacheSize(KEY_MAX_CODE_OWNER_CACHE_SIZE, DEFAULT_MAX_CODE_OWNER_CACHE_SIZE);
+          readLimit(KEY_MAX_CODE_OWNER_CACHE_SIZE, DEFAULT_MAX_CODE_OWNER_CACHE_SIZE);
     }
     return maxCodeOwnerConfigCacheSize;
   }
 
-  private Optional<Integer> readMaxCacheSize(String key, int defaultCacheSize) {
+  /**
+   * Gets the maximum number of changes that should be reindexed per second when open changes are
+   * reindexed because code owner config files that are relevant to them have been updated.
+   *
+   * @return the maximum number of changes that should be reindexed per second, {@link
+   *     Optional#empty()} if changes should not be reindexed when code owner config files are
+   *     updated
+   */
+  public Optional<Integer> getMaxChangeReindexesPerSecond() {
+    if (maxChangeReindexesPerSecond == null) {
+      maxChangeReindexesPerSecond =
+          readLimit(
+              KEY_MAX_CHANGE_REINDEXES_PER_SECOND, DEFAULT_MAX_CHANGE_REINDEXES_PER_SECOND);
+    }
+    return maxChangeReindexesPerSecond;
+  }
+
+  /**
+   * Gets the maximum time that a single code owner evaluation of a change (e.g. computing whether
+   * the change is submittable or computing the code owner statuses of the changed files) may take.
+   *
+   * @return the maximum evaluation time, {@link Optional#empty()} if the evaluation time is not
+   *     limited
+   */
+  public Optional<Duration> getMaxEvaluationTime() {
+    if (maxEvaluationTime == null) {
+      maxEvaluationTime = readMaxEvaluationTime();
+    }
+    return maxEvaluationTime;
+  }
+
+  private Optional<Duration> readMaxEvaluationTime() {
+    String value =
+        pluginConfigFactory.getFromGerritConfig(pluginName).getString(KEY_MAX_EVALUATION_TIME);
     try {
-      int maxCodeOwnerConfigCacheSize =
-          pluginConfigFactory.getFromGerritConfig(pluginName).getInt(key, defaultCacheSize);
-      return maxCodeOwnerConfigCacheSize > 0
-          ? Optional.of(maxCodeOwnerConfigCacheSize)
+      long maxEvaluationTimeMillis =
+          ConfigUtil.getTimeUnit(value, /* defaultValue= */ 0, TimeUnit.MILLISECONDS);
+      return maxEvaluationTimeMillis > 0
+          ? Optional.of(Duration.ofMillis(maxEvaluationTimeMillis))
           : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      logger.atWarning().withCause(e).log(
+          "Value '%s' in gerrit.config (parameter plugin.%s.%s) is invalid.",
+          value, pluginName, KEY_MAX_EVALUATION_TIME);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Gets the maximum number of changed files for which the code owner status may be computed in a
+   * single code owner evaluation of a change.
+   *
+   * @return the maximum number of files per evaluation, {@link Optional#empty()} if the number of
+   *     files is not limited
+   */
+  public Optional<Integer> getMaxFilesPerEvaluation() {
+    if (maxFilesPerEvaluation == null) {
+      maxFilesPerEvaluation = readLimit(KEY_MAX_FILES_PER_EVALUATION, /* defaultLimit= */ 0);
+    }
+    return maxFilesPerEvaluation;
+  }
+
+  /**
+   * Gets the maximum number of code owner config files that may be read from the backend in a
+   * single code owner evaluation of a change.
+   *
+   * @return the maximum number of code owner config reads per evaluation, {@link Optional#empty()}
+   *     if the number of code owner config reads is not limited
+   */
+  public Optional<Integer> getMaxCodeOwnerConfigReadsPerEvaluation() {
+    if (maxCodeOwnerConfigReadsPerEvaluation == null) {
+      maxCodeOwnerConfigReadsPerEvaluation =
+          readLimit(KEY_MAX_CODE_OWNER_CONFIG_READS_PER_EVALUATION, /* defaultLimit= */ 0);
+    }
+    return maxCodeOwnerConfigReadsPerEvaluation;
+  }
+
+  /**
+   * Gets the maximum number of code owner config imports that may be resolved in a single code
+   * owner evaluation of a change.
+   *
+   * @return the maximum number of imports per evaluation, {@link Optional#empty()} if the number of
+   *     imports is not limited
+   */
+  public Optional<Integer> getMaxImportsPerEvaluation() {
+    if (maxImportsPerEvaluation == null) {
+      maxImportsPerEvaluation = readLimit(KEY_MAX_IMPORTS_PER_EVALUATION, /* defaultLimit= */ 0);
+    }
+    return maxImportsPerEvaluation;
+  }
+
+  /**
+   * Gets the number of threads that post the change messages that are added asynchronously (e.g.
+   * when a code owner is added as a reviewer).
+   *
+   * @return the number of threads that post asynchronous change messages
+   */
+  public int getAsyncMessageThreads() {
+    if (asyncMessageThreads == null) {
+      asyncMessageThreads =
+          readLimit(KEY_ASYNC_MESSAGE_THREADS, DEFAULT_ASYNC_MESSAGE_THREADS)
+              .orElse(DEFAULT_ASYNC_MESSAGE_THREADS);
+    }
+    return asyncMessageThreads;
+  }
+
+  /**
+   * Gets the time for which asynchronous change messages are held back, so that further change
+   * messages for the same change, user and kind can be coalesced with them.
+   *
+   * @return the coalescing window for asynchronous change messages, {@link Duration#ZERO} if
+   *     asynchronous change messages should not be held back
+   */
+  public Duration getAsyncMessageCoalescingWindow() {
+    if (asyncMessageCoalescingWindow == null) {
+      asyncMessageCoalescingWindow = readAsyncMessageCoalescingWindow();
+    }
+    return asyncMessageCoalescingWindow;
+  }
+
+  /**
+   * Gets the number of threads that are used to export the code ownership of a branch.
+   *
+   * <p>The top-level folders of the branch are exported in parallel.
+   *
+   * @return the number of threads that are used to export the code ownership of a branch
+   */
+  public int getExportThreads() {
+    if (exportThreads == null) {
+      exportThreads =
+          readLimit(KEY_EXPORT_THREADS, DEFAULT_EXPORT_THREADS).orElse(DEFAULT_EXPORT_THREADS);
+    }
+    return exportThreads;
+  }
+
+  /**
+   * Gets the maximum number of open changes that are re-evaluated to report the impact of code
+   * owner config file modifications in a change.
+   *
+   * @return the maximum number of open changes that are re-evaluated, {@link Optional#empty()} if
+   *     no impact report should be created
+   */
+  public Optional<Integer> getMaxImpactReportChanges() {
+    if (maxImpactReportChanges == null) {
+      maxImpactReportChanges = readLimit(KEY_MAX_IMPACT_REPORT_CHANGES, /* defaultLimit= */ 0);
+    }
+    return maxImpactReportChanges;
+  }
+
+  /**
+   * Gets the number of threads that compute the reports about the impact of code owner config file
+   * modifications in changes.
+   *
+   * @return the number of threads that compute impact reports
+   */
+  public int getImpactReportThreads() {
+    if (impactReportThreads == null) {
+      impactReportThreads =
+          readLimit(KEY_IMPACT_REPORT_THREADS, DEFAULT_IMPACT_REPORT_THREADS)
+              .orElse(DEFAULT_IMPACT_REPORT_THREADS);
+    }
+    return impactReportThreads;
+  }
+
+  /**
+   * Gets the maximum number of checks that can be requested by a single batch check request.
+   *
+   * <p>The number of checks is the number of paths multiplied with the number of emails.
+   *
+   * @return the maximum number of checks that can be requested by a single batch check request,
+   *     {@link Optional#empty()} if there is no limit
+   */
+  public Optional<Integer> getMaxChecksPerBatchCheck() {
+    if (maxChecksPerBatchCheck == null) {
+      maxChecksPerBatchCheck =
+          readLimit(KEY_MAX_CHECKS_PER_BATCH_CHECK, DEFAULT_MAX_CHECKS_PER_BATCH_CHECK);
+    }
+    return maxChecksPerBatchCheck;
+  }
+
+  /**
+   * Gets the maximum number of large branches for which the code owner coverage is kept up to
+   * date.
+   *
+   * <p>The coverage of large branches is not stored in the {@code code_owner_coverage} cache, so
+   * that a few large branches cannot evict the coverage of all other branches from it.
+   *
+   * @return the maximum number of large branches for which the code owner coverage is kept up to
+   *     date, {@code 0} if the coverage of large branches should not be kept
+   */
+  public int getMaxTrackedLargeBranches() {
+    if (maxTrackedLargeBranches == null) {
+      maxTrackedLargeBranches =
+          readLimit(KEY_MAX_TRACKED_LARGE_BRANCHES, DEFAULT_MAX_TRACKED_LARGE_BRANCHES).orElse(0);
+    }
+    return maxTrackedLargeBranches;
+  }
+
+  private Duration readAsyncMessageCoalescingWindow() {
+    String value =
+        pluginConfigFactory
+            .getFromGerritConfig(pluginName)
+            .getString(KEY_ASYNC_MESSAGE_COALESCING_WINDOW);
+    try {
+      long coalescingWindowMillis =
+          ConfigUtil.getTimeUnit(
+              value, DEFAULT_ASYNC_MESSAGE_COALESCING_WINDOW.toMillis(), TimeUnit.MILLISECONDS);
+      return Duration.ofMillis(Math.max(0, coalescingWindowMillis));
+    } catch (IllegalArgumentException e) {
+      logger.atWarning().withCause(e).log(
+          "Value '%s' in gerrit.config (parameter plugin.%s.%s) is invalid.",
+          value, pluginName, KEY_ASYNC_MESSAGE_COALESCING_WINDOW);
+      return DEFAULT_ASYNC_MESSAGE_COALESCING_WINDOW;
+    }
+  }
+
+  private Optional<Integer> readLimit(String key, int defaultLimit) {
+    try {
+      int limit = pluginConfigFactory.getFromGerritConfig(pluginName).getInt(key, defaultLimit);
+      return limit > 0 ? Optional.of(limit) : Optional.empty();
     } catch (IllegalArgumentException e) {
       logger.atWarning().withCause(e).log(
           "Value '%s' in gerrit.config (parameter plugin.%s.%s) is invalid.",
           pluginConfigFactory.getFromGerritConfig(pluginName).getString(key), pluginName, key);
-      return Optional.of(defaultCacheSize);
+      return defaultLimit > 0 ? Optional.of(defaultLimit) : Optional.empty();
     }
   }
 }
@@ -29,6 +29,7 @@ import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.entities.LabelType;
 import com.google.gerrit.entities.Project;
 import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerBackend;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerReference;
 import com.google.gerrit.plugins.codeowners.backend.EnableImplicitApprovals;
@@ -37,6 +38,7 @@ import com.google.gerrit.plugins.codeowners.backend.PathExpressions;
 import com.google.gerrit.plugins.codeowners.common.CodeOwnerConfigValidationPolicy;
 import com.google.gerrit.plugins.codeowners.common.MergeCommitStrategy;
 import com.google.gerrit.server.account.Emails;
+import com.google.gerrit.server.cache.PerThreadCache;
 import com.google.gerrit.server.project.ProjectCache;
 import com.google.gerrit.server.project.ProjectState;
 import com.google.inject.Inject;
@@ -46,9 +48,16 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.jgit.lib.Config;
 
-/** Snapshot of the project-specific code-owners plugin configuration. */
+/**
+ * Snapshot of the project-specific code-owners plugin configuration.
+ *
+ * <p>Snapshots are immutable and thread-safe. They are cached server-wide by {@link
+ * CodeOwnersPluginProjectConfigSnapshotCache}, keyed by the {@code refs/meta/config} revisions of
+ * the project and its parent projects.
+ */
 public class CodeOwnersPluginProjectConfigSnapshot {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
@@ -63,42 +72,47 @@ public class CodeOwnersPluginProjectConfigSnapshot {
   private final OverrideApprovalConfig overrideApprovalConfig;
   private final RequiredApprovalConfig requiredApprovalConfig;
   private final StatusConfig statusConfig;
+  private final CodeOwnerAccountDependencies accountDependencies;
   private final Project.NameKey projectName;
   private final Config pluginConfig;
 
-  @Nullable private Optional<String> fileExtension;
-  @Nullable private Boolean enableCodeOwnerConfigFilesWithFileExtensions;
-  @Nullable private Boolean codeOwnerConfigsReadOnly;
-  @Nullable private Boolean exemptPureReverts;
-  @Nullable private Boolean rejectNonResolvableCodeOwners;
-  @Nullable private Boolean rejectNonResolvableImports;
-
-  @Nullable
-  private CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicyForBranchCreation;
-
-  @Nullable
-  private CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicyForCommitReceived;
-
-  @Nullable private CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicyForSubmit;
-  @Nullable private MergeCommitStrategy mergeCommitStrategy;
-  @Nullable private FallbackCodeOwners fallbackCodeOwners;
-  @Nullable private Integer maxPathsInChangeMessages;
-  @Nullable private Boolean enableAsyncMessageOnAddReviewer;
-  @Nullable private Boolean enableAsyncMessageOnCodeOwnerApproval;
-  @Nullable private ImmutableSet<CodeOwnerReference> globalCodeOwners;
-  @Nullable private ImmutableSet<Account.Id> exemptedAccounts;
-  @Nullable private Optional<String> overrideInfoUrl;
-  @Nullable private Optional<String> invalidCodeOwnerConfigInfoUrl;
-  private Map<String, Boolean> disabledByBranch = new HashMap<>();
-  @Nullable private Boolean isDisabled;
-  private Map<String, CodeOwnerBackend> backendByBranch = new HashMap<>();
-  @Nullable private CodeOwnerBackend backend;
-  private Map<String, Optional<PathExpressions>> pathExpressionsByBranch = new HashMap<>();
-  @Nullable private Optional<PathExpressions> pathExpressions;
-  @Nullable private Boolean implicitApprovalsEnabled;
-  @Nullable private Boolean stickyApprovalsEnabled;
-  @Nullable private RequiredApproval requiredApproval;
-  @Nullable private ImmutableSortedSet<RequiredApproval> overrideApprovals;
+  // The snapshot is cached server-wide (see CodeOwnersPluginProjectConfigSnapshotCache) and hence
+  // may be accessed by multiple threads concurrently. All values are computed lazily from the
+  // plugin config that is never modified, hence computing a value twice is harmless.
+  @Nullable private volatile Optional<String> fileExtension;
+  @Nullable private volatile Boolean enableCodeOwnerConfigFilesWithFileExtensions;
+  @Nullable private volatile Boolean codeOwnerConfigsReadOnly;
+  @Nullable private volatile Boolean exemptPureReverts;
+  private final Map<String, Boolean> rejectNonResolvableCodeOwnersByBranch =
+      new ConcurrentHashMap<>();
+  private final Map<String, Boolean> rejectNonResolvableImportsByBranch =
+      new ConcurrentHashMap<>();
+  private final Map<String, CodeOwnerConfigValidationPolicy>
+      codeOwnerConfigValidationPolicyForBranchCreationByBranch = new ConcurrentHashMap<>();
+  private final Map<String, CodeOwnerConfigValidationPolicy>
+      codeOwnerConfigValidationPolicyForCommitReceivedByBranch = new ConcurrentHashMap<>();
+  private final Map<String, CodeOwnerConfigValidationPolicy>
+      codeOwnerConfigValidationPolicyForSubmitByBranch = new ConcurrentHashMap<>();
+  @Nullable private volatile MergeCommitStrategy mergeCommitStrategy;
+  @Nullable private volatile FallbackCodeOwners fallbackCodeOwners;
+  @Nullable private volatile Integer maxPathsInChangeMessages;
+  @Nullable private volatile Boolean enableAsyncMessageOnAddReviewer;
+  @Nullable private volatile Boolean enableAsyncMessageOnCodeOwnerApproval;
+  @Nullable private volatile ImmutableSet<CodeOwnerReference> globalCodeOwners;
+  @Nullable private volatile ImmutableSet<String> exemptedUsers;
+  @Nullable private volatile Optional<String> overrideInfoUrl;
+  @Nullable private volatile Optional<String> invalidCodeOwnerConfigInfoUrl;
+  private final Map<String, Boolean> disabledByBranch = new ConcurrentHashMap<>();
+  @Nullable private volatile Boolean isDisabled;
+  private final Map<String, CodeOwnerBackend> backendByBranch = new ConcurrentHashMap<>();
+  @Nullable private volatile CodeOwnerBackend backend;
+  private final Map<String, Optional<PathExpressions>> pathExpressionsByBranch =
+      new ConcurrentHashMap<>();
+  @Nullable private volatile Optional<PathExpressions> pathExpressions;
+  @Nullable private volatile Boolean implicitApprovalsEnabled;
+  @Nullable private volatile Boolean stickyApprovalsEnabled;
+  @Nullable private volatile RequiredApproval requiredApproval;
+  @Nullable private volatile ImmutableSortedSet<RequiredApproval> overrideApprovals;
 
   @Inject
   CodeOwnersPluginProjectConfigSnapshot(
@@ -110,6 +124,7 @@ public class CodeOwnersPluginProjectConfigSnapshot {
       OverrideApprovalConfig overrideApprovalConfig,
       RequiredApprovalConfig requiredApprovalConfig,
       StatusConfig statusConfig,
+      CodeOwnerAccountDependencies accountDependencies,
       @Assisted Project.NameKey projectName) {
     this.projectCache = projectCache;
     this.emails = emails;
@@ -118,6 +133,7 @@ public class CodeOwnersPluginProjectConfigSnapshot {
     this.overrideApprovalConfig = overrideApprovalConfig;
     this.requiredApprovalConfig = requiredApprovalConfig;
     this.statusConfig = statusConfig;
+    this.accountDependencies = accountDependencies;
     this.projectName = projectName;
     this.pluginConfig = codeOwnersPluginConfigFactory.create(projectName).get();
   }
@@ -163,10 +179,10 @@ public class CodeOwnersPluginProjectConfigSnapshot {
    *     should be rejected
    */
   public boolean rejectNonResolvableCodeOwners(String branchName) {
-    if (rejectNonResolvableCodeOwners == null) {
-      rejectNonResolvableCodeOwners = readRejectNonResolvableCodeOwners(branchName);
-    }
-    return rejectNonResolvableCodeOwners;
+    requireNonNull(branchName, "branchName");
+    return rejectNonResolvableCodeOwnersByBranch.computeIfAbsent(
+        BranchNameKey.create(projectName, branchName).branch(),
+        this::readRejectNonResolvableCodeOwners);
   }
 
   private boolean readRejectNonResolvableCodeOwners(String branchName) {
@@ -189,10 +205,10 @@ public class CodeOwnersPluginProjectConfigSnapshot {
    *     should be rejected
    */
   public boolean rejectNonResolvableImports(String branchName) {
-    if (rejectNonResolvableImports == null) {
-      rejectNonResolvableImports = readRejectNonResolvableImports(branchName);
-    }
-    return rejectNonResolvableImports;
+    requireNonNull(branchName, "branchName");
+    return rejectNonResolvableImportsByBranch.computeIfAbsent(
+        BranchNameKey.create(projectName, branchName).branch(),
+        this::readRejectNonResolvableImports);
   }
 
   private boolean readRejectNonResolvableImports(String branchName) {
@@ -216,11 +232,10 @@ public class CodeOwnersPluginProjectConfigSnapshot {
    */
   public CodeOwnerConfigValidationPolicy getCodeOwnerConfigValidationPolicyForBranchCreation(
       String branchName) {
-    if (codeOwnerConfigValidationPolicyForBranchCreation == null) {
-      codeOwnerConfigValidationPolicyForBranchCreation =
-          readCodeOwnerConfigValidationPolicyForBranchCreation(branchName);
-    }
-    return codeOwnerConfigValidationPolicyForBranchCreation;
+    requireNonNull(branchName, "branchName");
+    return codeOwnerConfigValidationPolicyForBranchCreationByBranch.computeIfAbsent(
+        BranchNameKey.create(projectName, branchName).branch(),
+        this::readCodeOwnerConfigValidationPolicyForBranchCreation);
   }
 
   private CodeOwnerConfigValidationPolicy readCodeOwnerConfigValidationPolicyForBranchCreation(
@@ -246,11 +261,10 @@ public class CodeOwnersPluginProjectConfigSnapshot {
    */
   public CodeOwnerConfigValidationPolicy getCodeOwnerConfigValidationPolicyForCommitReceived(
       String branchName) {
-    if (codeOwnerConfigValidationPolicyForCommitReceived == null) {
-      codeOwnerConfigValidationPolicyForCommitReceived =
-          readCodeOwnerConfigValidationPolicyForCommitReceived(branchName);
-    }
-    return codeOwnerConfigValidationPolicyForCommitReceived;
+    requireNonNull(branchName, "branchName");
+    return codeOwnerConfigValidationPolicyForCommitReceivedByBranch.computeIfAbsent(
+        BranchNameKey.create(projectName, branchName).branch(),
+        this::readCodeOwnerConfigValidationPolicyForCommitReceived);
   }
 
   private CodeOwnerConfigValidationPolicy readCodeOwnerConfigValidationPolicyForCommitReceived(
@@ -276,11 +290,10 @@ public class CodeOwnersPluginProjectConfigSnapshot {
    */
   public CodeOwnerConfigValidationPolicy getCodeOwnerConfigValidationPolicyForSubmit(
       String branchName) {
-    if (codeOwnerConfigValidationPolicyForSubmit == null) {
-      codeOwnerConfigValidationPolicyForSubmit =
-          readCodeOwnerConfigValidationPolicyForSubmit(branchName);
-    }
-    return codeOwnerConfigValidationPolicyForSubmit;
+    requireNonNull(branchName, "branchName");
+    return codeOwnerConfigValidationPolicyForSubmitByBranch.computeIfAbsent(
+        BranchNameKey.create(projectName, branchName).branch(),
+        this::readCodeOwnerConfigValidationPolicyForSubmit);
   }
 
   private CodeOwnerConfigValidationPolicy readCodeOwnerConfigValidationPolicyForSubmit(
@@ -354,17 +367,37 @@ public class CodeOwnersPluginProjectConfigSnapshot {
     return globalCodeOwners;
   }
 
-  /** Gets the accounts that are exempted from requiring code owner approvals. */
+  /**
+   * Gets the accounts that are exempted from requiring code owner approvals.
+   *
+   * <p>The exempted users are configured by email and the emails of accounts can change without a
+   * change of the plugin config. Hence the exempted accounts are not memoized in the snapshot
+   * (which is cached server-wide), but only for the current request.
+   */
+  @SuppressWarnings("unchecked")
   public ImmutableSet<Account.Id> getExemptedAccounts() {
-    if (exemptedAccounts == null) {
-      exemptedAccounts = lookupExemptedAccounts();
-    }
+    ImmutableSet<String> exemptedUsers = getExemptedUsers();
+    if (exemptedUsers.isEmpty()) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet<Account.Id> exemptedAccounts =
+        PerThreadCache.getOrCompute(
+            PerThreadCache.Key.create(
+                ImmutableSet.class, projectName, exemptedUsers, "CodeOwnersExemptedAccounts"),
+            () -> lookupExemptedAccounts(exemptedUsers));
+    accountDependencies.recordEmails(exemptedUsers);
+    accountDependencies.recordAccounts(exemptedAccounts);
     return exemptedAccounts;
   }
 
-  private ImmutableSet<Account.Id> lookupExemptedAccounts() {
-    ImmutableSet<String> exemptedUsers = generalConfig.getExemptedUsers(pluginConfig);
+  private ImmutableSet<String> getExemptedUsers() {
+    if (exemptedUsers == null) {
+      exemptedUsers = generalConfig.getExemptedUsers(pluginConfig);
+    }
+    return exemptedUsers;
+  }
 
+  private ImmutableSet<Account.Id> lookupExemptedAccounts(ImmutableSet<String> exemptedUsers) {
     try {
       ImmutableSetMultimap<String, Account.Id> exemptedAccounts =
           emails.getAccountsFor(exemptedUsers.toArray(new String[0]));
@@ -0,0 +1,220 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend.config;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.cache.CacheRemovalListener;
+import com.google.gerrit.server.config.PluginConfig;
+import com.google.gerrit.server.config.PluginConfigFactory;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectCacheImpl;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Server-wide cache for {@link CodeOwnersPluginProjectConfigSnapshot}s.
+ *
+ * <p>The code-owners plugin configuration of a project is read from the {@code code-owners.config}
+ * files in the {@code refs/meta/config} branches of the project and its parent projects, with
+ * defaults from the {@code plugin.code-owners} section in {@code gerrit.config}. Entries are keyed
+ * by the revisions of these branches and a fingerprint of the {@code plugin.code-owners} section,
+ * i.e. an entry becomes stale as soon as the configuration of the project or of any of its parent
+ * projects is changed, or when {@code gerrit.config} is reloaded with a changed {@code
+ * plugin.code-owners} section.
+ *
+ * <p>In addition entries of a project are invalidated when the project is evicted from the project
+ * cache, so that stale entries do not waste memory until they are evicted by size.
+ *
+ * <p>Since snapshots are shared between requests and threads, they must be thread-safe.
+ */
+@Singleton
+public class CodeOwnersPluginProjectConfigSnapshotCache
+    implements CacheRemovalListener<Object, Object> {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String CACHE_NAME = "code_owners_project_config_snapshots";
+
+  /**
+   * Module that binds the cache.
+   *
+   * <p>To invalidate entries on eviction from the project cache {@link
+   * CodeOwnersPluginProjectConfigSnapshotCache} must be bound as {@link CacheRemovalListener} in
+   * addition.
+   */
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, CodeOwnersPluginProjectConfigSnapshot.class)
+            .maximumWeight(10000);
+      }
+    };
+  }
+
+  private final String pluginName;
+  private final PluginConfigFactory pluginConfigFactory;
+  private final Cache<Key, CodeOwnersPluginProjectConfigSnapshot> cache;
+  private final ProjectCache projectCache;
+  private final CodeOwnersPluginProjectConfigSnapshot.Factory
+      codeOwnersPluginProjectConfigSnapshotFactory;
+
+  @Inject
+  CodeOwnersPluginProjectConfigSnapshotCache(
+      @PluginName String pluginName,
+      PluginConfigFactory pluginConfigFactory,
+      @Named(CACHE_NAME) Cache<Key, CodeOwnersPluginProjectConfigSnapshot> cache,
+      ProjectCache projectCache,
+      CodeOwnersPluginProjectConfigSnapshot.Factory codeOwnersPluginProjectConfigSnapshotFactory) {
+    this.pluginName = pluginName;
+    this.pluginConfigFactory = pluginConfigFactory;
+    this.cache = cache;
+    this.projectCache = projectCache;
+    this.codeOwnersPluginProjectConfigSnapshotFactory =
+        codeOwnersPluginProjectConfigSnapshotFactory;
+  }
+
+  /**
+   * Gets the code-owners plugin configuration snapshot for the given project.
+   *
+   * <p>If there is no cache entry for the current {@code refs/meta/config} revisions of the project
+   * and its parent projects and the current {@code plugin.code-owners} section in {@code
+   * gerrit.config}, the snapshot is created and cached.
+   *
+   * @param projectName the name of the project for which the snapshot should be returned
+   * @throws IllegalStateException if the project doesn't exist
+   */
+  public CodeOwnersPluginProjectConfigSnapshot get(Project.NameKey projectName) {
+    requireNonNull(projectName, "projectName");
+
+    Optional<ProjectState> projectState = projectCache.get(projectName);
+    if (!projectState.isPresent()) {
+      // Creating the snapshot fails with an IllegalStateException that says that the project
+      // doesn't exist.
+      return codeOwnersPluginProjectConfigSnapshotFactory.create(projectName);
+    }
+
+    Key key = Key.create(projectState.get(), getGerritConfigFingerprint());
+    try {
+      return cache.get(
+          key,
+          () -> {
+            logger.atFine().log("code-owners project config snapshot cache miss for %s", key);
+            return codeOwnersPluginProjectConfigSnapshotFactory.create(projectName);
+          });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(
+          String.format(
+              "failed to load code-owners plugin config for project %s", projectName.get()),
+          e.getCause());
+    }
+  }
+
+  @Override
+  public void onRemoval(
+      String pluginName, String cacheName, RemovalNotification<Object, Object> notification) {
+    if (!"gerrit".equals(pluginName)
+        || !ProjectCacheImpl.CACHE_NAME.equals(cacheName)
+        || !(notification.getKey() instanceof Project.NameKey)) {
+      return;
+    }
+
+    Project.NameKey projectName = (Project.NameKey) notification.getKey();
+    cache.asMap().keySet().removeIf(key -> key.projects().contains(projectName));
+  }
+
+  /**
+   * Computes a fingerprint of the {@code plugin.code-owners} section in {@code gerrit.config}.
+   *
+   * <p>{@link PluginConfigFactory} reloads {@code gerrit.config} when it was modified, hence the
+   * fingerprint changes as soon as the reloaded {@code plugin.code-owners} section differs.
+   */
+  private String getGerritConfigFingerprint() {
+    PluginConfig pluginConfig = pluginConfigFactory.getFromGerritConfig(pluginName);
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (String name : pluginConfig.getNames()) {
+      String[] values = pluginConfig.getStringList(name);
+      hasher.putString(name, UTF_8).putInt(values.length);
+      for (String value : values) {
+        hasher.putString(value, UTF_8).putInt(value.length());
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Gets the revisions of the {@code refs/meta/config} branches of the given project and its parent
+   * projects, ordered from All-Projects to the project.
+   *
+   * <p>The code-owners plugin configuration of the project is unchanged as long as these revisions
+   * are unchanged. For projects that don't have a {@code refs/meta/config} branch {@link
+   * ObjectId#zeroId()} is returned.
+   *
+   * @param projectState the state of the project for which the revisions should be returned
+   */
+  public static ImmutableList<ObjectId> getConfigRevisions(ProjectState projectState) {
+    requireNonNull(projectState, "projectState");
+    return Streams.stream(projectState.treeInOrder())
+        .map(p -> p.getConfig().getRevision().map(ObjectId::copy).orElse(ObjectId.zeroId()))
+        .collect(toImmutableList());
+  }
+
+  /** Key for the {@link CodeOwnersPluginProjectConfigSnapshotCache}. */
+  @AutoValue
+  abstract static class Key {
+    /** The project and its parent projects, ordered from All-Projects to the project. */
+    abstract ImmutableList<Project.NameKey> projects();
+
+    /**
+     * The revisions of the {@code refs/meta/config} branches of the {@link #projects()}, {@link
+     * ObjectId#zeroId()} for projects that don't have a {@code refs/meta/config} branch.
+     */
+    abstract ImmutableList<ObjectId> configRevisions();
+
+    /** Fingerprint of the {@code plugin.code-owners} section in {@code gerrit.config}. */
+    abstract String gerritConfigFingerprint();
+
+    static Key create(ProjectState projectState, String gerritConfigFingerprint) {
+      return new AutoValue_CodeOwnersPluginProjectConfigSnapshotCache_Key(
+          Streams.stream(projectState.treeInOrder())
+              .map(ProjectState::getNameKey)
+              .collect(toImmutableList()),
+          getConfigRevisions(projectState),
+          gerritConfigFingerprint);
+    }
+  }
+}
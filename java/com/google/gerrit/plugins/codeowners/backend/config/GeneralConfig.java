@@ -31,6 +31,7 @@ import com.google.gerrit.plugins.codeowners.backend.EnableImplicitApprovals;
 import com.google.gerrit.plugins.codeowners.backend.FallbackCodeOwners;
 import com.google.gerrit.plugins.codeowners.common.CodeOwnerConfigValidationPolicy;
 import com.google.gerrit.plugins.codeowners.common.MergeCommitStrategy;
+import com.google.gerrit.server.config.ConfigUtil;
 import com.google.gerrit.server.config.PluginConfig;
 import com.google.gerrit.server.config.PluginConfigFactory;
 import com.google.gerrit.server.git.validators.CommitValidationMessage;
@@ -38,9 +39,11 @@ import com.google.gerrit.server.git.validators.ValidationMessage;
 import com.google.gerrit.server.project.RefPatternMatcher;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Stream;
 import org.eclipse.jgit.lib.Config;
@@ -93,6 +96,7 @@ public class GeneralConfig {
   public static final int DEFAULT_MAX_PATHS_IN_CHANGE_MESSAGES = 50;
 
   private static final String KEY_ALLOWED_EMAIL_DOMAIN = "allowedEmailDomain";
+  private static final String KEY_SLOW_EVALUATION_THRESHOLD = "slowEvaluationThreshold";
 
   private final String pluginName;
   private final PluginConfig pluginConfigFromGerritConfig;
@@ -227,6 +231,31 @@ public class GeneralConfig {
         .collect(toImmutableSet());
   }
 
+  /**
+   * Returns the threshold above which code owner evaluations are written to the slow evaluation
+   * log.
+   *
+   * @return the threshold above which code owner evaluations are written to the slow evaluation
+   *     log, {@link Optional#empty()} if slow evaluations should not be logged (if {@code
+   *     plugin.code-owners.slowEvaluationThreshold} is not set, set to a non-positive value or set
+   *     to an invalid value)
+   */
+  Optional<Duration> getSlowEvaluationThreshold() {
+    String value = pluginConfigFromGerritConfig.getString(KEY_SLOW_EVALUATION_THRESHOLD);
+    try {
+      long slowEvaluationThresholdMillis =
+          ConfigUtil.getTimeUnit(value, /* defaultValue= */ 0, TimeUnit.MILLISECONDS);
+      return slowEvaluationThresholdMillis > 0
+          ? Optional.of(Duration.ofMillis(slowEvaluationThresholdMillis))
+          : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      logger.atWarning().withCause(e).log(
+          "Value '%s' in gerrit.config (parameter plugin.%s.%s) is invalid.",
+          value, pluginName, KEY_SLOW_EVALUATION_THRESHOLD);
+      return Optional.empty();
+    }
+  }
+
   /**
    * Gets the read-only configuration from the given plugin config with fallback to {@code
    * gerrit.config}.
@@ -19,6 +19,7 @@ import com.google.gerrit.plugins.codeowners.backend.AbstractFileBasedCodeOwnerBa
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigFile;
 import com.google.gerrit.plugins.codeowners.backend.PathExpressions;
+import com.google.gerrit.plugins.codeowners.backend.RepositoryContext;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.server.GerritPersonIdent;
 import com.google.gerrit.server.git.GitRepositoryManager;
@@ -48,6 +49,7 @@ public class FindOwnersBackend extends AbstractFileBasedCodeOwnerBackend {
       CodeOwnerConfigFile.Factory codeOwnerConfigFileFactory,
       FindOwnersCodeOwnerConfigParser codeOwnerConfigParser,
       GitRepositoryManager repoManager,
+      RepositoryContext repositoryContext,
       ProjectCache projectCache,
       @GerritPersonIdent PersonIdent serverIdent,
       MetaDataUpdate.InternalFactory metaDataUpdateInternalFactory,
@@ -55,6 +57,7 @@ public class FindOwnersBackend extends AbstractFileBasedCodeOwnerBackend {
     super(
         codeOwnersPluginConfiguration,
         repoManager,
+        repositoryContext,
         projectCache,
         serverIdent,
         metaDataUpdateInternalFactory,
@@ -36,6 +36,7 @@ import com.google.gerrit.entities.Project;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotation;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigInterner;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigParseException;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigParser;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
@@ -44,13 +45,12 @@ import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
 import com.google.gerrit.server.git.ValidationError;
 import com.google.inject.Singleton;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.regex.Matcher;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.eclipse.jgit.lib.ObjectId;
@@ -69,12 +69,12 @@ import org.eclipse.jgit.lib.ObjectId;
  * <p>Comments can appear as separate lines and as appendix for email lines (e.g. using
  * 'foo.bar@example.com # Foo Bar' would be a valid email line).
  *
- * <p>Most of the code in this class was copied from the {@code
- * com.googlesource.gerrit.plugins.findowners.Parser} class from the {@code find-owners} plugin. The
- * original parsing code is used to be as backwards-compatible as possible and to avoid spending
- * time on reimplementing a parser for a deprecated syntax. We have only done a minimal amount of
- * adaption so that the parser produces a {@link CodeOwnerConfig} as result, instead of the
- * abstraction that is used in the {@code find-owners} plugin.
+ * <p>The parser is a hand-written reimplementation of the regex-based {@code
+ * com.googlesource.gerrit.plugins.findowners.Parser} class from the {@code find-owners} plugin. To
+ * be backwards-compatible it accepts exactly the same input as the original parser and reports the
+ * same validation errors (the tests verify this against the original regular expressions), but it
+ * matches each line in a single pass, since parsing dominates the loading of code owner config
+ * files that are not cached yet.
  */
 @Singleton
 @VisibleForTesting
@@ -95,7 +95,7 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
     requireNonNull(revision, "revision");
     requireNonNull(codeOwnerConfigKey, "codeOwnerConfigKey");
 
-    Parser parser = new Parser();
+    AbstractParser parser = createParser();
     CodeOwnerConfig codeOwnerConfig =
         parser.parse(revision, codeOwnerConfigKey, Strings.nullToEmpty(codeOwnerConfigAsString));
     if (!parser.getValidationErrors().isEmpty()) {
@@ -138,59 +138,25 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
     return Joiner.on("\n").join(updatedLines);
   }
 
+  /**
+   * Creates the parser that is used to parse a code owner config.
+   *
+   * <p>Overridden by tests to run the parser tests against the regex-based reference
+   * implementation of the parser.
+   */
   @VisibleForTesting
-  static class Parser implements ValidationError.Sink {
-    private static final String COMMA = "[\\s]*,[\\s]*";
-
-    // Separator for project and file paths in an include line.
-    private static final String COLON = "[\\s]*:[\\s]*"; // project:file
-
-    private static final String BOL = "^[\\s]*"; // begin-of-line
-    private static final String EOL = "[\\s]*(#.*)?$"; // end-of-line
-    private static final String GLOB = "[^\\s,=]+"; // a file glob
-
-    private static final String EMAIL_OR_STAR = "([^\\s<>@,]+@[^\\s<>@#,]+|\\*)";
-    private static final String EMAIL_LIST =
-        "(" + EMAIL_OR_STAR + "(" + COMMA + EMAIL_OR_STAR + ")*)";
-
-    // Optional name of a Gerrit project followed by a colon and optional spaces.
-    private static final String PROJECT_NAME = "([^\\s:]+" + COLON + ")?";
-
-    // Optional name of a branch followed by a colon and optional spaces.
-    private static final String BRANCH_NAME = "([^\\s:]+" + COLON + ")?";
-
-    // A relative or absolute file path name without any colon or space character.
-    private static final String FILE_PATH = "([^\\s:#]+)";
-
-    private static final String PROJECT_BRANCH_AND_FILE = PROJECT_NAME + BRANCH_NAME + FILE_PATH;
-
-    private static final String SET_NOPARENT = "set[\\s]+noparent";
-
-    private static final String FILE_DIRECTIVE = "file:[\\s]*" + PROJECT_BRANCH_AND_FILE;
-    private static final String INCLUDE_DIRECTIVE = "include[\\s]+" + PROJECT_BRANCH_AND_FILE;
-    private static final String INCLUDE_OR_FILE = "(file:[\\s]*|include[\\s]+)";
-
-    // Simple input lines with 0 or 1 sub-pattern.
-    private static final Pattern PAT_COMMENT = Pattern.compile(BOL + EOL);
-    private static final Pattern PAT_EMAIL = Pattern.compile(BOL + EMAIL_OR_STAR + EOL);
-    private static final Pattern PAT_ANNOTATION = Pattern.compile("#\\{([A-Za-z_]+)\\}");
-    private static final Pattern PAT_INCLUDE =
-        Pattern.compile(BOL + INCLUDE_OR_FILE + PROJECT_BRANCH_AND_FILE + EOL);
-    private static final Pattern PAT_NO_PARENT = Pattern.compile(BOL + SET_NOPARENT + EOL);
-
-    private static final Pattern PAT_PER_FILE_OWNERS =
-        Pattern.compile("^(" + EMAIL_LIST + "|" + SET_NOPARENT + "|" + FILE_DIRECTIVE + ")$");
-    private static final Pattern PAT_PER_FILE_INCLUDE =
-        Pattern.compile("^(" + INCLUDE_DIRECTIVE + ")$");
-    private static final Pattern PAT_GLOBS =
-        Pattern.compile("^(" + GLOB + "(" + COMMA + GLOB + ")*)$");
-
-    // PAT_PER_FILE matches a line to two groups: (1) globs, (2) emails
-    // Trimmed 1st group should match PAT_GLOBS;
-    // trimmed 2nd group should match PAT_PER_FILE_OWNERS.
-    private static final Pattern PAT_PER_FILE =
-        Pattern.compile(BOL + "per-file[\\s]+([^=#]+)=[\\s]*([^#]+)" + EOL);
+  AbstractParser createParser() {
+    return new Parser();
+  }
 
+  /**
+   * Base class for parsers of the {@code find-owners} syntax.
+   *
+   * <p>Implements the line-by-line processing of a code owner config, but leaves splitting the code
+   * owner config into lines and matching the single lines to the subclasses.
+   */
+  @VisibleForTesting
+  abstract static class AbstractParser implements ValidationError.Sink {
     private ImmutableList.Builder<ValidationError> validationErrors;
 
     CodeOwnerConfig parse(
@@ -200,16 +166,18 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
       CodeOwnerSet.Builder globalCodeOwnerSetBuilder = CodeOwnerSet.builder();
       List<CodeOwnerSet> perFileCodeOwnerSet = new ArrayList<>();
 
-      for (String line : Splitter.onPattern(LINEBREAK_MATCHER).split(codeOwnerConfigAsString)) {
+      for (String line : splitLines(codeOwnerConfigAsString)) {
         parseLine(codeOwnerConfigBuilder, globalCodeOwnerSetBuilder, perFileCodeOwnerSet, line);
       }
 
       // Make the code owners sets with the global code owners the first one in the list.
       CodeOwnerSet globalCodeOwnersSet = globalCodeOwnerSetBuilder.build();
       if (!globalCodeOwnersSet.codeOwners().isEmpty()) {
-        codeOwnerConfigBuilder.addCodeOwnerSet(globalCodeOwnersSet);
+        codeOwnerConfigBuilder.addCodeOwnerSet(CodeOwnerConfigInterner.intern(globalCodeOwnersSet));
       }
-      perFileCodeOwnerSet.forEach(codeOwnerConfigBuilder::addCodeOwnerSet);
+      perFileCodeOwnerSet.stream()
+          .map(CodeOwnerConfigInterner::intern)
+          .forEach(codeOwnerConfigBuilder::addCodeOwnerSet);
 
       return codeOwnerConfigBuilder.build();
     }
@@ -239,15 +207,181 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
       }
     }
 
-    private CodeOwnerSet parsePerFileLine(String line) {
-      Matcher perFileMatcher = PAT_PER_FILE.matcher(line);
-      if (!perFileMatcher.matches() || !isGlobs(perFileMatcher.group(1).trim())) {
+    /**
+     * Splits the given code owner config into lines. Lines are separated by any Unicode linebreak
+     * sequence (see {@link #LINEBREAK_MATCHER}).
+     */
+    abstract Iterable<String> splitLines(String codeOwnerConfigAsString);
+
+    /** Whether the given line is a {@code set noparent} line. */
+    abstract boolean isNoParent(String line);
+
+    /** Whether the given line is a comment line or an empty line. */
+    abstract boolean isComment(String line);
+
+    /** Parses an email line, returns {@code null} if the given line is not an email line. */
+    abstract ParsedEmailLine parseEmailLine(String line);
+
+    /** Parses a per-file line, returns {@code null} if the given line is not a per-file line. */
+    abstract CodeOwnerSet parsePerFileLine(String line);
+
+    /**
+     * Parses an {@code include} or {@code file:} line, returns {@code null} if the given line is
+     * not an import line.
+     */
+    abstract CodeOwnerConfigReference parseInclude(String line);
+
+    /**
+     * Get the validation errors, if any were discovered during parsing the code owner config file.
+     *
+     * @return list of errors; empty list if there are no errors.
+     */
+    public ImmutableList<ValidationError> getValidationErrors() {
+      if (validationErrors != null) {
+        return validationErrors.build();
+      }
+      return ImmutableList.of();
+    }
+
+    @Override
+    public void error(ValidationError error) {
+      if (validationErrors == null) {
+        validationErrors = ImmutableList.builder();
+      }
+      validationErrors.add(error);
+    }
+  }
+
+  /**
+   * Hand-written parser for the {@code find-owners} syntax.
+   *
+   * <p>Accepts exactly the same input as the regex-based parser of the {@code find-owners} plugin
+   * and produces the same results and the same validation errors, but matches each line with a
+   * single pass over its characters instead of trying several regular expressions one after the
+   * other. This matters because parsing dominates the loading of code owner config files when they
+   * are not cached yet.
+   *
+   * <p>The rules in the comments of the matching methods are the regular expressions from the
+   * original parser that the methods implement. Since lines never contain linebreak characters,
+   * {@code \s} can only match spaces and tabs, and {@code $} only matches at the end of the line.
+   */
+  @VisibleForTesting
+  static class Parser extends AbstractParser {
+    private static final String PER_FILE_KEYWORD = "per-file";
+    private static final String INCLUDE_KEYWORD = "include";
+    private static final String FILE_KEYWORD = "file:";
+    private static final String SET_KEYWORD = "set";
+    private static final String NOPARENT_KEYWORD = "noparent";
+
+    @Override
+    ImmutableList<String> splitLines(String codeOwnerConfigAsString) {
+      ImmutableList.Builder<String> lines = ImmutableList.builder();
+      int lineStart = 0;
+      for (int i = 0; i < codeOwnerConfigAsString.length(); i++) {
+        char c = codeOwnerConfigAsString.charAt(i);
+        if (isLinebreak(c)) {
+          lines.add(codeOwnerConfigAsString.substring(lineStart, i));
+          if (c == '\r'
+              && i + 1 < codeOwnerConfigAsString.length()
+              && codeOwnerConfigAsString.charAt(i + 1) == '\n') {
+            // "\r\n" is a single linebreak
+            i++;
+          }
+          lineStart = i + 1;
+        }
+      }
+      lines.add(codeOwnerConfigAsString.substring(lineStart));
+      return lines.build();
+    }
+
+    /** {@code ^\s*set\s+noparent\s*(#.*)?$} */
+    @Override
+    boolean isNoParent(String line) {
+      int i = skipWhitespace(line, 0);
+      if (!line.startsWith(SET_KEYWORD, i)) {
+        return false;
+      }
+      i += SET_KEYWORD.length();
+      int noParentStart = skipWhitespace(line, i);
+      if (noParentStart == i || !line.startsWith(NOPARENT_KEYWORD, noParentStart)) {
+        return false;
+      }
+      return isEndOfLine(line, noParentStart + NOPARENT_KEYWORD.length());
+    }
+
+    /** {@code ^\s*(#.*)?$} */
+    @Override
+    boolean isComment(String line) {
+      return isEndOfLine(line, 0);
+    }
+
+    /** {@code ^\s*([^\s<>@,]+@[^\s<>@#,]+|\*)\s*(#.*)?$} */
+    @Override
+    ParsedEmailLine parseEmailLine(String line) {
+      int emailStart = skipWhitespace(line, 0);
+      int emailEnd = matchEmail(line, emailStart);
+      if (emailEnd < 0 || !isEndOfLine(line, emailEnd)) {
+        // The local part of an email may contain '#', hence if the email doesn't match, a line
+        // like "*#foo@example.com bar" is still matched as '*' followed by a comment.
+        emailEnd = matchStar(line, emailStart);
+        if (emailEnd < 0 || !isEndOfLine(line, emailEnd)) {
+          return null;
+        }
+      }
+
+      String email = line.substring(emailStart, emailEnd).trim();
+      ParsedEmailLine.Builder parsedEmailLine = ParsedEmailLine.builder(email);
+
+      // Get the comment part of the line (the first '#' and everything that follows).
+      int commentStart = skipWhitespace(line, emailEnd);
+      if (commentStart < line.length()) {
+        parseAnnotations(line.substring(commentStart), parsedEmailLine::addAnnotation);
+      }
+
+      return parsedEmailLine.build();
+    }
+
+    /** {@code ^\s*per-file\s+([^=#]+)=\s*([^#]+)\s*(#.*)?$} */
+    @Override
+    CodeOwnerSet parsePerFileLine(String line) {
+      int i = skipWhitespace(line, 0);
+      if (!line.startsWith(PER_FILE_KEYWORD, i)) {
+        return null;
+      }
+      i += PER_FILE_KEYWORD.length();
+
+      int globsStart = skipWhitespace(line, i);
+      int globsEnd = globsStart;
+      while (globsEnd < line.length()
+          && line.charAt(globsEnd) != '='
+          && line.charAt(globsEnd) != '#') {
+        globsEnd++;
+      }
+      if (globsStart == i
+          || globsStart == globsEnd
+          || globsEnd == line.length()
+          || line.charAt(globsEnd) != '=') {
         return null;
       }
 
-      String matchedGroup2 = perFileMatcher.group(2).trim();
-      if (!PAT_PER_FILE_OWNERS.matcher(matchedGroup2).matches()) {
-        if (PAT_PER_FILE_INCLUDE.matcher(matchedGroup2).matches()) {
+      int ownersStart = skipWhitespace(line, globsEnd + 1);
+      int ownersEnd = line.indexOf('#', ownersStart);
+      if (ownersEnd < 0) {
+        ownersEnd = line.length();
+      }
+      if (ownersStart == ownersEnd) {
+        return null;
+      }
+
+      String globs = line.substring(globsStart, globsEnd);
+      String owners = line.substring(ownersStart, ownersEnd);
+      if (!isGlobs(globs.trim())) {
+        return null;
+      }
+
+      String trimmedOwners = owners.trim();
+      if (!isPerFileOwners(trimmedOwners)) {
+        if (isPerFileInclude(trimmedOwners)) {
           error(
               ValidationError.create(
                   String.format(
@@ -260,12 +394,8 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
         return null;
       }
 
-      String[] globsAndOwners =
-          new String[] {
-            removeExtraSpaces(perFileMatcher.group(1)), removeExtraSpaces(perFileMatcher.group(2))
-          };
-      ImmutableSet<String> dirGlobs = splitGlobs(globsAndOwners[0]);
-      String directive = globsAndOwners[1];
+      ImmutableSet<String> dirGlobs = splitGlobs(removeExtraSpaces(globs));
+      String directive = removeExtraSpaces(owners);
       if (directive.equals(TOK_SET_NOPARENT)) {
         return CodeOwnerSet.builder()
             .setIgnoreGlobalAndParentCodeOwners()
@@ -281,17 +411,14 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
             .build();
       }
 
-      List<String> ownerEmails = Arrays.asList(directive.split(COMMA, -1));
+      List<String> ownerEmails = splitEmails(directive);
 
       // Get the comment part of the line (the first '#' and everything that follows).
-      String comment = perFileMatcher.group(3);
       Set<CodeOwnerAnnotation> annotations = new HashSet<>();
-      if (comment != null) {
-        Matcher annotationMatcher = PAT_ANNOTATION.matcher(comment);
-        while (annotationMatcher.find()) {
-          String annotation = annotationMatcher.group(1);
-          annotations.add(CodeOwnerAnnotation.create(annotation));
-        }
+      if (ownersEnd < line.length()) {
+        parseAnnotations(
+            line.substring(ownersEnd),
+            annotation -> annotations.add(CodeOwnerAnnotation.create(annotation)));
       }
 
       CodeOwnerSet.Builder codeOwnerSet =
@@ -357,93 +484,347 @@ public class FindOwnersCodeOwnerConfigParser implements CodeOwnerConfigParser {
       return globList.build();
     }
 
-    private static boolean isComment(String line) {
-      return PAT_COMMENT.matcher(line).matches();
-    }
-
-    private static boolean isNoParent(String line) {
-      return PAT_NO_PARENT.matcher(line).matches();
-    }
+    /** {@code ^\s*(file:\s*|include\s+)([^\s:]+\s*:\s*)?([^\s:]+\s*:\s*)?([^\s:#]+)\s*(#.*)?$} */
+    @Override
+    CodeOwnerConfigReference parseInclude(String line) {
+      int i = skipWhitespace(line, 0);
+      CodeOwnerConfigImportMode importMode;
+      if (line.startsWith(FILE_KEYWORD, i)) {
+        importMode = CodeOwnerConfigImportMode.GLOBAL_CODE_OWNER_SETS_ONLY;
+        i = skipWhitespace(line, i + FILE_KEYWORD.length());
+      } else if (line.startsWith(INCLUDE_KEYWORD, i)) {
+        importMode = CodeOwnerConfigImportMode.ALL;
+        int keywordEnd = i + INCLUDE_KEYWORD.length();
+        i = skipWhitespace(line, keywordEnd);
+        if (i == keywordEnd) {
+          return null;
+        }
+      } else {
+        return null;
+      }
 
-    private static ParsedEmailLine parseEmailLine(String line) {
-      Matcher emailMatcher = PAT_EMAIL.matcher(line);
-      if (!emailMatcher.matches()) {
+      String[] projectBranchAndFile =
+          matchProjectBranchAndFile(line, i, /* allowTrailingComment= */ true);
+      if (projectBranchAndFile == null) {
         return null;
       }
-      String email = emailMatcher.group(1).trim();
-      ParsedEmailLine.Builder parsedEmailLine = ParsedEmailLine.builder(email);
 
-      // Get the comment part of the line (the first '#' and everything that follows).
-      String comment = emailMatcher.group(2);
-      if (comment != null) {
-        Matcher annotationMatcher = PAT_ANNOTATION.matcher(comment);
-        while (annotationMatcher.find()) {
-          String annotation = annotationMatcher.group(1);
-          parsedEmailLine.addAnnotation(annotation);
+      CodeOwnerConfigReference.Builder builder =
+          CodeOwnerConfigReference.builder(importMode, projectBranchAndFile[2].trim());
+      if (projectBranchAndFile[0] != null) {
+        builder.setProject(Project.nameKey(projectBranchAndFile[0].trim()));
+        if (projectBranchAndFile[1] != null) {
+          builder.setBranch(projectBranchAndFile[1].trim());
+        }
+      }
+      return builder.build();
+    }
+
+    /**
+     * Matches {@code ([^\s:]+\s*:\s*)?([^\s:]+\s*:\s*)?([^\s:#]+)} at the given position.
+     *
+     * <p>The match must extend to the end of the string, or, if {@code allowTrailingComment} is
+     * {@code true}, it may be followed by {@code \s*(#.*)?}.
+     *
+     * <p>The optional project and branch prefixes are tried in the same order in which the regular
+     * expression tries them when it backtracks: first with project and branch, then with project
+     * only, then without project and branch.
+     *
+     * @return array with the project (may be {@code null}), the branch (may be {@code null}) and
+     *     the file path, {@code null} if there is no match
+     */
+    private static String[] matchProjectBranchAndFile(
+        String s, int start, boolean allowTrailingComment) {
+      for (int numberOfPrefixes = 2; numberOfPrefixes >= 0; numberOfPrefixes--) {
+        String[] projectBranchAndFile = new String[3];
+        int i = start;
+        boolean prefixesMatch = true;
+        for (int prefix = 0; prefix < numberOfPrefixes; prefix++) {
+          int nameEnd = i;
+          while (nameEnd < s.length() && isProjectOrBranchNameChar(s.charAt(nameEnd))) {
+            nameEnd++;
+          }
+          int colon = skipWhitespace(s, nameEnd);
+          if (nameEnd == i || colon == s.length() || s.charAt(colon) != ':') {
+            prefixesMatch = false;
+            break;
+          }
+          projectBranchAndFile[prefix] = s.substring(i, nameEnd);
+          i = skipWhitespace(s, colon + 1);
+        }
+        if (!prefixesMatch) {
+          continue;
+        }
+
+        int fileEnd = i;
+        while (fileEnd < s.length() && isFilePathChar(s.charAt(fileEnd))) {
+          fileEnd++;
+        }
+        if (fileEnd == i
+            || (allowTrailingComment ? !isEndOfLine(s, fileEnd) : fileEnd != s.length())) {
+          continue;
         }
+        projectBranchAndFile[2] = s.substring(i, fileEnd);
+        return projectBranchAndFile;
       }
+      return null;
+    }
 
-      return parsedEmailLine.build();
+    /** {@code ^([^\s,=]+(\s*,\s*[^\s,=]+)*)$} */
+    private static boolean isGlobs(String s) {
+      int i = 0;
+      while (true) {
+        int globEnd = i;
+        while (globEnd < s.length() && isGlobChar(s.charAt(globEnd))) {
+          globEnd++;
+        }
+        if (globEnd == i) {
+          return false;
+        }
+        if (globEnd == s.length()) {
+          return true;
+        }
+        i = skipListSeparator(s, globEnd);
+        if (i < 0) {
+          return false;
+        }
+      }
     }
 
-    private static CodeOwnerConfigReference parseInclude(String line) {
-      Matcher m = Parser.PAT_INCLUDE.matcher(line);
-      if (!m.matches()) {
-        return null;
+    /**
+     * {@code ^(EMAIL_LIST|set\s+noparent|file:\s*PROJECT_BRANCH_AND_FILE)$}
+     *
+     * <p>Only called with strings that don't contain '#'.
+     */
+    private static boolean isPerFileOwners(String s) {
+      if (isEmailList(s)) {
+        return true;
       }
 
-      String keyword = m.group(1).trim();
-      CodeOwnerConfigImportMode importMode =
-          keyword.equals("include")
-              ? CodeOwnerConfigImportMode.ALL
-              : CodeOwnerConfigImportMode.GLOBAL_CODE_OWNER_SETS_ONLY;
+      if (s.startsWith(SET_KEYWORD)) {
+        int noParentStart = skipWhitespace(s, SET_KEYWORD.length());
+        return noParentStart > SET_KEYWORD.length()
+            && s.startsWith(NOPARENT_KEYWORD, noParentStart)
+            && noParentStart + NOPARENT_KEYWORD.length() == s.length();
+      }
 
-      CodeOwnerConfigReference.Builder builder =
-          CodeOwnerConfigReference.builder(importMode, m.group(4).trim());
-
-      String projectName = m.group(2);
-      if (projectName != null && projectName.length() > 1) {
-        // PROJECT_NAME ends with ':'
-        projectName = projectName.split(COLON, -1)[0].trim();
-        builder.setProject(Project.nameKey(projectName));
-
-        String branchName = m.group(3);
-        if (branchName != null && branchName.length() > 1) {
-          // BRANCH_NAME ends with ':'
-          branchName = branchName.split(COLON, -1)[0].trim();
-          builder.setBranch(branchName);
-        }
+      if (s.startsWith(FILE_KEYWORD)) {
+        return matchProjectBranchAndFile(
+                s,
+                skipWhitespace(s, FILE_KEYWORD.length()),
+                /* allowTrailingComment= */ false)
+            != null;
       }
 
-      return builder.build();
+      return false;
     }
 
-    private static boolean isGlobs(String line) {
-      return PAT_GLOBS.matcher(line).matches();
+    /** {@code ^(include\s+PROJECT_BRANCH_AND_FILE)$} */
+    private static boolean isPerFileInclude(String s) {
+      if (!s.startsWith(INCLUDE_KEYWORD)) {
+        return false;
+      }
+      int i = skipWhitespace(s, INCLUDE_KEYWORD.length());
+      return i > INCLUDE_KEYWORD.length()
+          && matchProjectBranchAndFile(s, i, /* allowTrailingComment= */ false) != null;
     }
 
-    private static String removeExtraSpaces(String s) {
-      return s.trim().replaceAll("[\\s]+", " ").replaceAll("[\\s]*:[\\s]*", ":");
+    /**
+     * {@code ^(EMAIL_OR_STAR(\s*,\s*EMAIL_OR_STAR)*)$}
+     *
+     * <p>Only called with strings that don't contain '#'. Without '#' an email never starts with
+     * "*" followed by a whitespace or a comma, hence there is no need to try '*' if an email was
+     * matched.
+     */
+    private static boolean isEmailList(String s) {
+      int i = 0;
+      while (true) {
+        int end = matchEmail(s, i);
+        if (end < 0) {
+          end = matchStar(s, i);
+          if (end < 0) {
+            return false;
+          }
+        }
+        if (end == s.length()) {
+          return true;
+        }
+        i = skipListSeparator(s, end);
+        if (i < 0) {
+          return false;
+        }
+      }
     }
 
     /**
-     * Get the validation errors, if any were discovered during parsing the code owner config file.
+     * Matches {@code [^\s<>@,]+@[^\s<>@#,]+} at the given position.
      *
-     * @return list of errors; empty list if there are no errors.
+     * @return the end index of the email, {@code -1} if there is no match
      */
-    public ImmutableList<ValidationError> getValidationErrors() {
-      if (validationErrors != null) {
-        return validationErrors.build();
+    private static int matchEmail(String s, int start) {
+      int at = start;
+      while (at < s.length() && isEmailLocalPartChar(s.charAt(at))) {
+        at++;
       }
-      return ImmutableList.of();
+      if (at == start || at == s.length() || s.charAt(at) != '@') {
+        return -1;
+      }
+      int end = at + 1;
+      while (end < s.length() && isEmailDomainChar(s.charAt(end))) {
+        end++;
+      }
+      return end > at + 1 ? end : -1;
     }
 
-    @Override
-    public void error(ValidationError error) {
-      if (validationErrors == null) {
-        validationErrors = ImmutableList.builder();
+    /**
+     * Matches {@code \*} at the given position.
+     *
+     * @return the end index of the '*', {@code -1} if there is no match
+     */
+    private static int matchStar(String s, int start) {
+      return start < s.length() && s.charAt(start) == '*' ? start + 1 : -1;
+    }
+
+    /**
+     * Matches {@code \s*,\s*} at the given position.
+     *
+     * @return the index after the separator, {@code -1} if there is no match
+     */
+    private static int skipListSeparator(String s, int start) {
+      int comma = skipWhitespace(s, start);
+      if (comma == s.length() || s.charAt(comma) != ',') {
+        return -1;
       }
-      validationErrors.add(error);
+      return skipWhitespace(s, comma + 1);
+    }
+
+    /** Whether {@code \s*(#.*)?$} matches at the given position. */
+    private static boolean isEndOfLine(String s, int start) {
+      int i = skipWhitespace(s, start);
+      return i == s.length() || s.charAt(i) == '#';
+    }
+
+    /** Finds all annotations that match {@code #\{([A-Za-z_]+)\}} in the given comment. */
+    private static void parseAnnotations(String comment, Consumer<String> annotationConsumer) {
+      int i = 0;
+      while (i < comment.length() - 1) {
+        if (comment.charAt(i) == '#' && comment.charAt(i + 1) == '{') {
+          int annotationStart = i + 2;
+          int annotationEnd = annotationStart;
+          while (annotationEnd < comment.length()
+              && isAnnotationChar(comment.charAt(annotationEnd))) {
+            annotationEnd++;
+          }
+          if (annotationEnd > annotationStart
+              && annotationEnd < comment.length()
+              && comment.charAt(annotationEnd) == '}') {
+            annotationConsumer.accept(comment.substring(annotationStart, annotationEnd));
+            i = annotationEnd + 1;
+            continue;
+          }
+        }
+        i++;
+      }
+    }
+
+    /** Same as {@code emailList.split("[\\s]*,[\\s]*", -1)}. */
+    private static ImmutableList<String> splitEmails(String emailList) {
+      ImmutableList.Builder<String> emails = ImmutableList.builder();
+      int emailStart = 0;
+      while (true) {
+        int comma = emailList.indexOf(',', emailStart);
+        if (comma < 0) {
+          emails.add(emailList.substring(emailStart));
+          return emails.build();
+        }
+        int emailEnd = comma;
+        while (emailEnd > emailStart && isWhitespace(emailList.charAt(emailEnd - 1))) {
+          emailEnd--;
+        }
+        emails.add(emailList.substring(emailStart, emailEnd));
+        emailStart = skipWhitespace(emailList, comma + 1);
+      }
+    }
+
+    /**
+     * Same as {@code s.trim().replaceAll("[\\s]+", " ").replaceAll("[\\s]*:[\\s]*", ":")}:
+     * collapses whitespace sequences into a single space and removes whitespace around colons.
+     */
+    private static String removeExtraSpaces(String s) {
+      s = s.trim();
+      StringBuilder b = new StringBuilder(s.length());
+      int i = 0;
+      while (i < s.length()) {
+        char c = s.charAt(i);
+        if (!isWhitespace(c)) {
+          b.append(c);
+          i++;
+          continue;
+        }
+
+        int whitespaceEnd = skipWhitespace(s, i);
+        boolean isAfterColon = b.length() > 0 && b.charAt(b.length() - 1) == ':';
+        boolean isBeforeColon = whitespaceEnd < s.length() && s.charAt(whitespaceEnd) == ':';
+        if (!isAfterColon && !isBeforeColon) {
+          b.append(' ');
+        }
+        i = whitespaceEnd;
+      }
+      return b.toString();
+    }
+
+    private static int skipWhitespace(String s, int start) {
+      int i = start;
+      while (i < s.length() && isWhitespace(s.charAt(i))) {
+        i++;
+      }
+      return i;
+    }
+
+    /** Whether the given character matches {@code \s}. */
+    private static boolean isWhitespace(char c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Whether the given character matches {@code \R}. */
+    private static boolean isLinebreak(char c) {
+      return c == '\n'
+          || c == '\u000B'
+          || c == '\f'
+          || c == '\r'
+          || c == '\u0085'
+          || c == '\u2028'
+          || c == '\u2029';
+    }
+
+    /** Whether the given character matches {@code [A-Za-z_]}. */
+    private static boolean isAnnotationChar(char c) {
+      return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+    }
+
+    /** Whether the given character matches {@code [^\s,=]}. */
+    private static boolean isGlobChar(char c) {
+      return !isWhitespace(c) && c != ',' && c != '=';
+    }
+
+    /** Whether the given character matches {@code [^\s<>@,]}. */
+    private static boolean isEmailLocalPartChar(char c) {
+      return !isWhitespace(c) && c != '<' && c != '>' && c != '@' && c != ',';
+    }
+
+    /** Whether the given character matches {@code [^\s<>@#,]}. */
+    private static boolean isEmailDomainChar(char c) {
+      return isEmailLocalPartChar(c) && c != '#';
+    }
+
+    /** Whether the given character matches {@code [^\s:]}. */
+    private static boolean isProjectOrBranchNameChar(char c) {
+      return !isWhitespace(c) && c != ':';
+    }
+
+    /** Whether the given character matches {@code [^\s:#]}. */
+    private static boolean isFilePathChar(char c) {
+      return isProjectOrBranchNameChar(c) && c != '#';
     }
   }
 
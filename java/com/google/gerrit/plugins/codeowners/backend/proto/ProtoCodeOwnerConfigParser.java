@@ -24,6 +24,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigInterner;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigParseException;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigParser;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerReference;
@@ -98,6 +99,7 @@ public class ProtoCodeOwnerConfigParser implements CodeOwnerConfigParser {
                               .collect(toImmutableSet()))
                       .build())
           .filter(codeOwnerSet -> !codeOwnerSet.codeOwners().isEmpty())
+          .map(CodeOwnerConfigInterner::intern)
           .collect(toImmutableList());
     }
   }
@@ -0,0 +1,30 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+/** Enum that represents the kinds of code owner evaluations that are done for a change. */
+public enum CodeOwnerEvaluation {
+  /** Checking whether the change has sufficient code owner approvals to be submittable. */
+  SUBMITTABILITY,
+
+  /** Computing the code owner statuses of the files in the change. */
+  FILE_STATUSES,
+
+  /** Computing the paths in the change that are owned by an account. */
+  OWNED_PATHS,
+
+  /** Computing the file statuses and the paths in the change that are owned by an account. */
+  SUMMARY;
+}
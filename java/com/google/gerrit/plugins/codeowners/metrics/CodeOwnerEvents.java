@@ -0,0 +1,38 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+/**
+ * Constants for the JDK Flight Recorder (JFR) events of the code-owners plugin.
+ *
+ * <p>The events allow to attribute the time that is spent for code owner evaluations in continuous
+ * JFR recordings to the change, code owner config file or path that was evaluated, which is not
+ * possible with sampling profilers.
+ *
+ * <p>All events are disabled by default, so that they have negligible overhead. They can be enabled
+ * in the JFR settings that are used for a recording, e.g. {@code
+ * gerrit.codeowners.LoadCodeOwnerConfig#enabled=true} and {@code
+ * gerrit.codeowners.LoadCodeOwnerConfig#threshold=10 ms}. Callers must only compute event fields
+ * when the event is committed, so that disabled events don't cause any extra work.
+ */
+public final class CodeOwnerEvents {
+  /** Prefix of the names of all code-owners events. */
+  static final String NAME_PREFIX = "gerrit.codeowners.";
+
+  static final String CATEGORY_GERRIT = "Gerrit";
+  static final String CATEGORY_CODE_OWNERS = "Code Owners";
+
+  private CodeOwnerEvents() {}
+}
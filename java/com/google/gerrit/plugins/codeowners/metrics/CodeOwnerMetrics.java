@@ -14,8 +14,12 @@
 
 package com.google.gerrit.plugins.codeowners.metrics;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.extensions.registration.RegistrationHandle;
+import com.google.gerrit.metrics.CallbackMetric1;
 import com.google.gerrit.metrics.Counter0;
 import com.google.gerrit.metrics.Counter1;
+import com.google.gerrit.metrics.Counter2;
 import com.google.gerrit.metrics.Counter3;
 import com.google.gerrit.metrics.Description;
 import com.google.gerrit.metrics.Description.Units;
@@ -27,6 +31,7 @@ import com.google.gerrit.metrics.Timer1;
 import com.google.gerrit.server.logging.Metadata;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.function.Supplier;
 
 /** Metrics of the code-owners plugin. */
 @Singleton
@@ -34,10 +39,14 @@ public class CodeOwnerMetrics {
   // latency metrics
   public final Timer1<String> addChangeMessageOnAddReviewer;
   public final Timer0 addChangeMessageOnCodeOwnerApproval;
+  public final Timer1<String> asyncChangeMessageLatency;
+  public final Timer0 computeChangesAffectedByCodeOwnerConfigUpdate;
   public final Timer0 computeFileStatus;
   public final Timer1<Boolean> computeFileStatuses;
   public final Timer0 computeOwnedPaths;
   public final Timer0 computePatchSetApprovals;
+  public final Timer0 computePendingCodeOwners;
+  public final Timer0 computeSummary;
   public final Timer0 extendChangeMessageOnPostReview;
   public final Timer0 getChangedFiles;
   public final Timer0 prepareFileStatusComputation;
@@ -59,6 +68,11 @@ public class CodeOwnerMetrics {
   public final Timer1<String> parseCodeOwnerConfig;
 
   // counter metrics
+  public final Counter0 countChangeReindexes;
+  public final Counter1<String> countCoalescedChangeMessages;
+  public final Counter0 countCoalescedChangeReindexes;
+  public final Counter1<CodeOwnerEvaluation> countCoalescedEvaluations;
+  public final Counter1<Boolean> countCodeOwnerApprovalQueryMatches;
   public final Counter0 countCodeOwnerCacheReads;
   public final Counter0 countCodeOwnerConfigReads;
   public final Counter0 countCodeOwnerConfigCacheReads;
@@ -68,7 +82,11 @@ public class CodeOwnerMetrics {
   public final Counter1<String> countCodeOwnerSubmitRuleErrors;
   public final Counter0 countCodeOwnerSubmitRuleRuns;
   public final Counter1<Boolean> countCodeOwnerSuggestions;
+  public final Counter2<String, EvaluationBudgetLimit> countExceededEvaluationBudgets;
+  public final Counter0 countFailedChangeReindexes;
   public final Counter3<String, String, String> countInvalidCodeOwnerConfigFiles;
+  public final Counter0 countScheduledChangeReindexes;
+  public final Counter1<SubmittabilityFastPath> countSubmittabilityFastPaths;
 
   private final MetricMaker metricMaker;
 
@@ -91,6 +109,19 @@ public class CodeOwnerMetrics {
             "add_change_message_on_code_owner_approval",
             "Latency for asynchronously adding a change message with the owned path when a code"
                 + " owner approval is applied");
+    this.asyncChangeMessageLatency =
+        createTimer(
+            "async_change_message_latency",
+            "Latency from scheduling an asynchronous change message until it is posted (includes"
+                + " the time that the change message waits in the queue)",
+            Field.ofString("tag", (metadataBuilder, fieldValue) -> {})
+                .description("The tag of the change message.")
+                .build());
+    this.computeChangesAffectedByCodeOwnerConfigUpdate =
+        createTimer(
+            "compute_changes_affected_by_code_owner_config_update",
+            "Latency for computing the open changes that are affected by an update of code owner"
+                + " config files in a branch");
     this.computeFileStatus =
         createTimer("compute_file_status", "Latency for computing the file status of one file");
     this.computeFileStatuses =
@@ -108,6 +139,16 @@ public class CodeOwnerMetrics {
         createTimer(
             "compute_patch_set_approvals",
             "Latency for computing the approvals of the current patch set");
+    this.computePendingCodeOwners =
+        createTimer(
+            "compute_pending_code_owners",
+            "Latency for computing the accounts that own a file in a change that is not code owner"
+                + " approved yet");
+    this.computeSummary =
+        createTimer(
+            "compute_summary",
+            "Latency for computing the code owner summary of a change (file statuses and the paths"
+                + " that are owned by the calling user)");
     this.extendChangeMessageOnPostReview =
         createTimer(
             "extend_change_message_on_post_review",
@@ -167,6 +208,43 @@ public class CodeOwnerMetrics {
         createTimer("read_code_owner_config", "Latency for reading a code owner config file");
 
     // counter metrics
+    this.countChangeReindexes =
+        createCounter(
+            "count_change_reindexes",
+            "Total number of changes that were reindexed because relevant code owner config files"
+                + " were updated");
+    this.countCoalescedChangeMessages =
+        createCounter1(
+            "count_coalesced_change_messages",
+            "Total number of asynchronous change messages that were coalesced with an already"
+                + " scheduled change message for the same change",
+            Field.ofString("tag", (metadataBuilder, fieldValue) -> {})
+                .description("The tag of the change message.")
+                .build());
+    this.countCoalescedChangeReindexes =
+        createCounter(
+            "count_coalesced_change_reindexes",
+            "Total number of change reindexes that were coalesced with an already scheduled"
+                + " reindex of the same change");
+    this.countCoalescedEvaluations =
+        createCounter1(
+            "count_coalesced_evaluations",
+            "Total number of code owner evaluations that were not computed, but shared the result"
+                + " of an identical evaluation that was in progress",
+            Field.ofEnum(
+                    CodeOwnerEvaluation.class, "evaluation", (metadataBuilder, evaluation) -> {})
+                .description("The kind of evaluation.")
+                .build());
+    this.countCodeOwnerApprovalQueryMatches =
+        createCounter1(
+            "count_code_owner_approval_query_matches",
+            "Total number of changes that were matched against the has:approval_code-owners"
+                + " operator in search queries",
+            Field.ofBoolean("from_index", (metadataBuilder, fromIndex) -> {})
+                .description(
+                    "Whether the match was served from the indexed code owner status (if false"
+                        + " the code owner submit rule was evaluated).")
+                .build());
     this.countCodeOwnerCacheReads =
         createCounter(
             "count_code_owner_cache_reads", "Total number of code owner reads from cache");
@@ -213,6 +291,22 @@ public class CodeOwnerMetrics {
                     "Whether code ownerships that are assigned to all users are resolved to random"
                         + " users.")
                 .build());
+    this.countExceededEvaluationBudgets =
+        createCounter2(
+            "count_exceeded_evaluation_budgets",
+            "Total number of code owner evaluations that were aborted because they exceeded the"
+                + " evaluation budget",
+            Field.ofString("project", Metadata.Builder::projectName)
+                .description("The name of the project that contains the change.")
+                .build(),
+            Field.ofEnum(EvaluationBudgetLimit.class, "limit", (metadataBuilder, limit) -> {})
+                .description("The limit of the evaluation budget that was exceeded.")
+                .build());
+    this.countFailedChangeReindexes =
+        createCounter(
+            "count_failed_change_reindexes",
+            "Total number of changes that failed to be reindexed after relevant code owner config"
+                + " files were updated");
     this.countInvalidCodeOwnerConfigFiles =
         createCounter3(
             "count_invalid_code_owner_config_files",
@@ -229,6 +323,93 @@ public class CodeOwnerMetrics {
             Field.ofString("path", Metadata.Builder::filePath)
                 .description("The path of the invalid code owner config file.")
                 .build());
+    this.countScheduledChangeReindexes =
+        createCounter(
+            "count_scheduled_change_reindexes",
+            "Total number of changes that were scheduled for reindexing because relevant code owner"
+                + " config files were updated");
+    this.countSubmittabilityFastPaths =
+        createCounter1(
+            "count_submittability_fast_paths",
+            "Total number of code owner submittability checks that were decided without computing"
+                + " the code owner statuses of the changed files",
+            Field.ofEnum(
+                    SubmittabilityFastPath.class, "fast_path", (metadataBuilder, fastPath) -> {})
+                .description("The reason why the change is submittable.")
+                .build());
+  }
+
+  /**
+   * Registers a gauge that reports the number of asynchronous change messages that are waiting to
+   * be posted.
+   *
+   * @param queueDepth supplier for the number of asynchronous change messages that are waiting to
+   *     be posted
+   * @return handle to unregister the gauge
+   */
+  public RegistrationHandle registerAsyncChangeMessageQueueDepth(Supplier<Integer> queueDepth) {
+    return metricMaker.newCallbackMetric(
+        "async_change_message_queue_depth",
+        Integer.class,
+        new Description(
+                "Number of asynchronous change messages that are waiting to be posted (coalesced"
+                    + " change messages are counted once)")
+            .setGauge()
+            .setUnit("messages"),
+        queueDepth);
+  }
+
+  /**
+   * Registers gauges that report the code owner coverage of the branches for which the coverage is
+   * tracked.
+   *
+   * @param uncoveredFilesByBranch supplier for the number of files without code owners, keyed by
+   *     {@code <project>:<branch>}
+   * @param uncoveredFoldersByBranch supplier for the number of folders that contain files without
+   *     code owners, keyed by {@code <project>:<branch>}
+   * @return handle to unregister the gauges
+   */
+  public RegistrationHandle registerCodeOwnerCoverage(
+      Supplier<ImmutableMap<String, Integer>> uncoveredFilesByBranch,
+      Supplier<ImmutableMap<String, Integer>> uncoveredFoldersByBranch) {
+    CallbackMetric1<String, Integer> uncoveredFiles =
+        createBranchGauge(
+            "code_owner_coverage_uncovered_files",
+            "Number of files that fall back to the fallback code owners in a branch for which the"
+                + " code owner coverage is tracked",
+            "files");
+    CallbackMetric1<String, Integer> uncoveredFolders =
+        createBranchGauge(
+            "code_owner_coverage_uncovered_folders",
+            "Number of folders that contain files that fall back to the fallback code owners in a"
+                + " branch for which the code owner coverage is tracked",
+            "folders");
+    RegistrationHandle trigger =
+        metricMaker.newTrigger(
+            uncoveredFiles,
+            uncoveredFolders,
+            () -> {
+              uncoveredFilesByBranch.get().forEach(uncoveredFiles::set);
+              uncoveredFiles.prune();
+              uncoveredFoldersByBranch.get().forEach(uncoveredFolders::set);
+              uncoveredFolders.prune();
+            });
+    return () -> {
+      trigger.remove();
+      uncoveredFiles.remove();
+      uncoveredFolders.remove();
+    };
+  }
+
+  private CallbackMetric1<String, Integer> createBranchGauge(
+      String name, String description, String unit) {
+    return metricMaker.newCallbackMetric(
+        name,
+        Integer.class,
+        new Description(description).setGauge().setUnit(unit),
+        Field.ofString("branch", (metadataBuilder, fieldValue) -> {})
+            .description("The project and branch (<project>:<branch>).")
+            .build());
   }
 
   private Timer0 createTimer(String name, String description) {
@@ -260,6 +441,11 @@ public class CodeOwnerMetrics {
     return metricMaker.newCounter(name, new Description(description).setRate(), field1);
   }
 
+  private <F1, F2> Counter2<F1, F2> createCounter2(
+      String name, String description, Field<F1> field1, Field<F2> field2) {
+    return metricMaker.newCounter(name, new Description(description).setRate(), field1, field2);
+  }
+
   private <F1, F2, F3> Counter3<F1, F2, F3> createCounter3(
       String name, String description, Field<F1> field1, Field<F2> field2, Field<F3> field3) {
     return metricMaker.newCounter(
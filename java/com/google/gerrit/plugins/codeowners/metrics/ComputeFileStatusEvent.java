@@ -0,0 +1,60 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for computing the code owner status of a changed file.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "ComputeFileStatus")
+@Label("Compute File Status")
+@Description("Computing the code owner status of a changed file")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class ComputeFileStatusEvent extends jdk.jfr.Event {
+  @Label("Branch")
+  String branch;
+
+  @Label("Path")
+  String path;
+
+  @Label("Status")
+  String status;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}.
+   *
+   * @param branch the destination branch of the change, formatted as {@code <project>:<branch>}
+   * @param path the path of the changed file (the new path for renamed files)
+   * @param status the code owner status of the path
+   */
+  public void commit(String branch, String path, String status) {
+    this.branch = branch;
+    this.path = path;
+    this.status = status;
+    commit();
+  }
+}
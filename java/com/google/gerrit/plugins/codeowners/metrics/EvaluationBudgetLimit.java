@@ -0,0 +1,30 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+/** Enum that represents the limits of the budget for a single code owner evaluation of a change. */
+public enum EvaluationBudgetLimit {
+  /** The maximum evaluation time. */
+  TIME,
+
+  /** The maximum number of changed files for which the code owner status is computed. */
+  FILES,
+
+  /** The maximum number of code owner config files that are read from the backend. */
+  CODE_OWNER_CONFIG_READS,
+
+  /** The maximum number of code owner config imports that are resolved. */
+  IMPORTS;
+}
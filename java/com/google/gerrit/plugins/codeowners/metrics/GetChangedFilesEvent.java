@@ -0,0 +1,60 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for computing the files that have been changed in a revision.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "GetChangedFiles")
+@Label("Get Changed Files")
+@Description("Computing the files that have been changed in a revision")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class GetChangedFilesEvent extends jdk.jfr.Event {
+  @Label("Project")
+  String project;
+
+  @Label("Revision")
+  String revision;
+
+  @Label("Changed Files")
+  int changedFiles;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}.
+   *
+   * @param project the name of the project
+   * @param revision the revision for which the changed files have been computed
+   * @param changedFiles the number of changed files
+   */
+  public void commit(String project, String revision, int changedFiles) {
+    this.project = project;
+    this.revision = revision;
+    this.changedFiles = changedFiles;
+    commit();
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for loading a code owner config file from the code owner backend.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "LoadCodeOwnerConfig")
+@Label("Load Code Owner Config")
+@Description("Loading a code owner config file from the code owner backend")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class LoadCodeOwnerConfigEvent extends jdk.jfr.Event {
+  @Label("Code Owner Config")
+  String codeOwnerConfig;
+
+  @Label("Revision")
+  String revision;
+
+  @Label("Backend")
+  String backend;
+
+  @Label("Found")
+  boolean found;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}.
+   *
+   * @param codeOwnerConfig the code owner config that was loaded, formatted as {@code
+   *     <project>:<branch>:<folder>}
+   * @param revision the revision from which the code owner config was loaded, {@code null} if it
+   *     was loaded from the current revision of the branch
+   * @param backend the name of the code owner backend
+   * @param found whether the code owner config file exists
+   */
+  public void commit(String codeOwnerConfig, String revision, String backend, boolean found) {
+    this.codeOwnerConfig = codeOwnerConfig;
+    this.revision = revision;
+    this.backend = backend;
+    this.found = found;
+    commit();
+  }
+}
@@ -0,0 +1,62 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for parsing a code owner config file.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "ParseCodeOwnerConfig")
+@Label("Parse Code Owner Config")
+@Description("Parsing a code owner config file")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class ParseCodeOwnerConfigEvent extends jdk.jfr.Event {
+  @Label("Code Owner Config")
+  String codeOwnerConfig;
+
+  @Label("Blob ID")
+  String blobId;
+
+  @Label("Parser")
+  String parser;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}, so that the blob ID is
+   * only computed if the event is enabled.
+   *
+   * @param codeOwnerConfig the code owner config file that was parsed, formatted as {@code
+   *     <project>:<branch>:<file-path>}
+   * @param blobId the ID of the blob that contains the code owner config file
+   * @param parser the name of the parser
+   */
+  public void commit(String codeOwnerConfig, String blobId, String parser) {
+    this.codeOwnerConfig = codeOwnerConfig;
+    this.blobId = blobId;
+    this.parser = parser;
+    commit();
+  }
+}
@@ -0,0 +1,56 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for resolving the imports of a code owner config file.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "ResolveCodeOwnerConfigImports")
+@Label("Resolve Code Owner Config Imports")
+@Description("Resolving the imports of a code owner config file (including transitive imports)")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class ResolveCodeOwnerConfigImportsEvent extends jdk.jfr.Event {
+  @Label("Code Owner Config")
+  String codeOwnerConfig;
+
+  @Label("Imports")
+  int imports;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}.
+   *
+   * @param codeOwnerConfig the importing code owner config, formatted as {@code
+   *     <project>:<branch>:<folder>}
+   * @param imports the number of imports that have been resolved (including transitive imports)
+   */
+  public void commit(String codeOwnerConfig, int imports) {
+    this.codeOwnerConfig = codeOwnerConfig;
+    this.imports = imports;
+    commit();
+  }
+}
@@ -0,0 +1,55 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for resolving a batch of code owner references (emails) to accounts.
+ *
+ * <p>Disabled by default (see {@link CodeOwnerEvents}).
+ */
+@Name(CodeOwnerEvents.NAME_PREFIX + "ResolveCodeOwnerReferences")
+@Label("Resolve Code Owner References")
+@Description("Resolving a batch of code owner references (emails) to accounts")
+@Category({CodeOwnerEvents.CATEGORY_GERRIT, CodeOwnerEvents.CATEGORY_CODE_OWNERS})
+@Enabled(false)
+@StackTrace(false)
+public final class ResolveCodeOwnerReferencesEvent extends jdk.jfr.Event {
+  @Label("Code Owner References")
+  int codeOwnerReferences;
+
+  @Label("Resolved Code Owners")
+  int resolvedCodeOwners;
+
+  /**
+   * Commits the event.
+   *
+   * <p>Must only be called if {@link #shouldCommit()} returned {@code true}.
+   *
+   * @param codeOwnerReferences the number of code owner references that should be resolved
+   * @param resolvedCodeOwners the number of code owner references that could be resolved
+   */
+  public void commit(int codeOwnerReferences, int resolvedCodeOwners) {
+    this.codeOwnerReferences = codeOwnerReferences;
+    this.resolvedCodeOwners = resolvedCodeOwners;
+    commit();
+  }
+}
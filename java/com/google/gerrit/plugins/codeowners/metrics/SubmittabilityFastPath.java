@@ -0,0 +1,34 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.gerrit.plugins.codeowners.metrics;
+
+/**
+ * Enum that represents the reason why a change was found to be submittable without computing the
+ * code owner statuses of the changed files.
+ */
+public enum SubmittabilityFastPath {
+  /** The patch set uploader is exempted from requiring code owner approvals. */
+  EXEMPTED_UPLOADER,
+
+  /** A code owner override is present. */
+  OVERRIDE_APPROVAL,
+
+  /** The change is approved by a global code owner (who owns all files). */
+  GLOBAL_CODE_OWNER_APPROVAL,
+
+  /** The change is a pure revert which is exempted from requiring code owner approvals. */
+  PURE_REVERT;
+}
@@ -15,8 +15,19 @@
 package com.google.gerrit.plugins.codeowners.module;
 
 import com.google.gerrit.extensions.config.FactoryModule;
+import com.google.gerrit.extensions.events.GitReferenceUpdatedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
 import com.google.gerrit.plugins.codeowners.api.impl.ApiModule;
+import com.google.gerrit.plugins.codeowners.backend.AsyncChangeMessageQueue.AsyncChangeMessageQueueModule;
 import com.google.gerrit.plugins.codeowners.backend.BackendModule;
+import com.google.gerrit.plugins.codeowners.backend.ChangeReindexQueue.ChangeReindexQueueModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImpactReporter.CodeOwnerConfigImpactReporterModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportIndex.CodeOwnerConfigImportIndexModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigUpdateListener;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerCoverageTracker.CodeOwnerCoverageTrackerModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerStatusIndex.CodeOwnerStatusIndexModule;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnershipExporter.CodeOwnershipExporterModule;
+import com.google.gerrit.plugins.codeowners.backend.SlowCodeOwnerEvaluationLog.SlowCodeOwnerEvaluationLogModule;
 import com.google.gerrit.plugins.codeowners.backend.config.ConfigModule;
 import com.google.gerrit.plugins.codeowners.restapi.RestApiModule;
 import com.google.gerrit.plugins.codeowners.validation.ValidationModule;
@@ -30,5 +41,35 @@ public class PluginModule extends FactoryModule {
     install(new ConfigModule());
     install(new RestApiModule());
     install(new ValidationModule());
+
+    // Post the change messages that are added asynchronously (e.g. when a code owner is added as a
+    // reviewer) from a dedicated, coalescing queue.
+    install(new AsyncChangeMessageQueueModule());
+
+    // Maintain the index of the imports between code owner config files.
+    install(new CodeOwnerConfigImportIndexModule());
+
+    // Reindex the open changes that are affected by updates of code owner config files and
+    // invalidate their pending code owners.
+    install(new ChangeReindexQueueModule());
+    DynamicSet.bind(binder(), GitReferenceUpdatedListener.class)
+        .to(CodeOwnerConfigUpdateListener.class);
+
+    // Index the code owner statuses of open changes whenever they are reindexed, so that search
+    // operators don't need to compute them when queries are executed.
+    install(new CodeOwnerStatusIndexModule());
+
+    // Export the top-level folders of a branch in parallel when the code ownership is exported.
+    install(new CodeOwnershipExporterModule());
+
+    // Maintain the code owner coverage of branches for which it was requested.
+    install(new CodeOwnerCoverageTrackerModule());
+
+    // Report the impact of code owner config modifications in uploaded patch sets on the open
+    // changes of the destination branch.
+    install(new CodeOwnerConfigImpactReporterModule());
+
+    // Write code owner evaluations that exceed the configured threshold to a dedicated log file.
+    install(new SlowCodeOwnerEvaluationLogModule());
   }
 }
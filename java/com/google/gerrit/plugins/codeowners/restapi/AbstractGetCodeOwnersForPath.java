@@ -45,6 +45,7 @@ import com.google.gerrit.plugins.codeowners.api.CodeOwnersInfo;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwner;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotation;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigHierarchy;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolverResult;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerScore;
@@ -99,6 +100,7 @@ public abstract class AbstractGetCodeOwnersForPath<R extends AbstractPathResourc
   private final Provider<CodeOwnerResolver> codeOwnerResolver;
   private final CodeOwnerJson.Factory codeOwnerJsonFactory;
   private final CodeOwnerConfigFileJson codeOwnerConfigFileJson;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final EnumSet<ListAccountsOption> options;
   private final Set<String> hexOptions;
 
@@ -175,7 +177,8 @@ public abstract class AbstractGetCodeOwnersForPath<R extends AbstractPathResourc
       CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
       Provider<CodeOwnerResolver> codeOwnerResolver,
       CodeOwnerJson.Factory codeOwnerJsonFactory,
-      CodeOwnerConfigFileJson codeOwnerConfigFileJson) {
+      CodeOwnerConfigFileJson codeOwnerConfigFileJson,
+      CodeOwnerEvaluationTrace evaluationTrace) {
     this.accountVisibility = accountVisibility;
     this.accounts = accounts;
     this.accountControlFactory = accountControlFactory;
@@ -187,6 +190,7 @@ public abstract class AbstractGetCodeOwnersForPath<R extends AbstractPathResourc
     this.codeOwnerResolver = codeOwnerResolver;
     this.codeOwnerJsonFactory = codeOwnerJsonFactory;
     this.codeOwnerConfigFileJson = codeOwnerConfigFileJson;
+    this.evaluationTrace = evaluationTrace;
     this.options = EnumSet.noneOf(ListAccountsOption.class);
     this.hexOptions = new HashSet<>();
   }
@@ -206,6 +210,17 @@ public abstract class AbstractGetCodeOwnersForPath<R extends AbstractPathResourc
 
     codeOwnerMetrics.countCodeOwnerSuggestions.increment(resolveAllUsers);
 
+    try (CodeOwnerEvaluationTrace.Scope traceScope =
+        evaluationTrace.open(
+            "code owner suggestion",
+            rsrc.getBranch().project(),
+            String.format("path %s in branch %s", rsrc.getPath(), rsrc.getBranch().branch()))) {
+      return getCodeOwners(rsrc);
+    }
+  }
+
+  private Response<CodeOwnersInfo> getCodeOwners(R rsrc)
+      throws AuthException, BadRequestException, PermissionBackendException {
     // The distance that applies to code owners that are defined in the root code owner
     // configuration.
     int rootDistance = rsrc.getPath().getNameCount();
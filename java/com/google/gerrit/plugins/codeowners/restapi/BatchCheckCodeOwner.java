@@ -0,0 +1,113 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestModifyView;
+import com.google.gerrit.plugins.codeowners.api.BatchCheckCodeOwnerInput;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCheckInfo;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+
+/**
+ * REST endpoint that checks the code ownership of multiple users for multiple paths in a branch.
+ *
+ * <p>This REST endpoint handles {@code POST
+ * /projects/<project-name>/branches/<branch-name>/code_owners.batch_check} requests.
+ *
+ * <p>For each pair of path and email the same {@link CodeOwnerCheckInfo} is returned as by the
+ * {@link CheckCodeOwner} REST endpoint. Checking all pairs in one request is cheaper than checking
+ * them one by one, since the code owner configs of each path are visited and resolved only once and
+ * each email is resolved and has its permissions checked only once (see {@link
+ * CodeOwnerChecker}).
+ *
+ * <p>The number of checks (number of paths multiplied with the number of emails) that can be
+ * requested by a single request is limited by the {@code plugin.code-owners.maxChecksPerBatchCheck}
+ * setting in {@code gerrit.config}.
+ */
+public class BatchCheckCodeOwner
+    implements RestModifyView<BranchResource, BatchCheckCodeOwnerInput> {
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final Provider<CodeOwnerChecker> codeOwnerCheckerProvider;
+
+  @Inject
+  public BatchCheckCodeOwner(
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      Provider<CodeOwnerChecker> codeOwnerCheckerProvider) {
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerCheckerProvider = codeOwnerCheckerProvider;
+  }
+
+  @Override
+  public Response<Map<String, Map<String, CodeOwnerCheckInfo>>> apply(
+      BranchResource branchResource, BatchCheckCodeOwnerInput input)
+      throws BadRequestException, AuthException, IOException, ConfigInvalidException,
+          PermissionBackendException, ResourceNotFoundException {
+    CodeOwnerChecker codeOwnerChecker = codeOwnerCheckerProvider.get();
+    codeOwnerChecker.init(branchResource);
+
+    if (input.emails == null || input.emails.isEmpty()) {
+      throw new BadRequestException("emails required");
+    }
+    if (input.paths == null || input.paths.isEmpty()) {
+      throw new BadRequestException("paths required");
+    }
+    Set<String> emails = new LinkedHashSet<>(input.emails);
+    Set<String> paths = new LinkedHashSet<>(input.paths);
+    if (emails.contains(null)) {
+      throw new BadRequestException("emails must not contain null");
+    }
+    if (paths.contains(null)) {
+      throw new BadRequestException("paths must not contain null");
+    }
+    Optional<Integer> maxChecks =
+        codeOwnersPluginConfiguration.getGlobalConfig().getMaxChecksPerBatchCheck();
+    long numberOfChecks = (long) paths.size() * emails.size();
+    if (maxChecks.isPresent() && numberOfChecks > maxChecks.get()) {
+      throw new BadRequestException(
+          String.format(
+              "too many checks requested (%d paths x %d emails = %d checks), at most %d checks"
+                  + " are allowed",
+              paths.size(), emails.size(), numberOfChecks, maxChecks.get()));
+    }
+    codeOwnerChecker.setUser(input.user);
+    codeOwnerChecker.setChange(input.change);
+
+    ImmutableMap.Builder<String, Map<String, CodeOwnerCheckInfo>> resultBuilder =
+        ImmutableMap.builder();
+    for (String path : paths) {
+      ImmutableMap.Builder<String, CodeOwnerCheckInfo> codeOwnerCheckInfosByEmail =
+          ImmutableMap.builder();
+      for (String email : emails) {
+        codeOwnerCheckInfosByEmail.put(email, codeOwnerChecker.check(path, email));
+      }
+      resultBuilder.put(path, codeOwnerCheckInfosByEmail.build());
+    }
+    return Response.ok(resultBuilder.build());
+  }
+}
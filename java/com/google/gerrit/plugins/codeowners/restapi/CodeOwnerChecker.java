@@ -0,0 +1,670 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.IdString;
+import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
+import com.google.gerrit.extensions.restapi.TopLevelResource;
+import com.google.gerrit.plugins.codeowners.api.CheckedCodeOwnerConfigFileInfo;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCheckInfo;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerConfigFileInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwner;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotations;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigHierarchy;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.DebugMessage;
+import com.google.gerrit.plugins.codeowners.backend.FallbackCodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.OptionalResultWithMessages;
+import com.google.gerrit.plugins.codeowners.backend.PathCodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.PathCodeOwnersResult;
+import com.google.gerrit.plugins.codeowners.backend.TransientCodeOwnerConfigCache;
+import com.google.gerrit.plugins.codeowners.backend.UnresolvedImportFormatter;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.RequiredApproval;
+import com.google.gerrit.plugins.codeowners.util.JgitPath;
+import com.google.gerrit.server.CurrentUser;
+import com.google.gerrit.server.IdentifiedUser;
+import com.google.gerrit.server.change.ChangeFinder;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.permissions.ChangePermission;
+import com.google.gerrit.server.permissions.LabelPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.permissions.RefPermission;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.gerrit.server.restapi.account.AccountsCollection;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Checks the code ownership of users for paths in a branch.
+ *
+ * <p>Used by the {@link CheckCodeOwner} and {@link BatchCheckCodeOwner} REST endpoints.
+ *
+ * <p>The code owner configs that apply to a folder are looked up only once per folder, so that
+ * paths in the same folder share the lookup. Since per-file rules and imports depend on the path,
+ * the code owner configs are resolved once per path, no matter for how many emails the path is
+ * checked. Emails are resolved and their permissions are checked only once per email, no matter
+ * for how many paths the email is checked.
+ *
+ * <p>A new instance must be used for each request. {@link #init(BranchResource)} must be invoked
+ * before any check is done.
+ *
+ * <p><strong>Note</strong>: This class is not thread-safe.
+ */
+class CodeOwnerChecker {
+  private final CheckCodeOwnerCapability checkCodeOwnerCapability;
+  private final PermissionBackend permissionBackend;
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerConfigHierarchy codeOwnerConfigHierarchy;
+  private final PathCodeOwners.Factory pathCodeOwnersFactory;
+  private final TransientCodeOwnerConfigCache transientCodeOwnerConfigCache;
+  private final Provider<CodeOwnerResolver> codeOwnerResolverProvider;
+  private final CodeOwners codeOwners;
+  private final AccountsCollection accountsCollection;
+  private final UnresolvedImportFormatter unresolvedImportFormatter;
+  private final ChangeFinder changeFinder;
+  private final CodeOwnerConfigFileJson codeOwnerConfigFileJson;
+  private final Provider<CurrentUser> self;
+
+  private final Map<Path, ImmutableList<CodeOwnerConfig>> codeOwnerConfigsByFolder =
+      new HashMap<>();
+  private final Map<Path, ImmutableList<VisitedCodeOwnerConfig>> visitedCodeOwnerConfigsByPath =
+      new HashMap<>();
+  private final Map<String, EmailCheck> emailChecks = new HashMap<>();
+
+  private BranchResource branchResource;
+  private ChangeNotes changeNotes;
+  private IdentifiedUser identifiedUser;
+  private boolean isAdmin;
+
+  @Inject
+  CodeOwnerChecker(
+      CheckCodeOwnerCapability checkCodeOwnerCapability,
+      PermissionBackend permissionBackend,
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerConfigHierarchy codeOwnerConfigHierarchy,
+      PathCodeOwners.Factory pathCodeOwnersFactory,
+      TransientCodeOwnerConfigCache transientCodeOwnerConfigCache,
+      Provider<CodeOwnerResolver> codeOwnerResolverProvider,
+      CodeOwners codeOwners,
+      AccountsCollection accountsCollection,
+      UnresolvedImportFormatter unresolvedImportFormatter,
+      ChangeFinder changeFinder,
+      CodeOwnerConfigFileJson codeOwnerConfigFileJson,
+      Provider<CurrentUser> self) {
+    this.checkCodeOwnerCapability = checkCodeOwnerCapability;
+    this.permissionBackend = permissionBackend;
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerConfigHierarchy = codeOwnerConfigHierarchy;
+    this.pathCodeOwnersFactory = pathCodeOwnersFactory;
+    this.transientCodeOwnerConfigCache = transientCodeOwnerConfigCache;
+    this.codeOwnerResolverProvider = codeOwnerResolverProvider;
+    this.codeOwners = codeOwners;
+    this.accountsCollection = accountsCollection;
+    this.unresolvedImportFormatter = unresolvedImportFormatter;
+    this.changeFinder = changeFinder;
+    this.codeOwnerConfigFileJson = codeOwnerConfigFileJson;
+    this.self = self;
+  }
+
+  /**
+   * Initializes the checker for a branch.
+   *
+   * <p>Checks that the calling user is authenticated and that the branch exists.
+   *
+   * @param branchResource the branch in which the code ownership should be checked
+   */
+  void init(BranchResource branchResource)
+      throws AuthException, PermissionBackendException, ResourceNotFoundException {
+    if (!self.get().isIdentifiedUser()) {
+      throw new AuthException("Authentication required");
+    }
+
+    isAdmin = permissionBackend.currentUser().test(checkCodeOwnerCapability.getPermission());
+
+    if (branchResource.getRevision().isEmpty()) {
+      throw new ResourceNotFoundException(IdString.fromDecoded(branchResource.getName()));
+    }
+    this.branchResource = branchResource;
+  }
+
+  /**
+   * Sets the user for which the code owner visibility should be checked.
+   *
+   * <p>Only callers with the {@link CheckCodeOwnerCapability} can specify a user.
+   *
+   * @param user the user for which the code owner visibility should be checked, if {@code null}
+   *     the code owner visibility is not checked
+   */
+  void setUser(@Nullable String user)
+      throws BadRequestException, AuthException, IOException, ConfigInvalidException,
+          PermissionBackendException {
+    if (user != null) {
+      try {
+        permissionBackend.currentUser().check(checkCodeOwnerCapability.getPermission());
+      } catch (AuthException e) {
+        throw new AuthException(
+            String.format(
+                "%s: cannot specify a user to check a code owner on behalf of this user",
+                e.getMessage()),
+            e);
+      }
+
+      try {
+        identifiedUser =
+            accountsCollection
+                .parse(TopLevelResource.INSTANCE, IdString.fromDecoded(user))
+                .getUser();
+      } catch (ResourceNotFoundException e) {
+        throw new BadRequestException(String.format("user %s not found", user), e);
+      }
+    }
+  }
+
+  /**
+   * Sets the change for which permissions should be checked.
+   *
+   * <p>The change must be visible to the calling user and must target the branch of the checker.
+   *
+   * @param change the change for which permissions should be checked, if {@code null} change
+   *     permissions are not checked
+   */
+  void setChange(@Nullable String change) throws BadRequestException, PermissionBackendException {
+    requireNonNull(branchResource, "checker was not initialized");
+    if (change != null) {
+      Optional<ChangeNotes> changeNotes = changeFinder.findOne(change);
+      if (!changeNotes.isPresent()
+          || !permissionBackend
+              .currentUser()
+              .change(changeNotes.get())
+              .test(ChangePermission.READ)) {
+        throw new BadRequestException(String.format("change %s not found", change));
+      }
+      if (!changeNotes.get().getChange().getDest().equals(branchResource.getBranchKey())) {
+        throw new BadRequestException(
+            "target branch of specified change must match branch from the request URL");
+      }
+      this.changeNotes = changeNotes.get();
+    }
+  }
+
+  /**
+   * Checks the code ownership of the given email for the given path.
+   *
+   * @param path the path for which the code ownership should be checked
+   * @param email the email for which the code ownership should be checked
+   * @return the result of the check
+   */
+  CodeOwnerCheckInfo check(String path, String email) throws PermissionBackendException {
+    requireNonNull(branchResource, "checker was not initialized");
+
+    List<DebugMessage> messages = new ArrayList<>();
+    ImmutableList.Builder<CheckedCodeOwnerConfigFileInfo> checkedCodeOwnerConfigFileInfosBuilder =
+        ImmutableList.builder();
+    boolean isCodeOwnershipAssignedToEmail = false;
+    boolean isCodeOwnershipAssignedToAllUsers = false;
+    boolean isDefaultCodeOwner = false;
+    boolean hasRevelantCodeOwnerDefinitions = false;
+    boolean parentCodeOwnersAreIgnored = false;
+    Set<String> annotations = new HashSet<>();
+    for (VisitedCodeOwnerConfig visitedCodeOwnerConfig :
+        getVisitedCodeOwnerConfigs(JgitPath.of(path).getAsAbsolutePath())) {
+      CodeOwnerConfig codeOwnerConfig = visitedCodeOwnerConfig.codeOwnerConfig;
+      PathCodeOwnersResult pathCodeOwnersResult = visitedCodeOwnerConfig.pathCodeOwnersResult;
+
+      // Whether this code owner config file assigns code ownership to the user (either directly to
+      // the email or by making all users code owners).
+      boolean assignsCodeOwnershipToUser = false;
+
+      messages.addAll(visitedCodeOwnerConfig.messages);
+      Optional<CodeOwnerReference> codeOwnerReference =
+          pathCodeOwnersResult.getPathCodeOwners().stream()
+              .filter(cor -> cor.email().equals(email))
+              .findAny();
+      if (codeOwnerReference.isPresent() && !CodeOwnerResolver.ALL_USERS_WILDCARD.equals(email)) {
+        isCodeOwnershipAssignedToEmail = true;
+        assignsCodeOwnershipToUser = true;
+
+        if (RefNames.isConfigRef(codeOwnerConfig.key().ref())) {
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format(
+                      "found email %s as a code owner in the default code owner config", email)));
+          isDefaultCodeOwner = true;
+        } else {
+          Path codeOwnerConfigFilePath = codeOwners.getFilePath(codeOwnerConfig.key());
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format(
+                      "found email %s as a code owner in %s", email, codeOwnerConfigFilePath)));
+        }
+
+        ImmutableSet<String> localAnnotations = pathCodeOwnersResult.getAnnotationsFor(email);
+        if (!localAnnotations.isEmpty()) {
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format("email %s is annotated with %s", email, sort(localAnnotations))));
+          annotations.addAll(localAnnotations);
+        }
+      }
+
+      if (pathCodeOwnersResult.getPathCodeOwners().stream()
+          .anyMatch(cor -> cor.email().equals(CodeOwnerResolver.ALL_USERS_WILDCARD))) {
+        isCodeOwnershipAssignedToAllUsers = true;
+        assignsCodeOwnershipToUser = true;
+
+        if (RefNames.isConfigRef(codeOwnerConfig.key().ref())) {
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format(
+                      "found the all users wildcard ('%s') as a code owner in the default code"
+                          + " owner config which makes %s a code owner",
+                      CodeOwnerResolver.ALL_USERS_WILDCARD, email)));
+          isDefaultCodeOwner = true;
+        } else {
+          Path codeOwnerConfigFilePath = codeOwners.getFilePath(codeOwnerConfig.key());
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format(
+                      "found the all users wildcard ('%s') as a code owner in %s which makes %s a"
+                          + " code owner",
+                      CodeOwnerResolver.ALL_USERS_WILDCARD, codeOwnerConfigFilePath, email)));
+        }
+
+        ImmutableSet<String> localAnnotations =
+            pathCodeOwnersResult.getAnnotationsFor(CodeOwnerResolver.ALL_USERS_WILDCARD);
+        if (!localAnnotations.isEmpty()) {
+          messages.add(
+              DebugMessage.createMessage(
+                  String.format(
+                      "found annotations for the all users wildcard ('%s') which apply to %s: %s",
+                      CodeOwnerResolver.ALL_USERS_WILDCARD, email, sort(localAnnotations))));
+          annotations.addAll(localAnnotations);
+        }
+      }
+
+      if (pathCodeOwnersResult.hasRevelantCodeOwnerDefinitions()) {
+        hasRevelantCodeOwnerDefinitions = true;
+      }
+
+      if (pathCodeOwnersResult.ignoreParentCodeOwners()) {
+        messages.add(DebugMessage.createMessage("parent code owners are ignored"));
+        parentCodeOwnersAreIgnored = true;
+      }
+
+      checkedCodeOwnerConfigFileInfosBuilder.add(
+          CheckedCodeOwnerConfigFileJson.format(
+              visitedCodeOwnerConfig.codeOwnerConfigFileInfo,
+              assignsCodeOwnershipToUser,
+              pathCodeOwnersResult.ignoreParentCodeOwners(),
+              pathCodeOwnersResult.ignoreGlobalCodeOwners()));
+    }
+
+    Project.NameKey projectName = branchResource.getNameKey();
+    boolean isGlobalCodeOwner = false;
+
+    if (isGlobalCodeOwner(projectName, email)) {
+      isGlobalCodeOwner = true;
+      messages.add(
+          DebugMessage.createMessage(String.format("found email %s as global code owner", email)));
+      isCodeOwnershipAssignedToEmail = true;
+    }
+
+    if (isGlobalCodeOwner(projectName, CodeOwnerResolver.ALL_USERS_WILDCARD)) {
+      isGlobalCodeOwner = true;
+      messages.add(
+          DebugMessage.createMessage(
+              String.format(
+                  "found email %s as global code owner", CodeOwnerResolver.ALL_USERS_WILDCARD)));
+      isCodeOwnershipAssignedToAllUsers = true;
+    }
+
+    EmailCheck emailCheck = getEmailCheck(email);
+    messages.addAll(emailCheck.messages);
+
+    ImmutableSet<String> unsupportedAnnotations =
+        annotations.stream()
+            .filter(annotation -> !CodeOwnerAnnotations.isSupported(annotation))
+            .collect(toImmutableSet());
+    if (!unsupportedAnnotations.isEmpty()) {
+      messages.add(
+          DebugMessage.createMessage(
+              String.format(
+                  "dropping unsupported annotations for %s: %s",
+                  email, sort(unsupportedAnnotations))));
+      annotations.removeAll(unsupportedAnnotations);
+    }
+
+    boolean isFallbackCodeOwner =
+        !isCodeOwnershipAssignedToEmail
+            && !isCodeOwnershipAssignedToAllUsers
+            && !hasRevelantCodeOwnerDefinitions
+            && !parentCodeOwnersAreIgnored
+            && isFallbackCodeOwner(projectName);
+
+    CodeOwnerCheckInfo codeOwnerCheckInfo = new CodeOwnerCheckInfo();
+    codeOwnerCheckInfo.isCodeOwner =
+        (isCodeOwnershipAssignedToEmail || isCodeOwnershipAssignedToAllUsers || isFallbackCodeOwner)
+            && emailCheck.isResolvable;
+    codeOwnerCheckInfo.isResolvable = emailCheck.isResolvable;
+    codeOwnerCheckInfo.checkedCodeOwnerConfigs = checkedCodeOwnerConfigFileInfosBuilder.build();
+    codeOwnerCheckInfo.canReadRef = emailCheck.canReadRef;
+    codeOwnerCheckInfo.canSeeChange = emailCheck.canSeeChange;
+    codeOwnerCheckInfo.canApproveChange = emailCheck.canApproveChange;
+    codeOwnerCheckInfo.isFallbackCodeOwner = isFallbackCodeOwner && emailCheck.isResolvable;
+    codeOwnerCheckInfo.isDefaultCodeOwner = isDefaultCodeOwner;
+    codeOwnerCheckInfo.isGlobalCodeOwner = isGlobalCodeOwner;
+    codeOwnerCheckInfo.isOwnedByAllUsers = isCodeOwnershipAssignedToAllUsers;
+    codeOwnerCheckInfo.annotations = sort(annotations);
+
+    codeOwnerCheckInfo.debugLogs =
+        messages.stream()
+            .map(
+                debugMessage ->
+                    isAdmin ? debugMessage.adminMessage() : debugMessage.userMessage().orElse(null))
+            .filter(Objects::nonNull)
+            .collect(toImmutableList());
+
+    return codeOwnerCheckInfo;
+  }
+
+  /**
+   * Gets the code owner configs that apply to the given path, resolved for the given path.
+   *
+   * <p>The code owner configs are resolved only on the first invocation for a path.
+   */
+  private ImmutableList<VisitedCodeOwnerConfig> getVisitedCodeOwnerConfigs(Path absolutePath) {
+    ImmutableList<VisitedCodeOwnerConfig> visitedCodeOwnerConfigs =
+        visitedCodeOwnerConfigsByPath.get(absolutePath);
+    if (visitedCodeOwnerConfigs != null) {
+      return visitedCodeOwnerConfigs;
+    }
+
+    ImmutableList.Builder<VisitedCodeOwnerConfig> visitedCodeOwnerConfigsBuilder =
+        ImmutableList.builder();
+    for (CodeOwnerConfig codeOwnerConfig : getCodeOwnerConfigs(absolutePath)) {
+      PathCodeOwnersResult pathCodeOwnersResult =
+          pathCodeOwnersFactory
+              .create(transientCodeOwnerConfigCache, codeOwnerConfig, absolutePath)
+              .resolveCodeOwnerConfig();
+
+      List<DebugMessage> messages = new ArrayList<>();
+      messages.add(
+          DebugMessage.createMessage(
+              String.format(
+                  "checking code owner config file %s", codeOwnerConfig.key().format(codeOwners))));
+      messages.addAll(pathCodeOwnersResult.messages());
+      pathCodeOwnersResult
+          .unresolvedImports()
+          .forEach(
+              unresolvedImport ->
+                  messages.add(
+                      DebugMessage.createMessage(
+                          unresolvedImportFormatter.format(unresolvedImport))));
+
+      visitedCodeOwnerConfigsBuilder.add(
+          new VisitedCodeOwnerConfig(
+              codeOwnerConfig,
+              pathCodeOwnersResult,
+              codeOwnerConfigFileJson.format(
+                  codeOwnerConfig,
+                  pathCodeOwnersResult.resolvedImports(),
+                  pathCodeOwnersResult.unresolvedImports()),
+              ImmutableList.copyOf(messages)));
+
+      // Per-file rules and imports may ignore parent code owners for this path, even if they are
+      // not ignored for the folder.
+      if (pathCodeOwnersResult.ignoreParentCodeOwners()) {
+        break;
+      }
+    }
+    visitedCodeOwnerConfigs = visitedCodeOwnerConfigsBuilder.build();
+    visitedCodeOwnerConfigsByPath.put(absolutePath, visitedCodeOwnerConfigs);
+    return visitedCodeOwnerConfigs;
+  }
+
+  /**
+   * Gets the code owner configs that may apply to the given path, ordered from the code owner
+   * config that is closest to the path to the default code owner config in {@code
+   * refs/meta/config}.
+   *
+   * <p>The path is expected to be a file path, but if it's a folder that contains a code owner
+   * config, this code owner config is included too.
+   */
+  private ImmutableList<CodeOwnerConfig> getCodeOwnerConfigs(Path absolutePath) {
+    Path folder = absolutePath.getParent();
+    if (folder == null) {
+      // the path is the root folder
+      return getCodeOwnerConfigsForFolder(absolutePath);
+    }
+
+    Optional<CodeOwnerConfig> codeOwnerConfigInPath =
+        transientCodeOwnerConfigCache.get(
+            CodeOwnerConfig.Key.create(branchResource.getBranchKey(), absolutePath),
+            ObjectId.fromString(branchResource.getRevision().get()));
+    if (codeOwnerConfigInPath.isEmpty()) {
+      return getCodeOwnerConfigsForFolder(folder);
+    }
+    return ImmutableList.<CodeOwnerConfig>builder()
+        .add(codeOwnerConfigInPath.get())
+        .addAll(getCodeOwnerConfigsForFolder(folder))
+        .build();
+  }
+
+  /**
+   * Gets the code owner configs that apply to the given folder, ordered from the code owner config
+   * in the folder to the default code owner config in {@code refs/meta/config}.
+   *
+   * <p>The code owner configs are looked up only on the first invocation for a folder. Since
+   * per-file rules that ignore parent code owners are not considered for the folder, the returned
+   * code owner configs are a superset of the code owner configs that apply to files in the folder.
+   */
+  private ImmutableList<CodeOwnerConfig> getCodeOwnerConfigsForFolder(Path absoluteFolderPath) {
+    ImmutableList<CodeOwnerConfig> codeOwnerConfigs =
+        codeOwnerConfigsByFolder.get(absoluteFolderPath);
+    if (codeOwnerConfigs != null) {
+      return codeOwnerConfigs;
+    }
+
+    ImmutableList.Builder<CodeOwnerConfig> codeOwnerConfigsBuilder = ImmutableList.builder();
+    codeOwnerConfigHierarchy.visit(
+        branchResource.getBranchKey(),
+        ObjectId.fromString(branchResource.getRevision().get()),
+        absoluteFolderPath,
+        codeOwnerConfig -> {
+          codeOwnerConfigsBuilder.add(codeOwnerConfig);
+          return true;
+        });
+    codeOwnerConfigs = codeOwnerConfigsBuilder.build();
+    codeOwnerConfigsByFolder.put(absoluteFolderPath, codeOwnerConfigs);
+    return codeOwnerConfigs;
+  }
+
+  /**
+   * Gets the resolvability and the permissions of the given email.
+   *
+   * <p>The email is resolved and the permissions are checked only on the first invocation for an
+   * email.
+   */
+  private EmailCheck getEmailCheck(String email) throws PermissionBackendException {
+    EmailCheck emailCheck = emailChecks.get(email);
+    if (emailCheck != null) {
+      return emailCheck;
+    }
+
+    if (email.equals(CodeOwnerResolver.ALL_USERS_WILDCARD)) {
+      emailCheck =
+          new EmailCheck(
+              /* isResolvable= */ true,
+              /* messages= */ ImmutableList.of(),
+              /* canReadRef= */ null,
+              /* canSeeChange= */ null,
+              /* canApproveChange= */ null);
+    } else {
+      OptionalResultWithMessages<CodeOwner> isResolvableResult = isResolvable(email);
+      boolean isResolvable = isResolvableResult.isPresent();
+      Boolean canReadRef = null;
+      Boolean canSeeChange = null;
+      Boolean canApproveChange = null;
+
+      if (isResolvable) {
+        PermissionBackend.WithUser withUser =
+            permissionBackend.absentUser(isResolvableResult.get().accountId());
+        canReadRef = withUser.ref(branchResource.getBranchKey()).test(RefPermission.READ);
+
+        if (changeNotes != null) {
+          PermissionBackend.ForChange forChange = withUser.change(changeNotes);
+          canSeeChange = forChange.test(ChangePermission.READ);
+          RequiredApproval requiredApproval =
+              codeOwnersPluginConfiguration
+                  .getProjectConfig(branchResource.getNameKey())
+                  .getRequiredApproval();
+          canApproveChange =
+              forChange.test(
+                  new LabelPermission.WithValue(
+                      requiredApproval.labelType(), requiredApproval.value()));
+        }
+      }
+
+      emailCheck =
+          new EmailCheck(
+              isResolvable,
+              ImmutableList.copyOf(isResolvableResult.messages()),
+              canReadRef,
+              canSeeChange,
+              canApproveChange);
+    }
+
+    emailChecks.put(email, emailCheck);
+    return emailCheck;
+  }
+
+  private boolean isGlobalCodeOwner(Project.NameKey projectName, String email) {
+    return codeOwnersPluginConfiguration.getProjectConfig(projectName).getGlobalCodeOwners()
+        .stream()
+        .filter(cor -> cor.email().equals(email))
+        .findAny()
+        .isPresent();
+  }
+
+  private boolean isFallbackCodeOwner(Project.NameKey projectName) {
+    FallbackCodeOwners fallbackCodeOwners =
+        codeOwnersPluginConfiguration.getProjectConfig(projectName).getFallbackCodeOwners();
+    switch (fallbackCodeOwners) {
+      case NONE:
+        return false;
+      case ALL_USERS:
+        return true;
+    }
+    throw new IllegalStateException(
+        String.format(
+            "unknown value %s for fallbackCodeOwners in project %s",
+            fallbackCodeOwners.name(), projectName));
+  }
+
+  private OptionalResultWithMessages<CodeOwner> isResolvable(String email) {
+    CodeOwnerResolver codeOwnerResolver = codeOwnerResolverProvider.get();
+    if (identifiedUser != null) {
+      codeOwnerResolver.forUser(identifiedUser);
+    } else {
+      codeOwnerResolver.enforceVisibility(isAdmin ? false : true);
+    }
+
+    OptionalResultWithMessages<CodeOwner> resolveResult =
+        codeOwnerResolver.resolveWithMessages(CodeOwnerReference.create(email));
+
+    List<DebugMessage> messages = new ArrayList<>();
+    messages.add(DebugMessage.createMessage(String.format("trying to resolve email %s", email)));
+    messages.addAll(resolveResult.messages());
+    if (resolveResult.isPresent()) {
+      return OptionalResultWithMessages.create(resolveResult.get(), messages);
+    }
+    return OptionalResultWithMessages.createEmpty(messages);
+  }
+
+  private ImmutableList<String> sort(Set<String> set) {
+    return set.stream().sorted().collect(toImmutableList());
+  }
+
+  /** A code owner config that applies to a path, resolved for that path. */
+  private static class VisitedCodeOwnerConfig {
+    private final CodeOwnerConfig codeOwnerConfig;
+    private final PathCodeOwnersResult pathCodeOwnersResult;
+    private final CodeOwnerConfigFileInfo codeOwnerConfigFileInfo;
+
+    /** Debug messages that were collected while visiting and resolving the code owner config. */
+    private final ImmutableList<DebugMessage> messages;
+
+    VisitedCodeOwnerConfig(
+        CodeOwnerConfig codeOwnerConfig,
+        PathCodeOwnersResult pathCodeOwnersResult,
+        CodeOwnerConfigFileInfo codeOwnerConfigFileInfo,
+        ImmutableList<DebugMessage> messages) {
+      this.codeOwnerConfig = codeOwnerConfig;
+      this.pathCodeOwnersResult = pathCodeOwnersResult;
+      this.codeOwnerConfigFileInfo = codeOwnerConfigFileInfo;
+      this.messages = messages;
+    }
+  }
+
+  /** The resolvability and the permissions of an email. */
+  private static class EmailCheck {
+    private final boolean isResolvable;
+    private final ImmutableList<DebugMessage> messages;
+    @Nullable private final Boolean canReadRef;
+    @Nullable private final Boolean canSeeChange;
+    @Nullable private final Boolean canApproveChange;
+
+    EmailCheck(
+        boolean isResolvable,
+        ImmutableList<DebugMessage> messages,
+        @Nullable Boolean canReadRef,
+        @Nullable Boolean canSeeChange,
+        @Nullable Boolean canApproveChange) {
+      this.isResolvable = isResolvable;
+      this.messages = messages;
+      this.canReadRef = canReadRef;
+      this.canSeeChange = canSeeChange;
+      this.canApproveChange = canApproveChange;
+    }
+  }
+}
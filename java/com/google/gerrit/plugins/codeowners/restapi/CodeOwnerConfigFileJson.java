@@ -73,6 +73,22 @@ public class CodeOwnerConfigFileJson {
     return info;
   }
 
+  /**
+   * Formats the provided code owner config key as a {@link CodeOwnerConfigFileInfo}.
+   *
+   * <p>Only the project, branch and path are populated.
+   *
+   * @param codeOwnerConfigKey the key of the code owner config
+   * @return the provided {@link com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig.Key}
+   *     as {@link CodeOwnerConfigFileInfo}
+   */
+  public CodeOwnerConfigFileInfo format(CodeOwnerConfig.Key codeOwnerConfigKey) {
+    return format(
+        codeOwnerConfigKey,
+        /* resolvedImports= */ ImmutableList.of(),
+        /* unresolvedImports= */ ImmutableList.of());
+  }
+
   private CodeOwnerConfigFileInfo format(
       CodeOwnerConfig.Key codeOwnerConfigKey,
       List<CodeOwnerConfigImport> resolvedImports,
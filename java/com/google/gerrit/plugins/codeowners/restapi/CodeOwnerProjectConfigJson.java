@@ -79,24 +79,30 @@ public class CodeOwnerProjectConfigJson {
   }
 
   CodeOwnerBranchConfigInfo format(BranchResource branchResource) {
+    return format(branchResource.getBranchKey());
+  }
+
+  CodeOwnerBranchConfigInfo format(BranchNameKey branchNameKey) {
+    requireNonNull(branchNameKey, "branchNameKey");
+
     CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
-        codeOwnersPluginConfiguration.getProjectConfig(branchResource.getNameKey());
+        codeOwnersPluginConfiguration.getProjectConfig(branchNameKey.project());
 
     CodeOwnerBranchConfigInfo info = new CodeOwnerBranchConfigInfo();
 
-    boolean disabled = codeOwnersConfig.isDisabled(branchResource.getBranchKey().branch());
+    boolean disabled = codeOwnersConfig.isDisabled(branchNameKey.branch());
     info.disabled = disabled ? disabled : null;
 
     if (disabled) {
       return info;
     }
 
-    info.general = formatGeneralInfo(branchResource.getNameKey());
+    info.general = formatGeneralInfo(branchNameKey.project());
     info.backendId =
         CodeOwnerBackendId.getBackendId(
-            codeOwnersConfig.getBackend(branchResource.getBranchKey().branch()).getClass());
-    info.requiredApproval = formatRequiredApprovalInfo(branchResource.getNameKey());
-    info.overrideApproval = formatOverrideApprovalInfo(branchResource.getNameKey());
+            codeOwnersConfig.getBackend(branchNameKey.branch()).getClass());
+    info.requiredApproval = formatRequiredApprovalInfo(branchNameKey.project());
+    info.overrideApproval = formatOverrideApprovalInfo(branchNameKey.project());
 
     return info;
   }
@@ -31,6 +31,7 @@ import com.google.gerrit.extensions.common.ChangeType;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerStatusInfo;
 import com.google.gerrit.plugins.codeowners.api.FileCodeOwnerStatusInfo;
 import com.google.gerrit.plugins.codeowners.api.PathCodeOwnerStatusInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
 import com.google.gerrit.plugins.codeowners.backend.FileCodeOwnerStatus;
 import com.google.gerrit.plugins.codeowners.backend.PathCodeOwnerStatus;
 import com.google.gerrit.plugins.codeowners.util.JgitPath;
@@ -77,10 +78,14 @@ public class CodeOwnerStatusInfoJson {
               .build());
 
   private final AccountLoader.Factory accountLoaderFactory;
+  private final CodeOwnerAccountDependencies accountDependencies;
 
   @Inject
-  public CodeOwnerStatusInfoJson(AccountLoader.Factory accountLoaderFactory) {
+  public CodeOwnerStatusInfoJson(
+      AccountLoader.Factory accountLoaderFactory,
+      CodeOwnerAccountDependencies accountDependencies) {
     this.accountLoaderFactory = accountLoaderFactory;
+    this.accountDependencies = accountDependencies;
   }
 
   /**
@@ -107,6 +112,7 @@ public class CodeOwnerStatusInfoJson {
 
     AccountLoader accountLoader = accountLoaderFactory.create(/* detailed= */ true);
     ImmutableSet<Account.Id> referencedAccounts = getReferencedAccounts(patchSetId, info);
+    accountDependencies.recordAccounts(referencedAccounts);
     info.accounts =
         !referencedAccounts.isEmpty()
             ? referencedAccounts.stream()
@@ -190,6 +196,7 @@ public class CodeOwnerStatusInfoJson {
     PathCodeOwnerStatusInfo info = new PathCodeOwnerStatusInfo();
     info.path = JgitPath.of(pathCodeOwnerStatus.path()).get();
     info.status = pathCodeOwnerStatus.status();
+    // The reasons are kept as structured values and are only rendered to messages here.
     info.reasons = !pathCodeOwnerStatus.reasons().isEmpty() ? pathCodeOwnerStatus.reasons() : null;
     return info;
   }
@@ -0,0 +1,413 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static com.google.gerrit.server.project.ProjectCache.illegalState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.AccountGroup;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.entities.RefNames;
+import com.google.gerrit.exceptions.StorageException;
+import com.google.gerrit.extensions.annotations.PluginName;
+import com.google.gerrit.extensions.events.AccountIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportIndex;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshotCache;
+import com.google.gerrit.server.CurrentUser;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.externalids.ExternalId;
+import com.google.gerrit.server.change.ChangeResource;
+import com.google.gerrit.server.config.GerritServerConfig;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.gerrit.server.project.ProjectResource;
+import com.google.gerrit.server.project.ProjectState;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Computes the ETags for the code owner REST endpoints.
+ *
+ * <p>The ETags cover the inputs from which the REST endpoints compute their responses, so that
+ * callers that poll these REST endpoints get a {@code 304 Not Modified} response, without the
+ * response being recomputed, as long as none of these inputs has changed:
+ *
+ * <ul>
+ *   <li>the code-owners plugin configuration in {@code gerrit.config}
+ *   <li>the code-owners plugin configuration of the project and its parent projects (covered by
+ *       the revisions of their {@code refs/meta/config} branches)
+ *   <li>for change endpoints: the change ETag (covers the change meta revision, the patch sets, the
+ *       approvals and the calling user), the revision of the destination branch (from which the
+ *       code owner config files are read), the revisions of the branches from which code owner
+ *       config files are imported (see below) and the state of the accounts and groups on which
+ *       the response depends (see below)
+ *   <li>the request parameters
+ * </ul>
+ *
+ * <p>The responses of change endpoints depend on the accounts to which the emails in the code
+ * owner config files resolve (their emails and whether they are active) and, if account
+ * visibility is checked, on group memberships. Which accounts are relevant is only known after
+ * evaluating the code owners. Hence change endpoints record the accounts on which their response
+ * depends (see {@link CodeOwnerAccountDependencies} and {@link
+ * #recordAccountDependencies(CodeOwnerAccountDependencies.Scope, ChangeResource, Object...)}) and
+ * the ETags cover versions that are only incremented when one of these accounts (or an account
+ * that has one of the looked up emails) is reindexed. The versions are kept per stripe of
+ * accounts and emails, so that an account update only changes the ETags of responses that depend
+ * on an account or email of the same stripe. If the response depends on group memberships, the
+ * ETag covers a version that is incremented whenever any group is reindexed.
+ *
+ * <p>As long as the dependencies of a response are not known (the response for the current state
+ * of the change was not computed yet, or was computed by another request, see {@link
+ * com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationCoalescer}), the ETag covers
+ * versions that are incremented whenever any account or group is reindexed.
+ *
+ * <p>All versions are combined with a random value that is chosen when the plugin is loaded, so
+ * that ETags that were computed before a restart are never reused.
+ *
+ * <p>Code owner config files in the destination branch (and the default code owner config in
+ * {@code refs/meta/config}) may import code owner config files from other branches and projects.
+ * The branches from which code owner config files are imported, directly or transitively, are
+ * looked up from the {@link CodeOwnerConfigImportIndex} and the ETags of change endpoints cover
+ * their revisions, so that updates of imported code owner config files change the ETags.
+ */
+@Singleton
+public class CodeOwnersETagComputation implements AccountIndexedListener, GroupIndexedListener {
+  /** Distinguishes the account and group versions of different plugin instances. */
+  private final long accountsAndGroupsEpoch = new SecureRandom().nextLong();
+
+  /** The number of stripes into which the versions of accounts and emails are divided. */
+  private static final int ACCOUNT_VERSION_STRIPES = 8192;
+
+  /**
+   * The maximum number of change states for which the account dependencies of the responses are
+   * kept.
+   */
+  private static final int MAX_ACCOUNT_DEPENDENCIES = 10_000;
+
+  /**
+   * Versions of the stripes of accounts and emails, the version of a stripe is incremented whenever
+   * an account of the stripe or an account that has an email of the stripe is reindexed.
+   */
+  private final AtomicLongArray accountVersions = new AtomicLongArray(ACCOUNT_VERSION_STRIPES);
+
+  /** Incremented whenever an account is reindexed. */
+  private final AtomicLong accountsVersion = new AtomicLong();
+
+  /** Incremented whenever a group is reindexed. */
+  private final AtomicLong groupsVersion = new AtomicLong();
+
+  /**
+   * The account dependencies of the responses of change endpoints, keyed by the hash of the
+   * other inputs of the ETag (see {@link #hashChangeState(ChangeResource, Object...)}).
+   */
+  private final Cache<HashCode, CodeOwnerAccountDependencies.Dependencies>
+      accountDependenciesByChangeState =
+          CacheBuilder.newBuilder().maximumSize(MAX_ACCOUNT_DEPENDENCIES).build();
+
+  private final String pluginName;
+  private final Config gerritConfig;
+  private final ProjectCache projectCache;
+  private final GitRepositoryManager repoManager;
+  private final AccountCache accountCache;
+  private final CodeOwnerConfigImportIndex codeOwnerConfigImportIndex;
+
+  @Inject
+  CodeOwnersETagComputation(
+      @PluginName String pluginName,
+      @GerritServerConfig Config gerritConfig,
+      ProjectCache projectCache,
+      GitRepositoryManager repoManager,
+      AccountCache accountCache,
+      CodeOwnerConfigImportIndex codeOwnerConfigImportIndex) {
+    this.pluginName = pluginName;
+    this.gerritConfig = gerritConfig;
+    this.projectCache = projectCache;
+    this.repoManager = repoManager;
+    this.accountCache = accountCache;
+    this.codeOwnerConfigImportIndex = codeOwnerConfigImportIndex;
+  }
+
+  /**
+   * Computes the ETag for a REST endpoint on change or revision level.
+   *
+   * <p>The REST endpoint must record the account dependencies of its response via {@link
+   * #recordAccountDependencies(CodeOwnerAccountDependencies.Scope, ChangeResource, Object...)},
+   * otherwise the ETag changes whenever any account or group is reindexed.
+   *
+   * @param changeResource the change resource
+   * @param parameters the request parameters that affect the response
+   */
+  public String getETag(ChangeResource changeResource, Object... parameters) {
+    HashCode changeState = hashChangeState(changeResource, parameters);
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    hasher.putBytes(changeState.asBytes());
+    hasher.putLong(accountsAndGroupsEpoch);
+
+    CodeOwnerAccountDependencies.Dependencies dependencies =
+        accountDependenciesByChangeState.getIfPresent(changeState);
+    if (dependencies == null) {
+      hasher.putBoolean(false);
+      hasher.putLong(accountsVersion.get());
+      hasher.putLong(groupsVersion.get());
+      return hasher.hash().toString();
+    }
+
+    hasher.putBoolean(true);
+    IntStream.concat(
+            dependencies.accountIds().stream().mapToInt(CodeOwnersETagComputation::getStripe),
+            dependencies.emails().stream().mapToInt(CodeOwnersETagComputation::getStripe))
+        .distinct()
+        .sorted()
+        .forEach(stripe -> hasher.putInt(stripe).putLong(accountVersions.get(stripe)));
+    if (dependencies.dependsOnGroups()) {
+      hasher.putLong(groupsVersion.get());
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Records the accounts and groups on which the response of a REST endpoint on change or revision
+   * level depends, so that the ETags of the REST endpoint only change if one of these accounts or
+   * groups is reindexed (see {@link #getETag(ChangeResource, Object...)}).
+   *
+   * <p>Must be invoked by the REST endpoint after it computed its response.
+   *
+   * @param scope the scope in which the REST endpoint recorded the account dependencies while
+   *     computing its response
+   * @param changeResource the change resource
+   * @param parameters the request parameters that affect the response, must be the same parameters
+   *     that the REST endpoint passes into {@link #getETag(ChangeResource, Object...)}
+   */
+  public void recordAccountDependencies(
+      CodeOwnerAccountDependencies.Scope scope,
+      ChangeResource changeResource,
+      Object... parameters) {
+    HashCode changeState = hashChangeState(changeResource, parameters);
+    Optional<CodeOwnerAccountDependencies.Dependencies> dependencies = scope.getDependencies();
+    if (dependencies.isPresent()) {
+      accountDependenciesByChangeState.put(changeState, dependencies.get());
+    } else {
+      accountDependenciesByChangeState.invalidate(changeState);
+    }
+  }
+
+  /**
+   * Computes the ETag for a REST endpoint on branch level whose response doesn't depend on the
+   * content of the branch.
+   *
+   * @param branchResource the branch resource
+   * @param parameters the request parameters that affect the response
+   */
+  public String getETag(BranchResource branchResource, Object... parameters) {
+    Hasher hasher = newHasher(branchResource.getProjectState(), parameters);
+    hasher.putString(branchResource.getBranchKey().branch(), UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Computes the ETag for a REST endpoint on project level whose response depends on the branches
+   * of the project that are visible to the calling user, but not on their content.
+   *
+   * <p>Since branch visibility depends on the group memberships of the calling user, the ETag
+   * covers the calling user and its groups.
+   *
+   * @param projectResource the project resource
+   * @param parameters the request parameters that affect the response
+   */
+  public String getETag(ProjectResource projectResource, Object... parameters) {
+    Hasher hasher = newHasher(projectResource.getProjectState(), parameters);
+    hashUser(hasher, projectResource.getUser());
+    hashBranchNames(hasher, projectResource.getNameKey());
+    return hasher.hash().toString();
+  }
+
+  @Override
+  public void onAccountIndexed(int id) {
+    Account.Id accountId = Account.id(id);
+    accountVersions.incrementAndGet(getStripe(accountId));
+
+    // Responses that depend on whether an account with a certain email exists must change if an
+    // account gets this email.
+    accountCache
+        .get(accountId)
+        .ifPresent(
+            accountState -> {
+              accountState.externalIds().stream()
+                  .map(ExternalId::email)
+                  .filter(Objects::nonNull)
+                  .forEach(email -> accountVersions.incrementAndGet(getStripe(email)));
+              if (accountState.account().preferredEmail() != null) {
+                accountVersions.incrementAndGet(
+                    getStripe(accountState.account().preferredEmail()));
+              }
+            });
+
+    accountsVersion.incrementAndGet();
+  }
+
+  @Override
+  public void onGroupIndexed(String uuid) {
+    groupsVersion.incrementAndGet();
+  }
+
+  /**
+   * Hashes the inputs of the ETag of a REST endpoint on change or revision level, except the
+   * versions of accounts and groups.
+   */
+  private HashCode hashChangeState(ChangeResource changeResource, Object... parameters) {
+    Hasher hasher =
+        newHasher(
+            projectCache
+                .get(changeResource.getProject())
+                .orElseThrow(illegalState(changeResource.getProject())),
+            parameters);
+    changeResource.prepareETag(hasher, changeResource.getUser());
+    hashCodeOwnerConfigBranchRevisions(hasher, changeResource.getChange().getDest());
+    return hasher.hash();
+  }
+
+  private static int getStripe(Account.Id accountId) {
+    return Math.floorMod(("account:" + accountId.get()).hashCode(), ACCOUNT_VERSION_STRIPES);
+  }
+
+  private static int getStripe(String email) {
+    // Emails that only differ in case are mapped to the same stripe, so that updates are not missed
+    // if emails are looked up case-insensitively.
+    return Math.floorMod(
+        ("email:" + email.toLowerCase(Locale.US)).hashCode(), ACCOUNT_VERSION_STRIPES);
+  }
+
+  private Hasher newHasher(ProjectState projectState, Object... parameters) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (String name : gerritConfig.getNames("plugin", pluginName)) {
+      hasher.putString(name, UTF_8);
+      for (String value : gerritConfig.getStringList("plugin", pluginName, name)) {
+        hasher.putString(value, UTF_8);
+      }
+    }
+    for (ObjectId configRevision :
+        CodeOwnersPluginProjectConfigSnapshotCache.getConfigRevisions(projectState)) {
+      hasher.putString(configRevision.name(), UTF_8);
+    }
+    for (Object parameter : parameters) {
+      hasher.putString(String.valueOf(parameter), UTF_8);
+    }
+    return hasher;
+  }
+
+  /**
+   * Hashes the revisions of the given destination branch and of all branches from which code owner
+   * config files in the destination branch import code owner config files, directly or
+   * transitively.
+   *
+   * <p>The default code owner config in {@code refs/meta/config} is treated as an importing code
+   * owner config too.
+   */
+  private void hashCodeOwnerConfigBranchRevisions(Hasher hasher, BranchNameKey destBranch) {
+    Set<BranchNameKey> visited = new HashSet<>();
+    visited.add(destBranch);
+    visited.add(BranchNameKey.create(destBranch.project(), RefNames.REFS_CONFIG));
+    Deque<BranchNameKey> toVisit = new ArrayDeque<>(visited);
+    SortedMap<BranchNameKey, ObjectId> revisions = new TreeMap<>();
+    while (!toVisit.isEmpty()) {
+      BranchNameKey branchNameKey = toVisit.poll();
+      if (!projectCache.get(branchNameKey.project()).isPresent()) {
+        // Imports from non-existing projects are unresolvable.
+        continue;
+      }
+      Optional<ObjectId> revision = getBranchRevision(branchNameKey);
+      revisions.put(branchNameKey, revision.orElse(ObjectId.zeroId()));
+      if (!revision.isPresent()) {
+        continue;
+      }
+      codeOwnerConfigImportIndex
+          .get(branchNameKey, revision.get(), /* baseRevision= */ null)
+          .imports()
+          .values()
+          .stream()
+          .map(CodeOwnerConfig.Key::branchNameKey)
+          .filter(visited::add)
+          .forEach(toVisit::add);
+    }
+    for (Map.Entry<BranchNameKey, ObjectId> e : revisions.entrySet()) {
+      hasher
+          .putString(e.getKey().project().get(), UTF_8)
+          .putString(e.getKey().branch(), UTF_8)
+          .putString(e.getValue().name(), UTF_8);
+    }
+  }
+
+  private Optional<ObjectId> getBranchRevision(BranchNameKey branchNameKey) {
+    try (Repository repository = repoManager.openRepository(branchNameKey.project())) {
+      Ref ref = repository.exactRef(branchNameKey.branch());
+      return ref != null ? Optional.of(ref.getObjectId()) : Optional.empty();
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format("failed to read revision of branch %s", branchNameKey), e);
+    }
+  }
+
+  private void hashBranchNames(Hasher hasher, Project.NameKey projectName) {
+    try (Repository repository = repoManager.openRepository(projectName)) {
+      for (Ref ref : repository.getRefDatabase().getRefsByPrefix(RefNames.REFS_HEADS)) {
+        hasher.putString(ref.getName(), UTF_8);
+      }
+    } catch (IOException e) {
+      throw new StorageException(
+          String.format("failed to read branches of project %s", projectName), e);
+    }
+  }
+
+  private static void hashUser(Hasher hasher, CurrentUser user) {
+    if (!user.isIdentifiedUser()) {
+      hasher.putInt(0);
+      return;
+    }
+    hasher.putInt(user.getAccountId().get());
+    for (AccountGroup.UUID groupUuid : user.getEffectiveGroups().getKnownGroups()) {
+      hasher.putString(groupUuid.get(), UTF_8);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BinaryResult;
+import com.google.gerrit.extensions.restapi.IdString;
+import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestReadView;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnershipExporter;
+import com.google.gerrit.server.permissions.GlobalPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.inject.Inject;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+import org.kohsuke.args4j.Option;
+
+/**
+ * REST endpoint that exports the code ownership of all files in a branch.
+ *
+ * <p>This REST endpoint handles {@code GET
+ * /projects/<project-name>/branches/<branch-name>/code_owners.export} requests.
+ *
+ * <p>The rows are streamed to the client while the branch is being walked (see {@link
+ * CodeOwnershipExporter}).
+ *
+ * <p>Requires the 'Administrate Server' global capability.
+ */
+public class ExportCodeOwnership implements RestReadView<BranchResource> {
+  private final PermissionBackend permissionBackend;
+  private final CodeOwnershipExporter codeOwnershipExporter;
+
+  private CodeOwnershipExporter.Format format = CodeOwnershipExporter.Format.JSONL;
+
+  @Inject
+  public ExportCodeOwnership(
+      PermissionBackend permissionBackend, CodeOwnershipExporter codeOwnershipExporter) {
+    this.permissionBackend = permissionBackend;
+    this.codeOwnershipExporter = codeOwnershipExporter;
+  }
+
+  @Option(name = "--format", usage = "format of the export (JSONL or CSV), by default JSONL")
+  public void setFormat(CodeOwnershipExporter.Format format) {
+    this.format = format;
+  }
+
+  @Override
+  public Response<BinaryResult> apply(BranchResource branchResource)
+      throws AuthException, PermissionBackendException, ResourceNotFoundException {
+    permissionBackend.currentUser().check(GlobalPermission.ADMINISTRATE_SERVER);
+
+    if (branchResource.getRevision().isEmpty()) {
+      throw new ResourceNotFoundException(IdString.fromDecoded(branchResource.getName()));
+    }
+
+    CodeOwnershipExporter.Format format = this.format;
+    BinaryResult binaryResult =
+        new BinaryResult() {
+          @Override
+          public void writeTo(OutputStream os) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(os, UTF_8));
+            codeOwnershipExporter.export(
+                branchResource.getBranchKey(), codeOwnershipExporter.newRowWriter(format, writer));
+            writer.flush();
+          }
+        };
+    return Response.ok(
+        binaryResult
+            .setContentType(format.getContentType())
+            .setCharacterEncoding(UTF_8)
+            .setAttachmentName("code-ownership." + format.name().toLowerCase(Locale.US)));
+  }
+}
@@ -14,9 +14,9 @@
 
 package com.google.gerrit.plugins.codeowners.restapi;
 
+import com.google.gerrit.extensions.restapi.ETagView;
 import com.google.gerrit.extensions.restapi.Response;
 import com.google.gerrit.extensions.restapi.RestApiException;
-import com.google.gerrit.extensions.restapi.RestReadView;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerBranchConfigInfo;
 import com.google.gerrit.server.permissions.PermissionBackendException;
 import com.google.gerrit.server.project.BranchResource;
@@ -29,14 +29,25 @@ import java.io.IOException;
  *
  * <p>This REST endpoint handles {@code GET
  * /projects/<project-name>/branches/<branch-name>/code_owners.branch_config} requests.
+ *
+ * <p>Responses have an ETag (see {@link CodeOwnersETagComputation}).
  */
 @Singleton
-public class GetCodeOwnerBranchConfig implements RestReadView<BranchResource> {
+public class GetCodeOwnerBranchConfig implements ETagView<BranchResource> {
   private final CodeOwnerProjectConfigJson codeOwnerProjectConfigJson;
+  private final CodeOwnersETagComputation codeOwnersETagComputation;
 
   @Inject
-  public GetCodeOwnerBranchConfig(CodeOwnerProjectConfigJson codeOwnerProjectConfigJson) {
+  public GetCodeOwnerBranchConfig(
+      CodeOwnerProjectConfigJson codeOwnerProjectConfigJson,
+      CodeOwnersETagComputation codeOwnersETagComputation) {
     this.codeOwnerProjectConfigJson = codeOwnerProjectConfigJson;
+    this.codeOwnersETagComputation = codeOwnersETagComputation;
+  }
+
+  @Override
+  public String getETag(BranchResource branchResource) {
+    return codeOwnersETagComputation.getETag(branchResource);
   }
 
   @Override
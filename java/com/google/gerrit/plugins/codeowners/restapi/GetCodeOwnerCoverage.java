@@ -0,0 +1,98 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.IdString;
+import com.google.gerrit.extensions.restapi.ResourceNotFoundException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestReadView;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCoverageInfo;
+import com.google.gerrit.plugins.codeowners.api.FolderCoverageInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerCoverage;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerCoverageTracker;
+import com.google.gerrit.server.permissions.GlobalPermission;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * REST endpoint that gets the code owner coverage of a branch.
+ *
+ * <p>This REST endpoint handles {@code GET
+ * /projects/<project-name>/branches/<branch-name>/code_owners.coverage} requests.
+ *
+ * <p>The first request for a branch computes the coverage by a single pass over the branch, further
+ * requests get the coverage that is maintained incrementally (see {@link
+ * CodeOwnerCoverageTracker}).
+ *
+ * <p>Requires the 'Administrate Server' global capability.
+ */
+@Singleton
+public class GetCodeOwnerCoverage implements RestReadView<BranchResource> {
+  private final PermissionBackend permissionBackend;
+  private final CodeOwnerCoverageTracker codeOwnerCoverageTracker;
+
+  @Inject
+  public GetCodeOwnerCoverage(
+      PermissionBackend permissionBackend, CodeOwnerCoverageTracker codeOwnerCoverageTracker) {
+    this.permissionBackend = permissionBackend;
+    this.codeOwnerCoverageTracker = codeOwnerCoverageTracker;
+  }
+
+  @Override
+  public Response<CodeOwnerCoverageInfo> apply(BranchResource branchResource)
+      throws AuthException, IOException, PermissionBackendException, ResourceNotFoundException {
+    permissionBackend.currentUser().check(GlobalPermission.ADMINISTRATE_SERVER);
+
+    CodeOwnerCoverage codeOwnerCoverage =
+        codeOwnerCoverageTracker
+            .get(branchResource.getBranchKey())
+            .orElseThrow(
+                () ->
+                    new ResourceNotFoundException(
+                        IdString.fromDecoded(branchResource.getName())));
+    return Response.ok(format(codeOwnerCoverage));
+  }
+
+  private static CodeOwnerCoverageInfo format(CodeOwnerCoverage codeOwnerCoverage) {
+    CodeOwnerCoverageInfo info = new CodeOwnerCoverageInfo();
+    info.revision = codeOwnerCoverage.revision().name();
+    info.files = codeOwnerCoverage.files();
+    info.uncoveredFiles = codeOwnerCoverage.uncoveredFiles();
+    info.uncoveredFolders =
+        codeOwnerCoverage.uncoveredFolders().entrySet().stream()
+            .map(GetCodeOwnerCoverage::format)
+            .collect(toImmutableList());
+    info.codeOwnersPerFolder = codeOwnerCoverage.codeOwnersPerFolderHistogram();
+    return info;
+  }
+
+  private static FolderCoverageInfo format(
+      Map.Entry<Path, CodeOwnerCoverage.FolderCoverage> folderCoverage) {
+    FolderCoverageInfo info = new FolderCoverageInfo();
+    info.path = folderCoverage.getKey().toString();
+    info.files = folderCoverage.getValue().files();
+    info.uncoveredFiles = folderCoverage.getValue().uncoveredFiles();
+    return info;
+  }
+}
@@ -14,9 +14,9 @@
 
 package com.google.gerrit.plugins.codeowners.restapi;
 
+import com.google.gerrit.extensions.restapi.ETagView;
 import com.google.gerrit.extensions.restapi.Response;
 import com.google.gerrit.extensions.restapi.RestApiException;
-import com.google.gerrit.extensions.restapi.RestReadView;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerProjectConfigInfo;
 import com.google.gerrit.server.permissions.PermissionBackendException;
 import com.google.gerrit.server.project.ProjectResource;
@@ -29,14 +29,25 @@ import java.io.IOException;
  *
  * <p>This REST endpoint handles {@code GET /projects/<project-name>/code_owners.project_config}
  * requests.
+ *
+ * <p>Responses have an ETag (see {@link CodeOwnersETagComputation}).
  */
 @Singleton
-public class GetCodeOwnerProjectConfig implements RestReadView<ProjectResource> {
+public class GetCodeOwnerProjectConfig implements ETagView<ProjectResource> {
   private final CodeOwnerProjectConfigJson codeOwnerProjectConfigJson;
+  private final CodeOwnersETagComputation codeOwnersETagComputation;
 
   @Inject
-  public GetCodeOwnerProjectConfig(CodeOwnerProjectConfigJson codeOwnerProjectConfigJson) {
+  public GetCodeOwnerProjectConfig(
+      CodeOwnerProjectConfigJson codeOwnerProjectConfigJson,
+      CodeOwnersETagComputation codeOwnersETagComputation) {
     this.codeOwnerProjectConfigJson = codeOwnerProjectConfigJson;
+    this.codeOwnersETagComputation = codeOwnersETagComputation;
+  }
+
+  @Override
+  public String getETag(ProjectResource projectResource) {
+    return codeOwnersETagComputation.getETag(projectResource);
   }
 
   @Override
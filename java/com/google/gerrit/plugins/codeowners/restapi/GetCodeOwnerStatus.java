@@ -18,10 +18,11 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ETagView;
 import com.google.gerrit.extensions.restapi.Response;
 import com.google.gerrit.extensions.restapi.RestApiException;
-import com.google.gerrit.extensions.restapi.RestReadView;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerStatusInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerApprovalCheck;
 import com.google.gerrit.plugins.codeowners.backend.FileCodeOwnerStatus;
 import com.google.gerrit.server.change.ChangeResource;
@@ -51,12 +52,18 @@ import org.kohsuke.args4j.Option;
  *       of a current reviewer, but the UI doesn’t allow reviewers to vote on non-current revisions,
  *       so that this approval can never happen)
  * </ul>
+ *
+ * <p>Responses have an ETag (see {@link CodeOwnersETagComputation}), so that callers that poll the
+ * code owner statuses get {@code 304 Not Modified} without the code owner statuses being
+ * recomputed, as long as the inputs of the computation are unchanged.
  */
-public class GetCodeOwnerStatus implements RestReadView<ChangeResource> {
+public class GetCodeOwnerStatus implements ETagView<ChangeResource> {
   private static final int UNLIMITED = 0;
 
   private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
   private final CodeOwnerStatusInfoJson codeOwnerStatusInfoJson;
+  private final CodeOwnersETagComputation codeOwnersETagComputation;
+  private final CodeOwnerAccountDependencies accountDependencies;
 
   private int start;
   private int limit;
@@ -82,9 +89,18 @@ public class GetCodeOwnerStatus implements RestReadView<ChangeResource> {
   @Inject
   public GetCodeOwnerStatus(
       CodeOwnerApprovalCheck codeOwnerApprovalCheck,
-      CodeOwnerStatusInfoJson codeOwnerStatusInfoJson) {
+      CodeOwnerStatusInfoJson codeOwnerStatusInfoJson,
+      CodeOwnersETagComputation codeOwnersETagComputation,
+      CodeOwnerAccountDependencies accountDependencies) {
     this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
     this.codeOwnerStatusInfoJson = codeOwnerStatusInfoJson;
+    this.codeOwnersETagComputation = codeOwnersETagComputation;
+    this.accountDependencies = accountDependencies;
+  }
+
+  @Override
+  public String getETag(ChangeResource changeResource) {
+    return codeOwnersETagComputation.getETag(changeResource, start, limit);
   }
 
   @Override
@@ -93,18 +109,23 @@ public class GetCodeOwnerStatus implements RestReadView<ChangeResource> {
           PatchListNotAvailableException, DiffNotAvailableException {
     validateStartAndLimit();
 
-    ImmutableSet<FileCodeOwnerStatus> fileCodeOwnerStatuses =
-        codeOwnerApprovalCheck.getFileStatusesAsSet(
-            changeResource.getNotes(), start, limit == UNLIMITED ? UNLIMITED : limit + 1);
-    CodeOwnerStatusInfo codeOwnerStatusInfo =
-        codeOwnerStatusInfoJson.format(
-            changeResource.getNotes().getCurrentPatchSet().id(),
-            limit == UNLIMITED
-                ? fileCodeOwnerStatuses
-                : fileCodeOwnerStatuses.stream().limit(limit).collect(toImmutableSet()));
-    codeOwnerStatusInfo.more =
-        limit != UNLIMITED && fileCodeOwnerStatuses.size() > limit ? true : null;
-    return Response.ok(codeOwnerStatusInfo);
+    try (CodeOwnerAccountDependencies.Scope accountDependenciesScope =
+        accountDependencies.open()) {
+      ImmutableSet<FileCodeOwnerStatus> fileCodeOwnerStatuses =
+          codeOwnerApprovalCheck.getFileStatusesAsSet(
+              changeResource.getNotes(), start, limit == UNLIMITED ? UNLIMITED : limit + 1);
+      CodeOwnerStatusInfo codeOwnerStatusInfo =
+          codeOwnerStatusInfoJson.format(
+              changeResource.getNotes().getCurrentPatchSet().id(),
+              limit == UNLIMITED
+                  ? fileCodeOwnerStatuses
+                  : fileCodeOwnerStatuses.stream().limit(limit).collect(toImmutableSet()));
+      codeOwnerStatusInfo.more =
+          limit != UNLIMITED && fileCodeOwnerStatuses.size() > limit ? true : null;
+      codeOwnersETagComputation.recordAccountDependencies(
+          accountDependenciesScope, changeResource, start, limit);
+      return Response.ok(codeOwnerStatusInfo);
+    }
   }
 
   private void validateStartAndLimit() throws BadRequestException {
@@ -24,6 +24,7 @@ import com.google.gerrit.extensions.restapi.Response;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnersInfo;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigHierarchy;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
 import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
 import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
@@ -83,6 +84,7 @@ public class GetCodeOwnersForPathInBranch
       Provider<CodeOwnerResolver> codeOwnerResolver,
       CodeOwnerJson.Factory codeOwnerJsonFactory,
       CodeOwnerConfigFileJson codeOwnerConfigFileJson,
+      CodeOwnerEvaluationTrace evaluationTrace,
       GitRepositoryManager repoManager) {
     super(
         accountVisibility,
@@ -95,7 +97,8 @@ public class GetCodeOwnersForPathInBranch
         codeOwnerConfigHierarchy,
         codeOwnerResolver,
         codeOwnerJsonFactory,
-        codeOwnerConfigFileJson);
+        codeOwnerConfigFileJson,
+        evaluationTrace);
     this.repoManager = repoManager;
   }
 
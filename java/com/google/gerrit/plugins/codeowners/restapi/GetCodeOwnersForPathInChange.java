@@ -31,6 +31,7 @@ import com.google.gerrit.plugins.codeowners.backend.CodeOwner;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotation;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotations;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigHierarchy;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerScore;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerScoring;
@@ -80,7 +81,8 @@ public class GetCodeOwnersForPathInChange
       Provider<CodeOwnerResolver> codeOwnerResolver,
       ServiceUserClassifier serviceUserClassifier,
       CodeOwnerJson.Factory codeOwnerJsonFactory,
-      CodeOwnerConfigFileJson codeOwnerConfigFileJson) {
+      CodeOwnerConfigFileJson codeOwnerConfigFileJson,
+      CodeOwnerEvaluationTrace evaluationTrace) {
     super(
         accountVisibility,
         accounts,
@@ -92,7 +94,8 @@ public class GetCodeOwnersForPathInChange
         codeOwnerConfigHierarchy,
         codeOwnerResolver,
         codeOwnerJsonFactory,
-        codeOwnerConfigFileJson);
+        codeOwnerConfigFileJson,
+        evaluationTrace);
     this.cfg = cfg;
     this.serviceUserClassifier = serviceUserClassifier;
   }
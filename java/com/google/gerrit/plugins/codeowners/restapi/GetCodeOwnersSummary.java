@@ -0,0 +1,127 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.extensions.restapi.ETagView;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnersSummaryInfo;
+import com.google.gerrit.plugins.codeowners.api.OwnedPathsInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerApprovalCheck;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnersSummary;
+import com.google.gerrit.server.CurrentUser;
+import com.google.gerrit.server.change.ChangeResource;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import com.google.gerrit.server.permissions.PermissionBackendException;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import java.io.IOException;
+
+/**
+ * REST endpoint that gets the code owner summary of a change.
+ *
+ * <p>This REST endpoint handles {@code GET /changes/<change-id>/code_owners.summary} requests.
+ *
+ * <p>The summary combines the responses of the {@link GetCodeOwnerBranchConfig} REST endpoint for
+ * the destination branch of the change, the {@link GetCodeOwnerStatus} REST endpoint (without
+ * limit) and the {@link GetOwnedPaths} REST endpoint for the calling user and the current revision
+ * (without limit and with checking reviewers), which are all needed by the frontend when a change
+ * is loaded. The code owner statuses and the owned paths are computed together, so that the code
+ * owner config files are loaded and the code owners are resolved only once (see {@link
+ * CodeOwnerApprovalCheck#getSummary(com.google.gerrit.server.notedb.ChangeNotes, Account.Id)}).
+ *
+ * <p>Responses have an ETag (see {@link CodeOwnersETagComputation}).
+ */
+@Singleton
+public class GetCodeOwnersSummary implements ETagView<ChangeResource> {
+  private final Provider<CurrentUser> currentUser;
+  private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
+  private final CodeOwnerStatusInfoJson codeOwnerStatusInfoJson;
+  private final CodeOwnerProjectConfigJson codeOwnerProjectConfigJson;
+  private final CodeOwnersETagComputation codeOwnersETagComputation;
+  private final CodeOwnerAccountDependencies accountDependencies;
+
+  @Inject
+  public GetCodeOwnersSummary(
+      Provider<CurrentUser> currentUser,
+      CodeOwnerApprovalCheck codeOwnerApprovalCheck,
+      CodeOwnerStatusInfoJson codeOwnerStatusInfoJson,
+      CodeOwnerProjectConfigJson codeOwnerProjectConfigJson,
+      CodeOwnersETagComputation codeOwnersETagComputation,
+      CodeOwnerAccountDependencies accountDependencies) {
+    this.currentUser = currentUser;
+    this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
+    this.codeOwnerStatusInfoJson = codeOwnerStatusInfoJson;
+    this.codeOwnerProjectConfigJson = codeOwnerProjectConfigJson;
+    this.codeOwnersETagComputation = codeOwnersETagComputation;
+    this.accountDependencies = accountDependencies;
+  }
+
+  @Override
+  public String getETag(ChangeResource changeResource) {
+    // The calling user, for whom the owned paths are computed, is covered by the change ETag.
+    return codeOwnersETagComputation.getETag(changeResource);
+  }
+
+  @Override
+  public Response<CodeOwnersSummaryInfo> apply(ChangeResource changeResource)
+      throws RestApiException, IOException, PermissionBackendException, DiffNotAvailableException {
+    try (CodeOwnerAccountDependencies.Scope accountDependenciesScope =
+        accountDependencies.open()) {
+      CodeOwnersSummaryInfo codeOwnersSummaryInfo = getSummary(changeResource);
+      codeOwnersETagComputation.recordAccountDependencies(accountDependenciesScope, changeResource);
+      return Response.ok(codeOwnersSummaryInfo);
+    }
+  }
+
+  private CodeOwnersSummaryInfo getSummary(ChangeResource changeResource)
+      throws RestApiException, IOException, PermissionBackendException, DiffNotAvailableException {
+    CodeOwnersSummaryInfo codeOwnersSummaryInfo = new CodeOwnersSummaryInfo();
+    codeOwnersSummaryInfo.branchConfig =
+        codeOwnerProjectConfigJson.format(changeResource.getChange().getDest());
+
+    if (codeOwnersSummaryInfo.branchConfig.disabled != null) {
+      // The code owners functionality is disabled for the branch, hence there are no code owner
+      // statuses and no owned paths.
+      return codeOwnersSummaryInfo;
+    }
+
+    Account.Id accountId =
+        currentUser.get().isIdentifiedUser() ? currentUser.get().getAccountId() : null;
+    CodeOwnersSummary codeOwnersSummary =
+        codeOwnerApprovalCheck.getSummary(changeResource.getNotes(), accountId);
+
+    codeOwnersSummaryInfo.status =
+        codeOwnerStatusInfoJson.format(
+            changeResource.getNotes().getCurrentPatchSet().id(),
+            codeOwnersSummary.fileCodeOwnerStatuses());
+
+    if (codeOwnersSummary.ownedChangedFiles().isPresent()) {
+      OwnedPathsInfo ownedPathsInfo = new OwnedPathsInfo();
+      ownedPathsInfo.ownedChangedFiles =
+          codeOwnersSummary.ownedChangedFiles().get().stream()
+              .map(GetOwnedPaths::toOwnedChangedFileInfo)
+              .collect(toImmutableList());
+      codeOwnersSummaryInfo.ownedPaths = ownedPathsInfo;
+    }
+
+    return codeOwnersSummaryInfo;
+  }
+}
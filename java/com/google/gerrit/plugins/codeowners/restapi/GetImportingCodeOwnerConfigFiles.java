@@ -0,0 +1,137 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.restapi;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.common.Nullable;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ResourceConflictException;
+import com.google.gerrit.extensions.restapi.Response;
+import com.google.gerrit.extensions.restapi.RestReadView;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerConfigFileInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerBackend;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportIndex;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.util.JgitPath;
+import com.google.gerrit.server.permissions.PermissionBackend;
+import com.google.gerrit.server.permissions.RefPermission;
+import com.google.gerrit.server.project.BranchResource;
+import com.google.inject.Inject;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import org.kohsuke.args4j.Option;
+
+/**
+ * REST endpoint that lists the code owner config files that import a code owner config file.
+ *
+ * <p>This REST endpoint handles {@code GET
+ * /projects/<project-name>/branches/<branch-name>/code_owners.importers} requests.
+ *
+ * <p>Code owner config files from all branches and projects are considered. Code owner config files
+ * in branches that are not visible to the calling user are omitted.
+ *
+ * <p>The importing code owner config files are looked up in the {@link
+ * CodeOwnerConfigImportIndex}. The index is built in the background when the plugin is started.
+ * Requests that are done while the index is being built fail with {@code 409 Conflict}.
+ */
+public class GetImportingCodeOwnerConfigFiles implements RestReadView<BranchResource> {
+  private final CodeOwnersPluginConfiguration codeOwnersPluginConfiguration;
+  private final CodeOwnerConfigImportIndex codeOwnerConfigImportIndex;
+  private final CodeOwnerConfigFileJson codeOwnerConfigFileJson;
+  private final PermissionBackend permissionBackend;
+
+  private String path;
+  private boolean transitive;
+
+  @Option(
+      name = "--path",
+      metaVar = "PATH",
+      usage = "path of the code owner config file for which the importers should be listed")
+  public void setPath(@Nullable String path) {
+    this.path = path;
+  }
+
+  @Option(
+      name = "--transitive",
+      usage = "includes code owner config files that import the code owner config file indirectly")
+  public void setTransitive(boolean transitive) {
+    this.transitive = transitive;
+  }
+
+  @Inject
+  public GetImportingCodeOwnerConfigFiles(
+      CodeOwnersPluginConfiguration codeOwnersPluginConfiguration,
+      CodeOwnerConfigImportIndex codeOwnerConfigImportIndex,
+      CodeOwnerConfigFileJson codeOwnerConfigFileJson,
+      PermissionBackend permissionBackend) {
+    this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
+    this.codeOwnerConfigImportIndex = codeOwnerConfigImportIndex;
+    this.codeOwnerConfigFileJson = codeOwnerConfigFileJson;
+    this.permissionBackend = permissionBackend;
+  }
+
+  @Override
+  public Response<List<CodeOwnerConfigFileInfo>> apply(BranchResource branchResource)
+      throws BadRequestException, ResourceConflictException {
+    if (path == null) {
+      throw new BadRequestException("path required");
+    }
+
+    CodeOwnerBackend codeOwnerBackend =
+        codeOwnersPluginConfiguration
+            .getProjectConfig(branchResource.getNameKey())
+            .getBackend(branchResource.getBranchKey().branch());
+    Path filePath = JgitPath.of(path).getAsAbsolutePath();
+    if (filePath.getFileName() == null
+        || !codeOwnerBackend.isCodeOwnerConfigFile(
+            branchResource.getNameKey(), filePath.getFileName().toString())) {
+      throw new BadRequestException(
+          String.format("path %s is not a code owner config file", filePath));
+    }
+
+    Optional<ImmutableSet<CodeOwnerConfig.Key>> importingKeys =
+        codeOwnerConfigImportIndex.getImportingCodeOwnerConfigs(
+            ImmutableSet.of(
+                CodeOwnerConfig.Key.create(
+                    branchResource.getBranchKey(),
+                    filePath.getParent(),
+                    filePath.getFileName().toString())),
+            transitive);
+    if (!importingKeys.isPresent()) {
+      throw new ResourceConflictException(
+          "the index of code owner config imports is still being built, try again later");
+    }
+
+    PermissionBackend.WithUser withUser = permissionBackend.currentUser();
+    ImmutableList<CodeOwnerConfigFileInfo> importingCodeOwnerConfigFiles =
+        importingKeys.get().stream()
+            .filter(
+                importingKey ->
+                    withUser.ref(importingKey.branchNameKey()).testOrFalse(RefPermission.READ))
+            .sorted(
+                Comparator.comparing((CodeOwnerConfig.Key key) -> key.project().get())
+                    .thenComparing(CodeOwnerConfig.Key::ref)
+                    .thenComparing(key -> key.filePath(key.fileName().get())))
+            .map(codeOwnerConfigFileJson::format)
+            .collect(toImmutableList());
+    return Response.ok(importingCodeOwnerConfigFiles);
+  }
+}
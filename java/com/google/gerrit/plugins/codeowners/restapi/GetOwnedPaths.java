@@ -19,15 +19,17 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.entities.Account;
 import com.google.gerrit.extensions.common.AccountInfo;
 import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.ETagView;
 import com.google.gerrit.extensions.restapi.ResourceConflictException;
 import com.google.gerrit.extensions.restapi.Response;
-import com.google.gerrit.extensions.restapi.RestReadView;
 import com.google.gerrit.plugins.codeowners.api.OwnedChangedFileInfo;
 import com.google.gerrit.plugins.codeowners.api.OwnedPathInfo;
 import com.google.gerrit.plugins.codeowners.api.OwnedPathsInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerApprovalCheck;
 import com.google.gerrit.plugins.codeowners.backend.OwnedChangedFile;
 import com.google.gerrit.plugins.codeowners.backend.OwnedPath;
@@ -44,11 +46,17 @@ import org.kohsuke.args4j.Option;
  *
  * <p>This REST endpoint handles {@code GET
  * /changes/<change-id>/revisions/<revision-id>/owned_paths} requests.
+ *
+ * <p>Responses have an ETag (see {@link CodeOwnersETagComputation}), so that callers that poll the
+ * owned paths get {@code 304 Not Modified} without the owned paths being recomputed, as long as
+ * the inputs of the computation are unchanged.
  */
-public class GetOwnedPaths implements RestReadView<RevisionResource> {
+public class GetOwnedPaths implements ETagView<RevisionResource> {
   @VisibleForTesting public static final int DEFAULT_LIMIT = 50;
   private final AccountResolver accountResolver;
   private final CodeOwnerApprovalCheck codeOwnerApprovalCheck;
+  private final CodeOwnersETagComputation codeOwnersETagComputation;
+  private final CodeOwnerAccountDependencies accountDependencies;
 
   private int start;
   private int limit = DEFAULT_LIMIT;
@@ -87,9 +95,20 @@ public class GetOwnedPaths implements RestReadView<RevisionResource> {
 
   @Inject
   public GetOwnedPaths(
-      AccountResolver accountResolver, CodeOwnerApprovalCheck codeOwnerApprovalCheck) {
+      AccountResolver accountResolver,
+      CodeOwnerApprovalCheck codeOwnerApprovalCheck,
+      CodeOwnersETagComputation codeOwnersETagComputation,
+      CodeOwnerAccountDependencies accountDependencies) {
     this.accountResolver = accountResolver;
     this.codeOwnerApprovalCheck = codeOwnerApprovalCheck;
+    this.codeOwnersETagComputation = codeOwnersETagComputation;
+    this.accountDependencies = accountDependencies;
+  }
+
+  @Override
+  public String getETag(RevisionResource revisionResource) {
+    return codeOwnersETagComputation.getETag(
+        revisionResource.getChangeResource(), getETagParameters(revisionResource));
   }
 
   @Override
@@ -98,25 +117,36 @@ public class GetOwnedPaths implements RestReadView<RevisionResource> {
           ConfigInvalidException, IOException {
     validateStartAndLimit();
 
-    Account.Id accountId = resolveAccount();
-
-    ImmutableList<OwnedChangedFile> ownedChangedFiles =
-        codeOwnerApprovalCheck.getOwnedPaths(
-            revisionResource.getNotes(),
-            revisionResource.getPatchSet(),
-            accountId,
-            start,
-            limit + 1,
-            checkReviewers);
-
-    OwnedPathsInfo ownedPathsInfo = new OwnedPathsInfo();
-    ownedPathsInfo.more = ownedChangedFiles.size() > limit ? true : null;
-    ownedPathsInfo.ownedChangedFiles =
-        ownedChangedFiles.stream()
-            .limit(limit)
-            .map(GetOwnedPaths::toOwnedChangedFileInfo)
-            .collect(toImmutableList());
-    return Response.ok(ownedPathsInfo);
+    try (CodeOwnerAccountDependencies.Scope accountDependenciesScope =
+        accountDependencies.open()) {
+      Account.Id accountId = resolveAccount();
+
+      ImmutableList<OwnedChangedFile> ownedChangedFiles =
+          codeOwnerApprovalCheck.getOwnedPaths(
+              revisionResource.getNotes(),
+              revisionResource.getPatchSet(),
+              accountId,
+              start,
+              limit + 1,
+              checkReviewers);
+
+      OwnedPathsInfo ownedPathsInfo = new OwnedPathsInfo();
+      ownedPathsInfo.more = ownedChangedFiles.size() > limit ? true : null;
+      ownedPathsInfo.ownedChangedFiles =
+          ownedChangedFiles.stream()
+              .limit(limit)
+              .map(GetOwnedPaths::toOwnedChangedFileInfo)
+              .collect(toImmutableList());
+      codeOwnersETagComputation.recordAccountDependencies(
+          accountDependenciesScope,
+          revisionResource.getChangeResource(),
+          getETagParameters(revisionResource));
+      return Response.ok(ownedPathsInfo);
+    }
+  }
+
+  private Object[] getETagParameters(RevisionResource revisionResource) {
+    return new Object[] {revisionResource.getPatchSet().id(), user, start, limit, checkReviewers};
   }
 
   private Account.Id resolveAccount()
@@ -126,7 +156,29 @@ public class GetOwnedPaths implements RestReadView<RevisionResource> {
       throw new BadRequestException("--user required");
     }
 
-    return accountResolver.resolve(user).asUnique().account().id();
+    Account.Id accountId = accountResolver.resolve(user).asUnique().account().id();
+    recordAccountDependencies(accountId);
+    return accountId;
+  }
+
+  /**
+   * Records on which accounts and groups the resolution of the user depends.
+   *
+   * <p>Users that are specified by account ID or by email resolve to the account with this ID or
+   * email, if it is visible to the calling user (which depends on group memberships). Other
+   * identifiers (e.g. names) may match any account, hence for them the dependencies are unknown.
+   */
+  private void recordAccountDependencies(Account.Id accountId) {
+    if (Account.Id.tryParse(user).isPresent()) {
+      accountDependencies.recordAccounts(ImmutableSet.of(accountId));
+      accountDependencies.recordGroups();
+    } else if (user.contains("@") && !user.contains("<") && !user.contains(" ")) {
+      accountDependencies.recordEmails(ImmutableSet.of(user));
+      accountDependencies.recordAccounts(ImmutableSet.of(accountId));
+      accountDependencies.recordGroups();
+    } else {
+      accountDependencies.recordUnknown();
+    }
   }
 
   private void validateStartAndLimit() throws BadRequestException {
@@ -138,7 +190,7 @@ public class GetOwnedPaths implements RestReadView<RevisionResource> {
     }
   }
 
-  private static OwnedChangedFileInfo toOwnedChangedFileInfo(OwnedChangedFile ownedChangedFile) {
+  static OwnedChangedFileInfo toOwnedChangedFileInfo(OwnedChangedFile ownedChangedFile) {
     OwnedChangedFileInfo info = new OwnedChangedFileInfo();
     if (ownedChangedFile.newPath().isPresent()) {
       info.newPath = toOwnedPathInfo(ownedChangedFile.newPath().get());
@@ -21,7 +21,10 @@ import static com.google.gerrit.server.project.ProjectResource.PROJECT_KIND;
 
 import com.google.gerrit.extensions.annotations.Exports;
 import com.google.gerrit.extensions.config.CapabilityDefinition;
+import com.google.gerrit.extensions.events.AccountIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
 import com.google.gerrit.extensions.registration.DynamicMap;
+import com.google.gerrit.extensions.registration.DynamicSet;
 
 /** Guice module that binds the REST API for the code-owners plugin. */
 public class RestApiModule extends com.google.gerrit.extensions.restapi.RestApiModule {
@@ -34,11 +37,15 @@ public class RestApiModule extends com.google.gerrit.extensions.restapi.RestApiM
     get(BRANCH_KIND, "code_owners.config_files").to(GetCodeOwnerConfigFiles.class);
     get(BRANCH_KIND, "code_owners.branch_config").to(GetCodeOwnerBranchConfig.class);
     post(BRANCH_KIND, "code_owners.rename").to(RenameEmail.class);
+    get(BRANCH_KIND, "code_owners.export").to(ExportCodeOwnership.class);
+    get(BRANCH_KIND, "code_owners.coverage").to(GetCodeOwnerCoverage.class);
+    get(BRANCH_KIND, "code_owners.importers").to(GetImportingCodeOwnerConfigFiles.class);
 
     bind(CapabilityDefinition.class)
         .annotatedWith(Exports.named(CheckCodeOwnerCapability.ID))
         .to(CheckCodeOwnerCapability.class);
     get(BRANCH_KIND, "code_owners.check").to(CheckCodeOwner.class);
+    post(BRANCH_KIND, "code_owners.batch_check").to(BatchCheckCodeOwner.class);
 
     factory(CodeOwnerJson.Factory.class);
     DynamicMap.mapOf(binder(), CodeOwnersInBranchCollection.PathResource.PATH_KIND);
@@ -49,7 +56,11 @@ public class RestApiModule extends com.google.gerrit.extensions.restapi.RestApiM
     child(REVISION_KIND, "code_owners").to(CodeOwnersInChangeCollection.class);
     get(CodeOwnersInChangeCollection.PathResource.PATH_KIND).to(GetCodeOwnersForPathInChange.class);
 
+    // The ETags of change endpoints cover the state of accounts and groups.
+    DynamicSet.bind(binder(), AccountIndexedListener.class).to(CodeOwnersETagComputation.class);
+    DynamicSet.bind(binder(), GroupIndexedListener.class).to(CodeOwnersETagComputation.class);
     get(CHANGE_KIND, "code_owners.status").to(GetCodeOwnerStatus.class);
+    get(CHANGE_KIND, "code_owners.summary").to(GetCodeOwnersSummary.class);
 
     get(REVISION_KIND, "owned_paths").to(GetOwnedPaths.class);
     post(REVISION_KIND, "code_owners.check_config").to(CheckCodeOwnerConfigFilesInRevision.class);
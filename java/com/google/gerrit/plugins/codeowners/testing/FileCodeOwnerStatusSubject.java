@@ -20,10 +20,10 @@ import static com.google.gerrit.plugins.codeowners.testing.ChangedFileSubject.ch
 import static com.google.gerrit.plugins.codeowners.testing.PathCodeOwnerStatusSubject.pathCodeOwnerStatuses;
 import static com.google.gerrit.truth.OptionalSubject.optionals;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.Subject;
 import com.google.gerrit.plugins.codeowners.backend.FileCodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.backend.PathCodeOwnerStatus;
 import com.google.gerrit.truth.ListSubject;
 import com.google.gerrit.truth.OptionalSubject;
 import java.util.Collection;
@@ -31,21 +31,58 @@ import java.util.stream.Stream;
 
 /** {@link Subject} for doing assertions on {@link FileCodeOwnerStatus}es. */
 public class FileCodeOwnerStatusSubject extends Subject {
+  /**
+   * Starts fluent chain to do assertions on a {@link FileCodeOwnerStatus}.
+   *
+   * <p>The reasons of the path code owner statuses are compared by their messages (see {@link
+   * #withTextReasons(FileCodeOwnerStatus)}).
+   */
   public static FileCodeOwnerStatusSubject assertThat(FileCodeOwnerStatus fileCodeOwnerStatus) {
-    return assertAbout(fileCodeOwnerStatuses()).that(fileCodeOwnerStatus);
+    return assertAbout(fileCodeOwnerStatuses())
+        .that(fileCodeOwnerStatus != null ? withTextReasons(fileCodeOwnerStatus) : null);
   }
 
   public static ListSubject<FileCodeOwnerStatusSubject, FileCodeOwnerStatus> assertThatStream(
       Stream<FileCodeOwnerStatus> fileCodeOwnerStatuses) {
     return ListSubject.assertThat(
-        fileCodeOwnerStatuses.collect(toImmutableList()), fileCodeOwnerStatuses());
+        fileCodeOwnerStatuses
+            .map(FileCodeOwnerStatusSubject::withTextReasons)
+            .collect(toImmutableList()),
+        fileCodeOwnerStatuses());
   }
 
-  /** Starts fluent chain to do assertions on a collection of {@link FileCodeOwnerStatus}es. */
+  /**
+   * Starts fluent chain to do assertions on a collection of {@link FileCodeOwnerStatus}es.
+   *
+   * <p>The reasons of the path code owner statuses are compared by their messages (see {@link
+   * #withTextReasons(FileCodeOwnerStatus)}).
+   */
   public static ListSubject<FileCodeOwnerStatusSubject, FileCodeOwnerStatus> assertThatCollection(
       Collection<FileCodeOwnerStatus> fileCodeOwnerStatuses) {
-    return ListSubject.assertThat(
-        ImmutableList.copyOf(fileCodeOwnerStatuses), fileCodeOwnerStatuses());
+    return assertThatStream(fileCodeOwnerStatuses.stream());
+  }
+
+  /**
+   * Returns a copy of the given file code owner status, in which the reasons of the path code owner
+   * statuses are replaced by text reasons with the same messages.
+   *
+   * <p>Path code owner statuses are only equal if they have the same structured reasons. Tests
+   * specify the expected reasons as messages, hence the actual reasons are converted to text
+   * reasons before they are compared with the expected reasons.
+   */
+  private static FileCodeOwnerStatus withTextReasons(FileCodeOwnerStatus fileCodeOwnerStatus) {
+    return FileCodeOwnerStatus.create(
+        fileCodeOwnerStatus.changedFile(),
+        fileCodeOwnerStatus.newPathStatus().map(FileCodeOwnerStatusSubject::withTextReasons),
+        fileCodeOwnerStatus.oldPathStatus().map(FileCodeOwnerStatusSubject::withTextReasons));
+  }
+
+  private static PathCodeOwnerStatus withTextReasons(PathCodeOwnerStatus pathCodeOwnerStatus) {
+    PathCodeOwnerStatus.Builder builder =
+        PathCodeOwnerStatus.builder(pathCodeOwnerStatus.path(), pathCodeOwnerStatus.status())
+            .setOwners(pathCodeOwnerStatus.owners());
+    pathCodeOwnerStatus.reasons().forEach(builder::addReason);
+    return builder.build();
   }
 
   private static Factory<FileCodeOwnerStatusSubject, FileCodeOwnerStatus> fileCodeOwnerStatuses() {
@@ -0,0 +1,107 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.testing;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.gerrit.server.logging.LoggingContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Captures the log events of a logger, together with the logging tags (see {@link
+ * com.google.gerrit.server.logging.TraceContext}) that were set when the events were logged.
+ *
+ * <p>While the capture is open the level of the logger is set to {@link Level#ALL}. Closing the
+ * capture restores the previous level.
+ */
+public class LogCapture extends AppenderSkeleton implements AutoCloseable {
+  /**
+   * Starts capturing the log events of the given logger.
+   *
+   * @param loggerName the name of the logger (for Flogger loggers the name of the class that logs)
+   * @return the capture, must be closed to stop capturing
+   */
+  public static LogCapture open(String loggerName) {
+    return new LogCapture(Logger.getLogger(requireNonNull(loggerName, "loggerName")));
+  }
+
+  /** A captured log event. */
+  public static class CapturedEvent {
+    private final String message;
+    private final ImmutableSetMultimap<String, String> tags;
+
+    private CapturedEvent(String message, ImmutableSetMultimap<String, String> tags) {
+      this.message = message;
+      this.tags = tags;
+    }
+
+    /** The rendered message of the log event. */
+    public String message() {
+      return message;
+    }
+
+    /** The logging tags that were set when the event was logged. */
+    public ImmutableSetMultimap<String, String> tags() {
+      return tags;
+    }
+  }
+
+  private final Logger logger;
+  private final Level previousLevel;
+  private final List<CapturedEvent> events = new ArrayList<>();
+
+  private LogCapture(Logger logger) {
+    this.logger = logger;
+    this.previousLevel = logger.getLevel();
+    logger.setLevel(Level.ALL);
+    logger.addAppender(this);
+  }
+
+  /** Returns the captured log events, in the order in which they were logged. */
+  public synchronized ImmutableList<CapturedEvent> getEvents() {
+    return ImmutableList.copyOf(events);
+  }
+
+  /** Returns the captured log events whose message contains the given text. */
+  public ImmutableList<CapturedEvent> getEventsContaining(String text) {
+    return getEvents().stream().filter(e -> e.message().contains(text)).collect(toImmutableList());
+  }
+
+  @Override
+  protected synchronized void append(LoggingEvent event) {
+    events.add(
+        new CapturedEvent(
+            event.getRenderedMessage(), LoggingContext.getInstance().getTagsAsMap()));
+  }
+
+  @Override
+  public void close() {
+    logger.removeAppender(this);
+    logger.setLevel(previousLevel);
+  }
+
+  @Override
+  public boolean requiresLayout() {
+    return false;
+  }
+}
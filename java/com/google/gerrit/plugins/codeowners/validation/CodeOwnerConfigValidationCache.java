@@ -0,0 +1,331 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.validation;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import com.google.common.flogger.FluentLogger;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.extensions.common.AccountVisibility;
+import com.google.gerrit.extensions.events.AccountIndexedListener;
+import com.google.gerrit.extensions.events.GroupIndexedListener;
+import com.google.gerrit.extensions.registration.DynamicSet;
+import com.google.gerrit.server.account.AccountCache;
+import com.google.gerrit.server.account.AccountState;
+import com.google.gerrit.server.account.externalids.ExternalId;
+import com.google.gerrit.server.account.externalids.ExternalIdCache;
+import com.google.gerrit.server.cache.CacheModule;
+import com.google.gerrit.server.git.validators.CommitValidationMessage;
+import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Cache for the results of validating code owner config files.
+ *
+ * <p>The same code owner config file is validated many times, e.g. when the commit that touches it
+ * is received, again for every rebase or re-push of the change, again on submit and again when a
+ * branch is created. If the content of the code owner config file and of its base version didn't
+ * change, and the configuration and the user that are relevant for the validation are the same,
+ * the validation yields the same messages. This cache allows to reuse them.
+ *
+ * <p>Entries are keyed by the blob IDs of the code owner config file and of its base version, which
+ * means unchanged content is validated only once. The other key fields capture everything else that
+ * the validation messages depend on (see {@link Key}).
+ *
+ * <p>Validation results that depend on other files (results for code owner config files that have
+ * imports) are never cached, since the key doesn't capture the imported files. It's the
+ * responsibility of the caller to not put such results into the cache.
+ *
+ * <p>Validation results that depend on the resolution of emails to accounts remember the emails
+ * and the accounts that own these emails. When an account is reindexed only the entries that
+ * reference one of its current emails (the email may have been added) or that reference the account
+ * (an email may have been removed, or the account may have been deactivated) are invalidated. Group
+ * changes can only make an email (non-)resolvable if they affect the visibility of the account or
+ * the email, hence on group reindex only entries that depend on group memberships are invalidated,
+ * i.e. entries that reference accounts while the account visibility is restricted, and entries that
+ * reference secondary emails (their visibility depends on a global capability).
+ */
+@Singleton
+public class CodeOwnerConfigValidationCache
+    implements AccountIndexedListener, GroupIndexedListener {
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final String CACHE_NAME = "code_owner_config_validation";
+
+  public static Module module() {
+    return new CacheModule() {
+      @Override
+      protected void configure() {
+        cache(CACHE_NAME, Key.class, CachedValidation.class)
+            .maximumWeight(10000)
+            .expireAfterWrite(Duration.ofMinutes(30));
+        DynamicSet.bind(binder(), AccountIndexedListener.class)
+            .to(CodeOwnerConfigValidationCache.class);
+        DynamicSet.bind(binder(), GroupIndexedListener.class)
+            .to(CodeOwnerConfigValidationCache.class);
+      }
+    };
+  }
+
+  private final Cache<Key, CachedValidation> cache;
+  private final ExternalIdCache externalIdCache;
+  private final AccountCache accountCache;
+  private final AccountVisibility accountVisibility;
+
+  @Inject
+  CodeOwnerConfigValidationCache(
+      @Named(CACHE_NAME) Cache<Key, CachedValidation> cache,
+      ExternalIdCache externalIdCache,
+      AccountCache accountCache,
+      AccountVisibility accountVisibility) {
+    this.cache = cache;
+    this.externalIdCache = externalIdCache;
+    this.accountCache = accountCache;
+    this.accountVisibility = accountVisibility;
+  }
+
+  /**
+   * Gets the cached validation messages for the given key.
+   *
+   * @param key the key for which the cached validation messages should be returned
+   * @return the cached validation messages, {@link Optional#empty()} if there is no cache entry for
+   *     the given key
+   */
+  public Optional<ImmutableList<CommitValidationMessage>> get(Key key) {
+    requireNonNull(key, "key");
+    Optional<ImmutableList<CommitValidationMessage>> validationMessages =
+        Optional.ofNullable(cache.getIfPresent(key)).map(CachedValidation::validationMessages);
+    logger.atFine().log(
+        "validation cache %s for %s", validationMessages.isPresent() ? "hit" : "miss", key);
+    return validationMessages;
+  }
+
+  /**
+   * Caches the validation messages for the given key.
+   *
+   * @param key the key for which the validation messages should be cached
+   * @param validationMessages the validation messages that should be cached
+   * @param referencedEmails the code owner emails that have been resolved to compute the validation
+   *     messages, the cache entry is invalidated on changes of accounts that own these emails
+   */
+  public void put(
+      Key key,
+      ImmutableList<CommitValidationMessage> validationMessages,
+      ImmutableSet<String> referencedEmails) {
+    requireNonNull(key, "key");
+    requireNonNull(validationMessages, "validationMessages");
+    requireNonNull(referencedEmails, "referencedEmails");
+
+    if (referencedEmails.isEmpty()) {
+      cache.put(
+          key,
+          CachedValidation.create(
+              validationMessages,
+              ImmutableSet.of(),
+              ImmutableSet.of(),
+              /* dependsOnGroupMemberships= */ false));
+      return;
+    }
+
+    SetMultimap<String, ExternalId> externalIdsByEmail;
+    try {
+      externalIdsByEmail = externalIdCache.byEmails(referencedEmails.toArray(new String[0]));
+    } catch (IOException e) {
+      // Without knowing the accounts we cannot invalidate the entry, hence don't cache it.
+      logger.atWarning().withCause(e).log(
+          "failed to look up accounts for emails %s, not caching validation result for %s",
+          referencedEmails, key);
+      return;
+    }
+    ImmutableSet<Account.Id> referencedAccounts =
+        externalIdsByEmail.values().stream().map(ExternalId::accountId).collect(toImmutableSet());
+    cache.put(
+        key,
+        CachedValidation.create(
+            validationMessages,
+            referencedEmails,
+            referencedAccounts,
+            dependsOnGroupMemberships(externalIdsByEmail, referencedAccounts)));
+  }
+
+  /**
+   * Whether the resolvability of the given emails depends on group memberships.
+   *
+   * <p>This is the case if the account visibility is restricted or if any of the emails is a
+   * secondary email (the visibility of secondary emails depends on a global capability).
+   */
+  private boolean dependsOnGroupMemberships(
+      SetMultimap<String, ExternalId> externalIdsByEmail,
+      ImmutableSet<Account.Id> referencedAccounts) {
+    if (referencedAccounts.isEmpty()) {
+      // None of the emails exists, group changes cannot make them resolvable.
+      return false;
+    }
+    if (accountVisibility != AccountVisibility.ALL) {
+      return true;
+    }
+    Map<Account.Id, AccountState> accounts = accountCache.get(referencedAccounts);
+    return externalIdsByEmail.entries().stream()
+        .anyMatch(
+            e -> {
+              AccountState accountState = accounts.get(e.getValue().accountId());
+              return accountState == null
+                  || !e.getKey().equals(accountState.account().preferredEmail());
+            });
+  }
+
+  @Override
+  public void onAccountIndexed(int id) {
+    logger.atFine().log("account %d was reindexed", id);
+    Account.Id accountId = Account.id(id);
+    ImmutableSet<String> emails =
+        accountCache
+            .get(accountId)
+            .map(CodeOwnerConfigValidationCache::getEmails)
+            .orElse(ImmutableSet.of());
+    invalidateIf(
+        (key, cachedValidation) ->
+            key.accountId().equals(accountId) || cachedValidation.dependsOn(accountId, emails));
+  }
+
+  @Override
+  public void onGroupIndexed(String uuid) {
+    logger.atFine().log("group %s was reindexed", uuid);
+    invalidateIf((key, cachedValidation) -> cachedValidation.dependsOnGroupMemberships());
+  }
+
+  private static ImmutableSet<String> getEmails(AccountState accountState) {
+    return accountState.externalIds().stream()
+        .map(ExternalId::email)
+        .filter(Objects::nonNull)
+        .collect(toImmutableSet());
+  }
+
+  private void invalidateIf(BiPredicate<Key, CachedValidation> predicate) {
+    cache
+        .asMap()
+        .entrySet()
+        .removeIf(cacheEntry -> predicate.test(cacheEntry.getKey(), cacheEntry.getValue()));
+  }
+
+  /** Key for the {@link CodeOwnerConfigValidationCache}. */
+  @AutoValue
+  public abstract static class Key {
+    /** The project and branch that contain the code owner config file. */
+    public abstract BranchNameKey branchNameKey();
+
+    /**
+     * The path of the code owner config file (the path is included in the validation messages).
+     */
+    public abstract String filePath();
+
+    /** The ID of the blob that contains the code owner config file. */
+    public abstract ObjectId blobId();
+
+    /**
+     * The ID of the blob that contains the base version of the code owner config file, {@link
+     * Optional#empty()} if there is no base version.
+     */
+    public abstract Optional<ObjectId> baseBlobId();
+
+    /** The class name of the code owner backend that is used to parse the code owner config. */
+    public abstract String backend();
+
+    /** Whether non-resolvable code owners are reported as errors (or only as warnings). */
+    public abstract boolean rejectNonResolvableCodeOwners();
+
+    /** The email domains that are allowed for code owners, empty if all domains are allowed. */
+    public abstract ImmutableSet<String> allowedEmailDomains();
+
+    /**
+     * The account for which the validation was done.
+     *
+     * <p>Whether emails can be resolved depends on the visibility of the accounts and secondary
+     * emails for this account.
+     */
+    public abstract Account.Id accountId();
+
+    public static Key create(
+        BranchNameKey branchNameKey,
+        String filePath,
+        ObjectId blobId,
+        Optional<ObjectId> baseBlobId,
+        String backend,
+        boolean rejectNonResolvableCodeOwners,
+        ImmutableSet<String> allowedEmailDomains,
+        Account.Id accountId) {
+      return new AutoValue_CodeOwnerConfigValidationCache_Key(
+          branchNameKey,
+          filePath,
+          blobId.copy(),
+          baseBlobId.map(ObjectId::copy),
+          backend,
+          rejectNonResolvableCodeOwners,
+          allowedEmailDomains,
+          accountId);
+    }
+  }
+
+  /** Value of the {@link CodeOwnerConfigValidationCache}. */
+  @AutoValue
+  abstract static class CachedValidation {
+    abstract ImmutableList<CommitValidationMessage> validationMessages();
+
+    /** The code owner emails that have been resolved to compute the validation messages. */
+    abstract ImmutableSet<String> referencedEmails();
+
+    /** The accounts that own the {@link #referencedEmails()}. */
+    abstract ImmutableSet<Account.Id> referencedAccounts();
+
+    /** Whether resolving the {@link #referencedEmails()} depends on group memberships. */
+    abstract boolean dependsOnGroupMemberships();
+
+    /**
+     * Whether the validation messages may be affected by a change of the given account.
+     *
+     * @param accountId the ID of the account
+     * @param emails the current emails of the account
+     */
+    boolean dependsOn(Account.Id accountId, ImmutableSet<String> emails) {
+      return referencedAccounts().contains(accountId)
+          || emails.stream().anyMatch(referencedEmails()::contains);
+    }
+
+    static CachedValidation create(
+        ImmutableList<CommitValidationMessage> validationMessages,
+        ImmutableSet<String> referencedEmails,
+        ImmutableSet<Account.Id> referencedAccounts,
+        boolean dependsOnGroupMemberships) {
+      return new AutoValue_CodeOwnerConfigValidationCache_CachedValidation(
+          validationMessages, referencedEmails, referencedAccounts, dependsOnGroupMemberships);
+    }
+  }
+}
@@ -38,6 +38,7 @@ import com.google.gerrit.plugins.codeowners.backend.CodeOwnerBackend;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportType;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerReference;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
 import com.google.gerrit.plugins.codeowners.backend.InvalidCodeOwnerConfigException;
@@ -86,8 +87,11 @@ import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 import org.eclipse.jgit.errors.ConfigInvalidException;
 import org.eclipse.jgit.lib.ObjectId;
@@ -154,8 +158,10 @@ public class CodeOwnerConfigValidator
   private final IdentifiedUser.GenericFactory userFactory;
   private final SkipCodeOwnerConfigValidationPushOption skipCodeOwnerConfigValidationPushOption;
   private final CodeOwnerMetrics codeOwnerMetrics;
+  private final CodeOwnerEvaluationTrace evaluationTrace;
   private final DynamicItem<UrlFormatter> urlFormatter;
   private final DiffOperationsForCommitValidation.Factory diffOperationsForCommitValidationFactory;
+  private final CodeOwnerConfigValidationCache codeOwnerConfigValidationCache;
 
   @Inject
   CodeOwnerConfigValidator(
@@ -171,8 +177,10 @@ public class CodeOwnerConfigValidator
       IdentifiedUser.GenericFactory userFactory,
       SkipCodeOwnerConfigValidationPushOption skipCodeOwnerConfigValidationPushOption,
       CodeOwnerMetrics codeOwnerMetrics,
+      CodeOwnerEvaluationTrace evaluationTrace,
       DynamicItem<UrlFormatter> urlFormatter,
-      DiffOperationsForCommitValidation.Factory diffOperationsForCommitValidationFactory) {
+      DiffOperationsForCommitValidation.Factory diffOperationsForCommitValidationFactory,
+      CodeOwnerConfigValidationCache codeOwnerConfigValidationCache) {
     this.pluginName = pluginName;
     this.codeOwnersPluginConfiguration = codeOwnersPluginConfiguration;
     this.repoManager = repoManager;
@@ -185,8 +193,10 @@ public class CodeOwnerConfigValidator
     this.userFactory = userFactory;
     this.skipCodeOwnerConfigValidationPushOption = skipCodeOwnerConfigValidationPushOption;
     this.codeOwnerMetrics = codeOwnerMetrics;
+    this.evaluationTrace = evaluationTrace;
     this.urlFormatter = urlFormatter;
     this.diffOperationsForCommitValidationFactory = diffOperationsForCommitValidationFactory;
+    this.codeOwnerConfigValidationCache = codeOwnerConfigValidationCache;
   }
 
   @Override
@@ -200,7 +210,12 @@ public class CodeOwnerConfigValidator
                 .commit(receiveEvent.commit.name())
                 .branchName(receiveEvent.refName)
                 .username(receiveEvent.user.getLoggableName())
-                .build())) {
+                .build());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open(
+                "validation on commit received",
+                receiveEvent.getProjectNameKey(),
+                String.format("commit %s", receiveEvent.commit.name()))) {
       CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicy =
           codeOwnersPluginConfiguration
               .getProjectConfig(receiveEvent.getProjectNameKey())
@@ -287,7 +302,12 @@ public class CodeOwnerConfigValidator
                 .branchName(branchNameKey.branch())
                 .username(caller.getLoggableName())
                 .patchSetId(patchSetId.get())
-                .build())) {
+                .build());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open(
+                "validation on submit",
+                branchNameKey.project(),
+                String.format("commit %s", commit.name()))) {
       CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicy =
           codeOwnersPluginConfiguration
               .getProjectConfig(branchNameKey.project())
@@ -368,7 +388,12 @@ public class CodeOwnerConfigValidator
                 .commit(refReceivedEvent.command.getNewId().name())
                 .branchName(refReceivedEvent.getRefName())
                 .username(refReceivedEvent.user.getLoggableName())
-                .build())) {
+                .build());
+        CodeOwnerEvaluationTrace.Scope traceScope =
+            evaluationTrace.open(
+                "validation on branch creation",
+                refReceivedEvent.getProjectNameKey(),
+                String.format("commit %s", refReceivedEvent.command.getNewId().name()))) {
       CodeOwnerConfigValidationPolicy codeOwnerConfigValidationPolicy =
           codeOwnersPluginConfiguration
               .getProjectConfig(refReceivedEvent.getProjectNameKey())
@@ -632,6 +657,10 @@ public class CodeOwnerConfigValidator
   /**
    * Validates the specified code owner config and returns a stream of validation messages.
    *
+   * <p>If the code owner config and its base version have been validated before for the same user
+   * and configuration, the validation messages are returned from the {@link
+   * CodeOwnerConfigValidationCache}.
+   *
    * @param user user for which the code owner visibility checks should be performed
    * @param codeOwnerBackend the code owner backend from which the code owner config can be loaded
    * @param branchNameKey the project and branch of the code owner config
@@ -657,6 +686,58 @@ public class CodeOwnerConfigValidator
       return Stream.of();
     }
 
+    Optional<CodeOwnerConfigValidationCache.Key> validationCacheKey =
+        createValidationCacheKey(user, codeOwnerBackend, branchNameKey, changedFile, revCommit);
+    if (validationCacheKey.isPresent()) {
+      Optional<ImmutableList<CommitValidationMessage>> cachedValidationMessages =
+          codeOwnerConfigValidationCache.get(validationCacheKey.get());
+      if (cachedValidationMessages.isPresent()) {
+        return cachedValidationMessages.get().stream();
+      }
+    }
+
+    AtomicBoolean isCacheable = new AtomicBoolean(true);
+    Set<String> referencedEmails = new HashSet<>();
+    ImmutableList<CommitValidationMessage> validationMessages =
+        validateCodeOwnerConfig(
+                user,
+                codeOwnerBackend,
+                branchNameKey,
+                changedFile,
+                revCommit,
+                isCacheable,
+                referencedEmails)
+            .collect(toImmutableList());
+    if (validationCacheKey.isPresent() && isCacheable.get()) {
+      codeOwnerConfigValidationCache.put(
+          validationCacheKey.get(), validationMessages, ImmutableSet.copyOf(referencedEmails));
+    }
+    return validationMessages.stream();
+  }
+
+  /**
+   * Validates the specified code owner config and returns a stream of validation messages.
+   *
+   * @param user user for which the code owner visibility checks should be performed
+   * @param codeOwnerBackend the code owner backend from which the code owner config can be loaded
+   * @param branchNameKey the project and branch of the code owner config
+   * @param changedFile the changed file that represents the code owner config, must have a new path
+   * @param revCommit the commit from which the code owner config should be loaded
+   * @param isCacheable {@link AtomicBoolean} that is set to {@code false} if the validation
+   *     messages depend on other files (imported code owner configs) and hence must not be cached
+   * @param referencedEmails set to which the code owner emails are added that are resolved for the
+   *     validation
+   * @return a stream of validation messages that describe issues with the code owner config, an
+   *     empty stream if there are no issues
+   */
+  private Stream<CommitValidationMessage> validateCodeOwnerConfig(
+      IdentifiedUser user,
+      CodeOwnerBackend codeOwnerBackend,
+      BranchNameKey branchNameKey,
+      ChangedFile changedFile,
+      RevCommit revCommit,
+      AtomicBoolean isCacheable,
+      Set<String> referencedEmails) {
     CodeOwnerConfig codeOwnerConfig;
     try {
       // Load the code owner config. If the code owner config is not parsable this will fail with a
@@ -699,6 +780,7 @@ public class CodeOwnerConfigValidator
     }
 
     // The code owner config was successfully loaded and parsed.
+    recordCacheability(codeOwnerConfig, isCacheable, referencedEmails);
 
     // We only report new issues as errors. If the same issues already existed in the base version
     // we just report them as warnings. To know which issues already existed in the base version
@@ -723,12 +805,97 @@ public class CodeOwnerConfigValidator
 
     // Validate the parsed code owner config.
     if (baseCodeOwnerConfig.isPresent()) {
+      recordCacheability(baseCodeOwnerConfig.get(), isCacheable, referencedEmails);
       return validateCodeOwnerConfig(
           branchNameKey, user, codeOwnerBackend, codeOwnerConfig, baseCodeOwnerConfig.get());
     }
     return validateCodeOwnerConfig(branchNameKey, user, codeOwnerBackend, codeOwnerConfig);
   }
 
+  /**
+   * Records whether the validation messages for the given code owner config can be cached.
+   *
+   * <p>Validation messages for code owner configs that have imports cannot be cached since they
+   * depend on the imported code owner configs. Validation messages for code owner configs that
+   * contain code owner references depend on the resolution of their emails to accounts.
+   */
+  private static void recordCacheability(
+      CodeOwnerConfig codeOwnerConfig, AtomicBoolean isCacheable, Set<String> referencedEmails) {
+    if (!codeOwnerConfig.imports().isEmpty()
+        || codeOwnerConfig.codeOwnerSets().stream()
+            .anyMatch(codeOwnerSet -> !codeOwnerSet.imports().isEmpty())) {
+      isCacheable.set(false);
+    }
+    codeOwnerConfig.codeOwnerSets().stream()
+        .flatMap(codeOwnerSet -> codeOwnerSet.codeOwners().stream())
+        .map(CodeOwnerReference::email)
+        .filter(email -> !CodeOwnerResolver.ALL_USERS_WILDCARD.equals(email))
+        .forEach(referencedEmails::add);
+  }
+
+  /**
+   * Creates the key under which the validation messages for the given code owner config are cached
+   * in the {@link CodeOwnerConfigValidationCache}.
+   *
+   * @return the validation cache key, {@link Optional#empty()} if the blob of the code owner config
+   *     cannot be found in the given revision
+   */
+  private Optional<CodeOwnerConfigValidationCache.Key> createValidationCacheKey(
+      IdentifiedUser user,
+      CodeOwnerBackend codeOwnerBackend,
+      BranchNameKey branchNameKey,
+      ChangedFile changedFile,
+      RevCommit revCommit) {
+    try (Repository repo = repoManager.openRepository(branchNameKey.project());
+        RevWalk revWalk = new RevWalk(repo)) {
+      Optional<ObjectId> blobId = getBlobId(revWalk, revCommit, changedFile.newPath().get());
+      if (!blobId.isPresent()) {
+        return Optional.empty();
+      }
+
+      Optional<ObjectId> baseBlobId = Optional.empty();
+      if (changedFile.oldPath().isPresent() && revCommit.getParentCount() > 0) {
+        baseBlobId = getBlobId(revWalk, revCommit.getParent(0), changedFile.oldPath().get());
+      }
+
+      return Optional.of(
+          CodeOwnerConfigValidationCache.Key.create(
+              branchNameKey,
+              changedFile.newPath().get().toString(),
+              blobId.get(),
+              baseBlobId,
+              codeOwnerBackend.getClass().getName(),
+              codeOwnersPluginConfiguration
+                  .getProjectConfig(branchNameKey.project())
+                  .rejectNonResolvableCodeOwners(branchNameKey.branch()),
+              codeOwnersPluginConfiguration.getGlobalConfig().getAllowedEmailDomains(),
+              user.getAccountId()));
+    } catch (IOException e) {
+      // Not being able to use the cache is not a reason to fail the validation.
+      logger.atWarning().withCause(e).log(
+          "failed to create validation cache key for %s in revision %s (project = %s, branch = %s)",
+          changedFile.newPath().get(),
+          revCommit.name(),
+          branchNameKey.project(),
+          branchNameKey.branch());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns the ID of the blob for the given path in the given commit, {@link Optional#empty()} if
+   * the path doesn't exist in the commit.
+   */
+  private static Optional<ObjectId> getBlobId(RevWalk revWalk, RevCommit commit, Path path)
+      throws IOException {
+    RevCommit parsedCommit = revWalk.parseCommit(commit);
+    try (TreeWalk tw =
+        TreeWalk.forPath(
+            revWalk.getObjectReader(), JgitPath.of(path).get(), parsedCommit.getTree())) {
+      return tw != null ? Optional.of(tw.getObjectId(0)) : Optional.empty();
+    }
+  }
+
   /**
    * Create the key for a code owner config from a given file path.
    *
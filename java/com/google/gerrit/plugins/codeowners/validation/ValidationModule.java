@@ -27,6 +27,8 @@ import com.google.inject.AbstractModule;
 public class ValidationModule extends AbstractModule {
   @Override
   protected void configure() {
+    install(CodeOwnerConfigValidationCache.module());
+
     DynamicSet.bind(binder(), CommitValidationListener.class).to(CodeOwnerConfigValidator.class);
     DynamicSet.bind(binder(), MergeValidationListener.class).to(CodeOwnerConfigValidator.class);
     DynamicSet.bind(binder(), RefOperationValidationListener.class)
@@ -0,0 +1,210 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.api;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.plugins.codeowners.testing.CodeOwnerCheckInfoSubject.assertThat;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.acceptance.RestResponse;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.acceptance.testsuite.TestPathExpressions;
+import com.google.gerrit.plugins.codeowners.api.BatchCheckCodeOwnerInput;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCheckInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
+import com.google.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Acceptance test for the {@link com.google.gerrit.plugins.codeowners.restapi.BatchCheckCodeOwner}
+ * REST endpoint.
+ */
+public class BatchCheckCodeOwnerIT extends AbstractCodeOwnersIT {
+  @Inject private RequestScopeOperations requestScopeOperations;
+
+  private TestPathExpressions testPathExpressions;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    testPathExpressions = plugin.getSysInjector().getInstance(TestPathExpressions.class);
+  }
+
+  @Test
+  public void batchCheckCodeOwnerForNonExistingBranch() throws Exception {
+    RestResponse response =
+        adminRestSession.post(
+            String.format(
+                "/projects/%s/branches/non-existing/code_owners.batch_check", project.get()),
+            createInput(ImmutableList.of("/foo/bar.md"), ImmutableList.of(user.email())));
+    response.assertNotFound();
+  }
+
+  @Test
+  public void requiresEmails() throws Exception {
+    BadRequestException exception =
+        assertThrows(
+            BadRequestException.class,
+            () -> batchCheckCodeOwner(ImmutableList.of("/foo/bar.md"), ImmutableList.of()));
+    assertThat(exception).hasMessageThat().isEqualTo("emails required");
+  }
+
+  @Test
+  public void requiresPaths() throws Exception {
+    BadRequestException exception =
+        assertThrows(
+            BadRequestException.class,
+            () -> batchCheckCodeOwner(ImmutableList.of(), ImmutableList.of(user.email())));
+    assertThat(exception).hasMessageThat().isEqualTo("paths required");
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxChecksPerBatchCheck", value = "4")
+  public void cannotRequestMoreChecksThanAllowed() throws Exception {
+    BadRequestException exception =
+        assertThrows(
+            BadRequestException.class,
+            () ->
+                batchCheckCodeOwner(
+                    ImmutableList.of("/foo/bar.md", "/foo/baz.md", "/foo/qux.md"),
+                    ImmutableList.of(admin.email(), user.email())));
+    assertThat(exception)
+        .hasMessageThat()
+        .isEqualTo(
+            "too many checks requested (3 paths x 2 emails = 6 checks), at most 4 checks are"
+                + " allowed");
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxChecksPerBatchCheck", value = "4")
+  public void duplicatePathsAndEmailsDoNotCountAgainstTheLimit() throws Exception {
+    Map<String, Map<String, CodeOwnerCheckInfo>> results =
+        batchCheckCodeOwner(
+            ImmutableList.of("/foo/bar.md", "/foo/baz.md", "/foo/bar.md"),
+            ImmutableList.of(admin.email(), user.email(), admin.email()));
+    assertThat(results.keySet()).containsExactly("/foo/bar.md", "/foo/baz.md").inOrder();
+  }
+
+  @Test
+  public void requiresLogin() throws Exception {
+    requestScopeOperations.setApiUserAnonymous();
+    AuthException exception =
+        assertThrows(
+            AuthException.class,
+            () ->
+                batchCheckCodeOwner(
+                    ImmutableList.of("/foo/bar.md"), ImmutableList.of(user.email())));
+    assertThat(exception).hasMessageThat().contains("Authentication required");
+  }
+
+  @Test
+  public void batchCheckReturnsTheSameResultsAsSingleChecks() throws Exception {
+    TestAccount rootOwner =
+        accountCreator.create(
+            "rootCodeOwner",
+            "rootCodeOwner@example.com",
+            "Root Code Owner",
+            /* displayName= */ null);
+    TestAccount mdOwner =
+        accountCreator.create(
+            "mdCodeOwner", "mdCodeOwner@example.com", "Md Code Owner", /* displayName= */ null);
+
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/")
+        .addCodeOwnerEmail(rootOwner.email())
+        .create();
+
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerSet(
+            CodeOwnerSet.builder()
+                .setIgnoreGlobalAndParentCodeOwners()
+                .addPathExpression(testPathExpressions.matchFileType("md"))
+                .addCodeOwnerEmail(mdOwner.email())
+                .build())
+        .create();
+
+    ImmutableList<String> paths =
+        ImmutableList.of("/foo/bar/baz.md", "/foo/bar/baz.txt", "/foo/qux.md", "/other.md");
+    ImmutableList<String> emails =
+        ImmutableList.of(rootOwner.email(), mdOwner.email(), "non-existing@example.com");
+
+    Map<String, Map<String, CodeOwnerCheckInfo>> results = batchCheckCodeOwner(paths, emails);
+    assertThat(results.keySet()).containsExactlyElementsIn(paths).inOrder();
+    for (String path : paths) {
+      assertThat(results.get(path).keySet()).containsExactlyElementsIn(emails).inOrder();
+      for (String email : emails) {
+        CodeOwnerCheckInfo batchCheckInfo = results.get(path).get(email);
+        CodeOwnerCheckInfo checkInfo = checkCodeOwner(path, email);
+        assertThat(batchCheckInfo.isCodeOwner).isEqualTo(checkInfo.isCodeOwner);
+        assertThat(batchCheckInfo.isResolvable).isEqualTo(checkInfo.isResolvable);
+        assertThat(batchCheckInfo.isFallbackCodeOwner).isEqualTo(checkInfo.isFallbackCodeOwner);
+        assertThat(batchCheckInfo.canReadRef).isEqualTo(checkInfo.canReadRef);
+        assertThat(batchCheckInfo.checkedCodeOwnerConfigs)
+            .hasSize(checkInfo.checkedCodeOwnerConfigs.size());
+        assertThat(batchCheckInfo.debugLogs)
+            .containsExactlyElementsIn(checkInfo.debugLogs)
+            .inOrder();
+      }
+    }
+
+    assertThat(results.get("/foo/bar/baz.md").get(mdOwner.email())).isCodeOwner();
+    assertThat(results.get("/foo/bar/baz.md").get(rootOwner.email())).isNotCodeOwner();
+    assertThat(results.get("/foo/bar/baz.txt").get(mdOwner.email())).isNotCodeOwner();
+    assertThat(results.get("/foo/bar/baz.txt").get(rootOwner.email())).isCodeOwner();
+    assertThat(results.get("/other.md").get(rootOwner.email())).isCodeOwner();
+    assertThat(results.get("/other.md").get("non-existing@example.com")).isNotResolvable();
+  }
+
+  private Map<String, Map<String, CodeOwnerCheckInfo>> batchCheckCodeOwner(
+      List<String> paths, List<String> emails) throws RestApiException {
+    return projectCodeOwnersApiFactory
+        .project(project)
+        .branch("master")
+        .batchCheckCodeOwner(createInput(paths, emails));
+  }
+
+  private CodeOwnerCheckInfo checkCodeOwner(String path, String email) throws RestApiException {
+    return projectCodeOwnersApiFactory
+        .project(project)
+        .branch("master")
+        .checkCodeOwner()
+        .path(path)
+        .email(email)
+        .check();
+  }
+
+  private static BatchCheckCodeOwnerInput createInput(List<String> paths, List<String> emails) {
+    BatchCheckCodeOwnerInput input = new BatchCheckCodeOwnerInput();
+    input.paths = paths;
+    input.emails = emails;
+    return input;
+  }
+}
@@ -0,0 +1,189 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.api;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.github.rholder.retry.RetryerBuilder;
+import com.github.rholder.retry.StopStrategies;
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
+import com.google.gerrit.plugins.codeowners.backend.config.BackendConfig;
+import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersBackend;
+import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersCodeOwnerConfigParser;
+import com.google.gerrit.plugins.codeowners.backend.proto.ProtoBackend;
+import com.google.gerrit.plugins.codeowners.backend.proto.ProtoCodeOwnerConfigParser;
+import com.google.gerrit.server.ChangeMessagesUtil;
+import com.google.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Acceptance test for {@code
+ * com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImpactReporter}.
+ *
+ * <p>The impact report is computed and posted asynchronously, hence it is asserted with retries.
+ */
+public class CodeOwnerConfigImpactReportIT extends AbstractCodeOwnersIT {
+  private static final ObjectId TEST_REVISION =
+      ObjectId.fromString("deadbeefdeadbeefdeadbeefdeadbeefdeadbeef");
+
+  private static final String TAG_IMPACT_REPORT =
+      ChangeMessagesUtil.AUTOGENERATED_BY_GERRIT_TAG_PREFIX + "code-owners:impactReport";
+
+  @Inject private RequestScopeOperations requestScopeOperations;
+
+  private BackendConfig backendConfig;
+  private FindOwnersCodeOwnerConfigParser findOwnersCodeOwnerConfigParser;
+  private ProtoCodeOwnerConfigParser protoCodeOwnerConfigParser;
+
+  private CodeOwnerConfig.Key codeOwnerConfigKey;
+  private Change.Id affectedChangeId;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    backendConfig = plugin.getSysInjector().getInstance(BackendConfig.class);
+    findOwnersCodeOwnerConfigParser =
+        plugin.getSysInjector().getInstance(FindOwnersCodeOwnerConfigParser.class);
+    protoCodeOwnerConfigParser =
+        plugin.getSysInjector().getInstance(ProtoCodeOwnerConfigParser.class);
+
+    codeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/foo/")
+            .addCodeOwnerEmail(user.email())
+            .create();
+
+    // Create an open change that is code owner approved by user.
+    affectedChangeId =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().getId();
+    requestScopeOperations.setApiUser(user.id());
+    recommend(Integer.toString(affectedChangeId.get()));
+    requestScopeOperations.setApiUser(admin.id());
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxImpactReportChanges", value = "10")
+  public void reportChangeThatWouldLoseItsCodeOwnerApproval() throws Exception {
+    // Replace user as code owner by admin, who hasn't approved the affected change.
+    PushOneCommit.Result r = createCodeOwnerConfigChange(admin.email());
+    r.assertOkStatus();
+
+    assertImpactReport(
+        r.getChangeId(),
+        String.format(
+            "The code owner config files modified in patch set 1 affect 1 open change(s) of this"
+                + " branch.\n"
+                + "The code owner approval status of 1 of them would change:\n"
+                + "* change %d: is no longer code owner approved",
+            affectedChangeId.get()));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxImpactReportChanges", value = "10")
+  public void reportThatNoCodeOwnerApprovalWouldChange() throws Exception {
+    // Add admin as code owner, user stays a code owner.
+    PushOneCommit.Result r = createCodeOwnerConfigChange(user.email(), admin.email());
+    r.assertOkStatus();
+
+    assertImpactReport(
+        r.getChangeId(),
+        "The code owner config files modified in patch set 1 affect 1 open change(s) of this"
+            + " branch.\n"
+            + "The code owner approval status of none of them would change.");
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxImpactReportChanges", value = "10")
+  public void impactIsNotEvaluatedIfCodeOwnerConfigFilesWereUpdatedInBranchSinceParent()
+      throws Exception {
+    // Update the code owner config file in the branch. The change that is created below is based
+    // on the affected change and hence doesn't contain this update.
+    codeOwnerConfigOperations
+        .codeOwnerConfig(codeOwnerConfigKey)
+        .forUpdate()
+        .addCodeOwnerSet(CodeOwnerSet.createWithoutPathExpressions(admin.email()))
+        .update();
+
+    PushOneCommit.Result r = createCodeOwnerConfigChange(admin.email());
+    r.assertOkStatus();
+
+    assertImpactReport(
+        r.getChangeId(),
+        "The impact of the code owner config files modified in patch set 1 was not evaluated,"
+            + " since code owner config files of this branch have been updated after the parent"
+            + " commit of the patch set. Rebase the change to get an impact report.");
+  }
+
+  private PushOneCommit.Result createCodeOwnerConfigChange(String... codeOwnerEmails)
+      throws Exception {
+    return createChange(
+        "Modify code owners",
+        codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+        format(
+            CodeOwnerConfig.builder(codeOwnerConfigKey, TEST_REVISION)
+                .addCodeOwnerSet(CodeOwnerSet.createWithoutPathExpressions(codeOwnerEmails))
+                .build()));
+  }
+
+  private void assertImpactReport(String changeId, String expectedMessage) throws Exception {
+    assertAsync(
+        () -> {
+          ImmutableList<String> impactReports =
+              gApi.changes().id(changeId).get().messages.stream()
+                  .filter(message -> TAG_IMPACT_REPORT.equals(message.tag))
+                  .map(message -> message.message)
+                  .collect(toImmutableList());
+          assertThat(impactReports).containsExactly(expectedMessage);
+          return null;
+        });
+  }
+
+  private void assertAsync(Callable<Void> assertion) throws Exception {
+    RetryerBuilder.<Void>newBuilder()
+        .retryIfException(t -> true)
+        .withStopStrategy(
+            StopStrategies.stopAfterDelay(Duration.ofSeconds(3).toMillis(), MILLISECONDS))
+        .build()
+        .call(() -> assertion.call());
+  }
+
+  private String format(CodeOwnerConfig codeOwnerConfig) throws Exception {
+    if (backendConfig.getDefaultBackend() instanceof FindOwnersBackend) {
+      return findOwnersCodeOwnerConfigParser.formatAsString(codeOwnerConfig);
+    } else if (backendConfig.getDefaultBackend() instanceof ProtoBackend) {
+      return protoCodeOwnerConfigParser.formatAsString(codeOwnerConfig);
+    }
+
+    throw new IllegalStateException(
+        String.format(
+            "unknown code owner backend: %s",
+            backendConfig.getDefaultBackend().getClass().getName()));
+  }
+}
@@ -27,11 +27,13 @@ import static com.google.gerrit.testing.GerritJUnit.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.gerrit.acceptance.GitUtil;
 import com.google.gerrit.acceptance.PushOneCommit;
 import com.google.gerrit.acceptance.TestAccount;
 import com.google.gerrit.acceptance.TestProjectInput;
 import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.account.AccountOperations;
 import com.google.gerrit.acceptance.testsuite.group.GroupOperations;
 import com.google.gerrit.acceptance.testsuite.project.ProjectOperations;
 import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
@@ -63,24 +65,29 @@ import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerResolver;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
 import com.google.gerrit.plugins.codeowners.backend.config.BackendConfig;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginProjectConfigSnapshot;
 import com.google.gerrit.plugins.codeowners.backend.config.GeneralConfig;
 import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersBackend;
 import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersCodeOwnerConfigParser;
 import com.google.gerrit.plugins.codeowners.backend.proto.ProtoBackend;
 import com.google.gerrit.plugins.codeowners.backend.proto.ProtoCodeOwnerConfigParser;
 import com.google.gerrit.plugins.codeowners.common.CodeOwnerConfigValidationPolicy;
+import com.google.gerrit.plugins.codeowners.validation.CodeOwnerConfigValidationCache;
 import com.google.gerrit.plugins.codeowners.validation.SkipCodeOwnerConfigValidationCapability;
 import com.google.gerrit.plugins.codeowners.validation.SkipCodeOwnerConfigValidationPushOption;
 import com.google.gerrit.server.config.UrlFormatter;
 import com.google.gerrit.server.submit.IntegrationConflictException;
 import com.google.inject.Inject;
 import java.nio.file.Path;
+import java.util.Optional;
 import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
 import org.eclipse.jgit.junit.TestRepository;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -95,6 +102,7 @@ public class CodeOwnerConfigValidatorIT extends AbstractCodeOwnersIT {
       ObjectId.fromString("deadbeefdeadbeefdeadbeefdeadbeefdeadbeef");
 
   @Inject private RequestScopeOperations requestScopeOperations;
+  @Inject private AccountOperations accountOperations;
   @Inject private ProjectOperations projectOperations;
   @Inject private GroupOperations groupOperations;
   @Inject private DynamicItem<UrlFormatter> urlFormatter;
@@ -1028,6 +1036,72 @@ public class CodeOwnerConfigValidatorIT extends AbstractCodeOwnersIT {
             identifiedUserFactory.create(admin.id()).getLoggableName()));
   }
 
+  @Test
+  public void cachedValidationResultIsInvalidatedOnAccountChange() throws Exception {
+    CodeOwnerConfig.Key codeOwnerConfigKey = createCodeOwnerConfigKey("/");
+
+    String unknownEmail = "non-existing-email@example.com";
+    String codeOwnerConfigContent =
+        format(
+            CodeOwnerConfig.builder(codeOwnerConfigKey, TEST_REVISION)
+                .addCodeOwnerSet(CodeOwnerSet.createWithoutPathExpressions(unknownEmail))
+                .build());
+    PushOneCommit.Result r =
+        createChange(
+            "Add code owners",
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+            codeOwnerConfigContent);
+    assertErrorWithMessages(
+        r,
+        "invalid code owner config files",
+        String.format(
+            "code owner email '%s' in '%s' cannot be resolved for %s",
+            unknownEmail,
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getFilePath(),
+            identifiedUserFactory.create(admin.id()).getLoggableName()));
+
+    // Create an account for the email so that the email becomes resolvable.
+    accountOperations.newAccount().preferredEmail(unknownEmail).create();
+
+    // Push the same code owner config file again. The cached validation result of the first push
+    // must have been invalidated by the account creation.
+    testRepo.reset(projectOperations.project(project).getHead("master"));
+    r =
+        createChange(
+            "Add code owners",
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+            codeOwnerConfigContent);
+    assertOkWithHints(r, "code owner config files validated, no issues found");
+  }
+
+  @Test
+  public void validationResultIsCachedUntilReferencedAccountChanges() throws Exception {
+    CodeOwnerConfig.Key codeOwnerConfigKey = createCodeOwnerConfigKey("/");
+    PushOneCommit.Result r =
+        createChange(
+            "Add code owners",
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+            format(
+                CodeOwnerConfig.builder(codeOwnerConfigKey, TEST_REVISION)
+                    .addCodeOwnerSet(CodeOwnerSet.createWithoutPathExpressions(user.email()))
+                    .build()));
+    assertOkWithHints(r, "code owner config files validated, no issues found");
+
+    CodeOwnerConfigValidationCache validationCache =
+        plugin.getSysInjector().getInstance(CodeOwnerConfigValidationCache.class);
+    CodeOwnerConfigValidationCache.Key validationCacheKey =
+        createValidationCacheKey(codeOwnerConfigKey, r.getCommit());
+    assertThat(validationCache.get(validationCacheKey)).isPresent();
+
+    // Reindexing an account that is not referenced doesn't invalidate the cached result.
+    accountOperations.newAccount().preferredEmail("other@example.com").create();
+    assertThat(validationCache.get(validationCacheKey)).isPresent();
+
+    // Changing the referenced account invalidates the cached result.
+    accountOperations.account(user.id()).forUpdate().inactive().update();
+    assertThat(validationCache.get(validationCacheKey)).isEmpty();
+  }
+
   @Test
   @GerritConfig(name = "plugin.code-owners.allowedEmailDomain", value = "example.com")
   public void canUploadConfigThatAssignsCodeOwnershipToAnEmailWithAnAllowedEmailDomain()
@@ -3555,6 +3629,32 @@ public class CodeOwnerConfigValidatorIT extends AbstractCodeOwnersIT {
     return codeOwnerConfigBuilder.build();
   }
 
+  private CodeOwnerConfigValidationCache.Key createValidationCacheKey(
+      CodeOwnerConfig.Key codeOwnerConfigKey, RevCommit commit) throws Exception {
+    ObjectId blobId;
+    try (TreeWalk tw =
+        TreeWalk.forPath(
+            testRepo.getRepository(),
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+            commit.getTree())) {
+      blobId = tw.getObjectId(0);
+    }
+    CodeOwnersPluginProjectConfigSnapshot codeOwnersConfig =
+        plugin
+            .getSysInjector()
+            .getInstance(CodeOwnersPluginConfiguration.class)
+            .getProjectConfig(project);
+    return CodeOwnerConfigValidationCache.Key.create(
+        BranchNameKey.create(project, "master"),
+        codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getFilePath(),
+        blobId,
+        /* baseBlobId= */ Optional.empty(),
+        backendConfig.getDefaultBackend().getClass().getName(),
+        codeOwnersConfig.rejectNonResolvableCodeOwners("master"),
+        /* allowedEmailDomains= */ ImmutableSet.of(),
+        admin.id());
+  }
+
   private CodeOwnerConfig.Key createCodeOwnerConfigKey(String folderPath) {
     return CodeOwnerConfig.Key.create(project, "master", folderPath);
   }
@@ -0,0 +1,229 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.api;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.acceptance.RestResponse;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.extensions.restapi.AuthException;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerCoverageInfo;
+import com.google.gerrit.plugins.codeowners.api.FolderCoverageInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSetModification;
+import com.google.inject.Inject;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Acceptance test for the {@link com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnerCoverage}
+ * REST endpoint.
+ */
+public class CodeOwnerCoverageIT extends AbstractCodeOwnersIT {
+  @Inject private RequestScopeOperations requestScopeOperations;
+
+  @Test
+  public void getCoverageRequiresAdministrateServerCapability() throws Exception {
+    requestScopeOperations.setApiUser(user.id());
+    AuthException authException = assertThrows(AuthException.class, () -> getCoverage());
+    assertThat(authException).hasMessageThat().isEqualTo("administrate server not permitted");
+  }
+
+  @Test
+  public void getCoverageForNonExistingBranch() throws Exception {
+    RestResponse response =
+        adminRestSession.get(
+            String.format(
+                "/projects/%s/branches/non-existing/code_owners.coverage", project.get()));
+    response.assertNotFound();
+  }
+
+  @Test
+  public void getCoverage() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "b.txt", "b", "foo/c.txt", "c", "foo/bar/d.txt", "d"));
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(admin.email())
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.revision).isEqualTo(getHead());
+    // The files in the branch include the code owner config file in the '/foo/' folder.
+    assertThat(coverage.files).isEqualTo(5);
+    assertThat(coverage.uncoveredFiles).isEqualTo(2);
+    assertThat(getPaths(coverage.uncoveredFolders))
+        .containsExactly("/");
+    assertFolderCoverage(coverage.uncoveredFolders.get(0), "/", 2, 2);
+    assertThat(coverage.codeOwnersPerFolder).containsExactly(0, 1, 2, 2);
+  }
+
+  @Test
+  public void coverageIsUpdatedWhenFilesAreUpdated() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "foo/b.txt", "b"));
+
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(2);
+    assertThat(coverage.uncoveredFiles).isEqualTo(2);
+
+    pushFiles(ImmutableMap.of("foo/c.txt", "c", "bar/d.txt", "d"));
+
+    coverage = getCoverage();
+    assertThat(coverage.revision).isEqualTo(getHead());
+    assertThat(coverage.files).isEqualTo(4);
+    assertThat(coverage.uncoveredFiles).isEqualTo(4);
+    assertThat(getPaths(coverage.uncoveredFolders))
+        .containsExactly("/", "/bar", "/foo")
+        .inOrder();
+    assertFolderCoverage(coverage.uncoveredFolders.get(2), "/foo", 2, 2);
+  }
+
+  @Test
+  public void coverageIsUpdatedWhenCodeOwnerConfigsAreUpdated() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "foo/b.txt", "b", "foo/bar/c.txt", "c"));
+
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.uncoveredFiles).isEqualTo(3);
+
+    // Adding a root code owner config covers all files.
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/")
+        .addCodeOwnerEmail(admin.email())
+        .create();
+    coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(4);
+    assertThat(coverage.uncoveredFiles).isEqualTo(0);
+    assertThat(coverage.uncoveredFolders).isEmpty();
+    assertThat(coverage.codeOwnersPerFolder).containsExactly(1, 3);
+
+    // Removing all code owners from the root code owner config deletes it and makes all files
+    // uncovered again.
+    codeOwnerConfigOperations
+        .codeOwnerConfig(CodeOwnerConfig.Key.create(project, "master", "/"))
+        .forUpdate()
+        .codeOwnerSetsModification(CodeOwnerSetModification.clear())
+        .update();
+    coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(3);
+    assertThat(coverage.uncoveredFiles).isEqualTo(3);
+    assertThat(getPaths(coverage.uncoveredFolders))
+        .containsExactly("/", "/foo", "/foo/bar")
+        .inOrder();
+    assertFolderCoverage(coverage.uncoveredFolders.get(0), "/", 1, 1);
+    assertFolderCoverage(coverage.uncoveredFolders.get(1), "/foo", 1, 1);
+    assertFolderCoverage(coverage.uncoveredFolders.get(2), "/foo/bar", 1, 1);
+    assertThat(coverage.codeOwnersPerFolder).containsExactly(0, 3);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.globalCodeOwner", value = "global.owner@example.com")
+  public void globalCodeOwnersDoNotCoverFiles() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "foo/b.txt", "b"));
+
+    // Global code owners don't prevent that the fallback code owners apply.
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(2);
+    assertThat(coverage.uncoveredFiles).isEqualTo(2);
+    assertThat(getPaths(coverage.uncoveredFolders)).containsExactly("/", "/foo").inOrder();
+  }
+
+  @Test
+  public void filesForWhichParentCodeOwnersAreIgnoredAreCovered() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "foo/b.txt", "b", "foo/bar/c.txt", "c"));
+
+    // Ignoring the parent code owners in the '/foo/' folder without defining code owners leaves the
+    // files in the '/foo/' subtree without code owners, but they don't fall back to the fallback
+    // code owners either.
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .ignoreParentCodeOwners()
+        .create();
+
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(4);
+    assertThat(coverage.uncoveredFiles).isEqualTo(1);
+    assertThat(getPaths(coverage.uncoveredFolders)).containsExactly("/");
+    assertFolderCoverage(coverage.uncoveredFolders.get(0), "/", 1, 1);
+    assertThat(coverage.codeOwnersPerFolder).containsExactly(0, 3);
+  }
+
+  @Test
+  public void filesWithUnresolvedImportsAreCovered() throws Exception {
+    pushFiles(ImmutableMap.of("a.txt", "a", "foo/b.txt", "b"));
+
+    // An import that cannot be resolved counts as code owner definition, hence the files in the
+    // '/foo/' folder don't fall back to the fallback code owners.
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addImport(
+            CodeOwnerConfigReference.create(CodeOwnerConfigImportMode.ALL, "/non-existing/OWNERS"))
+        .create();
+
+    CodeOwnerCoverageInfo coverage = getCoverage();
+    assertThat(coverage.files).isEqualTo(3);
+    assertThat(coverage.uncoveredFiles).isEqualTo(1);
+    assertThat(getPaths(coverage.uncoveredFolders)).containsExactly("/");
+    assertThat(coverage.codeOwnersPerFolder).containsExactly(0, 2);
+  }
+
+  private void pushFiles(ImmutableMap<String, String> files) throws Exception {
+    pushFactory
+        .create(admin.newIdent(), testRepo, "Add files", files)
+        .to("refs/heads/master")
+        .assertOkStatus();
+  }
+
+  private CodeOwnerCoverageInfo getCoverage() throws RestApiException {
+    return projectCodeOwnersApiFactory.project(project).branch("master").getCoverage();
+  }
+
+  private String getHead() {
+    return projectOperations.project(project).getHead("master").name();
+  }
+
+  private static ImmutableList<String> getPaths(List<FolderCoverageInfo> folderCoverages) {
+    return folderCoverages.stream()
+        .map(folderCoverage -> folderCoverage.path)
+        .collect(toImmutableList());
+  }
+
+  private static void assertFolderCoverage(
+      FolderCoverageInfo folderCoverage, String path, int files, int uncoveredFiles) {
+    assertThat(folderCoverage.path).isEqualTo(path);
+    assertThat(folderCoverage.files).isEqualTo(files);
+    assertThat(folderCoverage.uncoveredFiles).isEqualTo(uncoveredFiles);
+  }
+}
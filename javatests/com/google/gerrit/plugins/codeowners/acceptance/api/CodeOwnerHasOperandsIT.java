@@ -21,13 +21,20 @@ import static com.google.gerrit.extensions.common.SubmitRequirementResultInfo.St
 import static com.google.gerrit.extensions.common.SubmitRequirementResultInfo.Status.SATISFIED;
 import static com.google.gerrit.extensions.common.SubmitRequirementResultInfo.Status.UNSATISFIED;
 import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.github.rholder.retry.RetryerBuilder;
+import com.github.rholder.retry.StopStrategies;
 import com.google.common.collect.Streams;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.gerrit.acceptance.GitUtil;
 import com.google.gerrit.acceptance.Sandboxed;
+import com.google.gerrit.acceptance.TestMetricMaker;
 import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.change.ChangeOperations;
 import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
 import com.google.gerrit.entities.BranchNameKey;
 import com.google.gerrit.entities.Change;
@@ -43,28 +50,51 @@ import com.google.gerrit.extensions.common.SubmitRequirementResultInfo.Status;
 import com.google.gerrit.extensions.restapi.BadRequestException;
 import com.google.gerrit.extensions.restapi.RestApiException;
 import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerProjectConfigInput;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerApprovalHasOperand;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
+import com.google.gerrit.plugins.codeowners.backend.FallbackCodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersBackend;
+import com.google.gerrit.plugins.codeowners.backend.findowners.FindOwnersCodeOwnerConfigParser;
+import com.google.gerrit.plugins.codeowners.backend.proto.ProtoBackend;
+import com.google.gerrit.plugins.codeowners.backend.proto.ProtoCodeOwnerConfigParser;
 import com.google.gerrit.server.query.change.ChangeData;
 import com.google.gerrit.server.query.change.ChangeQueryBuilder;
 import com.google.inject.Inject;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import org.eclipse.jgit.lib.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 
 @Sandboxed
 public class CodeOwnerHasOperandsIT extends AbstractCodeOwnersIT {
+  private static final ObjectId TEST_REVISION =
+      ObjectId.fromString("deadbeefdeadbeefdeadbeefdeadbeefdeadbeef");
+
   @Inject private RequestScopeOperations requestScopeOperations;
+  @Inject private ChangeOperations changeOperations;
   @Inject private ChangeQueryBuilder changeQueryBuilder;
 
+  private final TestMetricMaker testMetricMaker = TestMetricMaker.getInstance();
+
   private CodeOwnerApprovalHasOperand codeOwnerApprovalHasOperand;
+  private FindOwnersCodeOwnerConfigParser findOwnersCodeOwnerConfigParser;
+  private ProtoCodeOwnerConfigParser protoCodeOwnerConfigParser;
 
   @Before
   public void setup() throws Exception {
     codeOwnerApprovalHasOperand =
         plugin.getSysInjector().getInstance(CodeOwnerApprovalHasOperand.class);
+    findOwnersCodeOwnerConfigParser =
+        plugin.getSysInjector().getInstance(FindOwnersCodeOwnerConfigParser.class);
+    protoCodeOwnerConfigParser =
+        plugin.getSysInjector().getInstance(ProtoCodeOwnerConfigParser.class);
 
     configSubmitRequirement(
         project,
@@ -78,12 +108,250 @@ public class CodeOwnerHasOperandsIT extends AbstractCodeOwnersIT {
   }
 
   @Test
-  public void hasApproval_notSupportedInSearchQueries() throws Exception {
+  public void hasApproval_inSearchQueries() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    Change change1 =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+    Change change2 =
+        createChange("Change Adding Another File", "foo/baz.bar", "file content")
+            .getChange()
+            .change();
+    String query = "has:approval_code-owners project:" + project.get();
+    assertQuery(query);
+
+    // Add a Code-Review+1 from a code owner (by default this counts as code owner approval).
+    requestScopeOperations.setApiUser(user.id());
+    recommend(change1.getKey().get());
+    assertQuery(query, change1);
+
+    requestScopeOperations.setApiUser(user.id());
+    recommend(change2.getKey().get());
+    assertQuery(query, change2, change1);
+  }
+
+  @Test
+  public void hasApproval_inSearchQueriesIsServedFromCodeOwnerStatusIndex() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    Change change =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+    String query = "has:approval_code-owners project:" + project.get();
+
+    // Add a Code-Review+1 from a code owner (by default this counts as code owner approval).
+    requestScopeOperations.setApiUser(user.id());
+    recommend(change.getKey().get());
+
+    // The code owner status is indexed asynchronously, once it is indexed the query is served from
+    // the index.
+    assertAsync(
+        () -> {
+          testMetricMaker.reset();
+          assertQuery(query, change);
+          assertThat(
+                  testMetricMaker.getCount(
+                      "plugins/code-owners/count_code_owner_approval_query_matches", true))
+              .isEqualTo(1);
+          return null;
+        });
+  }
+
+  @Test
+  public void hasApproval_inSearchQueriesDoesNotMatchClosedChanges() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    Change change =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+    String query = "has:approval_code-owners project:" + project.get();
+
+    // Add a Code-Review+1 from a code owner (by default this counts as code owner approval).
+    requestScopeOperations.setApiUser(user.id());
+    recommend(change.getKey().get());
+    assertQuery(query, change);
+
+    // Approve and submit.
+    requestScopeOperations.setApiUser(admin.id());
+    approve(change.getKey().get());
+    gApi.changes().id(change.getKey().get()).current().submit();
+    assertQuery(query);
+  }
+
+  @Test
+  public void pendingCodeOwner_inSearchQueries() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    Change change1 =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+    Change change2 =
+        createChange("Change Adding Another File", "bar/baz.bar", "file content")
+            .getChange()
+            .change();
+
+    // change1 awaits a code owner approval from user, change2 doesn't. The pending code owners are
+    // indexed asynchronously.
+    requestScopeOperations.setApiUser(user.id());
+    String query = "pending_code-owners:self project:" + project.get();
+    assertAsync(
+        () -> {
+          assertQuery(query, change1);
+          assertQuery(
+              "pending_code-owners:" + user.email() + " project:" + project.get(), change1);
+          return null;
+        });
+
+    // Add a Code-Review+1 from the code owner (by default this counts as code owner approval).
+    recommend(change1.getKey().get());
+    assertAsync(() -> assertQuery(query));
+
+    requestScopeOperations.setApiUser(admin.id());
+    assertQuery("pending_code-owners:" + user.email() + " project:" + project.get());
+    assertQuery(query);
+  }
+
+  @Test
+  public void pendingCodeOwner_doesNotMatchClosedChanges() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+
+    Change change =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+    String query = "pending_code-owners:" + user.email() + " project:" + project.get();
+    assertAsync(() -> assertQuery(query, change));
+
+    gApi.changes().id(change.getKey().get()).abandon();
+    assertQuery(query);
+  }
+
+  @Test
+  public void pendingCodeOwner_codeOwnersConfigUpdateIsConsidered() throws Exception {
+    Change change =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+
+    // Without code owner config files and fallback code owners nobody is a pending code owner.
+    String query = "pending_code-owners:" + user.email() + " project:" + project.get();
+    assertQuery(query);
+
+    // Make all users fallback code owners, now user is a pending code owner. The change is
+    // reindexed asynchronously.
+    CodeOwnerProjectConfigInput input = new CodeOwnerProjectConfigInput();
+    input.fallbackCodeOwners = FallbackCodeOwners.ALL_USERS;
+    projectCodeOwnersApiFactory.project(project).updateConfig(input);
+    assertAsync(() -> assertQuery(query, change));
+  }
+
+  @Test
+  public void pendingCodeOwner_codeOwnerConfigFileUpdateIsConsidered() throws Exception {
+    CodeOwnerConfig.Key codeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/foo/")
+            .addCodeOwnerEmail(admin.email())
+            .create();
+
+    Change change =
+        createChange("Change Adding A File", "foo/bar.baz", "file content").getChange().change();
+
+    // user is not a code owner of the file, hence user is not a pending code owner.
+    String query = "pending_code-owners:" + user.email() + " project:" + project.get();
+    assertQuery(query);
+
+    // Fetch the commit that created the code owner config into the local repository so that the
+    // commit that updates the code owner config becomes a successor of this commit.
+    GitUtil.fetch(testRepo, "refs/*:refs/*");
+    testRepo.reset(projectOperations.project(project).getHead("master"));
+
+    // Make user a code owner by pushing an update of the code owner config file directly to the
+    // branch.
+    testMetricMaker.reset();
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add code owner",
+            codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getJGitFilePath(),
+            format(
+                CodeOwnerConfig.builder(codeOwnerConfigKey, TEST_REVISION)
+                    .addCodeOwnerSet(
+                        CodeOwnerSet.createWithoutPathExpressions(admin.email(), user.email()))
+                    .build()))
+        .to("refs/heads/master")
+        .assertOkStatus();
+
+    // The change is reindexed asynchronously, now user is a pending code owner.
+    assertAsync(
+        () -> {
+          assertThat(testMetricMaker.getCount("plugins/code-owners/count_change_reindexes"))
+              .isEqualTo(1);
+          assertQuery(query, change);
+          return null;
+        });
+  }
+
+  @Test
+  public void changesOfProjectAndChildProjectsAreReindexedOnCodeOwnersConfigUpdate()
+      throws Exception {
+    createChange("Change Adding A File", "foo/bar.baz", "file content");
+    Project.NameKey childProject = projectOperations.newProject().parent(project).create();
+    changeOperations
+        .newChange()
+        .project(childProject)
+        .file("foo/bar.baz")
+        .content("file content")
+        .create();
+
+    // Update the code-owners configuration of the parent project, this affects the open changes of
+    // the project and of its child project.
+    testMetricMaker.reset();
+    CodeOwnerProjectConfigInput input = new CodeOwnerProjectConfigInput();
+    input.fallbackCodeOwners = FallbackCodeOwners.ALL_USERS;
+    projectCodeOwnersApiFactory.project(project).updateConfig(input);
+
+    // The changes are reindexed asynchronously.
+    assertAsync(
+        () -> {
+          assertThat(testMetricMaker.getCount("plugins/code-owners/count_change_reindexes"))
+              .isEqualTo(2);
+          return null;
+        });
+  }
+
+  @Test
+  public void pendingCodeOwner_unknownAccount() throws Exception {
     Exception thrown =
-        assertThrows(BadRequestException.class, () -> assertQuery("has:approval_code-owners"));
-    assertThat(thrown)
-        .hasMessageThat()
-        .isEqualTo("Operator 'has:approval_code-owners' cannot be used in queries");
+        assertThrows(
+            BadRequestException.class, () -> assertQuery("pending_code-owners:non-existing"));
+    assertThat(thrown).hasMessageThat().contains("account 'non-existing' not found");
   }
 
   @Test
@@ -216,6 +484,29 @@ public class CodeOwnerHasOperandsIT extends AbstractCodeOwnersIT {
     return result;
   }
 
+  @CanIgnoreReturnValue
+  private <T> T assertAsync(Callable<T> assertion) throws Exception {
+    return RetryerBuilder.<T>newBuilder()
+        .retryIfException(t -> true)
+        .withStopStrategy(
+            StopStrategies.stopAfterDelay(Duration.ofSeconds(5).toMillis(), MILLISECONDS))
+        .build()
+        .call(() -> assertion.call());
+  }
+
+  private String format(CodeOwnerConfig codeOwnerConfig) throws Exception {
+    if (backendConfig.getDefaultBackend() instanceof FindOwnersBackend) {
+      return findOwnersCodeOwnerConfigParser.formatAsString(codeOwnerConfig);
+    } else if (backendConfig.getDefaultBackend() instanceof ProtoBackend) {
+      return protoCodeOwnerConfigParser.formatAsString(codeOwnerConfig);
+    }
+
+    throw new IllegalStateException(
+        String.format(
+            "unknown code owner backend: %s",
+            backendConfig.getDefaultBackend().getClass().getName()));
+  }
+
   private static Iterable<Change.Id> ids(Iterable<ChangeInfo> changes) {
     return Streams.stream(changes).map(c -> Change.id(c._number)).collect(toList());
   }
@@ -402,6 +402,67 @@ public class CodeOwnersOnAddReviewerIT extends AbstractCodeOwnersIT {
                 TEST_PATH_ESCAPED));
   }
 
+  @Test
+  public void multipleReviewersThatOwnDifferentPathsAddedAtTheSameTime() throws Exception {
+    TestAccount user2 = accountCreator.user2();
+    TestAccount user3 =
+        accountCreator.create("user3", "user3@example.com", "User3", /* displayName= */ null);
+
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(user.email())
+        .create();
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/bar/")
+        .addCodeOwnerEmail(user2.email())
+        .create();
+
+    String testPath1 = "foo/bar.baz";
+    String testPath1Escaped = "`foo/bar.baz`";
+    String testPath2 = "bar/foo.baz";
+    String testPath2Escaped = "`bar/foo.baz`";
+    String changeId =
+        createChange(
+                "Test Change",
+                ImmutableMap.of(
+                    testPath1,
+                    "file content",
+                    testPath2,
+                    "file content",
+                    "baz/foo.bar",
+                    "file content"))
+            .getChangeId();
+
+    // Add code owners 'user' and 'user2' and non code owner 'user3' as reviewers.
+    gApi.changes()
+        .id(changeId)
+        .current()
+        .review(
+            ReviewInput.create()
+                .reviewer(user.email())
+                .reviewer(user2.email())
+                .reviewer(user3.email()));
+
+    // We expect that 1 change message is added that lists the paths owned by each of the new
+    // reviewers that is a code owner ('user' and 'user2').
+    Collection<ChangeMessageInfo> messages = gApi.changes().id(changeId).get().messages;
+    assertThat(Iterables.getLast(messages).message)
+        .isEqualTo(
+            String.format(
+                "%s, who was added as reviewer owns the following files:\n* %s\n\n"
+                    + "%s, who was added as reviewer owns the following files:\n* %s\n",
+                AccountTemplateUtil.getAccountTemplate(user.id()),
+                testPath1Escaped,
+                AccountTemplateUtil.getAccountTemplate(user2.id()),
+                testPath2Escaped));
+  }
+
   @Test
   public void reviewerAndCodeOwnerApprovalAddedAtTheSameTime() throws Exception {
     codeOwnerConfigOperations
@@ -0,0 +1,139 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.api;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.plugins.codeowners.testing.CodeOwnerStatusInfoSubject.assertThat;
+import static com.google.gerrit.plugins.codeowners.testing.FileCodeOwnerStatusInfoSubject.isFileCodeOwnerStatus;
+import static com.google.gerrit.plugins.codeowners.testing.OwnedChangedFileInfoSubject.assertThat;
+import static com.google.gerrit.plugins.codeowners.testing.OwnedPathsInfoSubject.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnersSummaryInfo;
+import com.google.gerrit.plugins.codeowners.backend.FileCodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.common.CodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.util.JgitPath;
+import com.google.gerrit.server.util.AccountTemplateUtil;
+import com.google.inject.Inject;
+import org.junit.Test;
+
+/**
+ * Acceptance test for the {@link com.google.gerrit.plugins.codeowners.restapi.GetCodeOwnersSummary}
+ * REST endpoint.
+ */
+public class GetCodeOwnersSummaryIT extends AbstractCodeOwnersIT {
+  @Inject private RequestScopeOperations requestScopeOperations;
+
+  @Test
+  public void getSummary() throws Exception {
+    setAsCodeOwners("/foo/", user);
+
+    String path1 = "/foo/bar.md";
+    String path2 = "/bar/foo.md";
+    PushOneCommit.Result r =
+        createChange(
+            "test change",
+            ImmutableMap.of(
+                JgitPath.of(path1).get(), "file content", JgitPath.of(path2).get(), "content"));
+    String changeId = r.getChangeId();
+
+    // Add a reviewer that is a code owner.
+    gApi.changes().id(changeId).addReviewer(user.email());
+
+    CodeOwnersSummaryInfo codeOwnersSummaryInfo =
+        changeCodeOwnersApiFactory.change(changeId).getSummary();
+
+    assertThat(codeOwnersSummaryInfo.branchConfig.disabled).isNull();
+    assertThat(codeOwnersSummaryInfo.branchConfig.backendId).isNotNull();
+    assertThat(codeOwnersSummaryInfo.branchConfig.requiredApproval).isNotNull();
+
+    assertThat(codeOwnersSummaryInfo.status)
+        .hasPatchSetNumberThat()
+        .isEqualTo(r.getChange().currentPatchSet().id().get());
+    assertThat(codeOwnersSummaryInfo.status)
+        .hasFileCodeOwnerStatusesThat()
+        .comparingElementsUsing(isFileCodeOwnerStatus())
+        .containsExactly(
+            FileCodeOwnerStatus.addition(path2, CodeOwnerStatus.INSUFFICIENT_REVIEWERS),
+            FileCodeOwnerStatus.addition(
+                path1,
+                CodeOwnerStatus.PENDING,
+                String.format(
+                    "reviewer %s is a code owner",
+                    AccountTemplateUtil.getAccountTemplate(user.id()))));
+    assertThat(codeOwnersSummaryInfo.status).hasMoreThat().isNull();
+    assertThat(codeOwnersSummaryInfo.status).hasAccounts(user);
+
+    // The calling user (admin) doesn't own any path, but the reviewer does.
+    assertThat(codeOwnersSummaryInfo.ownedPaths).hasOwnedChangedFilesThat().hasSize(1);
+    assertThat(codeOwnersSummaryInfo.ownedPaths.ownedChangedFiles.get(0))
+        .hasNonOwnedNewPath(path1);
+    assertThat(codeOwnersSummaryInfo.ownedPaths.ownedChangedFiles.get(0)).hasEmptyOldPath();
+    assertThat(codeOwnersSummaryInfo.ownedPaths).hasMoreThat().isNull();
+  }
+
+  @Test
+  public void getSummaryReturnsOwnedPathsOfCallingUser() throws Exception {
+    setAsCodeOwners("/foo/", user);
+
+    String path = "/foo/bar.md";
+    String changeId = createChange("test change", JgitPath.of(path).get(), "content").getChangeId();
+
+    requestScopeOperations.setApiUser(user.id());
+    CodeOwnersSummaryInfo codeOwnersSummaryInfo =
+        changeCodeOwnersApiFactory.change(changeId).getSummary();
+
+    assertThat(codeOwnersSummaryInfo.ownedPaths).hasOwnedChangedFilesThat().hasSize(1);
+    assertThat(codeOwnersSummaryInfo.ownedPaths.ownedChangedFiles.get(0)).hasOwnedNewPath(path);
+    assertThat(codeOwnersSummaryInfo.ownedPaths.ownedChangedFiles.get(0)).hasEmptyOldPath();
+  }
+
+  @Test
+  public void getSummaryForAnonymousUser() throws Exception {
+    setAsCodeOwners("/foo/", user);
+
+    String path = "/foo/bar.md";
+    String changeId = createChange("test change", JgitPath.of(path).get(), "content").getChangeId();
+
+    requestScopeOperations.setApiUserAnonymous();
+    CodeOwnersSummaryInfo codeOwnersSummaryInfo =
+        changeCodeOwnersApiFactory.change(changeId).getSummary();
+
+    assertThat(codeOwnersSummaryInfo.branchConfig.disabled).isNull();
+    assertThat(codeOwnersSummaryInfo.status)
+        .hasFileCodeOwnerStatusesThat()
+        .comparingElementsUsing(isFileCodeOwnerStatus())
+        .containsExactly(
+            FileCodeOwnerStatus.addition(path, CodeOwnerStatus.INSUFFICIENT_REVIEWERS));
+    assertThat(codeOwnersSummaryInfo.ownedPaths).isNull();
+  }
+
+  @Test
+  public void getSummaryIfCodeOwnersFunctionalityIsDisabled() throws Exception {
+    disableCodeOwnersForProject(project);
+
+    String changeId = createChange().getChangeId();
+
+    CodeOwnersSummaryInfo codeOwnersSummaryInfo =
+        changeCodeOwnersApiFactory.change(changeId).getSummary();
+
+    assertThat(codeOwnersSummaryInfo.branchConfig.disabled).isTrue();
+    assertThat(codeOwnersSummaryInfo.status).isNull();
+    assertThat(codeOwnersSummaryInfo.ownedPaths).isNull();
+  }
+}
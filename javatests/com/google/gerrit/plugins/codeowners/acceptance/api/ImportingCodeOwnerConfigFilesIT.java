@@ -0,0 +1,242 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.api;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.acceptance.testsuite.project.TestProjectUpdate.block;
+import static com.google.gerrit.server.group.SystemGroupBackend.REGISTERED_USERS;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.github.rholder.retry.RetryerBuilder;
+import com.github.rholder.retry.StopStrategies;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.acceptance.testsuite.project.ProjectOperations;
+import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Permission;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.extensions.restapi.BadRequestException;
+import com.google.gerrit.extensions.restapi.RestApiException;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.api.BranchCodeOwners;
+import com.google.gerrit.plugins.codeowners.api.CodeOwnerConfigFileInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Acceptance test for the {@link
+ * com.google.gerrit.plugins.codeowners.restapi.GetImportingCodeOwnerConfigFiles} REST endpoint.
+ *
+ * <p>The import index is built in the background when the plugin is started and branch updates are
+ * applied to it asynchronously, hence the results of the REST endpoint are asserted with retries.
+ */
+public class ImportingCodeOwnerConfigFilesIT extends AbstractCodeOwnersIT {
+  @Inject private ProjectOperations projectOperations;
+  @Inject private RequestScopeOperations requestScopeOperations;
+
+  private String importedPath;
+  private CodeOwnerConfigReference importedCodeOwnerConfigReference;
+
+  @Before
+  public void setup() throws Exception {
+    skipTestIfImportsNotSupportedByCodeOwnersBackend();
+
+    CodeOwnerConfig.Key importedKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/shared/")
+            .addCodeOwnerEmail(admin.email())
+            .create();
+    importedPath = codeOwnerConfigOperations.codeOwnerConfig(importedKey).getFilePath();
+    importedCodeOwnerConfigReference =
+        CodeOwnerConfigReference.builder(CodeOwnerConfigImportMode.ALL, importedPath)
+            .setProject(project)
+            .setBranch("master")
+            .build();
+  }
+
+  @Test
+  public void pathIsRequired() throws Exception {
+    BadRequestException exception =
+        assertThrows(BadRequestException.class, () -> getImportingCodeOwnerConfigFiles(null));
+    assertThat(exception).hasMessageThat().isEqualTo("path required");
+  }
+
+  @Test
+  public void pathMustBeACodeOwnerConfigFile() throws Exception {
+    BadRequestException exception =
+        assertThrows(
+            BadRequestException.class, () -> getImportingCodeOwnerConfigFiles("/foo/bar.txt"));
+    assertThat(exception)
+        .hasMessageThat()
+        .isEqualTo("path /foo/bar.txt is not a code owner config file");
+  }
+
+  @Test
+  public void noImportingCodeOwnerConfigFiles() throws Exception {
+    assertImportingCodeOwnerConfigFiles(importedPath);
+  }
+
+  @Test
+  public void getImportingCodeOwnerConfigFilesFromAllBranchesAndProjects() throws Exception {
+    createBranch(BranchNameKey.create(project, "stable"));
+    Project.NameKey otherProject = projectOperations.newProject().create();
+
+    CodeOwnerConfig.Key sameBranchKey = createImportingCodeOwnerConfig(project, "master", "/foo/");
+    CodeOwnerConfig.Key otherBranchKey = createImportingCodeOwnerConfig(project, "stable", "/bar/");
+    CodeOwnerConfig.Key otherProjectKey =
+        createImportingCodeOwnerConfig(otherProject, "master", "/");
+
+    assertImportingCodeOwnerConfigFiles(
+        importedPath,
+        formatKey(sameBranchKey),
+        formatKey(otherBranchKey),
+        formatKey(otherProjectKey));
+  }
+
+  @Test
+  public void getImportingCodeOwnerConfigFilesTransitively() throws Exception {
+    CodeOwnerConfig.Key directKey = createImportingCodeOwnerConfig(project, "master", "/foo/");
+    CodeOwnerConfig.Key indirectKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/foo/bar/")
+            .addImport(
+                CodeOwnerConfigReference.create(
+                    CodeOwnerConfigImportMode.ALL,
+                    codeOwnerConfigOperations.codeOwnerConfig(directKey).getFilePath()))
+            .create();
+
+    assertImportingCodeOwnerConfigFiles(importedPath, formatKey(directKey));
+    assertAsync(
+        () -> {
+          assertThat(
+                  getKeys(
+                      branchCodeOwnersApi()
+                          .importingCodeOwnerConfigFiles()
+                          .path(importedPath)
+                          .transitive(true)
+                          .get()))
+              .containsExactly(formatKey(directKey), formatKey(indirectKey));
+          return null;
+        });
+  }
+
+  @Test
+  public void importingCodeOwnerConfigFilesAreUpdatedWhenBranchesAreUpdated() throws Exception {
+    Project.NameKey otherProject = projectOperations.newProject().create();
+
+    // Wait until the index has been built.
+    assertImportingCodeOwnerConfigFiles(importedPath);
+
+    CodeOwnerConfig.Key importingKey =
+        createImportingCodeOwnerConfig(otherProject, "master", "/foo/");
+    assertImportingCodeOwnerConfigFiles(importedPath, formatKey(importingKey));
+
+    codeOwnerConfigOperations
+        .codeOwnerConfig(importingKey)
+        .forUpdate()
+        .clearImports()
+        .ignoreParentCodeOwners()
+        .update();
+    assertImportingCodeOwnerConfigFiles(importedPath);
+  }
+
+  @Test
+  public void importingCodeOwnerConfigFilesInNonVisibleBranchesAreOmitted() throws Exception {
+    Project.NameKey nonVisibleProject = projectOperations.newProject().create();
+    projectOperations
+        .project(nonVisibleProject)
+        .forUpdate()
+        .add(block(Permission.READ).ref("refs/*").group(REGISTERED_USERS))
+        .update();
+    CodeOwnerConfig.Key visibleKey = createImportingCodeOwnerConfig(project, "master", "/foo/");
+    CodeOwnerConfig.Key nonVisibleKey =
+        createImportingCodeOwnerConfig(nonVisibleProject, "master", "/");
+
+    assertImportingCodeOwnerConfigFiles(
+        importedPath, formatKey(visibleKey), formatKey(nonVisibleKey));
+
+    requestScopeOperations.setApiUser(user.id());
+    assertImportingCodeOwnerConfigFiles(importedPath, formatKey(visibleKey));
+  }
+
+  private CodeOwnerConfig.Key createImportingCodeOwnerConfig(
+      Project.NameKey projectName, String branch, String folderPath) {
+    return codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(projectName)
+        .branch(branch)
+        .folderPath(folderPath)
+        .addImport(importedCodeOwnerConfigReference)
+        .create();
+  }
+
+  private void assertImportingCodeOwnerConfigFiles(String path, String... expectedKeys)
+      throws Exception {
+    assertAsync(
+        () -> {
+          assertThat(getKeys(getImportingCodeOwnerConfigFiles(path)))
+              .containsExactlyElementsIn(expectedKeys);
+          return null;
+        });
+  }
+
+  private void assertAsync(Callable<Void> assertion) throws Exception {
+    RetryerBuilder.<Void>newBuilder()
+        .retryIfException(t -> true)
+        .withStopStrategy(
+            StopStrategies.stopAfterDelay(Duration.ofSeconds(3).toMillis(), MILLISECONDS))
+        .build()
+        .call(() -> assertion.call());
+  }
+
+  private List<CodeOwnerConfigFileInfo> getImportingCodeOwnerConfigFiles(String path)
+      throws RestApiException {
+    return branchCodeOwnersApi().importingCodeOwnerConfigFiles().path(path).get();
+  }
+
+  private BranchCodeOwners branchCodeOwnersApi() throws RestApiException {
+    return projectCodeOwnersApiFactory.project(project).branch("master");
+  }
+
+  private String formatKey(CodeOwnerConfig.Key codeOwnerConfigKey) {
+    return String.format(
+        "%s:%s:%s",
+        codeOwnerConfigKey.project(),
+        codeOwnerConfigKey.ref(),
+        codeOwnerConfigOperations.codeOwnerConfig(codeOwnerConfigKey).getFilePath());
+  }
+
+  private static ImmutableList<String> getKeys(List<CodeOwnerConfigFileInfo> infos) {
+    return infos.stream()
+        .map(info -> String.format("%s:%s:%s", info.project, info.branch, info.path))
+        .collect(toImmutableList());
+  }
+}
@@ -38,7 +38,9 @@ import org.junit.Test;
  */
 public class CodeOwnersRestApiBindingsIT extends AbstractCodeOwnersTest {
   private static final ImmutableList<RestCall> CHANGE_ENDPOINTS =
-      ImmutableList.of(RestCall.get("/changes/%s/code-owners~code_owners.status"));
+      ImmutableList.of(
+          RestCall.get("/changes/%s/code-owners~code_owners.status"),
+          RestCall.get("/changes/%s/code-owners~code_owners.summary"));
 
   private static final ImmutableList<RestCall> REVISION_ENDPOINTS =
       ImmutableList.of(
@@ -56,7 +58,11 @@ public class CodeOwnersRestApiBindingsIT extends AbstractCodeOwnersTest {
           RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.config_files"),
           RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.branch_config"),
           RestCall.post("/projects/%s/branches/%s/code-owners~code_owners.rename"),
-          RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.check"));
+          RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.check"),
+          RestCall.post("/projects/%s/branches/%s/code-owners~code_owners.batch_check"),
+          RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.export"),
+          RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.coverage"),
+          RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.importers"));
 
   private static final ImmutableList<RestCall> BRANCH_CODE_OWNER_CONFIGS_ENDPOINTS =
       ImmutableList.of(RestCall.get("/projects/%s/branches/%s/code-owners~code_owners.config/%s"));
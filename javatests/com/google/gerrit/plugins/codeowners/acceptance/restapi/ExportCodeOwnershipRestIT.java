@@ -0,0 +1,293 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.acceptance.restapi;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gerrit.acceptance.RestResponse;
+import com.google.gerrit.acceptance.TestAccount;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.extensions.restapi.IdString;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.gerrit.plugins.codeowners.acceptance.testsuite.TestPathExpressions;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnershipExporter;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Acceptance test for the {@link com.google.gerrit.plugins.codeowners.restapi.ExportCodeOwnership}
+ * REST endpoint.
+ */
+public class ExportCodeOwnershipRestIT extends AbstractCodeOwnersIT {
+  private TestPathExpressions testPathExpressions;
+  private CodeOwners codeOwners;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    testPathExpressions = plugin.getSysInjector().getInstance(TestPathExpressions.class);
+    codeOwners = plugin.getSysInjector().getInstance(CodeOwners.class);
+  }
+
+  @Test
+  public void exportRequiresAdministrateServerCapability() throws Exception {
+    RestResponse r = userRestSession.get(exportUrl("master", "JSONL"));
+    r.assertForbidden();
+  }
+
+  @Test
+  public void exportForNonExistingBranch() throws Exception {
+    RestResponse r = adminRestSession.get(exportUrl("non-existing", "JSONL"));
+    r.assertNotFound();
+  }
+
+  @Test
+  public void exportAsJsonl() throws Exception {
+    TestAccount folderOwner =
+        accountCreator.create(
+            "folderOwner", "folderOwner@example.com", "Folder Owner", /* displayName= */ null);
+    TestAccount mdOwner =
+        accountCreator.create(
+            "mdOwner", "mdOwner@example.com", "Md Owner", /* displayName= */ null);
+
+    createFiles();
+    CodeOwnerConfig.Key rootCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/")
+            .addCodeOwnerEmail(admin.email())
+            .create();
+    CodeOwnerConfig.Key fooCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/foo/")
+            .addCodeOwnerEmail(folderOwner.email())
+            .addCodeOwnerSet(
+                CodeOwnerSet.builder()
+                    .setIgnoreGlobalAndParentCodeOwners()
+                    .addPathExpression(testPathExpressions.matchFileType("md"))
+                    .addCodeOwnerEmail(mdOwner.email())
+                    .build())
+            .create();
+
+    RestResponse r = adminRestSession.get(exportUrl("master", "JSONL"));
+    r.assertOK();
+    ImmutableMap<String, JsonObject> rowsByPath =
+        Splitter.on('\n').omitEmptyStrings().splitToList(r.getEntityContent()).stream()
+            .map(line -> JsonParser.parseString(line).getAsJsonObject())
+            .collect(toImmutableMap(row -> row.get("path").getAsString(), row -> row));
+
+    assertThat(rowsByPath.keySet())
+        .containsAtLeast("/a.txt", "/foo/b.md", "/foo/c.txt", "/foo/bar/d.txt");
+
+    assertRow(
+        rowsByPath.get("/a.txt"),
+        ImmutableList.of(admin.email()),
+        ImmutableList.of(rootCodeOwnerConfigKey));
+    assertRow(
+        rowsByPath.get("/foo/b.md"),
+        ImmutableList.of(mdOwner.email()),
+        ImmutableList.of(fooCodeOwnerConfigKey));
+    assertRow(
+        rowsByPath.get("/foo/c.txt"),
+        ImmutableList.of(admin.email(), folderOwner.email()),
+        ImmutableList.of(fooCodeOwnerConfigKey, rootCodeOwnerConfigKey));
+    assertRow(
+        rowsByPath.get("/foo/bar/d.txt"),
+        ImmutableList.of(admin.email(), folderOwner.email()),
+        ImmutableList.of(fooCodeOwnerConfigKey, rootCodeOwnerConfigKey));
+  }
+
+  @Test
+  public void exportAsCsv() throws Exception {
+    createFiles();
+    CodeOwnerConfig.Key rootCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/")
+            .addCodeOwnerEmail(admin.email())
+            .addCodeOwnerEmail(user.email())
+            .create();
+
+    RestResponse r = adminRestSession.get(exportUrl("master", "CSV"));
+    r.assertOK();
+    ImmutableList<String> lines =
+        ImmutableList.copyOf(Splitter.on('\n').omitEmptyStrings().split(r.getEntityContent()));
+    assertThat(lines.get(0)).isEqualTo("path,code_owners,code_owner_configs");
+    assertThat(lines)
+        .contains(
+            String.format(
+                "/foo/bar/d.txt,%s %s,%s",
+                admin.email(), user.email(), rootCodeOwnerConfigKey.format(codeOwners)));
+  }
+
+  @Test
+  public void exportHonorsImports() throws Exception {
+    createFiles();
+    CodeOwnerConfig.Key sharedCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/shared/")
+            .addCodeOwnerEmail(user.email())
+            .create();
+    CodeOwnerConfig.Key fooCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/foo/")
+            .addCodeOwnerEmail(admin.email())
+            .addImport(
+                CodeOwnerConfigReference.create(
+                    CodeOwnerConfigImportMode.ALL, "/shared/" + getCodeOwnerConfigFileName()))
+            .create();
+
+    RestResponse r = adminRestSession.get(exportUrl("master", "JSONL"));
+    r.assertOK();
+    ImmutableMap<String, JsonObject> rowsByPath =
+        Splitter.on('\n').omitEmptyStrings().splitToList(r.getEntityContent()).stream()
+            .map(line -> JsonParser.parseString(line).getAsJsonObject())
+            .collect(toImmutableMap(row -> row.get("path").getAsString(), row -> row));
+
+    // The imported code owner config is listed directly after the importing code owner config.
+    assertRow(
+        rowsByPath.get("/foo/c.txt"),
+        ImmutableList.of(admin.email(), user.email()),
+        ImmutableList.of(fooCodeOwnerConfigKey, sharedCodeOwnerConfigKey));
+    assertRow(
+        rowsByPath.get("/foo/bar/d.txt"),
+        ImmutableList.of(admin.email(), user.email()),
+        ImmutableList.of(fooCodeOwnerConfigKey, sharedCodeOwnerConfigKey));
+    assertRow(rowsByPath.get("/a.txt"), ImmutableList.of(), ImmutableList.of());
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.exportThreads", value = "3")
+  public void exportTopLevelFoldersInParallel() throws Exception {
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add files",
+            ImmutableMap.of(
+                "a.txt", "a", "foo/b.txt", "b", "bar/c.txt", "c", "baz/qux/d.txt", "d"))
+        .to("refs/heads/master")
+        .assertOkStatus();
+    CodeOwnerConfig.Key rootCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(project)
+            .branch("master")
+            .folderPath("/")
+            .addCodeOwnerEmail(admin.email())
+            .create();
+
+    // Export twice so that the threads of the work queue are reused by the second export.
+    for (int i = 0; i < 2; i++) {
+      RestResponse r = adminRestSession.get(exportUrl("master", "JSONL"));
+      r.assertOK();
+      ImmutableMap<String, JsonObject> rowsByPath =
+          Splitter.on('\n').omitEmptyStrings().splitToList(r.getEntityContent()).stream()
+              .map(line -> JsonParser.parseString(line).getAsJsonObject())
+              .collect(toImmutableMap(row -> row.get("path").getAsString(), row -> row));
+      assertThat(rowsByPath.keySet())
+          .containsAtLeast("/a.txt", "/foo/b.txt", "/bar/c.txt", "/baz/qux/d.txt");
+      for (String path : ImmutableList.of("/foo/b.txt", "/bar/c.txt", "/baz/qux/d.txt")) {
+        assertRow(
+            rowsByPath.get(path),
+            ImmutableList.of(admin.email()),
+            ImmutableList.of(rootCodeOwnerConfigKey));
+      }
+    }
+
+    // Verify that the top-level folders were exported on the threads of the work queue, and the
+    // files in the root folder on the calling thread.
+    Map<String, String> threadNamesByPath = new HashMap<>();
+    plugin
+        .getSysInjector()
+        .getInstance(CodeOwnershipExporter.class)
+        .export(
+            BranchNameKey.create(project, "master"),
+            row -> threadNamesByPath.put(row.path().toString(), Thread.currentThread().getName()));
+    assertThat(threadNamesByPath.get("/a.txt")).isEqualTo(Thread.currentThread().getName());
+    for (String path : ImmutableList.of("/foo/b.txt", "/bar/c.txt", "/baz/qux/d.txt")) {
+      assertThat(threadNamesByPath.get(path)).startsWith("CodeOwnershipExport-");
+    }
+  }
+
+  private void createFiles() throws Exception {
+    pushFactory
+        .create(
+            admin.newIdent(),
+            testRepo,
+            "Add files",
+            ImmutableMap.of(
+                "a.txt", "a", "foo/b.md", "b", "foo/c.txt", "c", "foo/bar/d.txt", "d"))
+        .to("refs/heads/master")
+        .assertOkStatus();
+  }
+
+  private void assertRow(
+      JsonObject row,
+      ImmutableList<String> expectedCodeOwners,
+      ImmutableList<CodeOwnerConfig.Key> expectedCodeOwnerConfigs) {
+    assertThat(toStrings(row.getAsJsonArray("code_owners")))
+        .containsExactlyElementsIn(expectedCodeOwners)
+        .inOrder();
+    assertThat(toStrings(row.getAsJsonArray("code_owner_configs")))
+        .containsExactlyElementsIn(
+            expectedCodeOwnerConfigs.stream()
+                .map(key -> key.format(codeOwners))
+                .collect(ImmutableList.toImmutableList()))
+        .inOrder();
+  }
+
+  private static ImmutableList<String> toStrings(JsonArray jsonArray) {
+    ImmutableList.Builder<String> strings = ImmutableList.builder();
+    for (JsonElement jsonElement : jsonArray) {
+      strings.add(jsonElement.getAsString());
+    }
+    return strings.build();
+  }
+
+  private String exportUrl(String branch, String format) {
+    return String.format(
+        "/projects/%s/branches/%s/code_owners.export?format=%s",
+        IdString.fromDecoded(project.get()), branch, format);
+  }
+}
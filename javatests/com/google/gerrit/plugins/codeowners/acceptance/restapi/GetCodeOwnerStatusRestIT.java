@@ -15,15 +15,34 @@
 package com.google.gerrit.plugins.codeowners.acceptance.restapi;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.net.HttpHeaders;
+import com.google.gerrit.acceptance.PushOneCommit;
 import com.google.gerrit.acceptance.RestResponse;
 import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.acceptance.testsuite.account.AccountOperations;
+import com.google.gerrit.acceptance.testsuite.group.GroupOperations;
+import com.google.gerrit.acceptance.testsuite.project.ProjectOperations;
+import com.google.gerrit.entities.Project;
 import com.google.gerrit.extensions.restapi.IdString;
 import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
 import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
 import com.google.gerrit.plugins.codeowners.acceptance.testsuite.CodeOwnerConfigOperations;
 import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace;
+import com.google.gerrit.plugins.codeowners.backend.FallbackCodeOwners;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.GeneralConfig;
+import com.google.gerrit.plugins.codeowners.testing.LogCapture;
 import com.google.gerrit.plugins.codeowners.util.JgitPath;
+import com.google.gerrit.server.logging.RequestId;
+import com.google.inject.Inject;
+import org.apache.http.message.BasicHeader;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -40,6 +59,10 @@ import org.junit.Test;
  * extend {@link AbstractCodeOwnersIT}.
  */
 public class GetCodeOwnerStatusRestIT extends AbstractCodeOwnersTest {
+  @Inject private AccountOperations accountOperations;
+  @Inject private GroupOperations groupOperations;
+  @Inject private ProjectOperations projectOperations;
+
   private CodeOwnerConfigOperations codeOwnerConfigOperations;
 
   @Before
@@ -110,6 +133,205 @@ public class GetCodeOwnerStatusRestIT extends AbstractCodeOwnersTest {
     assertThat(r.getEntityContent()).contains("\"invalid\" is not a valid value for \"--limit\"");
   }
 
+  @Test
+  public void getStatusWithETag() throws Exception {
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+
+    RestResponse r = adminRestSession.get(url);
+    r.assertOK();
+    String eTag = r.getHeader(HttpHeaders.ETAG);
+    assertThat(eTag).isNotNull();
+
+    // The ETag is stable as long as nothing changes.
+    assertThat(getETag(url)).isEqualTo(eTag);
+
+    // A conditional request with the current ETag is answered with 304 Not Modified.
+    adminRestSession
+        .getWithHeaders(url, new BasicHeader(HttpHeaders.IF_NONE_MATCH, eTag))
+        .assertStatus(SC_NOT_MODIFIED);
+
+    // The ETag depends on the request parameters.
+    assertThat(getETag(url + "?limit=1")).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenChangeIsUpdated() throws Exception {
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    gApi.changes().id(changeId).addReviewer(user.email());
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenDestinationBranchIsUpdated() throws Exception {
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    setAsRootCodeOwners(user);
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenImportedCodeOwnerConfigIsUpdated() throws Exception {
+    Project.NameKey otherProject = projectOperations.newProject().create();
+    CodeOwnerConfig.Key importedCodeOwnerConfigKey =
+        codeOwnerConfigOperations
+            .newCodeOwnerConfig()
+            .project(otherProject)
+            .branch("master")
+            .folderPath("/")
+            .addCodeOwnerEmail(admin.email())
+            .create();
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/")
+        .addImport(
+            CodeOwnerConfigReference.builder(
+                    CodeOwnerConfigImportMode.ALL, "/" + getCodeOwnerConfigFileName())
+                .setProject(otherProject)
+                .build())
+        .create();
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    codeOwnerConfigOperations
+        .codeOwnerConfig(importedCodeOwnerConfigKey)
+        .forUpdate()
+        .ignoreParentCodeOwners()
+        .update();
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenPluginConfigIsUpdated() throws Exception {
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    updateCodeOwnersConfig(
+        project,
+        codeOwnersConfig ->
+            codeOwnersConfig.setEnum(
+                CodeOwnersPluginConfiguration.SECTION_CODE_OWNERS,
+                /* subsection= */ null,
+                GeneralConfig.KEY_FALLBACK_CODE_OWNERS,
+                FallbackCodeOwners.ALL_USERS));
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenCodeOwnerAccountIsUpdated() throws Exception {
+    setAsRootCodeOwners(user);
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    accountOperations.account(user.id()).forUpdate().inactive().update();
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusChangesWhenAccountGetsEmailOfCodeOwner() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/")
+        .addCodeOwnerEmail("new-owner@example.com")
+        .create();
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    accountOperations.newAccount().preferredEmail("new-owner@example.com").create();
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusDoesNotChangeWhenUnrelatedAccountIsUpdated() throws Exception {
+    setAsRootCodeOwners(admin);
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    accountOperations.account(user.id()).forUpdate().fullname("Other Name").update();
+    accountOperations.newAccount().preferredEmail("unrelated@example.com").create();
+    assertThat(getETag(url)).isEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfStatusDoesNotChangeWhenGroupIsUpdated() throws Exception {
+    // Account visibility is not checked when computing the code owner status, hence the status
+    // doesn't depend on group memberships.
+    setAsRootCodeOwners(admin);
+    String changeId = createChange().getChangeId();
+    String url = String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId));
+    String eTag = getETag(url);
+
+    groupOperations.newGroup().addMember(user.id()).create();
+    assertThat(getETag(url)).isEqualTo(eTag);
+  }
+
+  @Test
+  public void tracedRequestLogsBreakdownOfCodeOwnerEvaluation() throws Exception {
+    codeOwnerConfigOperations
+        .newCodeOwnerConfig()
+        .project(project)
+        .branch("master")
+        .folderPath("/foo/")
+        .addCodeOwnerEmail(admin.email())
+        .create();
+
+    PushOneCommit.Result r = createChange("Change Adding A File", "foo/bar.baz", "file content");
+
+    try (LogCapture logCapture = LogCapture.open(CodeOwnerEvaluationTrace.class.getName())) {
+      adminRestSession
+          .get(
+              String.format(
+                  "/changes/%s/code_owners.status?trace=%s",
+                  IdString.fromDecoded(r.getChangeId()), "code-owners-test"))
+          .assertOK();
+
+      ImmutableList<LogCapture.CapturedEvent> summaries =
+          logCapture.getEventsContaining(
+              String.format(
+                  "code owner evaluation breakdown for file statuses of change %d",
+                  r.getChange().getId().get()));
+      assertThat(summaries).hasSize(1);
+      ImmutableSetMultimap<String, String> tags = summaries.get(0).tags();
+      assertThat(tags).containsEntry(RequestId.Type.TRACE_ID.name(), "code-owners-test");
+      assertThat(tags).containsKey("codeOwners.totalMs");
+      assertThat(tags).containsKey("codeOwners.diff");
+      assertThat(tags).containsKey("codeOwners.load");
+      assertThat(tags).containsKey("codeOwners.codeOwnerConfigs");
+    }
+  }
+
+  @Test
+  public void untracedRequestDoesNotLogBreakdownOfCodeOwnerEvaluation() throws Exception {
+    String changeId = createChange().getChangeId();
+
+    try (LogCapture logCapture = LogCapture.open(CodeOwnerEvaluationTrace.class.getName())) {
+      adminRestSession
+          .get(String.format("/changes/%s/code_owners.status", IdString.fromDecoded(changeId)))
+          .assertOK();
+      assertThat(logCapture.getEventsContaining("code owner evaluation breakdown")).isEmpty();
+    }
+  }
+
+  private String getETag(String url) throws Exception {
+    RestResponse r = adminRestSession.get(url);
+    r.assertOK();
+    return r.getHeader(HttpHeaders.ETAG);
+  }
+
   private CodeOwnerConfig.Key createCodeOwnerConfigKey(String folderPath) {
     return CodeOwnerConfig.Key.create(project, "master", folderPath);
   }
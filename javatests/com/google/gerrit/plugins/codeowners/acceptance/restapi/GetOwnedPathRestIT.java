@@ -17,9 +17,14 @@ package com.google.gerrit.plugins.codeowners.acceptance.restapi;
 import static com.google.common.truth.Truth.assertThat;
 import static java.util.stream.Collectors.joining;
 
+import com.google.common.net.HttpHeaders;
 import com.google.gerrit.acceptance.RestResponse;
+import com.google.gerrit.acceptance.testsuite.account.AccountOperations;
+import com.google.gerrit.acceptance.testsuite.group.GroupOperations;
+import com.google.gerrit.entities.Account;
 import com.google.gerrit.extensions.restapi.IdString;
 import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersIT;
+import com.google.inject.Inject;
 import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
@@ -33,6 +38,9 @@ import org.junit.Test;
  * com.google.gerrit.plugins.codeowners.acceptance.api.GetOwnedPathsIT}.
  */
 public class GetOwnedPathRestIT extends AbstractCodeOwnersIT {
+  @Inject private AccountOperations accountOperations;
+  @Inject private GroupOperations groupOperations;
+
   private String changeId;
 
   @Before
@@ -54,6 +62,43 @@ public class GetOwnedPathRestIT extends AbstractCodeOwnersIT {
     assertThat(r.getEntityContent()).contains("\"invalid\" is not a valid value for \"--limit\"");
   }
 
+  @Test
+  public void eTagOfOwnedPathsChangesWhenAccountOfUserIsUpdated() throws Exception {
+    String url = getUrl("user=" + user.email());
+    String eTag = getETag(url);
+
+    accountOperations.account(user.id()).forUpdate().fullname("Other Name").update();
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfOwnedPathsDoesNotChangeWhenUnrelatedAccountIsUpdated() throws Exception {
+    Account.Id otherAccount =
+        accountOperations.newAccount().preferredEmail("unrelated@example.com").create();
+    String url = getUrl("user=" + user.email());
+    String eTag = getETag(url);
+
+    accountOperations.account(otherAccount).forUpdate().fullname("Other Name").update();
+    assertThat(getETag(url)).isEqualTo(eTag);
+  }
+
+  @Test
+  public void eTagOfOwnedPathsChangesWhenGroupIsUpdated() throws Exception {
+    // The user is resolved with account visibility being checked, which depends on group
+    // memberships.
+    String url = getUrl("user=" + user.email());
+    String eTag = getETag(url);
+
+    groupOperations.newGroup().addMember(user.id()).create();
+    assertThat(getETag(url)).isNotEqualTo(eTag);
+  }
+
+  private String getETag(String url) throws Exception {
+    RestResponse r = adminRestSession.get(url);
+    r.assertOK();
+    return r.getHeader(HttpHeaders.ETAG);
+  }
+
   private String getUrl(String... parameters) {
     StringBuilder b = new StringBuilder();
     b.append(getUrl());
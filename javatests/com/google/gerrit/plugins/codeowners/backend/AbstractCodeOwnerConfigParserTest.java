@@ -448,6 +448,25 @@ public abstract class AbstractCodeOwnerConfigParserTest extends AbstractCodeOwne
         getCodeOwnerConfig(false, validCodeOwnerSet));
   }
 
+  @Test
+  public void codeOwnerSetsOfParsedCodeOwnerConfigsAreShared() throws Exception {
+    CodeOwnerSet codeOwnerSet =
+        CodeOwnerSet.builder().addPathExpression("foo").addCodeOwnerEmail(EMAIL_1).build();
+    String codeOwnerConfigAsString = getCodeOwnerConfig(false, codeOwnerSet);
+    CodeOwnerConfig codeOwnerConfig1 =
+        codeOwnerConfigParser.parse(
+            TEST_REVISION,
+            CodeOwnerConfig.Key.create(project, "master", "/foo/"),
+            codeOwnerConfigAsString);
+    CodeOwnerConfig codeOwnerConfig2 =
+        codeOwnerConfigParser.parse(
+            TEST_REVISION,
+            CodeOwnerConfig.Key.create(project, "master", "/bar/"),
+            codeOwnerConfigAsString);
+    assertThat(codeOwnerConfig2.codeOwnerSetsAsList().get(0))
+        .isSameInstanceAs(codeOwnerConfig1.codeOwnerSetsAsList().get(0));
+  }
+
   private static String modifyLines(
       String codeOwnerConfigAsString, Function<String, String> lineModifier) {
     return Splitter.on('\n')
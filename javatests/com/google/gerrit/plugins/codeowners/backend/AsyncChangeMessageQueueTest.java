@@ -0,0 +1,94 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.github.rholder.retry.RetryerBuilder;
+import com.github.rholder.retry.StopStrategies;
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.acceptance.PushOneCommit;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link AsyncChangeMessageQueue}. */
+public class AsyncChangeMessageQueueTest extends AbstractCodeOwnersTest {
+  private static final String TAG = "autogenerated:code-owners:test";
+
+  private AsyncChangeMessageQueue asyncChangeMessageQueue;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    asyncChangeMessageQueue =
+        plugin.getSysInjector().getInstance(AsyncChangeMessageQueue.class);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.asyncMessageCoalescingWindow", value = "1h")
+  public void changeMessagesForTheSameChangeAreCoalesced() throws Exception {
+    PushOneCommit.Result r = createChange();
+    schedule(r, "foo");
+    schedule(r, "bar");
+
+    // Post the pending change message now rather than waiting until the coalescing window ends.
+    asyncChangeMessageQueue.flush();
+
+    RetryerBuilder.<Void>newBuilder()
+        .retryIfException(t -> true)
+        .withStopStrategy(
+            StopStrategies.stopAfterDelay(Duration.ofSeconds(5).toMillis(), MILLISECONDS))
+        .build()
+        .call(
+            () -> {
+              assertThat(getTaggedChangeMessages(r)).containsExactly("foo\nbar");
+              return null;
+            });
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.asyncMessageCoalescingWindow", value = "1h")
+  public void pendingChangeMessagesArePostedOnStop() throws Exception {
+    PushOneCommit.Result r = createChange();
+    schedule(r, "foo");
+
+    // Stopping the queue waits until the pending change messages have been posted.
+    asyncChangeMessageQueue.stop();
+    assertThat(getTaggedChangeMessages(r)).containsExactly("foo");
+  }
+
+  private void schedule(PushOneCommit.Result r, String message) {
+    asyncChangeMessageQueue.schedule(
+        identifiedUserFactory.create(admin.id()),
+        project,
+        r.getChange().getId(),
+        Instant.now(),
+        TAG,
+        ctx -> Optional.of(message));
+  }
+
+  private ImmutableList<String> getTaggedChangeMessages(PushOneCommit.Result r) throws Exception {
+    return gApi.changes().id(r.getChangeId()).get().messages.stream()
+        .filter(message -> TAG.equals(message.tag))
+        .map(message -> message.message)
+        .collect(toImmutableList());
+  }
+}
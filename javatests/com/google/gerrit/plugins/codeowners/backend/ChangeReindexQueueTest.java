@@ -0,0 +1,255 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.acceptance.TestMetricMaker;
+import com.google.gerrit.entities.Change;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginConfiguration;
+import com.google.gerrit.plugins.codeowners.backend.config.CodeOwnersPluginGlobalConfigSnapshot;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerMetrics;
+import com.google.gerrit.server.git.WorkQueue;
+import com.google.gerrit.server.index.change.ChangeIndexer;
+import com.google.gerrit.server.util.OneOffRequestContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+/**
+ * Tests for {@link ChangeReindexQueue}.
+ *
+ * <p>The queue is created with mocked executors, so that the tests control when the scheduled
+ * tasks are run.
+ */
+public class ChangeReindexQueueTest extends AbstractCodeOwnersTest {
+  private static final Project.NameKey PROJECT = Project.nameKey("test-project");
+
+  private final TestMetricMaker testMetricMaker = TestMetricMaker.getInstance();
+
+  private final List<Runnable> submittedTasks = new ArrayList<>();
+
+  private ScheduledExecutorService executor;
+  private ScheduledExecutorService affectedChangesExecutor;
+  private ChangeIndexer changeIndexer;
+  private CodeOwnersPluginGlobalConfigSnapshot globalConfig;
+  private ChangeReindexQueue changeReindexQueue;
+
+  @Before
+  public void setUpChangeReindexQueue() throws Exception {
+    executor = mockExecutor();
+    affectedChangesExecutor = mockExecutor();
+    WorkQueue workQueue = mock(WorkQueue.class);
+    when(workQueue.createQueue(1, "CodeOwnersChangeReindex")).thenReturn(executor);
+    when(workQueue.createQueue(1, "CodeOwnersAffectedChanges"))
+        .thenReturn(affectedChangesExecutor);
+
+    changeIndexer = mock(ChangeIndexer.class);
+
+    globalConfig = mock(CodeOwnersPluginGlobalConfigSnapshot.class);
+    CodeOwnersPluginConfiguration codeOwnersPluginConfiguration =
+        mock(CodeOwnersPluginConfiguration.class);
+    when(codeOwnersPluginConfiguration.getGlobalConfig()).thenReturn(globalConfig);
+
+    changeReindexQueue =
+        new ChangeReindexQueue(
+            workQueue,
+            changeIndexer,
+            mock(OneOffRequestContext.class),
+            codeOwnersPluginConfiguration,
+            plugin.getSysInjector().getInstance(CodeOwnerMetrics.class));
+    testMetricMaker.reset();
+  }
+
+  @After
+  public void stopChangeReindexQueue() throws Exception {
+    changeReindexQueue.stop();
+  }
+
+  @Test
+  public void changesAreReindexedInScheduleOrder() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(100));
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(2), Change.id(1)));
+    runScheduledTasks();
+
+    InOrder inOrder = inOrder(changeIndexer);
+    inOrder.verify(changeIndexer).index(PROJECT, Change.id(2));
+    inOrder.verify(changeIndexer).index(PROJECT, Change.id(1));
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_change_reindexes"))
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void pendingChangesAreCoalesced() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(100));
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1), Change.id(2)));
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(2), Change.id(3)));
+
+    // Only one task drains the pending changes.
+    ImmutableList<Runnable> tasks = runScheduledTasks();
+    assertThat(tasks).hasSize(1);
+
+    verify(changeIndexer, times(1)).index(PROJECT, Change.id(1));
+    verify(changeIndexer, times(1)).index(PROJECT, Change.id(2));
+    verify(changeIndexer, times(1)).index(PROJECT, Change.id(3));
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_scheduled_change_reindexes"))
+        .isEqualTo(3);
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_coalesced_change_reindexes"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void changeIsReindexedAgainIfScheduledAfterItWasReindexed() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(100));
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1)));
+    runScheduledTasks();
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1)));
+    runScheduledTasks();
+
+    verify(changeIndexer, times(2)).index(PROJECT, Change.id(1));
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_coalesced_change_reindexes"))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void reindexingIsRateLimited() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(5));
+
+    changeReindexQueue.schedule(
+        PROJECT,
+        ImmutableList.of(
+            Change.id(1), Change.id(2), Change.id(3), Change.id(4), Change.id(5), Change.id(6)));
+    long startNanos = System.nanoTime();
+    runScheduledTasks();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+    // With 5 reindexes per second the first change is reindexed immediately and each further
+    // change waits 200ms, so reindexing 6 changes takes about 1 second. Only assert a lower bound
+    // with some tolerance to avoid flakiness on slow machines.
+    assertThat(elapsedMillis).isAtLeast(800);
+    verify(changeIndexer, times(6)).index(any(Project.NameKey.class), any(Change.Id.class));
+  }
+
+  @Test
+  public void failedReindexIsCounted() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(100));
+    doThrow(new IllegalStateException("fail")).when(changeIndexer).index(PROJECT, Change.id(1));
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1), Change.id(2)));
+    runScheduledTasks();
+
+    // The failure doesn't prevent reindexing the other changes.
+    verify(changeIndexer).index(PROJECT, Change.id(2));
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_failed_change_reindexes"))
+        .isEqualTo(1);
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_change_reindexes"))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void changesAreNotReindexedIfReindexingIsDisabled() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.empty());
+    assertThat(changeReindexQueue.isEnabled()).isFalse();
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1)));
+
+    verify(executor, never()).execute(any(Runnable.class));
+    verify(changeIndexer, never()).index(any(Project.NameKey.class), any(Change.Id.class));
+    assertThat(testMetricMaker.getCount("plugins/code-owners/count_scheduled_change_reindexes"))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void tasksAreRunIfReindexingIsDisabled() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.empty());
+
+    Runnable task = mock(Runnable.class);
+    changeReindexQueue.runAsync(task);
+    runScheduledTasks();
+
+    verify(task).run();
+  }
+
+  @Test
+  public void tasksAndReindexesAreRunOnSeparateQueues() throws Exception {
+    start(/* maxChangeReindexesPerSecond= */ Optional.of(100));
+
+    Runnable task = mock(Runnable.class);
+    changeReindexQueue.runAsync(task);
+    verify(affectedChangesExecutor).execute(task);
+    verify(executor, never()).execute(any(Runnable.class));
+
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1)));
+    verify(executor).execute(any(Runnable.class));
+    verify(affectedChangesExecutor, times(1)).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void nothingIsScheduledIfQueueIsNotStarted() throws Exception {
+    changeReindexQueue.schedule(PROJECT, ImmutableList.of(Change.id(1)));
+    changeReindexQueue.runAsync(mock(Runnable.class));
+
+    assertThat(changeReindexQueue.isEnabled()).isFalse();
+    verify(executor, never()).execute(any(Runnable.class));
+    verify(affectedChangesExecutor, never()).execute(any(Runnable.class));
+  }
+
+  /** Creates an executor that collects the submitted tasks in {@link #submittedTasks}. */
+  private ScheduledExecutorService mockExecutor() {
+    ScheduledExecutorService mockedExecutor = mock(ScheduledExecutorService.class);
+    doAnswer(
+            invocation -> {
+              submittedTasks.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(mockedExecutor)
+        .execute(any(Runnable.class));
+    return mockedExecutor;
+  }
+
+  private void start(Optional<Integer> maxChangeReindexesPerSecond) {
+    when(globalConfig.getMaxChangeReindexesPerSecond()).thenReturn(maxChangeReindexesPerSecond);
+    changeReindexQueue.start();
+  }
+
+  /** Runs the tasks that have been submitted to the executors since the last invocation. */
+  private ImmutableList<Runnable> runScheduledTasks() {
+    ImmutableList<Runnable> tasks = ImmutableList.copyOf(submittedTasks);
+    submittedTasks.clear();
+    tasks.forEach(Runnable::run);
+    return tasks;
+  }
+}
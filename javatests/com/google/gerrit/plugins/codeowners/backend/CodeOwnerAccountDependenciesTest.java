@@ -0,0 +1,134 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.truth.OptionalSubject.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies.Dependencies;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAccountDependencies.Scope;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerAccountDependencies}. */
+public class CodeOwnerAccountDependenciesTest extends AbstractCodeOwnersTest {
+  private CodeOwnerAccountDependencies accountDependencies;
+  private Provider<CodeOwnerResolver> codeOwnerResolverProvider;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    accountDependencies = plugin.getSysInjector().getInstance(CodeOwnerAccountDependencies.class);
+    codeOwnerResolverProvider =
+        plugin.getSysInjector().getInstance(new Key<Provider<CodeOwnerResolver>>() {});
+  }
+
+  @Test
+  public void noDependenciesRecorded() throws Exception {
+    try (Scope scope = accountDependencies.open()) {
+      assertThat(scope.getDependencies())
+          .value()
+          .isEqualTo(Dependencies.create(ImmutableSet.of(), ImmutableSet.of(), false));
+    }
+  }
+
+  @Test
+  public void dependenciesAreRecorded() throws Exception {
+    try (Scope scope = accountDependencies.open()) {
+      accountDependencies.recordEmails(ImmutableSet.of("foo@example.com"));
+      accountDependencies.recordAccounts(ImmutableSet.of(Account.id(1000)));
+      accountDependencies.recordEmails(ImmutableSet.of("bar@example.com"));
+      accountDependencies.recordGroups();
+      assertThat(scope.getDependencies())
+          .value()
+          .isEqualTo(
+              Dependencies.create(
+                  ImmutableSet.of("foo@example.com", "bar@example.com"),
+                  ImmutableSet.of(Account.id(1000)),
+                  true));
+    }
+  }
+
+  @Test
+  public void dependenciesAreUnknownIfUnknownDependencyIsRecorded() throws Exception {
+    try (Scope scope = accountDependencies.open()) {
+      accountDependencies.recordEmails(ImmutableSet.of("foo@example.com"));
+      accountDependencies.recordUnknown();
+      assertThat(scope.getDependencies()).isEmpty();
+    }
+  }
+
+  @Test
+  public void dependenciesOfNestedScopeAreRecordedInOuterScope() throws Exception {
+    try (Scope scope = accountDependencies.open()) {
+      try (Scope nestedScope = accountDependencies.open()) {
+        accountDependencies.recordAccounts(ImmutableSet.of(Account.id(1000)));
+        assertThat(nestedScope.getDependencies()).isEmpty();
+      }
+      assertThat(scope.getDependencies())
+          .value()
+          .isEqualTo(
+              Dependencies.create(ImmutableSet.of(), ImmutableSet.of(Account.id(1000)), false));
+    }
+  }
+
+  @Test
+  public void recordingOutsideOfScopeIsNoop() throws Exception {
+    accountDependencies.recordAccounts(ImmutableSet.of(Account.id(1000)));
+    accountDependencies.recordUnknown();
+
+    try (Scope scope = accountDependencies.open()) {
+      assertThat(scope.getDependencies())
+          .value()
+          .isEqualTo(Dependencies.create(ImmutableSet.of(), ImmutableSet.of(), false));
+    }
+  }
+
+  @Test
+  public void codeOwnerResolverRecordsDependencies() throws Exception {
+    String nonExistingEmail = "non-existing@example.com";
+    try (Scope scope = accountDependencies.open()) {
+      codeOwnerResolverProvider
+          .get()
+          .enforceVisibility(false)
+          .resolve(
+              ImmutableSet.of(
+                  CodeOwnerReference.create(admin.email()),
+                  CodeOwnerReference.create(nonExistingEmail)));
+      assertThat(scope.getDependencies())
+          .value()
+          .isEqualTo(
+              Dependencies.create(
+                  ImmutableSet.of(admin.email(), nonExistingEmail),
+                  ImmutableSet.of(admin.id()),
+                  false));
+    }
+  }
+
+  @Test
+  public void codeOwnerResolverRecordsGroupDependencyIfVisibilityIsEnforced() throws Exception {
+    try (Scope scope = accountDependencies.open()) {
+      codeOwnerResolverProvider
+          .get()
+          .enforceVisibility(true)
+          .resolve(ImmutableSet.of(CodeOwnerReference.create(admin.email())));
+      assertThat(scope.getDependencies().get().dependsOnGroups()).isTrue();
+    }
+  }
+}
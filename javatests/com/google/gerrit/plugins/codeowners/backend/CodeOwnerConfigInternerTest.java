@@ -0,0 +1,101 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotations.LAST_RESORT_SUGGESTION_ANNOTATION;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+
+import com.google.common.collect.Iterables;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerConfigInterner}. */
+public class CodeOwnerConfigInternerTest extends AbstractCodeOwnersTest {
+  @Test
+  public void cannotInternNullCodeOwnerSet() throws Exception {
+    NullPointerException npe =
+        assertThrows(
+            NullPointerException.class,
+            () -> CodeOwnerConfigInterner.intern(/* codeOwnerSet= */ null));
+    assertThat(npe).hasMessageThat().isEqualTo("codeOwnerSet");
+  }
+
+  @Test
+  public void equalCodeOwnerSetsAreShared() throws Exception {
+    CodeOwnerSet codeOwnerSet1 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression("*.md")
+                .addCodeOwnerEmail(admin.email())
+                .addAnnotation(admin.email(), LAST_RESORT_SUGGESTION_ANNOTATION)
+                .build());
+    CodeOwnerSet codeOwnerSet2 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression("*.md")
+                .addCodeOwnerEmail(admin.email())
+                .addAnnotation(admin.email(), LAST_RESORT_SUGGESTION_ANNOTATION)
+                .build());
+    assertThat(codeOwnerSet2).isSameInstanceAs(codeOwnerSet1);
+  }
+
+  @Test
+  public void codeOwnerReferencesAndPathExpressionsOfDifferentCodeOwnerSetsAreShared()
+      throws Exception {
+    CodeOwnerSet codeOwnerSet1 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression(new String("*.md"))
+                .addCodeOwnerEmail(new String(admin.email()))
+                .build());
+    CodeOwnerSet codeOwnerSet2 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression(new String("*.md"))
+                .addCodeOwnerEmail(new String(admin.email()))
+                .addCodeOwnerEmail(user.email())
+                .build());
+    assertThat(codeOwnerSet2).isNotSameInstanceAs(codeOwnerSet1);
+    assertThat(Iterables.getOnlyElement(codeOwnerSet2.pathExpressions()))
+        .isSameInstanceAs(Iterables.getOnlyElement(codeOwnerSet1.pathExpressions()));
+    assertThat(codeOwnerSet2.codeOwners().asList().get(0))
+        .isSameInstanceAs(Iterables.getOnlyElement(codeOwnerSet1.codeOwners()));
+  }
+
+  @Test
+  public void equalCodeOwnerSetsWithDifferentOrderAreNotShared() throws Exception {
+    CodeOwnerSet codeOwnerSet1 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression("*.md")
+                .addCodeOwnerEmail(admin.email())
+                .addCodeOwnerEmail(user.email())
+                .build());
+    CodeOwnerSet codeOwnerSet2 =
+        CodeOwnerConfigInterner.intern(
+            CodeOwnerSet.builder()
+                .addPathExpression("*.md")
+                .addCodeOwnerEmail(user.email())
+                .addCodeOwnerEmail(admin.email())
+                .build());
+    assertThat(codeOwnerSet2).isEqualTo(codeOwnerSet1);
+    assertThat(codeOwnerSet2).isNotSameInstanceAs(codeOwnerSet1);
+    assertThat(codeOwnerSet2.codeOwners())
+        .containsExactly(
+            CodeOwnerReference.create(user.email()), CodeOwnerReference.create(admin.email()))
+        .inOrder();
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerConfigUpdateListener}. */
+public class CodeOwnerConfigUpdateListenerTest {
+  @Test
+  public void affectedFoldersWithoutImports() throws Exception {
+    assertThat(
+            CodeOwnerConfigUpdateListener.getAffectedFolders(
+                ImmutableSet.of(path("/foo/OWNERS"), path("/foo/bar/OWNERS")),
+                ImmutableSetMultimap.of()))
+        .containsExactly(path("/foo"), path("/foo/bar"));
+  }
+
+  @Test
+  public void affectedFoldersForRootCodeOwnerConfig() throws Exception {
+    assertThat(
+            CodeOwnerConfigUpdateListener.getAffectedFolders(
+                ImmutableSet.of(path("/OWNERS")), ImmutableSetMultimap.of()))
+        .containsExactly(path("/"));
+  }
+
+  @Test
+  public void affectedFoldersIncludeFoldersOfImportingCodeOwnerConfigs() throws Exception {
+    SetMultimap<Path, Path> importingCodeOwnerConfigFiles =
+        ImmutableSetMultimap.of(
+            path("/shared/OWNERS"), path("/foo/OWNERS"),
+            path("/shared/OWNERS"), path("/bar/OWNERS"),
+            path("/other/OWNERS"), path("/baz/OWNERS"));
+    assertThat(
+            CodeOwnerConfigUpdateListener.getAffectedFolders(
+                ImmutableSet.of(path("/shared/OWNERS")), importingCodeOwnerConfigFiles))
+        .containsExactly(path("/shared"), path("/foo"), path("/bar"));
+  }
+
+  @Test
+  public void affectedFoldersIncludeFoldersOfTransitivelyImportingCodeOwnerConfigs()
+      throws Exception {
+    SetMultimap<Path, Path> importingCodeOwnerConfigFiles =
+        ImmutableSetMultimap.of(
+            path("/shared/OWNERS"), path("/foo/OWNERS"),
+            path("/foo/OWNERS"), path("/bar/OWNERS"));
+    assertThat(
+            CodeOwnerConfigUpdateListener.getAffectedFolders(
+                ImmutableSet.of(path("/shared/OWNERS")), importingCodeOwnerConfigFiles))
+        .containsExactly(path("/shared"), path("/foo"), path("/bar"));
+  }
+
+  @Test
+  public void cyclicImportsAreHandled() throws Exception {
+    SetMultimap<Path, Path> importingCodeOwnerConfigFiles =
+        ImmutableSetMultimap.of(
+            path("/foo/OWNERS"), path("/bar/OWNERS"),
+            path("/bar/OWNERS"), path("/foo/OWNERS"));
+    assertThat(
+            CodeOwnerConfigUpdateListener.getAffectedFolders(
+                ImmutableSet.of(path("/foo/OWNERS")), importingCodeOwnerConfigFiles))
+        .containsExactly(path("/foo"), path("/bar"));
+  }
+
+  private static Path path(String path) {
+    return Paths.get(path);
+  }
+}
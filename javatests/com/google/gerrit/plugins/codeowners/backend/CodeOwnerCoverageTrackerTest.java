@@ -0,0 +1,57 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.gerrit.entities.BranchNameKey;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerCoverage.FolderCoverage;
+import java.nio.file.Path;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerCoverageTracker}. */
+public class CodeOwnerCoverageTrackerTest {
+  private static final BranchNameKey BRANCH =
+      BranchNameKey.create(Project.nameKey("project"), "master");
+  private static final ObjectId REVISION =
+      ObjectId.fromString("0123456789012345678901234567890123456789");
+
+  @Test
+  public void coverageWithoutFoldersHasWeight() throws Exception {
+    assertThat(
+            new CodeOwnerCoverageTracker.CoverageWeigher()
+                .weigh(BRANCH, CodeOwnerCoverage.create(REVISION, ImmutableSortedMap.of())))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void coverageIsWeighedByNumberOfFolders() throws Exception {
+    CodeOwnerCoverage coverage =
+        CodeOwnerCoverage.create(
+            REVISION,
+            ImmutableSortedMap.of(
+                Path.of("/"),
+                FolderCoverage.create(2, 1, 1),
+                Path.of("/foo"),
+                FolderCoverage.create(3, 0, 2),
+                Path.of("/foo/bar"),
+                FolderCoverage.create(1, 1, 0)));
+    assertThat(new CodeOwnerCoverageTracker.CoverageWeigher().weigh(BRANCH, coverage))
+        .isEqualTo(4);
+  }
+}
@@ -0,0 +1,220 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.gerrit.acceptance.TestMetricMaker;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.plugins.codeowners.metrics.CodeOwnerEvaluation;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.patch.DiffNotAvailableException;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerEvaluationCoalescer}. */
+public class CodeOwnerEvaluationCoalescerTest extends AbstractCodeOwnersTest {
+  private static final String COALESCED_EVALUATIONS_METRIC =
+      "plugins/code-owners/count_coalesced_evaluations";
+
+  private final TestMetricMaker testMetricMaker = TestMetricMaker.getInstance();
+
+  private CodeOwnerEvaluationCoalescer evaluationCoalescer;
+  private ExecutorService executor;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    evaluationCoalescer = plugin.getSysInjector().getInstance(CodeOwnerEvaluationCoalescer.class);
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void shutDownExecutor() throws Exception {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentIdenticalEvaluationsAreShared() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    AtomicInteger evaluationCount = new AtomicInteger();
+    CountDownLatch firstEvaluationStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstEvaluation = new CountDownLatch(1);
+    testMetricMaker.reset();
+
+    Future<Integer> firstResult =
+        executor.submit(
+            () ->
+                coalesce(
+                    changeNotes,
+                    ImmutableList.of(),
+                    () -> {
+                      evaluationCount.incrementAndGet();
+                      firstEvaluationStarted.countDown();
+                      Uninterruptibles.awaitUninterruptibly(releaseFirstEvaluation);
+                      return 1;
+                    }));
+    assertThat(firstEvaluationStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+    Future<Integer> secondResult =
+        executor.submit(
+            () -> coalesce(changeNotes, ImmutableList.of(), evaluationCount::incrementAndGet));
+    awaitCoalescedEvaluation();
+    releaseFirstEvaluation.countDown();
+
+    assertThat(firstResult.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(secondResult.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(evaluationCount.get()).isEqualTo(1);
+    assertThat(
+            testMetricMaker.getCount(
+                COALESCED_EVALUATIONS_METRIC, CodeOwnerEvaluation.FILE_STATUSES))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void exceptionOfConcurrentIdenticalEvaluationIsShared() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    AtomicInteger evaluationCount = new AtomicInteger();
+    CountDownLatch firstEvaluationStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstEvaluation = new CountDownLatch(1);
+    IOException failure = new IOException("failure");
+    testMetricMaker.reset();
+
+    Future<Integer> firstResult =
+        executor.submit(
+            () ->
+                coalesce(
+                    changeNotes,
+                    ImmutableList.of(),
+                    () -> {
+                      evaluationCount.incrementAndGet();
+                      firstEvaluationStarted.countDown();
+                      Uninterruptibles.awaitUninterruptibly(releaseFirstEvaluation);
+                      throw failure;
+                    }));
+    assertThat(firstEvaluationStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+    Future<Integer> secondResult =
+        executor.submit(
+            () -> coalesce(changeNotes, ImmutableList.of(), evaluationCount::incrementAndGet));
+    awaitCoalescedEvaluation();
+    releaseFirstEvaluation.countDown();
+
+    ExecutionException firstException =
+        assertThrows(ExecutionException.class, () -> firstResult.get(10, TimeUnit.SECONDS));
+    assertThat(firstException).hasCauseThat().isSameInstanceAs(failure);
+    ExecutionException secondException =
+        assertThrows(ExecutionException.class, () -> secondResult.get(10, TimeUnit.SECONDS));
+    assertThat(secondException).hasCauseThat().isSameInstanceAs(failure);
+    assertThat(evaluationCount.get()).isEqualTo(1);
+    assertThat(
+            testMetricMaker.getCount(
+                COALESCED_EVALUATIONS_METRIC, CodeOwnerEvaluation.FILE_STATUSES))
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void sequentialEvaluationsAreNotShared() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    AtomicInteger evaluationCount = new AtomicInteger();
+
+    assertThat(coalesce(changeNotes, ImmutableList.of(), evaluationCount::incrementAndGet))
+        .isEqualTo(1);
+    assertThat(coalesce(changeNotes, ImmutableList.of(), evaluationCount::incrementAndGet))
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void nestedIdenticalEvaluationIsEvaluated() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+
+    assertThat(
+            coalesce(
+                changeNotes,
+                ImmutableList.of(),
+                () -> coalesce(changeNotes, ImmutableList.of(), () -> 1) + 1))
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void nestedEvaluationWithOtherArgumentsIsEvaluated() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+
+    assertThat(
+            coalesce(
+                changeNotes,
+                ImmutableList.of(1),
+                () -> coalesce(changeNotes, ImmutableList.of(2), () -> 1) + 1))
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void exceptionOfEvaluationIsPropagated() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+
+    IOException exception =
+        assertThrows(
+            IOException.class,
+            () ->
+                coalesce(
+                    changeNotes,
+                    ImmutableList.of(),
+                    () -> {
+                      throw new IOException("failure");
+                    }));
+    assertThat(exception).hasMessageThat().isEqualTo("failure");
+
+    // A failed evaluation is not in-flight anymore.
+    assertThat(coalesce(changeNotes, ImmutableList.of(), () -> 1)).isEqualTo(1);
+  }
+
+  /**
+   * Waits until an evaluation joined an in-flight evaluation, which is the case as soon as the
+   * coalesced evaluation has been counted.
+   */
+  private void awaitCoalescedEvaluation() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (testMetricMaker.getCount(
+            COALESCED_EVALUATIONS_METRIC, CodeOwnerEvaluation.FILE_STATUSES)
+        == 0) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private Integer coalesce(
+      ChangeNotes changeNotes,
+      ImmutableList<Object> arguments,
+      CodeOwnerEvaluationCoalescer.Evaluation<Integer> evaluation)
+      throws IOException, DiffNotAvailableException {
+    return evaluationCoalescer.coalesce(
+        CodeOwnerEvaluation.FILE_STATUSES,
+        changeNotes,
+        changeNotes.getCurrentPatchSet().id(),
+        arguments,
+        evaluation);
+  }
+}
@@ -0,0 +1,200 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace.Phase;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace.Scope;
+import com.google.gerrit.plugins.codeowners.testing.LogCapture;
+import com.google.gerrit.server.logging.TraceContext;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link CodeOwnerEvaluationTrace}. */
+public class CodeOwnerEvaluationTraceTest extends AbstractCodeOwnersTest {
+  private static final String SUMMARY_LINE = "code owner evaluation breakdown";
+
+  private CodeOwnerEvaluationTrace evaluationTrace;
+  private LogCapture logCapture;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    evaluationTrace = plugin.getSysInjector().getInstance(CodeOwnerEvaluationTrace.class);
+    logCapture = LogCapture.open(CodeOwnerEvaluationTrace.class.getName());
+  }
+
+  @After
+  public void closeLogCapture() {
+    logCapture.close();
+  }
+
+  @Test
+  public void scopeIsNoopIfRequestIsNotTraced() throws Exception {
+    try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+      assertThat(scope).isSameInstanceAs(Scope.NOOP);
+      try (CodeOwnerEvaluationTrace.Timer timer =
+          evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+        evaluationTrace.recordCodeOwnerConfigCacheMiss();
+      }
+    }
+    assertThat(logCapture.getEventsContaining(SUMMARY_LINE)).isEmpty();
+  }
+
+  @Test
+  public void tracedEvaluationEmitsSummaryLineWithTags() throws Exception {
+    CodeOwnerConfig.Key codeOwnerConfigKey = CodeOwnerConfig.Key.create(project, "master", "/foo/");
+    try (TraceContext traceContext = newTrace()) {
+      try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+        assertThat(scope).isNotSameInstanceAs(Scope.NOOP);
+        try (CodeOwnerEvaluationTrace.Timer timer =
+            evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+          evaluationTrace.recordCodeOwnerConfigCacheMiss();
+        }
+        try (CodeOwnerEvaluationTrace.Timer timer =
+            evaluationTrace.startCodeOwnerConfig(codeOwnerConfigKey, Path.of("/foo/OWNERS"))) {
+          evaluationTrace.recordCodeOwnerConfigCacheHit();
+          evaluationTrace.recordCodeOwnerConfigCacheHit();
+        }
+      }
+    }
+
+    LogCapture.CapturedEvent summary = getSummary();
+    assertThat(summary.message())
+        .contains(
+            String.format(
+                "code owner evaluation breakdown for test of subject in project %s", project));
+
+    ImmutableSetMultimap<String, String> tags = summary.tags();
+    assertThat(tags).containsKey("codeOwners.totalMs");
+    assertThat(getTag(tags, "codeOwners.load")).matches("\\d+ms/1");
+    assertThat(tags).doesNotContainKey("codeOwners.parse");
+    assertThat(tags).containsEntry("codeOwners.cacheHits", "2");
+    assertThat(tags).containsEntry("codeOwners.cacheMisses", "1");
+    assertThat(tags).containsEntry("codeOwners.codeOwnerConfigs", "1");
+    assertThat(getTag(tags, "codeOwners.mostExpensiveCodeOwnerConfigs"))
+        .matches(String.format("%s:master:/foo/OWNERS=\\d+ms/1", project));
+  }
+
+  @Test
+  public void nestedEvaluationIsRecordedInOutermostScope() throws Exception {
+    try (TraceContext traceContext = newTrace()) {
+      try (Scope scope = evaluationTrace.open("outer", project, "subject")) {
+        evaluationTrace.recordCodeOwnerConfigCacheHit();
+
+        try (Scope nestedScope = evaluationTrace.open("nested", project, "subject")) {
+          assertThat(nestedScope).isSameInstanceAs(Scope.NOOP);
+          try (CodeOwnerEvaluationTrace.Timer timer =
+              evaluationTrace.start(Phase.RESOLVE_IMPORTS)) {
+            evaluationTrace.recordCodeOwnerConfigCacheHit();
+          }
+        }
+
+        // Closing the nested scope doesn't emit a summary line.
+        assertThat(logCapture.getEventsContaining(SUMMARY_LINE)).isEmpty();
+
+        try (CodeOwnerEvaluationTrace.Timer timer = evaluationTrace.start(Phase.RESOLVE_IMPORTS)) {
+          evaluationTrace.recordCodeOwnerConfigCacheHit();
+        }
+      }
+    }
+
+    LogCapture.CapturedEvent summary = getSummary();
+    assertThat(summary.message()).contains("breakdown for outer of subject");
+    assertThat(summary.tags()).containsEntry("codeOwners.cacheHits", "3");
+    assertThat(getTag(summary.tags(), "codeOwners.imports")).matches("\\d+ms/2");
+  }
+
+  @Test
+  public void nestedTimersOfSamePhaseAreCountedOnce() throws Exception {
+    try (TraceContext traceContext = newTrace()) {
+      try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+        try (CodeOwnerEvaluationTrace.Timer timer =
+            evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+          try (CodeOwnerEvaluationTrace.Timer nestedTimer =
+              evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+            // Nested timers of the same phase don't count as another invocation of the phase.
+          }
+
+          // Nested timers of other phases are counted.
+          try (CodeOwnerEvaluationTrace.Timer nestedTimer =
+              evaluationTrace.start(Phase.PARSE_CODE_OWNER_CONFIG)) {}
+        }
+        try (CodeOwnerEvaluationTrace.Timer timer =
+            evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {}
+      }
+    }
+
+    ImmutableSetMultimap<String, String> tags = getSummary().tags();
+    assertThat(getTag(tags, "codeOwners.load")).matches("\\d+ms/2");
+    assertThat(getTag(tags, "codeOwners.parse")).matches("\\d+ms/1");
+  }
+
+  @Test
+  public void recordingOutsideOfScopeIsNoop() throws Exception {
+    try (TraceContext traceContext = newTrace()) {
+      try (CodeOwnerEvaluationTrace.Timer timer =
+          evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+        evaluationTrace.recordCodeOwnerConfigCacheHit();
+      }
+
+      try (Scope scope = evaluationTrace.open("test", project, "subject")) {}
+    }
+
+    ImmutableSetMultimap<String, String> tags = getSummary().tags();
+    assertThat(tags).doesNotContainKey("codeOwners.load");
+    assertThat(tags).containsEntry("codeOwners.cacheHits", "0");
+  }
+
+  @Test
+  public void eachTopLevelEvaluationEmitsOneSummaryLine() throws Exception {
+    try (TraceContext traceContext = newTrace()) {
+      try (Scope scope = evaluationTrace.open("first", project, "subject")) {}
+      try (Scope scope = evaluationTrace.open("second", project, "subject")) {}
+    }
+
+    ImmutableList<String> summaries =
+        logCapture.getEventsContaining(SUMMARY_LINE).stream()
+            .map(LogCapture.CapturedEvent::message)
+            .collect(toImmutableList());
+    assertThat(summaries).hasSize(2);
+    assertThat(summaries.get(0)).contains("breakdown for first of subject");
+    assertThat(summaries.get(1)).contains("breakdown for second of subject");
+  }
+
+  private static TraceContext newTrace() {
+    return TraceContext.newTrace(
+        /* trace= */ true, /* traceId= */ "test-trace", (tagName, traceId) -> {});
+  }
+
+  private LogCapture.CapturedEvent getSummary() {
+    ImmutableList<LogCapture.CapturedEvent> summaries =
+        logCapture.getEventsContaining(SUMMARY_LINE);
+    assertThat(summaries).hasSize(1);
+    return summaries.get(0);
+  }
+
+  private static String getTag(ImmutableSetMultimap<String, String> tags, String name) {
+    assertThat(tags).containsKey(name);
+    return Iterables.getOnlyElement(tags.get(name));
+  }
+}
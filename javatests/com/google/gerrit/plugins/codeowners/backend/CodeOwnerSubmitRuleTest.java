@@ -20,6 +20,7 @@ import static com.google.gerrit.testing.GerritJUnit.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.gerrit.acceptance.config.GerritConfig;
 import com.google.gerrit.acceptance.testsuite.request.RequestScopeOperations;
 import com.google.gerrit.common.Nullable;
@@ -229,4 +230,76 @@ public class CodeOwnerSubmitRuleTest extends AbstractCodeOwnersTest {
     submitRequirementSubject.hasTypeThat().isEqualTo("code-owners");
     submitRequirementSubject.hasFallbackTextThat().isEqualTo("Code-Owners");
   }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxFilesPerEvaluation", value = "1")
+  public void ruleError_tooManyFiles() throws Exception {
+    ChangeData changeData =
+        createChange("Change Adding Files", ImmutableMap.of("foo.txt", "foo", "bar.txt", "bar"))
+            .getChange();
+
+    SubmitRecordSubject submitRecordSubject =
+        assertThatOptional(codeOwnerSubmitRule.evaluate(changeData)).value();
+    submitRecordSubject.hasStatusThat().isRuleError();
+    submitRecordSubject
+        .hasErrorMessageThat()
+        .isEqualTo(
+            String.format(
+                "Failed to evaluate code owner statuses for patch set %d of change %d (cause:"
+                    + " Evaluating the code owners is too expensive (number of evaluated files"
+                    + " exceeded the limit of 1). Please split the change into smaller changes or"
+                    + " request a code owner override.).",
+                changeData.change().currentPatchSetId().get(),
+                changeData.change().getId().get()));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxFilesPerEvaluation", value = "2")
+  public void notReadyIfNumberOfFilesIsWithinLimit() throws Exception {
+    ChangeData changeData =
+        createChange("Change Adding Files", ImmutableMap.of("foo.txt", "foo", "bar.txt", "bar"))
+            .getChange();
+
+    SubmitRecordSubject submitRecordSubject =
+        assertThatOptional(codeOwnerSubmitRule.evaluate(changeData)).value();
+    submitRecordSubject.hasStatusThat().isNotReady();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxCodeOwnerConfigReadsPerEvaluation", value = "1")
+  public void ruleError_tooManyCodeOwnerConfigReads() throws Exception {
+    // The code owner config files in "/foo/bar/", "/foo/" and "/" need to be read.
+    ChangeData changeData =
+        createChange("Change Adding A File", "foo/bar/baz.txt", "content").getChange();
+
+    SubmitRecordSubject submitRecordSubject =
+        assertThatOptional(codeOwnerSubmitRule.evaluate(changeData)).value();
+    submitRecordSubject.hasStatusThat().isRuleError();
+    submitRecordSubject
+        .hasErrorMessageThat()
+        .contains("number of read code owner config files exceeded the limit of 1");
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxFilesPerEvaluation", value = "1")
+  @GerritConfig(name = "plugin.code-owners.overrideApproval", value = "Owners-Override+1")
+  public void overrideWhenEvaluationIsTooExpensive() throws Exception {
+    createOwnersOverrideLabel();
+
+    ChangeData changeData =
+        createChange("Change Adding Files", ImmutableMap.of("foo.txt", "foo", "bar.txt", "bar"))
+            .getChange();
+    String changeId = changeData.change().getKey().get();
+
+    SubmitRecordSubject submitRecordSubject =
+        assertThatOptional(codeOwnerSubmitRule.evaluate(changeData)).value();
+    submitRecordSubject.hasStatusThat().isRuleError();
+
+    // Apply an override, with an override the files are not evaluated.
+    gApi.changes().id(changeId).current().review(new ReviewInput().label("Owners-Override", 1));
+    changeData.reloadChange();
+
+    submitRecordSubject = assertThatOptional(codeOwnerSubmitRule.evaluate(changeData)).value();
+    submitRecordSubject.hasStatusThat().isOk();
+  }
 }
@@ -0,0 +1,151 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.entities.Project;
+import java.nio.file.Path;
+import java.util.BitSet;
+import org.junit.Test;
+
+/** Tests for {@link IndexedAccounts}. */
+public class IndexedAccountsTest {
+  private static final Account.Id ACCOUNT_1 = Account.id(1);
+  private static final Account.Id ACCOUNT_2 = Account.id(2);
+  private static final Account.Id ACCOUNT_3 = Account.id(3);
+  private static final Account.Id ACCOUNT_4 = Account.id(4);
+
+  @Test
+  public void getCodeOwners() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(
+            ImmutableSet.of(ACCOUNT_1, ACCOUNT_2), ImmutableSet.of(ACCOUNT_2, ACCOUNT_3));
+    BitSet codeOwners = indexedAccounts.getCodeOwners(createResult(ACCOUNT_2, ACCOUNT_4));
+    assertThat(indexedAccounts.toAccountIds(codeOwners)).containsExactly(ACCOUNT_2);
+  }
+
+  @Test
+  public void getCodeOwnersIfOwnedByAllUsers() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(ImmutableSet.of(ACCOUNT_1), ImmutableSet.of(ACCOUNT_2));
+    BitSet codeOwners =
+        indexedAccounts.getCodeOwners(
+            CodeOwnerResolverResult.create(
+                ImmutableSet.of(),
+                ImmutableMultimap.of(),
+                /* ownedByAllUsers= */ true,
+                /* hasUnresolvedCodeOwners= */ false,
+                /* resolvedImports= */ ImmutableList.of(),
+                /* unresolvedImports= */ ImmutableList.of(),
+                /* messages= */ ImmutableList.of()));
+    assertThat(indexedAccounts.toAccountIds(codeOwners)).containsExactly(ACCOUNT_1, ACCOUNT_2);
+  }
+
+  @Test
+  public void getCodeOwnersIsComputedOncePerCodeOwnerSets() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(ImmutableSet.of(ACCOUNT_1), ImmutableSet.of(ACCOUNT_2));
+    CodeOwnerConfig.Key codeOwnerConfigKey =
+        CodeOwnerConfig.Key.create(Project.nameKey("project"), "master", "/");
+
+    BitSet codeOwners =
+        indexedAccounts.getCodeOwners(
+            PathCodeOwnersResult.builder(
+                    Path.of("/foo.md"), codeOwnerConfigKey, /* ignoreParentCodeOwners= */ false)
+                .build(),
+            createResult(ACCOUNT_1));
+    assertThat(indexedAccounts.toAccountIds(codeOwners)).containsExactly(ACCOUNT_1);
+
+    // Another path for which the same code owner sets apply reuses the bit set.
+    assertThat(
+            indexedAccounts.getCodeOwners(
+                PathCodeOwnersResult.builder(
+                        Path.of("/bar.md"), codeOwnerConfigKey, /* ignoreParentCodeOwners= */ false)
+                    .build(),
+                createResult(ACCOUNT_2)))
+        .isSameInstanceAs(codeOwners);
+
+    // A path for which a per-file code owner set applies gets its own bit set.
+    BitSet perFileCodeOwners =
+        indexedAccounts.getCodeOwners(
+            PathCodeOwnersResult.builder(
+                    Path.of("/baz.txt"), codeOwnerConfigKey, /* ignoreParentCodeOwners= */ false)
+                .addPerFileCodeOwnerSet(
+                    CodeOwnerSet.builder()
+                        .addPathExpression("*.txt")
+                        .addCodeOwnerEmail("user@example.com")
+                        .build())
+                .build(),
+            createResult(ACCOUNT_1, ACCOUNT_2));
+    assertThat(indexedAccounts.toAccountIds(perFileCodeOwners))
+        .containsExactly(ACCOUNT_1, ACCOUNT_2);
+  }
+
+  @Test
+  public void getFirstApproverReturnsApproverInIterationOrder() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(
+            ImmutableSet.of(ACCOUNT_3, ACCOUNT_1, ACCOUNT_2), ImmutableSet.of(ACCOUNT_4));
+    BitSet codeOwners = indexedAccounts.getCodeOwners(createResult(ACCOUNT_1, ACCOUNT_2));
+    assertThat(indexedAccounts.getFirstApprover(codeOwners)).hasValue(ACCOUNT_1);
+  }
+
+  @Test
+  public void getFirstApproverIfNoCodeOwnerIsAnApprover() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(ImmutableSet.of(ACCOUNT_1), ImmutableSet.of(ACCOUNT_2));
+    BitSet codeOwners = indexedAccounts.getCodeOwners(createResult(ACCOUNT_2));
+    assertThat(indexedAccounts.getFirstApprover(codeOwners)).isEmpty();
+  }
+
+  @Test
+  public void getFirstReviewerReturnsReviewerInIterationOrder() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(
+            ImmutableSet.of(ACCOUNT_1, ACCOUNT_4),
+            ImmutableSet.of(ACCOUNT_3, ACCOUNT_2, ACCOUNT_4));
+    BitSet codeOwners =
+        indexedAccounts.getCodeOwners(createResult(ACCOUNT_1, ACCOUNT_2, ACCOUNT_4));
+    assertThat(indexedAccounts.getFirstReviewer(codeOwners)).hasValue(ACCOUNT_2);
+  }
+
+  @Test
+  public void getFirstReviewerIfNoCodeOwnerIsAReviewer() throws Exception {
+    IndexedAccounts indexedAccounts =
+        IndexedAccounts.create(ImmutableSet.of(ACCOUNT_1), ImmutableSet.of(ACCOUNT_2));
+    BitSet codeOwners = indexedAccounts.getCodeOwners(createResult(ACCOUNT_1));
+    assertThat(indexedAccounts.getFirstReviewer(codeOwners)).isEmpty();
+  }
+
+  private static CodeOwnerResolverResult createResult(Account.Id... accountIds) {
+    ImmutableSet.Builder<CodeOwner> codeOwners = ImmutableSet.builder();
+    for (Account.Id accountId : accountIds) {
+      codeOwners.add(CodeOwner.create(accountId));
+    }
+    return CodeOwnerResolverResult.create(
+        codeOwners.build(),
+        ImmutableMultimap.of(),
+        /* ownedByAllUsers= */ false,
+        /* hasUnresolvedCodeOwners= */ false,
+        /* resolvedImports= */ ImmutableList.of(),
+        /* unresolvedImports= */ ImmutableList.of(),
+        /* messages= */ ImmutableList.of());
+  }
+}
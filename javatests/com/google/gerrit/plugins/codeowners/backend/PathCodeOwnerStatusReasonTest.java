@@ -0,0 +1,127 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.plugins.codeowners.common.CodeOwnerStatus;
+import com.google.gerrit.server.util.AccountTemplateUtil;
+import java.nio.file.Path;
+import org.junit.Test;
+
+/** Tests for {@link PathCodeOwnerStatusReason}. */
+public class PathCodeOwnerStatusReasonTest extends AbstractAutoValueTest {
+  @Test
+  public void toStringIncludesAllData() throws Exception {
+    PathCodeOwnerStatusReason reason =
+        PathCodeOwnerStatusReason.stickyApproval(
+            /* patchSetNumber= */ 2,
+            Account.id(1000),
+            CodeOwnerKind.REGULAR_CODE_OWNER,
+            /* ownedByAllUsers= */ true);
+    assertThatToStringIncludesAllData(reason, PathCodeOwnerStatusReason.class);
+  }
+
+  @Test
+  public void messageIsRenderedOnce() throws Exception {
+    PathCodeOwnerStatusReason reason =
+        PathCodeOwnerStatusReason.approval(
+            Account.id(1000), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false);
+    assertThat(reason.format()).isSameInstanceAs(reason.format());
+  }
+
+  @Test
+  public void reasonsWithSameValuesAreEqual() throws Exception {
+    Account.Id accountId = Account.id(1000);
+    assertThat(
+            PathCodeOwnerStatusReason.approval(
+                accountId, CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false))
+        .isEqualTo(
+            PathCodeOwnerStatusReason.approval(
+                accountId, CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+    assertThat(PathCodeOwnerStatusReason.text("some reason"))
+        .isEqualTo(PathCodeOwnerStatusReason.text("some reason"));
+  }
+
+  @Test
+  public void reasonsWithDifferentValuesAreNotEqual() throws Exception {
+    Account.Id accountId = Account.id(1000);
+    PathCodeOwnerStatusReason approval =
+        PathCodeOwnerStatusReason.approval(
+            accountId, CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false);
+    assertThat(approval)
+        .isNotEqualTo(
+            PathCodeOwnerStatusReason.approval(
+                Account.id(1001), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+    assertThat(approval)
+        .isNotEqualTo(
+            PathCodeOwnerStatusReason.approval(
+                accountId, CodeOwnerKind.FALLBACK_CODE_OWNER, /* ownedByAllUsers= */ false));
+    assertThat(approval)
+        .isNotEqualTo(
+            PathCodeOwnerStatusReason.reviewer(
+                accountId, CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+  }
+
+  @Test
+  public void reasonIsNotEqualToTextReasonWithSameMessage() throws Exception {
+    PathCodeOwnerStatusReason approval =
+        PathCodeOwnerStatusReason.approval(
+            Account.id(1000), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false);
+    assertThat(approval).isNotEqualTo(PathCodeOwnerStatusReason.text(approval.format()));
+  }
+
+  @Test
+  public void pathCodeOwnerStatusesWithSameStructuredReasonsAreEqual() throws Exception {
+    PathCodeOwnerStatus pathCodeOwnerStatus =
+        PathCodeOwnerStatus.create(
+            Path.of("/foo/bar.baz"),
+            CodeOwnerStatus.APPROVED,
+            PathCodeOwnerStatusReason.approval(
+                Account.id(1000), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+    PathCodeOwnerStatus otherPathCodeOwnerStatus =
+        PathCodeOwnerStatus.create(
+            Path.of("/foo/bar.baz"),
+            CodeOwnerStatus.APPROVED,
+            PathCodeOwnerStatusReason.approval(
+                Account.id(1000), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+    assertThat(pathCodeOwnerStatus).isEqualTo(otherPathCodeOwnerStatus);
+    assertThat(pathCodeOwnerStatus.hashCode()).isEqualTo(otherPathCodeOwnerStatus.hashCode());
+  }
+
+  @Test
+  public void pathCodeOwnerStatusIsNotEqualToStatusWithTextReasonWithSameMessage()
+      throws Exception {
+    Account.Id accountId = Account.id(1000);
+    PathCodeOwnerStatus pathCodeOwnerStatus =
+        PathCodeOwnerStatus.create(
+            Path.of("/foo/bar.baz"),
+            CodeOwnerStatus.APPROVED,
+            PathCodeOwnerStatusReason.approval(
+                accountId, CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false));
+    PathCodeOwnerStatus pathCodeOwnerStatusWithTextReason =
+        PathCodeOwnerStatus.create(
+            Path.of("/foo/bar.baz"),
+            CodeOwnerStatus.APPROVED,
+            String.format(
+                "approved by %s who is a %s",
+                AccountTemplateUtil.getAccountTemplate(accountId),
+                CodeOwnerKind.REGULAR_CODE_OWNER.getDisplayName()));
+    assertThat(pathCodeOwnerStatus.reasons())
+        .isEqualTo(pathCodeOwnerStatusWithTextReason.reasons());
+    assertThat(pathCodeOwnerStatus).isNotEqualTo(pathCodeOwnerStatusWithTextReason);
+  }
+}
@@ -0,0 +1,118 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.gerrit.entities.Account;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.server.git.GitRepositoryManager;
+import com.google.gerrit.server.notedb.ChangeNotes;
+import com.google.gerrit.server.project.ProjectCache;
+import com.google.inject.Inject;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link PendingCodeOwnersCache}. */
+public class PendingCodeOwnersCacheTest extends AbstractCodeOwnersTest {
+  @Inject private ProjectCache projectCache;
+  @Inject private GitRepositoryManager repoManager;
+
+  private CodeOwnerApprovalCheck codeOwnerApprovalCheck;
+  private PendingCodeOwnersCache pendingCodeOwnersCache;
+
+  @Before
+  public void setUpPendingCodeOwnersCache() throws Exception {
+    codeOwnerApprovalCheck = mock(CodeOwnerApprovalCheck.class);
+    pendingCodeOwnersCache =
+        new PendingCodeOwnersCache(
+            CacheBuilder.newBuilder().build(), projectCache, repoManager, codeOwnerApprovalCheck);
+  }
+
+  @Test
+  public void pendingCodeOwnersAreCached() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    PendingCodeOwners pendingCodeOwners = pendingCodeOwners(admin.id());
+    when(codeOwnerApprovalCheck.getPendingCodeOwners(changeNotes)).thenReturn(pendingCodeOwners);
+
+    assertThat(pendingCodeOwnersCache.get(changeNotes)).isEqualTo(pendingCodeOwners);
+    assertThat(pendingCodeOwnersCache.get(changeNotes)).isEqualTo(pendingCodeOwners);
+    verify(codeOwnerApprovalCheck, times(1)).getPendingCodeOwners(changeNotes);
+  }
+
+  @Test
+  public void updateOfDestinationBranchMakesEntryStale() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    when(codeOwnerApprovalCheck.getPendingCodeOwners(changeNotes))
+        .thenReturn(pendingCodeOwners(admin.id()));
+    pendingCodeOwnersCache.get(changeNotes);
+
+    // Update the destination branch.
+    String otherChangeId = createChange("Other Change", "other.txt", "content").getChangeId();
+    approve(otherChangeId);
+    gApi.changes().id(otherChangeId).current().submit();
+
+    pendingCodeOwnersCache.get(changeNotes);
+    verify(codeOwnerApprovalCheck, times(2)).getPendingCodeOwners(changeNotes);
+  }
+
+  @Test
+  public void invalidatedEntryIsRecomputed() throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    when(codeOwnerApprovalCheck.getPendingCodeOwners(changeNotes))
+        .thenReturn(pendingCodeOwners(admin.id()));
+    pendingCodeOwnersCache.get(changeNotes);
+
+    pendingCodeOwnersCache.invalidate(project, ImmutableList.of(changeNotes.getChangeId()));
+
+    pendingCodeOwnersCache.get(changeNotes);
+    verify(codeOwnerApprovalCheck, times(2)).getPendingCodeOwners(changeNotes);
+  }
+
+  @Test
+  public void loadThatIsInProgressWhileEntriesAreInvalidatedDoesNotPopulateCache()
+      throws Exception {
+    ChangeNotes changeNotes = createChange().getChange().notes();
+    PendingCodeOwners staleValue = pendingCodeOwners(admin.id());
+    PendingCodeOwners currentValue = pendingCodeOwners(user.id());
+    when(codeOwnerApprovalCheck.getPendingCodeOwners(changeNotes))
+        .thenAnswer(
+            invocation -> {
+              // Simulate an invalidation that happens while the value is being computed.
+              pendingCodeOwnersCache.invalidate(
+                  project, ImmutableList.of(changeNotes.getChangeId()));
+              return staleValue;
+            })
+        .thenReturn(currentValue);
+
+    // The value of the load is returned, but it is not cached.
+    assertThat(pendingCodeOwnersCache.get(changeNotes)).isEqualTo(staleValue);
+    assertThat(pendingCodeOwnersCache.get(changeNotes)).isEqualTo(currentValue);
+    assertThat(pendingCodeOwnersCache.get(changeNotes)).isEqualTo(currentValue);
+    verify(codeOwnerApprovalCheck, times(2)).getPendingCodeOwners(changeNotes);
+  }
+
+  private static PendingCodeOwners pendingCodeOwners(Account.Id accountId) {
+    PendingCodeOwners.Builder pendingCodeOwners = PendingCodeOwners.builder();
+    pendingCodeOwners.accountIdsBuilder().add(accountId);
+    return pendingCodeOwners.build();
+  }
+}
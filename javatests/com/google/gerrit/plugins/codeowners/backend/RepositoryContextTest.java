@@ -0,0 +1,100 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.gerrit.testing.GerritJUnit.assertThrows;
+
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link RepositoryContext}. */
+public class RepositoryContextTest extends AbstractCodeOwnersTest {
+  private RepositoryContext repositoryContext;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    repositoryContext = plugin.getSysInjector().getInstance(RepositoryContext.class);
+  }
+
+  @Test
+  public void cannotOpenRepositoryForNullProject() throws Exception {
+    NullPointerException npe =
+        assertThrows(
+            NullPointerException.class,
+            () -> repositoryContext.openRepository(/* project= */ null));
+    assertThat(npe).hasMessageThat().isEqualTo("project");
+  }
+
+  @Test
+  public void revWalksWithinScopeShareObjectReader() throws Exception {
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository1 = repositoryContext.openRepository(project);
+        Repository repository2 = repositoryContext.openRepository(project);
+        RevWalk revWalk1 = repositoryContext.newRevWalk(repository1);
+        RevWalk revWalk2 = repositoryContext.newRevWalk(repository2)) {
+      assertThat(repository2).isSameInstanceAs(repository1);
+      assertThat(revWalk2.getObjectReader()).isSameInstanceAs(revWalk1.getObjectReader());
+    }
+  }
+
+  @Test
+  public void revWalksWithinNestedScopeShareObjectReaderOfOuterScope() throws Exception {
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository1 = repositoryContext.openRepository(project);
+        RevWalk revWalk1 = repositoryContext.newRevWalk(repository1)) {
+      try (RepositoryContext.Scope nestedScope = repositoryContext.open();
+          Repository repository2 = repositoryContext.openRepository(project);
+          RevWalk revWalk2 = repositoryContext.newRevWalk(repository2)) {
+        assertThat(revWalk2.getObjectReader()).isSameInstanceAs(revWalk1.getObjectReader());
+      }
+
+      // closing the nested scope doesn't close the outer scope
+      try (Repository repository3 = repositoryContext.openRepository(project);
+          RevWalk revWalk3 = repositoryContext.newRevWalk(repository3)) {
+        assertThat(revWalk3.getObjectReader()).isSameInstanceAs(revWalk1.getObjectReader());
+      }
+    }
+  }
+
+  @Test
+  public void revWalksOutsideOfScopeDoNotShareObjectReader() throws Exception {
+    try (Repository repository1 = repositoryContext.openRepository(project);
+        Repository repository2 = repositoryContext.openRepository(project);
+        RevWalk revWalk1 = repositoryContext.newRevWalk(repository1);
+        RevWalk revWalk2 = repositoryContext.newRevWalk(repository2)) {
+      assertThat(revWalk2.getObjectReader()).isNotSameInstanceAs(revWalk1.getObjectReader());
+    }
+  }
+
+  @Test
+  public void revWalksAfterScopeIsClosedDoNotShareObjectReader() throws Exception {
+    try (RepositoryContext.Scope scope = repositoryContext.open();
+        Repository repository = repositoryContext.openRepository(project);
+        RevWalk revWalk = repositoryContext.newRevWalk(repository)) {
+      assertThat(revWalk.getObjectReader()).isNotNull();
+    }
+
+    try (Repository repository1 = repositoryContext.openRepository(project);
+        Repository repository2 = repositoryContext.openRepository(project);
+        RevWalk revWalk1 = repositoryContext.newRevWalk(repository1);
+        RevWalk revWalk2 = repositoryContext.newRevWalk(repository2)) {
+      assertThat(revWalk2.getObjectReader()).isNotSameInstanceAs(revWalk1.getObjectReader());
+    }
+  }
+}
@@ -0,0 +1,189 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.gerrit.acceptance.config.GerritConfig;
+import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace.Phase;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerEvaluationTrace.Scope;
+import com.google.gerrit.plugins.codeowners.testing.LogCapture;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SlowCodeOwnerEvaluationLog} and the entries that {@link
+ * CodeOwnerEvaluationTrace} writes to it.
+ */
+public class SlowCodeOwnerEvaluationLogTest extends AbstractCodeOwnersTest {
+  private CodeOwnerEvaluationTrace evaluationTrace;
+  private LogCapture logCapture;
+
+  @Before
+  public void setUpCodeOwnersPlugin() throws Exception {
+    evaluationTrace = plugin.getSysInjector().getInstance(CodeOwnerEvaluationTrace.class);
+    logCapture = LogCapture.open(SlowCodeOwnerEvaluationLog.LOG_NAME);
+  }
+
+  @After
+  public void closeLogCapture() {
+    logCapture.close();
+  }
+
+  @Test
+  public void noEntryIfThresholdIsNotConfigured() throws Exception {
+    try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+      assertThat(scope).isSameInstanceAs(Scope.NOOP);
+      Uninterruptibles.sleepUninterruptibly(Duration.ofMillis(5));
+    }
+    assertThat(logCapture.getEvents()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "1h")
+  public void noEntryForEvaluationBelowThreshold() throws Exception {
+    try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+      assertThat(scope).isNotSameInstanceAs(Scope.NOOP);
+      recordEvaluation(/* numberOfCodeOwnerConfigs= */ 1);
+    }
+    assertThat(logCapture.getEvents()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "1ms")
+  public void entryForEvaluationAboveThreshold() throws Exception {
+    try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+      recordEvaluation(/* numberOfCodeOwnerConfigs= */ 2);
+      Uninterruptibles.sleepUninterruptibly(Duration.ofMillis(5));
+    }
+
+    ImmutableList<LogCapture.CapturedEvent> events = logCapture.getEvents();
+    assertThat(events).hasSize(1);
+    JsonObject entry = JsonParser.parseString(events.get(0).message()).getAsJsonObject();
+    assertThat(entry.get("evaluation").getAsString()).isEqualTo("test");
+    assertThat(entry.get("project").getAsString()).isEqualTo(project.get());
+    assertThat(entry.get("subject").getAsString()).isEqualTo("subject");
+    assertThat(entry.get("timeMs").getAsLong()).isAtLeast(5);
+    assertThat(entry.get("files").getAsInt()).isEqualTo(2);
+    assertThat(entry.get("codeOwnerConfigsLoaded").getAsInt()).isEqualTo(2);
+    assertThat(entry.get("codeOwnerConfigCacheHits").getAsInt()).isEqualTo(1);
+    assertThat(entry.get("importsResolved").getAsInt()).isEqualTo(1);
+
+    JsonObject phases = entry.getAsJsonObject("phases");
+    assertThat(phases.keySet()).containsExactly("load", "imports", "globs");
+    assertThat(phases.getAsJsonObject("load").get("count").getAsInt()).isEqualTo(2);
+    assertThat(phases.getAsJsonObject("imports").get("count").getAsInt()).isEqualTo(1);
+    assertThat(phases.getAsJsonObject("globs").get("count").getAsInt()).isEqualTo(2);
+
+    JsonArray codeOwnerConfigs = entry.getAsJsonArray("mostExpensiveCodeOwnerConfigs");
+    assertThat(codeOwnerConfigs.size()).isEqualTo(2);
+    assertThat(getStrings(codeOwnerConfigs, "codeOwnerConfig"))
+        .containsExactly(
+            String.format("%s:master:/folder0/OWNERS", project),
+            String.format("%s:master:/folder1/OWNERS", project));
+
+    JsonArray pathExpressions = entry.getAsJsonArray("mostExpensivePathExpressions");
+    assertThat(pathExpressions.size()).isEqualTo(2);
+    assertThat(getStrings(pathExpressions, "pathExpressions"))
+        .containsExactly(
+            String.format("%s:master:/folder0:[*.md]", project),
+            String.format("%s:master:/folder1:[*.md]", project));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "1h")
+  public void onlyMostExpensiveCodeOwnerConfigsAndPathExpressionsAreIncluded() throws Exception {
+    try (Scope scope = evaluationTrace.open("test", project, "subject")) {
+      recordEvaluation(/* numberOfCodeOwnerConfigs= */ 7);
+
+      JsonObject entry = scope.toJson(Duration.ofMillis(42));
+      assertThat(entry.get("timeMs").getAsLong()).isEqualTo(42);
+      assertThat(entry.get("files").getAsInt()).isEqualTo(7);
+      assertThat(entry.get("codeOwnerConfigsLoaded").getAsInt()).isEqualTo(7);
+
+      JsonArray codeOwnerConfigs = entry.getAsJsonArray("mostExpensiveCodeOwnerConfigs");
+      assertThat(codeOwnerConfigs.size()).isEqualTo(5);
+      assertSortedByTime(codeOwnerConfigs);
+
+      JsonArray pathExpressions = entry.getAsJsonArray("mostExpensivePathExpressions");
+      assertThat(pathExpressions.size()).isEqualTo(5);
+      assertSortedByTime(pathExpressions);
+    }
+  }
+
+  /**
+   * Records an evaluation of one file per code owner config. Each code owner config is loaded,
+   * contains one per-file code owner set and the first code owner config has an import that is
+   * served from the cache.
+   */
+  private void recordEvaluation(int numberOfCodeOwnerConfigs) {
+    for (int i = 0; i < numberOfCodeOwnerConfigs; i++) {
+      CodeOwnerConfig.Key codeOwnerConfigKey =
+          CodeOwnerConfig.Key.create(project, "master", "/folder" + i + "/");
+      evaluationTrace.recordFile();
+      try (CodeOwnerEvaluationTrace.Timer timer =
+          evaluationTrace.startCodeOwnerConfig(
+              codeOwnerConfigKey, Path.of("/folder" + i + "/OWNERS"))) {
+        try (CodeOwnerEvaluationTrace.Timer loadTimer =
+            evaluationTrace.start(Phase.LOAD_CODE_OWNER_CONFIG)) {
+          evaluationTrace.recordCodeOwnerConfigCacheMiss();
+        }
+        if (i == 0) {
+          try (CodeOwnerEvaluationTrace.Timer importTimer =
+              evaluationTrace.start(Phase.RESOLVE_IMPORTS)) {
+            evaluationTrace.recordImport();
+            evaluationTrace.recordCodeOwnerConfigCacheHit();
+          }
+        }
+        try (CodeOwnerEvaluationTrace.Timer globTimer =
+                evaluationTrace.start(Phase.MATCH_PATH_EXPRESSIONS);
+            CodeOwnerEvaluationTrace.Timer pathExpressionsTimer =
+                evaluationTrace.startPathExpressions(codeOwnerConfigKey, ImmutableSet.of("*.md"))) {
+          // Make the code owner configs differ in the time that is spent on them.
+          Uninterruptibles.sleepUninterruptibly(Duration.ofMillis(i));
+        }
+      }
+    }
+  }
+
+  private static ImmutableList<String> getStrings(JsonArray array, String property) {
+    ImmutableList.Builder<String> values = ImmutableList.builder();
+    for (JsonElement element : array) {
+      values.add(element.getAsJsonObject().get(property).getAsString());
+    }
+    return values.build();
+  }
+
+  private static void assertSortedByTime(JsonArray array) {
+    ImmutableList.Builder<Long> times = ImmutableList.builder();
+    for (JsonElement element : array) {
+      JsonObject json = element.getAsJsonObject();
+      assertThat(json.get("count").getAsInt()).isEqualTo(1);
+      times.add(json.get("timeMs").getAsLong());
+    }
+    assertThat(times.build()).isInOrder((Long a, Long b) -> Long.compare(b, a));
+  }
+}
@@ -57,4 +57,31 @@ public class CodeOwnersPluginConfigurationTest extends AbstractCodeOwnersTest {
         .isEqualTo(
             "cannot get code-owners plugin config for non-existing project non-existing-project");
   }
+
+  @Test
+  public void projectConfigIsCachedUntilProjectConfigIsChanged() throws Exception {
+    CodeOwnersPluginProjectConfigSnapshot snapshot =
+        codeOwnersPluginConfiguration.getProjectConfig(project);
+    assertThat(snapshot.isDisabled()).isFalse();
+    assertThat(codeOwnersPluginConfiguration.getProjectConfig(project)).isSameInstanceAs(snapshot);
+
+    disableCodeOwnersForProject(project);
+    CodeOwnersPluginProjectConfigSnapshot updatedSnapshot =
+        codeOwnersPluginConfiguration.getProjectConfig(project);
+    assertThat(updatedSnapshot).isNotSameInstanceAs(snapshot);
+    assertThat(updatedSnapshot.isDisabled()).isTrue();
+  }
+
+  @Test
+  public void projectConfigIsCachedUntilParentProjectConfigIsChanged() throws Exception {
+    CodeOwnersPluginProjectConfigSnapshot snapshot =
+        codeOwnersPluginConfiguration.getProjectConfig(project);
+    assertThat(snapshot.isDisabled()).isFalse();
+
+    disableCodeOwnersForProject(allProjects);
+    CodeOwnersPluginProjectConfigSnapshot updatedSnapshot =
+        codeOwnersPluginConfiguration.getProjectConfig(project);
+    assertThat(updatedSnapshot).isNotSameInstanceAs(snapshot);
+    assertThat(updatedSnapshot.isDisabled()).isTrue();
+  }
 }
@@ -21,6 +21,7 @@ import com.google.gerrit.acceptance.config.GerritConfig;
 import com.google.gerrit.extensions.restapi.MethodNotAllowedException;
 import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
 import com.google.gerrit.truth.OptionalSubject;
+import java.time.Duration;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -119,6 +120,180 @@ public class CodeOwnersPluginGlobalConfigSnapshotTest extends AbstractCodeOwners
         .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_MAX_CODE_OWNER_CACHE_SIZE);
   }
 
+  @Test
+  public void evaluationBudgetIsUnlimitedByDefault() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxEvaluationTime()).isEmpty();
+    OptionalSubject.assertThat(cfgSnapshot().getMaxFilesPerEvaluation()).isEmpty();
+    OptionalSubject.assertThat(cfgSnapshot().getMaxCodeOwnerConfigReadsPerEvaluation()).isEmpty();
+    OptionalSubject.assertThat(cfgSnapshot().getMaxImportsPerEvaluation()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxEvaluationTime", value = "30s")
+  @GerritConfig(name = "plugin.code-owners.maxFilesPerEvaluation", value = "1000")
+  @GerritConfig(name = "plugin.code-owners.maxCodeOwnerConfigReadsPerEvaluation", value = "200")
+  @GerritConfig(name = "plugin.code-owners.maxImportsPerEvaluation", value = "50")
+  public void evaluationBudgetIsLimited() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxEvaluationTime())
+        .value()
+        .isEqualTo(Duration.ofSeconds(30));
+    OptionalSubject.assertThat(cfgSnapshot().getMaxFilesPerEvaluation()).value().isEqualTo(1000);
+    OptionalSubject.assertThat(cfgSnapshot().getMaxCodeOwnerConfigReadsPerEvaluation())
+        .value()
+        .isEqualTo(200);
+    OptionalSubject.assertThat(cfgSnapshot().getMaxImportsPerEvaluation()).value().isEqualTo(50);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxEvaluationTime", value = "invalid")
+  @GerritConfig(name = "plugin.code-owners.maxFilesPerEvaluation", value = "invalid")
+  public void evaluationBudget_invalidConfig() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxEvaluationTime()).isEmpty();
+    OptionalSubject.assertThat(cfgSnapshot().getMaxFilesPerEvaluation()).isEmpty();
+  }
+
+  @Test
+  public void asyncMessageQueueDefaults() throws Exception {
+    assertThat(cfgSnapshot().getAsyncMessageThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_ASYNC_MESSAGE_THREADS);
+    assertThat(cfgSnapshot().getAsyncMessageCoalescingWindow())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_ASYNC_MESSAGE_COALESCING_WINDOW);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.asyncMessageThreads", value = "4")
+  @GerritConfig(name = "plugin.code-owners.asyncMessageCoalescingWindow", value = "2s")
+  public void asyncMessageQueueIsConfigured() throws Exception {
+    assertThat(cfgSnapshot().getAsyncMessageThreads()).isEqualTo(4);
+    assertThat(cfgSnapshot().getAsyncMessageCoalescingWindow()).isEqualTo(Duration.ofSeconds(2));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.asyncMessageThreads", value = "0")
+  @GerritConfig(name = "plugin.code-owners.asyncMessageCoalescingWindow", value = "0")
+  public void asyncMessageCoalescingCanBeDisabled() throws Exception {
+    assertThat(cfgSnapshot().getAsyncMessageThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_ASYNC_MESSAGE_THREADS);
+    assertThat(cfgSnapshot().getAsyncMessageCoalescingWindow()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.asyncMessageThreads", value = "invalid")
+  @GerritConfig(name = "plugin.code-owners.asyncMessageCoalescingWindow", value = "invalid")
+  public void asyncMessageQueue_invalidConfig() throws Exception {
+    assertThat(cfgSnapshot().getAsyncMessageThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_ASYNC_MESSAGE_THREADS);
+    assertThat(cfgSnapshot().getAsyncMessageCoalescingWindow())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_ASYNC_MESSAGE_COALESCING_WINDOW);
+  }
+
+  @Test
+  public void exportThreadsDefault() throws Exception {
+    assertThat(cfgSnapshot().getExportThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_EXPORT_THREADS);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.exportThreads", value = "8")
+  public void exportThreadsIsConfigured() throws Exception {
+    assertThat(cfgSnapshot().getExportThreads()).isEqualTo(8);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.exportThreads", value = "invalid")
+  public void exportThreads_invalidConfig() throws Exception {
+    assertThat(cfgSnapshot().getExportThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_EXPORT_THREADS);
+  }
+
+  @Test
+  public void impactReportThreadsDefault() throws Exception {
+    assertThat(cfgSnapshot().getImpactReportThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_IMPACT_REPORT_THREADS);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.impactReportThreads", value = "4")
+  public void impactReportThreadsIsConfigured() throws Exception {
+    assertThat(cfgSnapshot().getImpactReportThreads()).isEqualTo(4);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.impactReportThreads", value = "invalid")
+  public void impactReportThreads_invalidConfig() throws Exception {
+    assertThat(cfgSnapshot().getImpactReportThreads())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_IMPACT_REPORT_THREADS);
+  }
+
+  @Test
+  public void impactReportIsDisabledByDefault() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxImpactReportChanges()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxImpactReportChanges", value = "20")
+  public void impactReportIsEnabled() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxImpactReportChanges()).value().isEqualTo(20);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxImpactReportChanges", value = "invalid")
+  public void maxImpactReportChanges_invalidConfig() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxImpactReportChanges()).isEmpty();
+  }
+
+  @Test
+  public void maxChecksPerBatchCheck_default() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxChecksPerBatchCheck())
+        .value()
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_MAX_CHECKS_PER_BATCH_CHECK);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxChecksPerBatchCheck", value = "50")
+  public void maxChecksPerBatchCheckIsConfigured() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxChecksPerBatchCheck()).value().isEqualTo(50);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxChecksPerBatchCheck", value = "0")
+  public void maxChecksPerBatchCheckIsUnlimited() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxChecksPerBatchCheck()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxChecksPerBatchCheck", value = "invalid")
+  public void maxChecksPerBatchCheck_invalidConfig() throws Exception {
+    OptionalSubject.assertThat(cfgSnapshot().getMaxChecksPerBatchCheck())
+        .value()
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_MAX_CHECKS_PER_BATCH_CHECK);
+  }
+
+  @Test
+  public void maxTrackedLargeBranches_default() throws Exception {
+    assertThat(cfgSnapshot().getMaxTrackedLargeBranches())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_MAX_TRACKED_LARGE_BRANCHES);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxTrackedLargeBranches", value = "3")
+  public void maxTrackedLargeBranchesIsConfigured() throws Exception {
+    assertThat(cfgSnapshot().getMaxTrackedLargeBranches()).isEqualTo(3);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxTrackedLargeBranches", value = "0")
+  public void largeBranchesAreNotTracked() throws Exception {
+    assertThat(cfgSnapshot().getMaxTrackedLargeBranches()).isEqualTo(0);
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.maxTrackedLargeBranches", value = "invalid")
+  public void maxTrackedLargeBranches_invalidConfig() throws Exception {
+    assertThat(cfgSnapshot().getMaxTrackedLargeBranches())
+        .isEqualTo(CodeOwnersPluginGlobalConfigSnapshot.DEFAULT_MAX_TRACKED_LARGE_BRANCHES);
+  }
+
   private CodeOwnersPluginGlobalConfigSnapshot cfgSnapshot() {
     return codeOwnersPluginGlobalConfigSnapshotFactory.create();
   }
@@ -54,6 +54,7 @@ import com.google.gerrit.server.git.validators.CommitValidationMessage;
 import com.google.gerrit.server.git.validators.ValidationMessage;
 import com.google.gerrit.testing.ConfigSuite;
 import com.google.gerrit.truth.OptionalSubject;
+import java.time.Duration;
 import org.eclipse.jgit.lib.Config;
 import org.junit.Before;
 import org.junit.Test;
@@ -208,6 +209,39 @@ public class GeneralConfigTest extends AbstractCodeOwnersTest {
     assertThat(generalConfig.getAllowedEmailDomains()).isEmpty();
   }
 
+  @Test
+  public void noSlowEvaluationThresholdConfigured() throws Exception {
+    OptionalSubject.assertThat(generalConfig.getSlowEvaluationThreshold()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "5s")
+  public void slowEvaluationThresholdConfigured() throws Exception {
+    OptionalSubject.assertThat(generalConfig.getSlowEvaluationThreshold())
+        .value()
+        .isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "500")
+  public void slowEvaluationThresholdWithoutTimeUnitIsInterpretedAsMilliseconds() throws Exception {
+    OptionalSubject.assertThat(generalConfig.getSlowEvaluationThreshold())
+        .value()
+        .isEqualTo(Duration.ofMillis(500));
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "0")
+  public void slowEvaluationThresholdDisabled() throws Exception {
+    OptionalSubject.assertThat(generalConfig.getSlowEvaluationThreshold()).isEmpty();
+  }
+
+  @Test
+  @GerritConfig(name = "plugin.code-owners.slowEvaluationThreshold", value = "invalid")
+  public void invalidSlowEvaluationThresholdIsIgnored() throws Exception {
+    OptionalSubject.assertThat(generalConfig.getSlowEvaluationThreshold()).isEmpty();
+  }
+
   @Test
   public void cannotGetReadOnlyForNullProject() throws Exception {
     NullPointerException npe =
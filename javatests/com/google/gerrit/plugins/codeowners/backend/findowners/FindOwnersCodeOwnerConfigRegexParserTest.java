@@ -0,0 +1,402 @@
+// Copyright (C) 2026 The Android Open Source Project
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.gerrit.plugins.codeowners.backend.findowners;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gerrit.entities.Project;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerAnnotation;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfig;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigImportMode;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigParser;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerConfigReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerReference;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerSet;
+import com.google.gerrit.server.git.ValidationError;
+import com.google.inject.Singleton;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+/**
+ * Runs the tests from {@link FindOwnersCodeOwnerConfigParserTest} against the regex-based parser
+ * from the {@code find-owners} plugin that is kept as reference implementation for the hand-written
+ * parser, and verifies that both parsers behave the same.
+ */
+public class FindOwnersCodeOwnerConfigRegexParserTest extends FindOwnersCodeOwnerConfigParserTest {
+  @Override
+  protected Class<? extends CodeOwnerConfigParser> getCodeOwnerConfigParserClass() {
+    return WithRegexParser.class;
+  }
+
+  @Test
+  public void handWrittenParserBehavesLikeRegexParser() throws Exception {
+    ImmutableList<String> lines =
+        ImmutableList.of(
+            "",
+            " ",
+            "\t",
+            "# comment",
+            "  # comment with leading spaces",
+            "#",
+            "set noparent",
+            "  set \t noparent  # comment",
+            "set noparentfoo",
+            "setnoparent",
+            "set",
+            "noparent",
+            EMAIL_1,
+            "  " + EMAIL_1 + "  ",
+            EMAIL_1 + " # comment #{LAST_RESORT_SUGGESTION} #{} #{foo bar} #{a_B}#{c}",
+            EMAIL_1 + "#{LAST_RESORT_SUGGESTION}",
+            "*",
+            " * # all users #{LAST_RESORT_SUGGESTION}",
+            "*@example.com",
+            "*#foo@example.com",
+            "*#foo@example.com bar",
+            "foo#bar@example.com",
+            "foo@example.com bar",
+            "foo@example.com, bar@example.com",
+            "foo@example#com",
+            "foo@example.com#comment",
+            "@example.com",
+            "admin@",
+            "admin@example@com",
+            "<admin@example.com>",
+            "INVALID",
+            "\u0001foo@example.com\u0001",
+            "per-file foo=" + EMAIL_1,
+            "per-file  foo , bar\t,baz =  "
+                + EMAIL_1
+                + " ,\t"
+                + EMAIL_2
+                + "  # #{LAST_RESORT_SUGGESTION}",
+            "per-file {foo,bar},a[,]b=" + EMAIL_1,
+            "per-file foo=*",
+            "per-file foo=*," + EMAIL_1,
+            "per-file foo=*@example.com",
+            "per-file foo=" + EMAIL_1 + " " + EMAIL_2,
+            "per-file foo=" + EMAIL_1 + ",",
+            "per-file foo=," + EMAIL_1,
+            "per-file foo=" + EMAIL_1 + ",," + EMAIL_2,
+            "per-file foo=" + EMAIL_1 + "=" + EMAIL_2,
+            "per-file foo=set noparent",
+            "per-file foo=set \t noparent # comment",
+            "per-file foo=setnoparent",
+            "per-file foo=file:/bar/OWNERS",
+            "per-file foo=file: project : branch : /bar/OWNERS",
+            "per-file foo=file:project:/bar/OWNERS",
+            "per-file foo=file:a:b:c:d",
+            "per-file foo=file:foo@example.com",
+            "per-file foo=include /bar/OWNERS",
+            "per-file foo=include project:branch:/bar/OWNERS # comment",
+            "per-file foo=includefoo",
+            "per-file foo=",
+            "per-file foo=  ",
+            "per-file foo=  # comment",
+            "per-file foo#bar=" + EMAIL_1,
+            "per-file =" + EMAIL_1,
+            "per-file   =" + EMAIL_1,
+            "per-file foo bar=" + EMAIL_1,
+            "per-file foo,=" + EMAIL_1,
+            "per-filefoo=" + EMAIL_1,
+            "per-file",
+            "per-file foo",
+            "include /bar/OWNERS",
+            "  include  \t /bar/OWNERS  # comment",
+            "include project:/bar/OWNERS",
+            "include project : branch : /bar/OWNERS",
+            "include project:refs/heads/branch:/bar/OWNERS",
+            "include a:b:c:d",
+            "include a#x:b:c:d",
+            "include a#b",
+            "include a:#b",
+            "include a:b:#c",
+            "include #foo",
+            "include",
+            "includefoo",
+            "file:/bar/OWNERS",
+            "file:  project:branch:/bar/OWNERS",
+            "file:foo#bar",
+            "file:",
+            "file: project:");
+
+    for (String line : lines) {
+      assertThatParsersBehaveTheSame(line);
+    }
+    assertThatParsersBehaveTheSame(String.join("\n", lines));
+    assertThatParsersBehaveTheSame(String.join("\r\n", lines));
+    assertThatParsersBehaveTheSame(String.join("\r", lines) + "\r");
+    assertThatParsersBehaveTheSame(
+        EMAIL_1 + "\u000B" + EMAIL_2 + "\f" + EMAIL_3 + "\u0085set noparent\u2028#\u2029\r\n\n");
+  }
+
+  private void assertThatParsersBehaveTheSame(String codeOwnerConfigAsString) {
+    CodeOwnerConfig.Key codeOwnerConfigKey = CodeOwnerConfig.Key.create(project, "master", "/");
+
+    FindOwnersCodeOwnerConfigParser.AbstractParser parser =
+        new FindOwnersCodeOwnerConfigParser.Parser();
+    CodeOwnerConfig codeOwnerConfig =
+        parser.parse(TEST_REVISION, codeOwnerConfigKey, codeOwnerConfigAsString);
+
+    FindOwnersCodeOwnerConfigParser.AbstractParser regexParser =
+        new RegexParser();
+    CodeOwnerConfig expectedCodeOwnerConfig =
+        regexParser.parse(TEST_REVISION, codeOwnerConfigKey, codeOwnerConfigAsString);
+
+    assertWithMessage("parsed code owner config for:\n%s", codeOwnerConfigAsString)
+        .that(codeOwnerConfig)
+        .isEqualTo(expectedCodeOwnerConfig);
+    assertWithMessage("validation errors for:\n%s", codeOwnerConfigAsString)
+        .that(
+            parser.getValidationErrors().stream()
+                .map(ValidationError::getMessage)
+                .collect(toImmutableList()))
+        .containsExactlyElementsIn(
+            regexParser.getValidationErrors().stream()
+                .map(ValidationError::getMessage)
+                .collect(toImmutableList()))
+        .inOrder();
+  }
+
+  /** {@link FindOwnersCodeOwnerConfigParser} that uses the {@link RegexParser}. */
+  @Singleton
+  public static class WithRegexParser extends FindOwnersCodeOwnerConfigParser {
+    @Override
+    FindOwnersCodeOwnerConfigParser.AbstractParser createParser() {
+      return new RegexParser();
+    }
+  }
+
+  /**
+   * Regex-based parser for the {@code find-owners} syntax.
+   *
+   * <p>This is the original parser from the {@code find-owners} plugin. It was replaced by the
+   * hand-written {@link FindOwnersCodeOwnerConfigParser.Parser} that is faster, and is kept as
+   * reference implementation to verify that both parsers behave the same.
+   */
+  static class RegexParser extends FindOwnersCodeOwnerConfigParser.AbstractParser {
+    // Artifical owner token for "set noparent" when used in per-file.
+    private static final String TOK_SET_NOPARENT = "set noparent";
+
+    private static final String LINEBREAK_MATCHER = "\\R";
+
+    private static final String COMMA = "[\\s]*,[\\s]*";
+
+    // Separator for project and file paths in an include line.
+    private static final String COLON = "[\\s]*:[\\s]*"; // project:file
+
+    private static final String BOL = "^[\\s]*"; // begin-of-line
+    private static final String EOL = "[\\s]*(#.*)?$"; // end-of-line
+    private static final String GLOB = "[^\\s,=]+"; // a file glob
+
+    private static final String EMAIL_OR_STAR = "([^\\s<>@,]+@[^\\s<>@#,]+|\\*)";
+    private static final String EMAIL_LIST =
+        "(" + EMAIL_OR_STAR + "(" + COMMA + EMAIL_OR_STAR + ")*)";
+
+    // Optional name of a Gerrit project followed by a colon and optional spaces.
+    private static final String PROJECT_NAME = "([^\\s:]+" + COLON + ")?";
+
+    // Optional name of a branch followed by a colon and optional spaces.
+    private static final String BRANCH_NAME = "([^\\s:]+" + COLON + ")?";
+
+    // A relative or absolute file path name without any colon or space character.
+    private static final String FILE_PATH = "([^\\s:#]+)";
+
+    private static final String PROJECT_BRANCH_AND_FILE = PROJECT_NAME + BRANCH_NAME + FILE_PATH;
+
+    private static final String SET_NOPARENT = "set[\\s]+noparent";
+
+    private static final String FILE_DIRECTIVE = "file:[\\s]*" + PROJECT_BRANCH_AND_FILE;
+    private static final String INCLUDE_DIRECTIVE = "include[\\s]+" + PROJECT_BRANCH_AND_FILE;
+    private static final String INCLUDE_OR_FILE = "(file:[\\s]*|include[\\s]+)";
+
+    // Simple input lines with 0 or 1 sub-pattern.
+    private static final Pattern PAT_COMMENT = Pattern.compile(BOL + EOL);
+    private static final Pattern PAT_EMAIL = Pattern.compile(BOL + EMAIL_OR_STAR + EOL);
+    private static final Pattern PAT_ANNOTATION = Pattern.compile("#\\{([A-Za-z_]+)\\}");
+    private static final Pattern PAT_INCLUDE =
+        Pattern.compile(BOL + INCLUDE_OR_FILE + PROJECT_BRANCH_AND_FILE + EOL);
+    private static final Pattern PAT_NO_PARENT = Pattern.compile(BOL + SET_NOPARENT + EOL);
+
+    private static final Pattern PAT_PER_FILE_OWNERS =
+        Pattern.compile("^(" + EMAIL_LIST + "|" + SET_NOPARENT + "|" + FILE_DIRECTIVE + ")$");
+    private static final Pattern PAT_PER_FILE_INCLUDE =
+        Pattern.compile("^(" + INCLUDE_DIRECTIVE + ")$");
+    private static final Pattern PAT_GLOBS =
+        Pattern.compile("^(" + GLOB + "(" + COMMA + GLOB + ")*)$");
+
+    // PAT_PER_FILE matches a line to two groups: (1) globs, (2) emails
+    // Trimmed 1st group should match PAT_GLOBS;
+    // trimmed 2nd group should match PAT_PER_FILE_OWNERS.
+    private static final Pattern PAT_PER_FILE =
+        Pattern.compile(BOL + "per-file[\\s]+([^=#]+)=[\\s]*([^#]+)" + EOL);
+
+    @Override
+    Iterable<String> splitLines(String codeOwnerConfigAsString) {
+      return Splitter.onPattern(LINEBREAK_MATCHER).split(codeOwnerConfigAsString);
+    }
+
+    @Override
+    CodeOwnerSet parsePerFileLine(String line) {
+      Matcher perFileMatcher = PAT_PER_FILE.matcher(line);
+      if (!perFileMatcher.matches() || !isGlobs(perFileMatcher.group(1).trim())) {
+        return null;
+      }
+
+      String matchedGroup2 = perFileMatcher.group(2).trim();
+      if (!PAT_PER_FILE_OWNERS.matcher(matchedGroup2).matches()) {
+        if (PAT_PER_FILE_INCLUDE.matcher(matchedGroup2).matches()) {
+          error(
+              ValidationError.create(
+                  String.format(
+                      "keyword 'include' is not supported for per file imports: %s", line)));
+
+          // return an empty code owner set to avoid that the line will be reported as invalid once
+          // more
+          return CodeOwnerSet.builder().build();
+        }
+        return null;
+      }
+
+      String[] globsAndOwners =
+          new String[] {
+            removeExtraSpaces(perFileMatcher.group(1)), removeExtraSpaces(perFileMatcher.group(2))
+          };
+      ImmutableSet<String> dirGlobs =
+          FindOwnersCodeOwnerConfigParser.Parser.splitGlobs(globsAndOwners[0]);
+      String directive = globsAndOwners[1];
+      if (directive.equals(TOK_SET_NOPARENT)) {
+        return CodeOwnerSet.builder()
+            .setIgnoreGlobalAndParentCodeOwners()
+            .setPathExpressions(dirGlobs)
+            .build();
+      }
+
+      CodeOwnerConfigReference codeOwnerConfigReference;
+      if ((codeOwnerConfigReference = parseInclude(directive)) != null) {
+        return CodeOwnerSet.builder()
+            .addImport(codeOwnerConfigReference)
+            .setPathExpressions(dirGlobs)
+            .build();
+      }
+
+      List<String> ownerEmails = Arrays.asList(directive.split(COMMA, -1));
+
+      // Get the comment part of the line (the first '#' and everything that follows).
+      String comment = perFileMatcher.group(3);
+      Set<CodeOwnerAnnotation> annotations = new HashSet<>();
+      if (comment != null) {
+        Matcher annotationMatcher = PAT_ANNOTATION.matcher(comment);
+        while (annotationMatcher.find()) {
+          String annotation = annotationMatcher.group(1);
+          annotations.add(CodeOwnerAnnotation.create(annotation));
+        }
+      }
+
+      CodeOwnerSet.Builder codeOwnerSet =
+          CodeOwnerSet.builder()
+              .setPathExpressions(dirGlobs)
+              .setCodeOwners(
+                  ownerEmails.stream().map(CodeOwnerReference::create).collect(toImmutableSet()));
+      ownerEmails.stream()
+          .forEach(
+              email -> codeOwnerSet.addAnnotations(CodeOwnerReference.create(email), annotations));
+      return codeOwnerSet.build();
+    }
+
+    @Override
+    boolean isComment(String line) {
+      return PAT_COMMENT.matcher(line).matches();
+    }
+
+    @Override
+    boolean isNoParent(String line) {
+      return PAT_NO_PARENT.matcher(line).matches();
+    }
+
+    @Override
+    ParsedEmailLine parseEmailLine(String line) {
+      Matcher emailMatcher = PAT_EMAIL.matcher(line);
+      if (!emailMatcher.matches()) {
+        return null;
+      }
+      String email = emailMatcher.group(1).trim();
+      ParsedEmailLine.Builder parsedEmailLine = ParsedEmailLine.builder(email);
+
+      // Get the comment part of the line (the first '#' and everything that follows).
+      String comment = emailMatcher.group(2);
+      if (comment != null) {
+        Matcher annotationMatcher = PAT_ANNOTATION.matcher(comment);
+        while (annotationMatcher.find()) {
+          String annotation = annotationMatcher.group(1);
+          parsedEmailLine.addAnnotation(annotation);
+        }
+      }
+
+      return parsedEmailLine.build();
+    }
+
+    @Override
+    CodeOwnerConfigReference parseInclude(String line) {
+      Matcher m = PAT_INCLUDE.matcher(line);
+      if (!m.matches()) {
+        return null;
+      }
+
+      String keyword = m.group(1).trim();
+      CodeOwnerConfigImportMode importMode =
+          keyword.equals("include")
+              ? CodeOwnerConfigImportMode.ALL
+              : CodeOwnerConfigImportMode.GLOBAL_CODE_OWNER_SETS_ONLY;
+
+      CodeOwnerConfigReference.Builder builder =
+          CodeOwnerConfigReference.builder(importMode, m.group(4).trim());
+
+      String projectName = m.group(2);
+      if (projectName != null && projectName.length() > 1) {
+        // PROJECT_NAME ends with ':'
+        projectName = projectName.split(COLON, -1)[0].trim();
+        builder.setProject(Project.nameKey(projectName));
+
+        String branchName = m.group(3);
+        if (branchName != null && branchName.length() > 1) {
+          // BRANCH_NAME ends with ':'
+          branchName = branchName.split(COLON, -1)[0].trim();
+          builder.setBranch(branchName);
+        }
+      }
+
+      return builder.build();
+    }
+
+    private static boolean isGlobs(String line) {
+      return PAT_GLOBS.matcher(line).matches();
+    }
+
+    private static String removeExtraSpaces(String s) {
+      return s.trim().replaceAll("[\\s]+", " ").replaceAll("[\\s]*:[\\s]*", ":");
+    }
+  }
+}
@@ -31,8 +31,10 @@ import com.google.gerrit.plugins.codeowners.acceptance.AbstractCodeOwnersTest;
 import com.google.gerrit.plugins.codeowners.api.CodeOwnerStatusInfo;
 import com.google.gerrit.plugins.codeowners.api.FileCodeOwnerStatusInfo;
 import com.google.gerrit.plugins.codeowners.api.PathCodeOwnerStatusInfo;
+import com.google.gerrit.plugins.codeowners.backend.CodeOwnerKind;
 import com.google.gerrit.plugins.codeowners.backend.FileCodeOwnerStatus;
 import com.google.gerrit.plugins.codeowners.backend.PathCodeOwnerStatus;
+import com.google.gerrit.plugins.codeowners.backend.PathCodeOwnerStatusReason;
 import com.google.gerrit.plugins.codeowners.common.ChangedFile;
 import com.google.gerrit.plugins.codeowners.common.CodeOwnerStatus;
 import com.google.gerrit.plugins.codeowners.testing.FileCodeOwnerStatusInfoSubject;
@@ -91,6 +93,34 @@ public class CodeOwnerStatusInfoJsonTest extends AbstractCodeOwnersTest {
         .containsExactly("one reason", "another reason");
   }
 
+  @Test
+  public void formatPathCodeOwnerStatusWithStructuredReasons() throws Exception {
+    PathCodeOwnerStatus pathCodeOwnerStatus =
+        PathCodeOwnerStatus.builder(Path.of("/foo/bar.baz"), CodeOwnerStatus.APPROVED)
+            .addReason(
+                PathCodeOwnerStatusReason.approval(
+                    admin.id(), CodeOwnerKind.REGULAR_CODE_OWNER, /* ownedByAllUsers= */ false))
+            .addReason(
+                PathCodeOwnerStatusReason.reviewer(
+                    user.id(), CodeOwnerKind.FALLBACK_CODE_OWNER, /* ownedByAllUsers= */ true))
+            .build();
+    PathCodeOwnerStatusInfo pathCodeOwnerStatusInfo =
+        CodeOwnerStatusInfoJson.format(pathCodeOwnerStatus);
+    assertThat(pathCodeOwnerStatusInfo)
+        .hasReasonsThat()
+        .containsExactly(
+            String.format(
+                "approved by %s who is a %s",
+                AccountTemplateUtil.getAccountTemplate(admin.id()),
+                CodeOwnerKind.REGULAR_CODE_OWNER.getDisplayName()),
+            String.format(
+                "reviewer %s is a %s (all users are %ss)",
+                AccountTemplateUtil.getAccountTemplate(user.id()),
+                CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName(),
+                CodeOwnerKind.FALLBACK_CODE_OWNER.getDisplayName()))
+        .inOrder();
+  }
+
   @Test
   public void cannotFormatNullFileCodeOwnerStatus() throws Exception {
     NullPointerException npe =
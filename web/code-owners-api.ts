@@ -149,6 +149,12 @@ export interface OwnedPathsInfo {
   owned_changed_files?: Array<OwnedChangedFileInfo>;
 }
 
+export interface CodeOwnersSummaryInfo {
+  branch_config: CodeOwnerBranchConfigInfo;
+  status?: CodeOwnerStatusInfo;
+  owned_paths?: OwnedPathsInfo;
+}
+
 function changeBaseURL(change: ChangeInfo): string {
   return `/changes/${encodeURIComponent(change.project)}~${change._number}`;
 }
@@ -210,6 +216,20 @@ export class CodeOwnersApi {
     ) as Promise<OwnedPathsInfo>;
   }
 
+  /**
+   * Returns a promise fetching the code owner summary of the change, which
+   * contains the branch config, the owner statuses for all files and the files
+   * that are owned by the current user or by reviewers.
+   *
+   * @doc
+   * https://gerrit.googlesource.com/plugins/code-owners/+/HEAD/resources/Documentation/rest-api.md#get-code-owners-summary
+   */
+  getSummary(change: ChangeInfo): Promise<CodeOwnersSummaryInfo> {
+    return this.get(
+      `${changeBaseURL(change)}/code_owners.summary`
+    ) as Promise<CodeOwnersSummaryInfo>;
+  }
+
   /**
    * Returns a promise fetching the owners for a given path.
    *
@@ -316,23 +336,48 @@ export class CodeOwnersCacheApi {
     return await this.codeOwnerApi.restApi.getAccount();
   }
 
+  /**
+   * The owner statuses, the owned paths and the branch config are all taken
+   * from the summary, so that they are computed by a single request.
+   */
+  private getSummary(): Promise<CodeOwnersSummaryInfo> {
+    return this.fetchOnce('getSummary', () =>
+      this.codeOwnerApi.getSummary(this.change)
+    ) as Promise<CodeOwnersSummaryInfo>;
+  }
+
   listOwnerStatus(): Promise<CodeOwnerStatusInfo> {
-    return this.fetchOnce('listOwnerStatus', () =>
-      this.codeOwnerApi.listOwnerStatus(this.change)
-    ) as Promise<CodeOwnerStatusInfo>;
+    return this.fetchOnce('listOwnerStatus', async () => {
+      const summary = await this.getSummary();
+      // The status is only missing if code owners are disabled for the branch,
+      // in this case the owner status is not requested.
+      return summary.status ?? this.codeOwnerApi.listOwnerStatus(this.change);
+    }) as Promise<CodeOwnerStatusInfo>;
   }
 
   async listOwnedPaths(): Promise<OwnedPathsInfo | undefined> {
     const account = await this.getAccount();
     if (!account) return undefined;
-    return this.fetchOnce('listOwnedPaths', () =>
-      this.codeOwnerApi.listOwnedPaths(this.change, account)
+    return this.fetchOnce(
+      'listOwnedPaths',
+      async () => (await this.getSummary()).owned_paths
     ) as Promise<OwnedPathsInfo | undefined>;
   }
 
-  getBranchConfig(): Promise<CodeOwnerBranchConfigInfo> {
-    return this.fetchOnce('getBranchConfig', () =>
-      this.codeOwnerApi.getBranchConfig(this.change.project, this.change.branch)
-    ) as Promise<CodeOwnerBranchConfigInfo>;
+  /**
+   * Returns the branch config.
+   *
+   * @param useSummary whether the branch config should be taken from the
+   * summary, should be false if the owner statuses are not needed (e.g. for
+   * closed changes) to avoid computing them
+   */
+  getBranchConfig(useSummary: boolean): Promise<CodeOwnerBranchConfigInfo> {
+    return this.fetchOnce('getBranchConfig', async () => {
+      if (useSummary) return (await this.getSummary()).branch_config;
+      return this.codeOwnerApi.getBranchConfig(
+        this.change.project,
+        this.change.branch
+      );
+    }) as Promise<CodeOwnerBranchConfigInfo>;
   }
 }
@@ -363,14 +363,22 @@ export class CodeOwnerService {
   }
 
   async getBranchConfig() {
-    return this.codeOwnersCacheApi.getBranchConfig();
+    // For closed changes the owner statuses are not needed, hence only the
+    // branch config is fetched rather than the summary.
+    return this.codeOwnersCacheApi.getBranchConfig(
+      /* useSummary= */ !this.isChangeClosed()
+    );
   }
 
-  async isCodeOwnerEnabled() {
-    if (
+  private isChangeClosed() {
+    return (
       this.change.status === ChangeStatus.ABANDONED ||
       this.change.status === ChangeStatus.MERGED
-    ) {
+    );
+  }
+
+  async isCodeOwnerEnabled() {
+    if (this.isChangeClosed()) {
       return false;
     }
     const config = await this.getBranchConfig();
@@ -120,11 +120,11 @@ suite('code owners service tests', () => {
       getApiStub
         .withArgs(
           sinon.match.any,
-          `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.status?limit=100000`,
+          `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.summary`,
           sinon.match.any,
           sinon.match.any
         )
-        .returns(Promise.resolve(fakeStatus));
+        .returns(Promise.resolve({branch_config: {}, status: fakeStatus}));
       codeOwnersService = CodeOwnerService.getOwnerService(fakeRestApi, {
         ...fakeChange,
       });
@@ -145,16 +145,16 @@ suite('code owners service tests', () => {
       );
     });
 
-    test('should fetch status after init', () => {
-      assert.isTrue(getApiStub.called);
+    test('should fetch summary after init', () => {
+      assert.isTrue(getApiStub.calledOnce);
       assert.equal(
         getApiStub.lastCall.args[1],
-        `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.status?limit=100000`
+        `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.summary`
       );
     });
 
     test('getSuggestion should kickoff the fetch', async () => {
-      assert.equal(getApiStub.callCount, 2);
+      assert.equal(getApiStub.callCount, 1);
       getApiStub.resetHistory();
       await codeOwnersService.getSuggestedOwners(
         SuggestionsType.ALL_SUGGESTIONS
@@ -170,41 +170,50 @@ suite('code owners service tests', () => {
   });
 
   suite('getOwnedPaths', () => {
-    async function setupBranchConfig(disabled: boolean | undefined) {
+    const fakeOwnedPaths = {
+      owned_changed_files: [{new_path: {path: 'a.js', owned: true}}],
+    };
+
+    async function setupSummary(disabled: boolean | undefined) {
       getApiStub
         .withArgs(
           sinon.match.any,
-          `/projects/${fakeChange.project}/branches/` +
-            `${fakeChange.branch}/code_owners.branch_config`,
+          `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.summary`,
           sinon.match.any,
           sinon.match.any
         )
-        .returns(Promise.resolve({disabled}));
+        .returns(
+          Promise.resolve({
+            branch_config: {disabled},
+            status: disabled ? undefined : fakeStatus,
+            owned_paths: disabled ? undefined : fakeOwnedPaths,
+          })
+        );
       codeOwnersService = CodeOwnerService.getOwnerService(fakeRestApi, {
         ...fakeChange,
       });
       await flush();
       getApiStub.resetHistory();
     }
-    test('should not fetch if disabled', async () => {
-      await setupBranchConfig(true);
+    test('should not return owned paths if disabled', async () => {
+      await setupSummary(true);
 
-      await codeOwnersService.getOwnedPaths();
+      assert.isUndefined(await codeOwnersService.getOwnedPaths());
       assert.equal(getApiStub.callCount, 0);
     });
 
-    test('should fetch if enabled', async () => {
-      await setupBranchConfig(false);
+    test('should return owned paths if enabled', async () => {
+      await setupSummary(false);
 
-      await codeOwnersService.getOwnedPaths();
-      assert.equal(getApiStub.callCount, 1);
+      assert.deepEqual(await codeOwnersService.getOwnedPaths(), fakeOwnedPaths);
+      assert.equal(getApiStub.callCount, 0);
     });
 
-    test('should fetch if enabled by default', async () => {
-      await setupBranchConfig(undefined);
+    test('should return owned paths if enabled by default', async () => {
+      await setupSummary(undefined);
 
-      await codeOwnersService.getOwnedPaths();
-      assert.equal(getApiStub.callCount, 1);
+      assert.deepEqual(await codeOwnersService.getOwnedPaths(), fakeOwnedPaths);
+      assert.equal(getApiStub.callCount, 0);
     });
   });
 
@@ -213,35 +222,38 @@ suite('code owners service tests', () => {
       getApiStub
         .withArgs(
           sinon.match.any,
-          `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.status?limit=100000`,
+          `/changes/${fakeChange.project}~${fakeChange._number}/code_owners.summary`,
           sinon.match.any,
           sinon.match.any
         )
         .returns(
           Promise.resolve({
-            // fake data with fake files
-            patch_set_number: 1,
-            file_code_owner_statuses: [
-              {
-                new_path_status: {
-                  path: 'a.js',
-                  status: 'APPROVED',
+            branch_config: {},
+            status: {
+              // fake data with fake files
+              patch_set_number: 1,
+              file_code_owner_statuses: [
+                {
+                  new_path_status: {
+                    path: 'a.js',
+                    status: 'APPROVED',
+                  },
                 },
-              },
-              {
-                new_path_status: {
-                  path: 'b.js',
-                  status: 'APPROVED',
+                {
+                  new_path_status: {
+                    path: 'b.js',
+                    status: 'APPROVED',
+                  },
                 },
-              },
-              {
-                old_path_status: {
-                  path: 'd.js',
-                  status: 'APPROVED',
+                {
+                  old_path_status: {
+                    path: 'd.js',
+                    status: 'APPROVED',
+                  },
+                  change_type: 'DELETED',
                 },
-                change_type: 'DELETED',
-              },
-            ],
+              ],
+            },
           })
         );
 